@@ -0,0 +1,48 @@
+package net.thatapex.chesssite.bench;
+
+import net.thatapex.chesssite.chess.book.OpeningBookBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds an opening book from PGN files and reports the time taken.
+ * <p>
+ * The first argument is the book file to write, the second one the least number of games of a written move,
+ * the remaining ones the PGN files, for example {@code book.csob 2 games1.pgn games2.pgn}.
+ * The files are decoded as ISO-8859-1, the encoding of the PGN standard, which reads the moves of UTF-8 files just as well.
+ */
+public final class OpeningBookBuilderRunner {
+
+    private OpeningBookBuilderRunner() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: OpeningBookBuilderRunner <book> <min-weight> <pgn>...");
+            return;
+        }
+
+        final long               start     = System.nanoTime();
+        final OpeningBookBuilder builder   = new OpeningBookBuilder(OpeningBookBuilder.DEFAULT_MAX_PLIES);
+        final int                minWeight = Integer.parseInt(args[1]);
+
+        for (int i = 2; i < args.length; i++) {
+            try (final Reader reader = Files.newBufferedReader(Paths.get(args[i]), StandardCharsets.ISO_8859_1)) {
+                System.out.printf("%s: %,d games%n", args[i], builder.addPgn(reader));
+            }
+        }
+
+        final Path book    = Paths.get(args[0]);
+        final int  records = builder.write(book, minWeight);
+
+        System.out.printf("%,d games (%,d invalid), %,d positions, %,d moves written to %s in %,d ms%n", builder.getGameCount(),
+                          builder.getInvalidGameCount(), builder.getPositionCount(), records, book,
+                          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
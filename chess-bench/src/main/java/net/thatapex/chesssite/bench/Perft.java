@@ -0,0 +1,70 @@
+package net.thatapex.chesssite.bench;
+
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Counts the leaf nodes of the legal move tree of a position (performance test, move path enumeration).
+ * <p>
+ * The numbers are compared against well known reference values to verify the move generation, and the time it takes measures its speed.
+ * <p>
+ * The moves are made and taken back in place and every ply writes its moves into a single buffer, after the moves of the previous ply,
+ * so the boards are never copied and no buffers are allocated during the enumeration.
+ * An instance must not be shared between threads.
+ */
+public class Perft {
+    private final MoveGenerator generator = new MoveGenerator();
+    private final int           maximumDepth;
+    private final int[]         moves;
+
+    /**
+     * Constructs a new perft, able to enumerate trees up to the given depth.
+     *
+     * @param maximumDepth maximum depth of the enumerated trees
+     */
+    public Perft(final int maximumDepth) {
+        Validate.isTrue(maximumDepth > 0, "maximum depth must be positive");
+
+        this.maximumDepth = maximumDepth;
+        this.moves        = new int[maximumDepth * MoveGenerator.MAX_MOVES];
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree of the given depth.
+     * <p>
+     * The moves are made and taken back on the given board, which ends up in its original state.
+     *
+     * @param board the board state
+     * @param depth depth of the tree
+     * @return number of the leaf nodes
+     */
+    public long countNodes(final MutableChessBoard board, final int depth) {
+        Validate.inclusiveBetween(0, this.maximumDepth, depth, "depth must be between 0 and " + this.maximumDepth);
+
+        if (depth == 0) {
+            return 1;
+        }
+
+        return this.countNodes(board, depth, 0);
+    }
+
+    private long countNodes(final MutableChessBoard board, final int depth, final int offset) {
+        final int count = this.generator.generateLegalMoves(board, board.getSideToMove(), this.moves, offset);
+
+        // the leaves do not have to be visited, only counted
+        if (depth == 1) {
+            return count;
+        }
+
+        long nodes = 0;
+
+        for (int i = offset; i < offset + count; i++) {
+            board.makeMove(this.moves[i]);
+            nodes += this.countNodes(board, depth - 1, offset + count);
+            board.unmakeMove();
+        }
+
+        return nodes;
+    }
+}
@@ -0,0 +1,71 @@
+package net.thatapex.chesssite.bench;
+
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the speed of move generation by running perft on the standard positions.
+ * <p>
+ * Besides the time of a single perft, the {@code nodes} counter reports the number of leaf nodes per second.
+ * Run with {@code java -jar chess-bench/target/benchmarks.jar PerftBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PerftBenchmark {
+
+    @Param({"START", "KIWIPETE", "POSITION_3", "POSITION_4", "POSITION_5", "POSITION_6"})
+    private PerftPosition position;
+
+    @Param({"DEFAULT", "BITBOARD"})
+    private ChessBoardImplementation implementation;
+
+    @Param({"3"})
+    private int depth;
+
+    private MutableChessBoard board;
+    private Perft             perft;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.board = this.implementation.createBoard();
+        this.perft = new Perft(this.depth);
+
+        this.position.setup(this.board);
+    }
+
+    @Benchmark
+    public long perft(final NodeCounter counter) {
+        final long nodes = this.perft.countNodes(this.board, this.depth);
+        counter.nodes += nodes;
+
+        return nodes;
+    }
+
+    /**
+     * Counts the visited leaf nodes, JMH reports them as a throughput.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class NodeCounter {
+        public long nodes;
+    }
+}
@@ -0,0 +1,58 @@
+package net.thatapex.chesssite.bench;
+
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+
+/**
+ * Well-known perft test positions, together with their reference node counts.
+ *
+ * @see <a href="https://www.chessprogramming.org/Perft_Results">Perft Results</a>
+ */
+public enum PerftPosition {
+    START("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -", 20, 400, 8_902, 197_281, 4_865_609),
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -", 48, 2_039, 97_862, 4_085_603),
+    POSITION_3("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -", 14, 191, 2_812, 43_238, 674_624),
+    POSITION_4("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq -", 6, 264, 9_467, 422_333),
+    POSITION_5("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ -", 44, 1_486, 62_379, 2_103_487),
+    POSITION_6("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - -", 46, 2_079, 89_890, 3_894_594);
+
+    private final String fen;
+    private final long[] nodeCounts;
+
+    PerftPosition(final String fen, final long... nodeCounts) {
+        this.fen        = fen;
+        this.nodeCounts = nodeCounts;
+    }
+
+    public String getFen() {
+        return this.fen;
+    }
+
+    /**
+     * Returns the deepest depth with a known reference node count.
+     *
+     * @return the maximum depth
+     */
+    public int getMaximumDepth() {
+        return this.nodeCounts.length;
+    }
+
+    /**
+     * Returns the reference node count at the given depth.
+     *
+     * @param depth depth of the perft, from 1 to {@link #getMaximumDepth()}
+     * @return the expected number of leaf nodes
+     */
+    public long getNodeCount(final int depth) {
+        return this.nodeCounts[depth - 1];
+    }
+
+    /**
+     * Resets the board and sets up this position on it.
+     *
+     * @param board board to be set up
+     */
+    public void setup(final MutableChessBoard board) {
+        FenCodec.decode(this.fen, board);
+    }
+}
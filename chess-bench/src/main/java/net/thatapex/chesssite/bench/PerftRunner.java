@@ -0,0 +1,46 @@
+package net.thatapex.chesssite.bench;
+
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+
+/**
+ * Runs perft on all standard positions and board implementations, verifying the node counts and reporting the number of nodes per second.
+ * <p>
+ * The only argument is the maximum depth (default 4), positions with fewer known node counts are verified up to their deepest known one.
+ * The process exits with a non-zero status if any node count does not match, so it can be used as a regression gate.
+ */
+public final class PerftRunner {
+    private static final int DEFAULT_DEPTH = 4;
+
+    private PerftRunner() {
+    }
+
+    public static void main(final String[] args) {
+        final int maximumDepth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        boolean   failed       = false;
+
+        for (final ChessBoardImplementation implementation : ChessBoardImplementation.values()) {
+            for (final PerftPosition position : PerftPosition.values()) {
+                final int               depth = Math.min(maximumDepth, position.getMaximumDepth());
+                final MutableChessBoard board = implementation.createBoard();
+
+                position.setup(board);
+
+                final long start    = System.nanoTime();
+                final long nodes    = new Perft(depth).countNodes(board, depth);
+                final long elapsed  = System.nanoTime() - start;
+                final long expected = position.getNodeCount(depth);
+
+                System.out.printf("%-9s %-10s depth %d: %,12d nodes in %,8d ms, %,12d nodes/s%s%n",
+                        implementation, position, depth, nodes, elapsed / 1_000_000, nodes * 1_000_000_000L / Math.max(elapsed, 1),
+                        nodes == expected ? "" : String.format(" MISMATCH, expected %,d", expected));
+
+                failed |= nodes != expected;
+            }
+        }
+
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
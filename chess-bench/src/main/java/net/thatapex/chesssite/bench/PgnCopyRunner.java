@@ -0,0 +1,74 @@
+package net.thatapex.chesssite.bench;
+
+import net.thatapex.chesssite.chess.pgn.PgnGame;
+import net.thatapex.chesssite.chess.pgn.PgnReader;
+import net.thatapex.chesssite.chess.pgn.PgnWriter;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the games of PGN files and writes the valid ones to a single PGN file, reporting the number of games per second.
+ * <p>
+ * The first argument is the file to write, the remaining ones the PGN files to read, for example {@code out.pgn games1.pgn games2.pgn}.
+ * Both are read and written as ISO-8859-1, which copies the tags of UTF-8 files unchanged too.
+ */
+public final class PgnCopyRunner {
+
+    private PgnCopyRunner() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: PgnCopyRunner <output> <pgn>...");
+            return;
+        }
+
+        final long start   = System.nanoTime();
+        int        games   = 0;
+        int        invalid = 0;
+        long       plies   = 0;
+
+        try (final PgnWriter writer = new PgnWriter(FileChannel.open(Paths.get(args[0]), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                                     StandardOpenOption.TRUNCATE_EXISTING), StandardCharsets.ISO_8859_1)) {
+            for (int i = 1; i < args.length; i++) {
+                final Path path = Paths.get(args[i]);
+
+                try (final PgnReader reader = new PgnReader(FileChannel.open(path, StandardOpenOption.READ), StandardCharsets.ISO_8859_1)) {
+                    while (true) {
+                        final Optional<PgnGame> game;
+
+                        try {
+                            game = reader.readGame();
+                        } catch (final IllegalArgumentException e) {
+                            System.err.printf("%s: %s%n", path, e.getMessage());
+                            continue;
+                        }
+
+                        if (game.isEmpty()) {
+                            break;
+                        }
+
+                        writer.writeGame(game.get());
+                        plies += game.get().getMoveCount();
+                    }
+
+                    System.out.printf("%s: %,d games (%,d invalid)%n", path, reader.getGameCount(), reader.getInvalidGameCount());
+                    games   += reader.getGameCount();
+                    invalid += reader.getInvalidGameCount();
+                }
+            }
+        }
+
+        final long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        System.out.printf("%,d games (%,d invalid), %,d moves copied in %,d ms, %,d games/s%n", games, invalid, plies, millis,
+                          games * 1000L / millis);
+    }
+}
@@ -0,0 +1,85 @@
+package net.thatapex.chesssite.bench;
+
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.codec.BinaryCodec;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the speed of the binary position codec with the FEN codec, in both directions.
+ * <p>
+ * Run with {@code java -jar chess-bench/target/benchmarks.jar PositionCodecBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PositionCodecBenchmark {
+
+    @Param({"START", "KIWIPETE", "POSITION_3"})
+    private PerftPosition position;
+
+    @Param({"DEFAULT", "BITBOARD"})
+    private ChessBoardImplementation implementation;
+
+    private MutableChessBoard board;
+    private ByteBuffer        buffer;
+    private StringBuilder     builder;
+    private byte[]            binary;
+    private String            fen;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.board   = this.implementation.createBoard();
+        this.buffer  = ByteBuffer.allocate(BinaryCodec.MAX_ENCODED_SIZE);
+        this.builder = new StringBuilder();
+
+        this.position.setup(this.board);
+
+        this.binary = BinaryCodec.encode(this.board);
+        this.fen    = FenCodec.encode(this.board);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeBinary() {
+        this.buffer.clear();
+        BinaryCodec.encode(this.board, this.buffer);
+        return this.buffer;
+    }
+
+    @Benchmark
+    public StringBuilder encodeFen() {
+        this.builder.setLength(0);
+        FenCodec.encode(this.board, this.builder);
+        return this.builder;
+    }
+
+    @Benchmark
+    public MutableChessBoard decodeBinary() {
+        BinaryCodec.decode(this.binary, this.board);
+        return this.board;
+    }
+
+    @Benchmark
+    public MutableChessBoard decodeFen() {
+        FenCodec.decode(this.fen, this.board);
+        return this.board;
+    }
+}
@@ -0,0 +1,74 @@
+package net.thatapex.chesssite.bench;
+
+import net.thatapex.chesssite.chess.board.BitboardChessBoard;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.engine.SearchEngine;
+import net.thatapex.chesssite.engine.SearchLimits;
+import net.thatapex.chesssite.engine.SearchResult;
+import net.thatapex.chesssite.engine.TranspositionTable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the number of searched nodes per second scales with the number of search threads, by searching all standard positions
+ * for a fixed time with 1, 2, 4 and so on up to the maximum number of threads.
+ * <p>
+ * The first argument is the maximum number of threads (default: the number of available processors),
+ * the second one the search time per position in milliseconds (default 2000).
+ * The transposition table is cleared before every search, so that every thread count starts from the same state.
+ */
+public final class SearchScalingRunner {
+    private static final long DEFAULT_TIME_MILLIS    = 2000;
+    private static final int  TABLE_SIZE_MEGABYTES   = 64;
+    private static final long NANOSECONDS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private SearchScalingRunner() {
+    }
+
+    public static void main(final String[] args) {
+        final int  maximumThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        final long timeMillis     = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_TIME_MILLIS;
+
+        final TranspositionTable table             = new TranspositionTable(TABLE_SIZE_MEGABYTES);
+        long                     singleThreadSpeed = 0;
+        int                      threads           = 1;
+
+        while (true) {
+            long nodes   = 0;
+            long elapsed = 0;
+            int  depth   = 0;
+
+            try (final SearchEngine engine = new SearchEngine(table, threads)) {
+                for (final PerftPosition position : PerftPosition.values()) {
+                    final MutableChessBoard board = new BitboardChessBoard();
+
+                    position.setup(board);
+                    table.clear();
+
+                    final long         start  = System.nanoTime();
+                    final SearchResult result = engine.search(board, SearchLimits.ofTime(timeMillis, TimeUnit.MILLISECONDS));
+
+                    elapsed += System.nanoTime() - start;
+                    nodes   += result.getNodes();
+                    depth   += result.getDepth();
+                }
+            }
+
+            final long speed = nodes * NANOSECONDS_PER_SECOND / Math.max(elapsed, 1);
+
+            if (threads == 1) {
+                singleThreadSpeed = speed;
+            }
+
+            System.out.printf("%3d threads: %,14d nodes in %,8d ms, %,12d nodes/s, speedup %5.2f, average depth %4.1f%n",
+                    threads, nodes, elapsed / 1_000_000, speed, (double) speed / Math.max(singleThreadSpeed, 1),
+                    (double) depth / PerftPosition.values().length);
+
+            if (threads >= maximumThreads) {
+                break;
+            }
+
+            threads = Math.min(threads * 2, maximumThreads);
+        }
+    }
+}
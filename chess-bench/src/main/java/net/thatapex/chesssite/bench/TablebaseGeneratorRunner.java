@@ -0,0 +1,43 @@
+package net.thatapex.chesssite.bench;
+
+import net.thatapex.chesssite.chess.tablebase.Material;
+import net.thatapex.chesssite.chess.tablebase.TablebaseGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates endgame tablebase files and reports the time taken.
+ * <p>
+ * The first argument is the directory to write the files to (created if missing), the remaining ones the materials to generate,
+ * for example {@code KQvK KRvK KPvK} (default: all materials with 3 pieces). The materials reachable from them are generated too.
+ */
+public final class TablebaseGeneratorRunner {
+    private static final String[] DEFAULT_MATERIALS = {"KQvK", "KRvK", "KBvK", "KNvK", "KPvK"};
+
+    private TablebaseGeneratorRunner() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final Path     directory = Paths.get(args.length > 0 ? args[0] : "tablebases");
+        final String[] materials = args.length > 1 ? Arrays.copyOfRange(args, 1, args.length) : DEFAULT_MATERIALS;
+
+        Files.createDirectories(directory);
+
+        final TablebaseGenerator generator = new TablebaseGenerator(directory);
+
+        for (final String name : materials) {
+            final long start = System.nanoTime();
+
+            generator.generate(Material.parse(name));
+
+            System.out.printf("%-8s generated in %,8d ms%n", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+
+        System.out.println("Generated: " + generator.getGeneratedMaterials());
+    }
+}
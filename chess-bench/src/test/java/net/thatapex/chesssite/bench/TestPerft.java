@@ -0,0 +1,29 @@
+package net.thatapex.chesssite.bench;
+
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class TestPerft {
+    private static final int DEPTH = 3;
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testNodeCounts(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
+        final Perft             perft = new Perft(DEPTH);
+
+        for (final PerftPosition position : PerftPosition.values()) {
+            position.setup(board);
+
+            for (int depth = 1; depth <= DEPTH; depth++) {
+                assertThat(position + " at depth " + depth, perft.countNodes(board, depth), is(equalTo(position.getNodeCount(depth))));
+            }
+        }
+    }
+}
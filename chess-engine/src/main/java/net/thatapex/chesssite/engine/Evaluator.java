@@ -0,0 +1,383 @@
+package net.thatapex.chesssite.engine;
+
+import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.PieceListener;
+import net.thatapex.chesssite.chess.board.ZobristKeys;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.pieces.ChessPiece;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+import net.thatapex.chesssite.chess.pieces.ChessPieces;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A tapered evaluation of the material and the placement of the pieces, kept up to date incrementally.
+ * <p>
+ * Every piece is worth its material value (see {@link ChessPieceType#getSymbolicalMaterialValue()}) plus a bonus for its square,
+ * from a piece-square table for the middlegame and one for the endgame. The two scores are blended by the game phase,
+ * computed from the remaining knights, bishops, rooks and queens, so that for example the king is kept safe in the middlegame
+ * but centralized in the endgame. The pawn structure is evaluated separately, see {@link PawnStructure}, and cached in a {@link PawnHashTable}
+ * if the evaluator has one, under the pawn key maintained by the evaluator.
+ * <p>
+ * Once attached to a board, see {@link #attach(MutableChessBoard)}, the evaluator is notified about every piece put on or removed from the board
+ * and updates its scores with a few table lookups, so making a move costs the same whatever the number of pieces,
+ * and {@link #evaluate()} only blends two numbers.
+ */
+public final class Evaluator implements PieceListener {
+
+    /**
+     * The game phase of the starting position and of every position with at least as many pieces, the endgame is phase 0.
+     */
+    public static final int MAX_PHASE = 24;
+
+    private static final int CENTIPAWNS_PER_PAWN = 100;
+    private static final int PAWN_ORDINAL        = ChessPieceType.PAWN.getOrdinal();
+
+    // the tables are laid out as seen from white, rank 8 first, and mirrored for black
+
+    private static final int[] PAWN_MIDGAME = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             10,  10,  20,  30,  30,  20,  10,  10,
+              5,   5,  10,  25,  25,  10,   5,   5,
+              0,   0,   0,  20,  20,   0,   0,   0,
+              5,  -5, -10,   0,   0, -10,  -5,   5,
+              5,  10,  10, -20, -20,  10,  10,   5,
+              0,   0,   0,   0,   0,   0,   0,   0
+    };
+
+    private static final int[] PAWN_ENDGAME = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             80,  80,  80,  80,  80,  80,  80,  80,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             30,  30,  30,  30,  30,  30,  30,  30,
+             20,  20,  20,  20,  20,  20,  20,  20,
+             10,  10,  10,  10,  10,  10,  10,  10,
+              0,   0,   0,   0,   0,   0,   0,   0,
+              0,   0,   0,   0,   0,   0,   0,   0
+    };
+
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] ROOK = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+              5,  10,  10,  10,  10,  10,  10,   5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+              0,   0,   0,   5,   5,   0,   0,   0
+    };
+
+    private static final int[] QUEEN = {
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+              0,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20
+    };
+
+    private static final int[] KING_MIDGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20
+    };
+
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10,   0,   0, -10, -20, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -30,   0,   0,   0,   0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    /**
+     * Material and square values of every piece code and square, indexed by {@code code * 64 + square}, negative for black pieces.
+     */
+    private static final int[] MIDGAME_VALUES = new int[ChessPieces.CODE_COUNT * ChessSquare.SQUARE_COUNT];
+    private static final int[] ENDGAME_VALUES = new int[ChessPieces.CODE_COUNT * ChessSquare.SQUARE_COUNT];
+    private static final int[] PHASE_WEIGHTS  = new int[ChessPieces.CODE_COUNT];
+
+    static {
+        for (final ChessPieceType<?> type : ChessPieceType.values()) {
+            final int[] midgame = getMidgameTable(type);
+            final int[] endgame = getEndgameTable(type);
+            final int   value   = type.getSymbolicalMaterialValue() * CENTIPAWNS_PER_PAWN;
+
+            for (final ChessPieceColor color : ChessPieceColor.values()) {
+                final int code = ChessPieces.getCode(type, color);
+                final int sign = color == ChessPieceColor.WHITE ? 1 : -1;
+
+                for (int square = 0; square < ChessSquare.SQUARE_COUNT; square++) {
+                    // the tables start with rank 8, which is the last rank for white and the first one for black
+                    final int tableIndex = color == ChessPieceColor.WHITE ? square ^ (ChessSquare.SQUARE_COUNT - ChessSquare.FILE_COUNT) : square;
+
+                    MIDGAME_VALUES[code * ChessSquare.SQUARE_COUNT + square] = sign * (value + midgame[tableIndex]);
+                    ENDGAME_VALUES[code * ChessSquare.SQUARE_COUNT + square] = sign * (value + endgame[tableIndex]);
+                }
+
+                PHASE_WEIGHTS[code] = getPhaseWeight(type);
+            }
+        }
+    }
+
+    private final PawnHashTable pawnTable;
+    private final long[]        pawns = new long[ChessPieceColor.values().length];
+    private       long          pawnKey;
+    private       int           midgameScore;
+    private       int           endgameScore;
+    private       int           phase;
+
+    /**
+     * Creates an evaluator of an empty board, evaluating the pawn structure every time.
+     */
+    public Evaluator() {
+        this.pawnTable = null;
+    }
+
+    /**
+     * Creates an evaluator of an empty board, caching the evaluation of the pawn structure.
+     *
+     * @param pawnTable the pawn hash table
+     */
+    public Evaluator(final PawnHashTable pawnTable) {
+        this.pawnTable = pawnTable;
+    }
+
+    /**
+     * Creates an evaluator of the position, which is not kept up to date with the board.
+     *
+     * @param position the position to evaluate
+     */
+    public Evaluator(final ChessBoard position) {
+        this();
+        this.reset(position);
+    }
+
+    /**
+     * Evaluates the position of the board and keeps the evaluation up to date with every later change of the board,
+     * replacing any other piece listener of the board.
+     *
+     * @param board the board
+     */
+    public void attach(final MutableChessBoard board) {
+        this.reset(board);
+        board.setPieceListener(this);
+    }
+
+    /**
+     * Evaluates a position from scratch.
+     *
+     * @param position the position
+     */
+    public void reset(final ChessBoard position) {
+        final List<ChessPiece<?>> pieces = position.asPieceList();
+
+        Arrays.fill(this.pawns, 0L);
+        this.pawnKey      = 0L;
+        this.midgameScore = 0;
+        this.endgameScore = 0;
+        this.phase        = 0;
+
+        for (int index = 0; index < pieces.size(); index++) {
+            final ChessPiece<?> piece = pieces.get(index);
+
+            if (piece != null) {
+                this.pieceAdded(piece, index);
+            }
+        }
+    }
+
+    @Override
+    public void pieceAdded(final ChessPiece<?> piece, final int index) {
+        final int code = piece.getCode();
+
+        this.midgameScore += MIDGAME_VALUES[code * ChessSquare.SQUARE_COUNT + index];
+        this.endgameScore += ENDGAME_VALUES[code * ChessSquare.SQUARE_COUNT + index];
+        this.phase        += PHASE_WEIGHTS[code];
+
+        if (piece.getTypeOrdinal() == PAWN_ORDINAL) {
+            this.togglePawn(piece.getColor(), index);
+        }
+    }
+
+    @Override
+    public void pieceRemoved(final ChessPiece<?> piece, final int index) {
+        final int code = piece.getCode();
+
+        this.midgameScore -= MIDGAME_VALUES[code * ChessSquare.SQUARE_COUNT + index];
+        this.endgameScore -= ENDGAME_VALUES[code * ChessSquare.SQUARE_COUNT + index];
+        this.phase        -= PHASE_WEIGHTS[code];
+
+        if (piece.getTypeOrdinal() == PAWN_ORDINAL) {
+            this.togglePawn(piece.getColor(), index);
+        }
+    }
+
+    /**
+     * Returns the score of the position, the material, piece-square and pawn structure scores, blending the middlegame and the endgame scores by the game phase.
+     *
+     * @return the score in centipawns, positive if white is better
+     */
+    public int evaluate() {
+        final int  phase        = Math.min(this.phase, MAX_PHASE);
+        final long whitePawns   = this.pawns[ChessPieceColor.WHITE.ordinal()];
+        final long blackPawns   = this.pawns[ChessPieceColor.BLACK.ordinal()];
+        int        midgameScore = this.midgameScore;
+        int        endgameScore = this.endgameScore;
+
+        if (this.pawnTable != null) {
+            final int entry = this.pawnTable.probe(this.pawnKey, whitePawns, blackPawns);
+
+            midgameScore += this.pawnTable.getMidgameScore(entry);
+            endgameScore += this.pawnTable.getEndgameScore(entry);
+        } else {
+            final int structure = PawnStructure.evaluate(whitePawns, blackPawns);
+
+            midgameScore += PawnStructure.getMidgameScore(structure);
+            endgameScore += PawnStructure.getEndgameScore(structure);
+        }
+
+        return (midgameScore * phase + endgameScore * (MAX_PHASE - phase)) / MAX_PHASE;
+    }
+
+    /**
+     * Returns the score of the position from the point of view of a player.
+     *
+     * @param color color of the player
+     * @return the score in centipawns, positive if the player is better
+     */
+    public int evaluate(final ChessPieceColor color) {
+        return color == ChessPieceColor.WHITE ? this.evaluate() : -this.evaluate();
+    }
+
+    /**
+     * Returns the passed pawns of both colors.
+     *
+     * @return bitboard of the passed pawns
+     */
+    public long getPassedPawns() {
+        final long whitePawns = this.pawns[ChessPieceColor.WHITE.ordinal()];
+        final long blackPawns = this.pawns[ChessPieceColor.BLACK.ordinal()];
+
+        if (this.pawnTable != null) {
+            return this.pawnTable.getPassedPawns(this.pawnTable.probe(this.pawnKey, whitePawns, blackPawns));
+        }
+
+        return PawnStructure.getPassedPawns(whitePawns, blackPawns);
+    }
+
+    /**
+     * Returns the key of the pawns of the position, see {@link ZobristKeys#computePawnKey(ChessBoard)}.
+     *
+     * @return the pawn key
+     */
+    public long getPawnKey() {
+        return this.pawnKey;
+    }
+
+    /**
+     * Returns the middlegame material and piece-square score of the position, without the pawn structure.
+     *
+     * @return the score in centipawns, positive if white is better
+     */
+    public int getMidgameScore() {
+        return this.midgameScore;
+    }
+
+    /**
+     * Returns the endgame material and piece-square score of the position, without the pawn structure.
+     *
+     * @return the score in centipawns, positive if white is better
+     */
+    public int getEndgameScore() {
+        return this.endgameScore;
+    }
+
+    /**
+     * Returns the game phase of the position, from {@link #MAX_PHASE} for a middlegame with all pieces to 0 for an endgame with only kings and pawns.
+     *
+     * @return the game phase
+     */
+    public int getPhase() {
+        return Math.min(this.phase, MAX_PHASE);
+    }
+
+    private void togglePawn(final ChessPieceColor color, final int index) {
+        this.pawns[color.ordinal()] ^= 1L << index;
+        this.pawnKey ^= ZobristKeys.getPieceKey(ChessPieceType.PAWN, color, index);
+    }
+
+    private static int[] getMidgameTable(final ChessPieceType<?> type) {
+        if (type == ChessPieceType.PAWN) {
+            return PAWN_MIDGAME;
+        } else if (type == ChessPieceType.KING) {
+            return KING_MIDGAME;
+        }
+
+        return getEndgameTable(type);
+    }
+
+    private static int[] getEndgameTable(final ChessPieceType<?> type) {
+        if (type == ChessPieceType.PAWN) {
+            return PAWN_ENDGAME;
+        } else if (type == ChessPieceType.KNIGHT) {
+            return KNIGHT;
+        } else if (type == ChessPieceType.BISHOP) {
+            return BISHOP;
+        } else if (type == ChessPieceType.ROOK) {
+            return ROOK;
+        } else if (type == ChessPieceType.QUEEN) {
+            return QUEEN;
+        }
+
+        return KING_ENDGAME;
+    }
+
+    private static int getPhaseWeight(final ChessPieceType<?> type) {
+        if (type == ChessPieceType.KNIGHT || type == ChessPieceType.BISHOP) {
+            return 1;
+        } else if (type == ChessPieceType.ROOK) {
+            return 2;
+        } else if (type == ChessPieceType.QUEEN) {
+            return 4;
+        }
+
+        return 0;
+    }
+}
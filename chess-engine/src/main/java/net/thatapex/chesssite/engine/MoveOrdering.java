@@ -0,0 +1,141 @@
+package net.thatapex.chesssite.engine;
+
+import net.thatapex.chesssite.chess.board.FlyweightChessBoard;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.move.Moves;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+import net.thatapex.chesssite.chess.pieces.ChessPieces;
+
+/**
+ * The heuristics scoring moves for the {@link MovePicker}, the higher the score the earlier the move is searched.
+ * <ul>
+ *     <li>Captures are scored by MVV-LVA (most valuable victim, least valuable attacker), promotions by the value of the new piece.</li>
+ *     <li>The killer moves are the last two quiet moves that caused a beta cutoff at the same ply, they are likely to refute a sibling
+ *     position too.</li>
+ *     <li>The history table scores the remaining quiet moves by how often a move from one square to another caused a beta cutoff anywhere
+ *     in the search, weighted by the remaining depth.</li>
+ * </ul>
+ * The tables are kept in primitive arrays and are owned by a single searcher.
+ */
+final class MoveOrdering {
+
+    /**
+     * Score of the first killer move, above any history score and below any capture score.
+     */
+    static final int KILLER_SCORE = 1 << 20;
+
+    /**
+     * Score of the capture and promotion with the lowest score.
+     */
+    static final int CAPTURE_SCORE = 1 << 21;
+
+    private static final int KILLER_SLOTS  = 2;
+    private static final int MAX_HISTORY   = KILLER_SCORE / 2;
+    private static final int VICTIM_WEIGHT = 16;
+
+    /**
+     * Value of the king as the attacker, the least preferred one as it can only capture undefended pieces anyway.
+     */
+    private static final int KING_ATTACKER_VALUE = 10;
+
+    private static final int[] VICTIM_VALUES   = new int[ChessPieceType.values().size()];
+    private static final int[] ATTACKER_VALUES = new int[ChessPieceType.values().size()];
+
+    static {
+        for (final ChessPieceType<?> type : ChessPieceType.values()) {
+            VICTIM_VALUES[type.getOrdinal()]   = type.getSymbolicalMaterialValue();
+            ATTACKER_VALUES[type.getOrdinal()] = type == ChessPieceType.KING ? KING_ATTACKER_VALUE : type.getSymbolicalMaterialValue();
+        }
+    }
+
+    private final int[] killers = new int[Searcher.MAX_PLY * KILLER_SLOTS];
+    private final int[] history = new int[ChessPieceColor.values().length * ChessSquare.SQUARE_COUNT * ChessSquare.SQUARE_COUNT];
+
+    /**
+     * Scores a capture or a promotion by MVV-LVA, always at least {@link #CAPTURE_SCORE}.
+     *
+     * @param board the position before the move
+     * @param move  the capture or promotion
+     * @return the score of the move
+     */
+    int scoreCapture(final FlyweightChessBoard board, final int move) {
+        final int attacker = ChessPieces.getTypeOrdinal(board.getPieceCode(Moves.getFromIndex(move)));
+        final int target   = board.getPieceCode(Moves.getToIndex(move));
+        int       score    = CAPTURE_SCORE + KING_ATTACKER_VALUE - ATTACKER_VALUES[attacker];
+
+        if (target != ChessPieces.NO_PIECE) {
+            score += VICTIM_VALUES[ChessPieces.getTypeOrdinal(target)] * VICTIM_WEIGHT;
+        } else if (Moves.hasFlag(move, Moves.FLAG_EN_PASSANT)) {
+            score += VICTIM_VALUES[ChessPieceType.PAWN.getOrdinal()] * VICTIM_WEIGHT;
+        }
+
+        if (Moves.isPromotion(move)) {
+            score += VICTIM_VALUES[Moves.getPromotionType(move).getOrdinal()] * VICTIM_WEIGHT;
+        }
+
+        return score;
+    }
+
+    /**
+     * Scores a quiet move by the killer moves of the ply and the history table.
+     *
+     * @param color the side to move
+     * @param ply   the distance to the root
+     * @param move  the quiet move
+     * @return the score of the move
+     */
+    int scoreQuiet(final ChessPieceColor color, final int ply, final int move) {
+        final int slots = ply * KILLER_SLOTS;
+
+        for (int slot = 0; slot < KILLER_SLOTS; slot++) {
+            if (this.killers[slots + slot] == move) {
+                return KILLER_SCORE - slot;
+            }
+        }
+
+        return this.history[historyIndex(color, move)];
+    }
+
+    /**
+     * Rewards a quiet move that caused a beta cutoff and penalizes the quiet moves searched before it without one.
+     *
+     * @param color      the side to move
+     * @param ply        the distance to the root
+     * @param depth      the remaining depth of the search
+     * @param move       the move that caused the cutoff
+     * @param tried      buffer of the quiet moves searched before the move
+     * @param triedCount the number of moves in the buffer
+     */
+    void updateQuietCutoff(final ChessPieceColor color, final int ply, final int depth, final int move, final int[] tried, final int triedCount) {
+        final int slots = ply * KILLER_SLOTS;
+
+        if (this.killers[slots] != move) {
+            System.arraycopy(this.killers, slots, this.killers, slots + 1, KILLER_SLOTS - 1);
+            this.killers[slots] = move;
+        }
+
+        final int bonus = depth * depth;
+
+        this.addHistory(historyIndex(color, move), bonus);
+
+        for (int i = 0; i < triedCount; i++) {
+            this.addHistory(historyIndex(color, tried[i]), -bonus);
+        }
+    }
+
+    private void addHistory(final int index, final int bonus) {
+        this.history[index] += bonus;
+
+        // halving keeps the relative order, while moves of the recent iterations gain weight
+        if (Math.abs(this.history[index]) >= MAX_HISTORY) {
+            for (int i = 0; i < this.history.length; i++) {
+                this.history[i] /= 2;
+            }
+        }
+    }
+
+    private static int historyIndex(final ChessPieceColor color, final int move) {
+        return (color.ordinal() * ChessSquare.SQUARE_COUNT + Moves.getFromIndex(move)) * ChessSquare.SQUARE_COUNT + Moves.getToIndex(move);
+    }
+}
@@ -0,0 +1,183 @@
+package net.thatapex.chesssite.engine;
+
+import net.thatapex.chesssite.chess.board.FlyweightChessBoard;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import net.thatapex.chesssite.chess.move.Moves;
+
+/**
+ * Returns the legal moves of a position one by one, best first, generating them in stages so that the moves after a beta cutoff are not
+ * even generated.
+ * <ol>
+ *     <li>The hash move, the best move known from the transposition table.</li>
+ *     <li>Captures and promotions, by their MVV-LVA score.</li>
+ *     <li>Quiet moves, generated only when all captures were searched: the killer moves first, then the rest by their history score.</li>
+ * </ol>
+ * The quiet moves are generated together with the captures only if the hash move is a quiet move, as it could not be verified to be legal
+ * otherwise. The best remaining move is selected only when it is requested, so that a cutoff does not pay for sorting the whole list.
+ * <p>
+ * A searcher has a picker for every ply, reused for every position at that ply.
+ */
+final class MovePicker {
+    private static final int STAGE_HASH_MOVE = 0;
+    private static final int STAGE_CAPTURES  = 1;
+    private static final int STAGE_QUIETS    = 2;
+    private static final int STAGE_DONE      = 3;
+
+    private final MoveGenerator generator;
+    private final MoveOrdering  ordering;
+    private final int           ply;
+    private final int[]         moves  = new int[MoveGenerator.MAX_MOVES];
+    private final int[]         scores = new int[MoveGenerator.MAX_MOVES];
+
+    private FlyweightChessBoard board;
+    private int                 hashMove;
+    private boolean             inCheck;
+    private boolean             capturesOnly;
+    private boolean             quietsGenerated;
+    private int                 stage;
+    private int                 current;
+    private int                 end;
+
+    MovePicker(final MoveGenerator generator, final MoveOrdering ordering, final int ply) {
+        this.generator = generator;
+        this.ordering  = ordering;
+        this.ply       = ply;
+    }
+
+    /**
+     * Starts picking the moves of a position, generating its captures and promotions.
+     *
+     * @param board        the position, which must not change until the picker is done, apart from searching the returned moves
+     * @param hashMove     the move to return first if it is legal, or {@link Moves#NONE}
+     * @param capturesOnly whether to skip the quiet moves, they are returned anyway if the side to move is in check
+     */
+    void reset(final FlyweightChessBoard board, final int hashMove, final boolean capturesOnly) {
+        this.board           = board;
+        this.hashMove        = Moves.NONE;
+        this.quietsGenerated = false;
+        this.current         = 0;
+        this.end             = this.generator.generateLegalCaptures(board, this.moves, 0);
+        this.inCheck         = this.generator.getAttackMap().isInCheck();
+        this.capturesOnly    = capturesOnly && !this.inCheck;
+        this.stage           = STAGE_HASH_MOVE;
+
+        for (int i = 0; i < this.end; i++) {
+            this.scores[i] = this.ordering.scoreCapture(board, this.moves[i]);
+        }
+
+        if (hashMove == Moves.NONE) {
+            return;
+        }
+
+        if (!Moves.isCapture(hashMove) && !Moves.isPromotion(hashMove) && !this.capturesOnly) {
+            this.generateQuiets();
+        }
+
+        for (int i = 0; i < this.end; i++) {
+            if (this.moves[i] == hashMove) {
+                this.hashMove = hashMove;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the side to move of the position is in check.
+     *
+     * @return {@code true} if the side to move is in check, {@code false} if otherwise
+     */
+    boolean isInCheck() {
+        return this.inCheck;
+    }
+
+    /**
+     * Returns the best move not returned yet.
+     *
+     * @return the move, or {@link Moves#NONE} if all moves were returned
+     */
+    int next() {
+        if (this.stage == STAGE_HASH_MOVE) {
+            this.stage = STAGE_CAPTURES;
+
+            if (this.hashMove != Moves.NONE) {
+                return this.hashMove;
+            }
+        }
+
+        if (this.stage == STAGE_CAPTURES) {
+            final int capture = this.selectBest(MoveOrdering.CAPTURE_SCORE);
+
+            if (capture != Moves.NONE) {
+                return capture;
+            }
+
+            if (this.capturesOnly) {
+                this.stage = STAGE_DONE;
+                return Moves.NONE;
+            }
+
+            if (!this.quietsGenerated) {
+                this.generateQuiets();
+            }
+
+            this.stage = STAGE_QUIETS;
+        }
+
+        if (this.stage == STAGE_QUIETS) {
+            final int quiet = this.selectBest(Integer.MIN_VALUE);
+
+            if (quiet != Moves.NONE) {
+                return quiet;
+            }
+
+            this.stage = STAGE_DONE;
+        }
+
+        return Moves.NONE;
+    }
+
+    private void generateQuiets() {
+        final int start = this.end;
+
+        this.end += this.generator.generateLegalQuietMoves(this.board, this.moves, start);
+        this.quietsGenerated = true;
+
+        for (int i = start; i < this.end; i++) {
+            this.scores[i] = this.ordering.scoreQuiet(this.board.getSideToMove(), this.ply, this.moves[i]);
+        }
+    }
+
+    /**
+     * Swaps the remaining move with the highest score, at least the minimum score, to the current index and returns it, skipping the hash move.
+     *
+     * @return the move, or {@link Moves#NONE} if there is no such move
+     */
+    private int selectBest(final int minimumScore) {
+        while (this.current < this.end) {
+            int best = this.current;
+
+            for (int i = this.current + 1; i < this.end; i++) {
+                if (this.scores[i] > this.scores[best]) {
+                    best = i;
+                }
+            }
+
+            if (this.scores[best] < minimumScore) {
+                return Moves.NONE;
+            }
+
+            final int move = this.moves[best];
+
+            this.moves[best]         = this.moves[this.current];
+            this.scores[best]        = this.scores[this.current];
+            this.moves[this.current] = move;
+            this.current++;
+
+            if (move != this.hashMove) {
+                return move;
+            }
+        }
+
+        return Moves.NONE;
+    }
+}
@@ -0,0 +1,150 @@
+package net.thatapex.chesssite.engine;
+
+import net.thatapex.chesssite.chess.board.ZobristKeys;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size cache of pawn structure evaluations, keyed by the pawn key (see {@link ZobristKeys#computePawnKey}).
+ * <p>
+ * The pawns change only with pawn moves and captures of pawns, so most evaluated positions of a search share their pawn structure
+ * with an earlier one. Each entry keeps the full key, the middlegame and endgame scores of the structure and the passed pawns,
+ * three longs in a single {@code long[]}. An entry is replaced whenever another structure maps to the same slot.
+ * <p>
+ * The table is not thread-safe, every search thread uses its own.
+ */
+public final class PawnHashTable {
+
+    /**
+     * The greatest supported table size in kilobytes.
+     */
+    public static final int MAX_SIZE_KILOBYTES = 1 << 20;
+
+    private static final int ENTRY_LONGS    = 3;
+    private static final int ENTRY_BYTES    = ENTRY_LONGS * Long.BYTES;
+    private static final int BYTES_PER_KILO = 1 << 10;
+    private static final int SCORES_OFFSET  = 1;
+    private static final int PASSERS_OFFSET = 2;
+
+    private final long[] entries;
+    private final int    indexMask;
+    private       long   probes;
+    private       long   hits;
+
+    /**
+     * Creates a table.
+     *
+     * @param sizeKilobytes size of the table, between 1 and {@link #MAX_SIZE_KILOBYTES}, rounded down to a power of two number of entries
+     */
+    public PawnHashTable(final int sizeKilobytes) {
+        Validate.inclusiveBetween(1, MAX_SIZE_KILOBYTES, sizeKilobytes, "invalid table size");
+
+        final int capacity = Integer.highestOneBit((int) ((long) sizeKilobytes * BYTES_PER_KILO / ENTRY_BYTES));
+
+        // the zero filled entries are valid, a position without pawns has the key 0, no score and no passed pawns
+        this.entries   = new long[capacity * ENTRY_LONGS];
+        this.indexMask = capacity - 1;
+    }
+
+    /**
+     * Looks a pawn structure up, evaluating and storing it if it is not in the table.
+     * <p>
+     * The returned entry stays valid until the next probe.
+     *
+     * @param pawnKey    the pawn key of the position
+     * @param whitePawns bitboard of the white pawns
+     * @param blackPawns bitboard of the black pawns
+     * @return the entry, see {@link #getMidgameScore(int)}, {@link #getEndgameScore(int)} and {@link #getPassedPawns(int)}
+     */
+    public int probe(final long pawnKey, final long whitePawns, final long blackPawns) {
+        final int entry = ((int) pawnKey & this.indexMask) * ENTRY_LONGS;
+
+        this.probes++;
+
+        if (this.entries[entry] == pawnKey) {
+            this.hits++;
+            return entry;
+        }
+
+        this.entries[entry]                  = pawnKey;
+        this.entries[entry + SCORES_OFFSET]  = PawnStructure.evaluate(whitePawns, blackPawns);
+        this.entries[entry + PASSERS_OFFSET] = PawnStructure.getPassedPawns(whitePawns, blackPawns);
+        return entry;
+    }
+
+    /**
+     * Returns the middlegame score of a pawn structure.
+     *
+     * @param entry the entry, see {@link #probe(long, long, long)}
+     * @return the score in centipawns, positive if white is better
+     */
+    public int getMidgameScore(final int entry) {
+        return PawnStructure.getMidgameScore((int) this.entries[entry + SCORES_OFFSET]);
+    }
+
+    /**
+     * Returns the endgame score of a pawn structure.
+     *
+     * @param entry the entry, see {@link #probe(long, long, long)}
+     * @return the score in centipawns, positive if white is better
+     */
+    public int getEndgameScore(final int entry) {
+        return PawnStructure.getEndgameScore((int) this.entries[entry + SCORES_OFFSET]);
+    }
+
+    /**
+     * Returns the passed pawns of both colors of a pawn structure.
+     *
+     * @param entry the entry, see {@link #probe(long, long, long)}
+     * @return bitboard of the passed pawns
+     */
+    public long getPassedPawns(final int entry) {
+        return this.entries[entry + PASSERS_OFFSET];
+    }
+
+    /**
+     * Removes all entries and resets the statistics.
+     */
+    public void clear() {
+        Arrays.fill(this.entries, 0L);
+        this.probes = 0;
+        this.hits   = 0;
+    }
+
+    /**
+     * Returns the number of entries the table can hold.
+     *
+     * @return the capacity of the table
+     */
+    public int getCapacity() {
+        return this.entries.length / ENTRY_LONGS;
+    }
+
+    /**
+     * Returns the number of lookups since the table was created or cleared.
+     *
+     * @return the number of lookups
+     */
+    public long getProbes() {
+        return this.probes;
+    }
+
+    /**
+     * Returns the number of lookups that found the pawn structure since the table was created or cleared.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the share of lookups that found the pawn structure.
+     *
+     * @return the hit rate, between 0 and 1, or 0 if there were no lookups
+     */
+    public double getHitRate() {
+        return this.probes == 0 ? 0 : (double) this.hits / this.probes;
+    }
+}
@@ -0,0 +1,51 @@
+package net.thatapex.chesssite.engine;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * A snapshot of the usage counters of the {@link PawnHashTable pawn hash tables} of all the search threads of a {@link SearchEngine}.
+ */
+public final class PawnHashTableStatistics {
+    private final long probes;
+    private final long hits;
+
+    PawnHashTableStatistics(final long probes, final long hits) {
+        this.probes = probes;
+        this.hits   = hits;
+    }
+
+    /**
+     * Returns the number of lookups.
+     *
+     * @return the number of lookups
+     */
+    public long getProbes() {
+        return this.probes;
+    }
+
+    /**
+     * Returns the number of lookups that found the pawn structure.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the share of lookups that found the pawn structure.
+     *
+     * @return the hit rate, between 0 and 1, or 0 if there were no lookups
+     */
+    public double getHitRate() {
+        return this.probes == 0 ? 0 : (double) this.hits / this.probes;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("probes", this.probes)
+                .append("hits", this.hits)
+                .toString();
+    }
+}
@@ -0,0 +1,125 @@
+package net.thatapex.chesssite.engine;
+
+import net.thatapex.chesssite.chess.board.bitboard.AttackTables;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+
+/**
+ * Evaluation of the pawn structure: penalties for doubled and isolated pawns, and bonuses for passed pawns growing as they advance.
+ * <p>
+ * The evaluation depends on the pawns only, so it is cached by the {@link PawnHashTable}. Scores are packed into a single int,
+ * the middlegame score in the upper and the endgame score in the lower half, so that they can be added and subtracted together.
+ */
+final class PawnStructure {
+    private static final long FILE_A = 0x0101_0101_0101_0101L;
+
+    private static final int DOUBLED_MIDGAME  = -10;
+    private static final int DOUBLED_ENDGAME  = -20;
+    private static final int ISOLATED_MIDGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+
+    /**
+     * Passed pawn bonuses by the number of ranks the pawn has advanced from the rank in front of the pieces, 1 for a pawn on its starting rank.
+     */
+    private static final int[] PASSED_MIDGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 15, 25, 45, 70, 110, 0};
+
+    private static final long[] FILE_MASKS          = new long[ChessSquare.FILE_COUNT];
+    private static final long[] ADJACENT_FILE_MASKS = new long[ChessSquare.FILE_COUNT];
+
+    static {
+        for (int file = 0; file < ChessSquare.FILE_COUNT; file++) {
+            FILE_MASKS[file] = FILE_A << file;
+        }
+
+        for (int file = 0; file < ChessSquare.FILE_COUNT; file++) {
+            ADJACENT_FILE_MASKS[file] = (file > 0 ? FILE_MASKS[file - 1] : 0L) | (file < ChessSquare.FILE_COUNT - 1 ? FILE_MASKS[file + 1] : 0L);
+        }
+    }
+
+    private PawnStructure() {
+    }
+
+    /**
+     * Evaluates the pawn structure.
+     *
+     * @param whitePawns bitboard of the white pawns
+     * @param blackPawns bitboard of the black pawns
+     * @return the packed scores, positive if white is better
+     */
+    static int evaluate(final long whitePawns, final long blackPawns) {
+        return evaluate(ChessPieceColor.WHITE, whitePawns, blackPawns) - evaluate(ChessPieceColor.BLACK, blackPawns, whitePawns);
+    }
+
+    /**
+     * Returns the passed pawns of both colors, the pawns with no opposing pawns in front of them on their own or the adjacent files.
+     *
+     * @param whitePawns bitboard of the white pawns
+     * @param blackPawns bitboard of the black pawns
+     * @return bitboard of the passed pawns
+     */
+    static long getPassedPawns(final long whitePawns, final long blackPawns) {
+        return getPassedPawns(ChessPieceColor.WHITE, whitePawns, blackPawns) | getPassedPawns(ChessPieceColor.BLACK, blackPawns, whitePawns);
+    }
+
+    static int pack(final int midgame, final int endgame) {
+        return (midgame << Short.SIZE) + endgame;
+    }
+
+    static int getMidgameScore(final int packed) {
+        // rounds away the borrow of a negative endgame score
+        return (packed + (1 << (Short.SIZE - 1))) >> Short.SIZE;
+    }
+
+    static int getEndgameScore(final int packed) {
+        return (short) packed;
+    }
+
+    private static int evaluate(final ChessPieceColor color, final long pawns, final long opposingPawns) {
+        final int startingRank = color.getPawnStartingRank().getIndex();
+        int       score        = 0;
+
+        for (int file = 0; file < ChessSquare.FILE_COUNT; file++) {
+            final int count = Long.bitCount(pawns & FILE_MASKS[file]);
+
+            if (count > 1) {
+                score += (count - 1) * pack(DOUBLED_MIDGAME, DOUBLED_ENDGAME);
+            }
+        }
+
+        long remaining = pawns;
+
+        while (remaining != 0) {
+            final int index = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+
+            if ((pawns & ADJACENT_FILE_MASKS[index % ChessSquare.FILE_COUNT]) == 0) {
+                score += pack(ISOLATED_MIDGAME, ISOLATED_ENDGAME);
+            }
+
+            if ((opposingPawns & AttackTables.getPawnFrontSpan(color, index)) == 0) {
+                final int advanced = Math.abs(index / ChessSquare.FILE_COUNT - startingRank) + 1;
+
+                score += pack(PASSED_MIDGAME[advanced], PASSED_ENDGAME[advanced]);
+            }
+        }
+
+        return score;
+    }
+
+    private static long getPassedPawns(final ChessPieceColor color, final long pawns, final long opposingPawns) {
+        long passed    = 0L;
+        long remaining = pawns;
+
+        while (remaining != 0) {
+            final int index = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+
+            if ((opposingPawns & AttackTables.getPawnFrontSpan(color, index)) == 0) {
+                passed |= 1L << index;
+            }
+        }
+
+        return passed;
+    }
+}
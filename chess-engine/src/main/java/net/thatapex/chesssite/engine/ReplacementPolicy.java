@@ -0,0 +1,26 @@
+package net.thatapex.chesssite.engine;
+
+/**
+ * Decides which entry of a full {@link TranspositionTable} bucket is overwritten by a new position.
+ * <p>
+ * An entry of the same position is always reused, the policies differ only in how they choose between entries of other positions
+ * and whether a shallower result may overwrite a deeper one of the same position.
+ */
+public enum ReplacementPolicy {
+    /**
+     * Overwrites the first entry of a full bucket, and any earlier result of the same position. Keeps the most recent results.
+     */
+    ALWAYS,
+
+    /**
+     * Overwrites the entry with the smallest depth in the bucket, and keeps a deeper result of the same position unless the new one is exact.
+     * Keeps the most expensive results, but entries of old searches are never evicted while they are deeper.
+     */
+    DEPTH_PREFERRED,
+
+    /**
+     * Overwrites entries of earlier searches first, then the entry with the smallest depth, see {@link TranspositionTable#newSearch()}.
+     * The default policy.
+     */
+    AGE_AND_DEPTH
+}
@@ -0,0 +1,129 @@
+package net.thatapex.chesssite.engine;
+
+import java.util.Locale;
+
+/**
+ * Utilities for search scores.
+ * <p>
+ * Scores are integers in centipawns, from the point of view of the side to move.
+ * Checkmates are scored as {@link #MATE} minus the number of plies to the mate, so that faster mates score higher,
+ * and the losing side gets the negated score.
+ */
+public final class Scores {
+
+    /**
+     * The score of a draw.
+     */
+    public static final int DRAW = 0;
+
+    /**
+     * The score of checkmating the opponent immediately.
+     */
+    public static final int MATE = 30000;
+
+    /**
+     * A bound greater than every possible score.
+     */
+    public static final int INFINITE = MATE + 1;
+
+    /**
+     * The smallest absolute value of a mate score, scores beyond it are never given to positions that are not mates.
+     */
+    public static final int MATE_BOUND = MATE - Searcher.MAX_PLY;
+
+    /**
+     * The score of a position the tablebases know to be won, just below the mate scores, as the mate is not found yet.
+     * Like mates, positions found deeper in the search score lower, so that the search converts to the won tablebase position fastest.
+     */
+    public static final int TABLEBASE_WIN = MATE_BOUND - 1;
+
+    /**
+     * The smallest absolute value of a tablebase or mate score, see {@link #TABLEBASE_WIN}.
+     */
+    public static final int TABLEBASE_BOUND = TABLEBASE_WIN - Searcher.MAX_PLY;
+
+    private Scores() {
+    }
+
+    /**
+     * Returns the score of giving checkmate after the number of plies.
+     *
+     * @param ply number of plies from the root position
+     * @return the mate score
+     */
+    public static int mateIn(final int ply) {
+        return MATE - ply;
+    }
+
+    /**
+     * Returns the score of being checkmated after the number of plies.
+     *
+     * @param ply number of plies from the root position
+     * @return the mated score
+     */
+    public static int matedIn(final int ply) {
+        return -MATE + ply;
+    }
+
+    /**
+     * Returns the score of reaching a position the tablebases know to be won after the number of plies.
+     *
+     * @param ply number of plies from the root position
+     * @return the tablebase win score
+     */
+    public static int tablebaseWinIn(final int ply) {
+        return TABLEBASE_WIN - ply;
+    }
+
+    /**
+     * Returns the score of reaching a position the tablebases know to be lost after the number of plies.
+     *
+     * @param ply number of plies from the root position
+     * @return the tablebase loss score
+     */
+    public static int tablebaseLossIn(final int ply) {
+        return -TABLEBASE_WIN + ply;
+    }
+
+    /**
+     * Returns whether the score is a forced mate for either side.
+     *
+     * @param score the score
+     * @return {@code true} if the score is a mate score, {@code false} if otherwise
+     */
+    public static boolean isMate(final int score) {
+        return Math.abs(score) >= MATE_BOUND;
+    }
+
+    /**
+     * Returns the number of plies to the mate of a mate score.
+     *
+     * @param score a mate score, see {@link #isMate(int)}
+     * @return the number of plies, positive if the side to move gives mate and negative if it gets mated
+     * @throws IllegalArgumentException if the score is not a mate score
+     */
+    public static int getMatePlies(final int score) {
+        if (!isMate(score)) {
+            throw new IllegalArgumentException("not a mate score: " + score);
+        }
+
+        return score > 0 ? MATE - score : -(MATE + score);
+    }
+
+    /**
+     * Returns a human readable form of the score, in pawns or as moves to mate, for example {@code +1.25} or {@code #-3}.
+     *
+     * @param score the score
+     * @return the formatted score
+     */
+    public static String toString(final int score) {
+        if (isMate(score)) {
+            final int plies = getMatePlies(score);
+
+            // plies to full moves, counting the move of the side to move
+            return "#" + (plies > 0 ? (plies + 1) / 2 : -((-plies + 1) / 2));
+        }
+
+        return String.format(Locale.ROOT, "%+.2f", score / 100.0);
+    }
+}
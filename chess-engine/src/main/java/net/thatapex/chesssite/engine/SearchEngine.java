@@ -0,0 +1,306 @@
+package net.thatapex.chesssite.engine;
+
+import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.game.Game;
+import net.thatapex.chesssite.chess.tablebase.Tablebase;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * A chess engine, finding the best move in a position with an alpha-beta search.
+ * <p>
+ * Searches can either run on the calling thread, see {@link #search(ChessBoard, SearchLimits)}, or in the background on threads owned by the engine,
+ * see {@link #startSearch(ChessBoard, SearchLimits)}. Every search works on its own copy of the position, so the board may be modified
+ * as soon as the search is started, and any number of searches may run at the same time. A search of a {@link Game} also knows the positions
+ * played before, so that it scores a third occurrence of any of them as a draw, see {@link #search(Game, SearchLimits)}.
+ * <p>
+ * All searches of an engine share one {@link TranspositionTable}, so that a search profits from the results of earlier searches of the same game.
+ * Every search thread caches the pawn structures it evaluates in a {@link PawnHashTable} of its own, whose statistics are summed up by the engine,
+ * see {@link #getPawnHashTableStatistics()}.
+ * <p>
+ * Every search can use several threads (Lazy SMP): helper threads search the same position and share their results with the main thread
+ * through the transposition table. The result of a multi-threaded search depends on the timing of the threads, while a search with
+ * a single thread, the default, is deterministic for a given state of the transposition table, see {@link TranspositionTable#clear()}.
+ * <p>
+ * An engine may be given endgame {@link Tablebase tablebases}, which score the positions with few pieces reached in the search.
+ * <p>
+ * The engine should be closed when it is no longer needed, which cancels all running background searches.
+ */
+public class SearchEngine implements AutoCloseable {
+
+    /**
+     * Size of the transposition table of an engine created with {@link #SearchEngine()}.
+     */
+    public static final int DEFAULT_TABLE_SIZE_MEGABYTES = 16;
+
+    /**
+     * Size of the pawn hash table of every search thread of an engine created without one.
+     */
+    public static final int DEFAULT_PAWN_TABLE_SIZE_KILOBYTES = 256;
+
+    /**
+     * The greatest supported number of threads of a single search.
+     */
+    public static final int MAX_THREADS = 256;
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final long[]        NO_HISTORY     = new long[0];
+
+    private final ExecutorService    executor = Executors.newCachedThreadPool(SearchEngine::createThread);
+    private final TranspositionTable table;
+    private final int                threads;
+    private final Tablebase          tablebase;
+    private final int                pawnTableKilobytes;
+    private final LongAdder          pawnTableProbes = new LongAdder();
+    private final LongAdder          pawnTableHits   = new LongAdder();
+
+    /**
+     * Creates a single-threaded engine with a transposition table of {@value #DEFAULT_TABLE_SIZE_MEGABYTES} megabytes.
+     */
+    public SearchEngine() {
+        this(new TranspositionTable(DEFAULT_TABLE_SIZE_MEGABYTES));
+    }
+
+    /**
+     * Creates a single-threaded engine.
+     *
+     * @param table the transposition table used by all searches of the engine
+     */
+    public SearchEngine(final TranspositionTable table) {
+        this(table, 1);
+    }
+
+    /**
+     * Creates an engine.
+     *
+     * @param table   the transposition table used by all searches of the engine
+     * @param threads the number of threads of every search, between 1 and {@link #MAX_THREADS}, 1 for deterministic searches
+     */
+    public SearchEngine(final TranspositionTable table, final int threads) {
+        this(table, threads, null);
+    }
+
+    /**
+     * Creates an engine probing endgame tablebases.
+     *
+     * @param table     the transposition table used by all searches of the engine
+     * @param threads   the number of threads of every search, between 1 and {@link #MAX_THREADS}, 1 for deterministic searches
+     * @param tablebase the tablebases probed by all searches of the engine, or {@code null} to search without tablebases,
+     *                  it is not closed by the engine
+     */
+    public SearchEngine(final TranspositionTable table, final int threads, final Tablebase tablebase) {
+        this(table, threads, tablebase, DEFAULT_PAWN_TABLE_SIZE_KILOBYTES);
+    }
+
+    /**
+     * Creates an engine probing endgame tablebases, with pawn hash tables of the given size.
+     *
+     * @param table              the transposition table used by all searches of the engine
+     * @param threads            the number of threads of every search, between 1 and {@link #MAX_THREADS}, 1 for deterministic searches
+     * @param tablebase          the tablebases probed by all searches of the engine, or {@code null} to search without tablebases,
+     *                           it is not closed by the engine
+     * @param pawnTableKilobytes size of the pawn hash table of every search thread, between 1 and {@link PawnHashTable#MAX_SIZE_KILOBYTES}
+     */
+    public SearchEngine(final TranspositionTable table, final int threads, final Tablebase tablebase, final int pawnTableKilobytes) {
+        Validate.inclusiveBetween(1, MAX_THREADS, threads, "invalid thread count");
+        Validate.inclusiveBetween(1, PawnHashTable.MAX_SIZE_KILOBYTES, pawnTableKilobytes, "invalid pawn table size");
+
+        this.table              = table;
+        this.threads            = threads;
+        this.tablebase          = tablebase;
+        this.pawnTableKilobytes = pawnTableKilobytes;
+    }
+
+    /**
+     * Searches the position on the calling thread, and on helper threads of the engine if it uses more than one thread.
+     *
+     * @param position the position to search
+     * @param limits   limits of the search
+     * @return the result of the search
+     * @throws IllegalStateException if the engine is closed
+     */
+    public SearchResult search(final ChessBoard position, final SearchLimits limits) {
+        Validate.validState(!this.executor.isShutdown(), "the engine is closed");
+
+        return this.run(this.createSearcher(position, NO_HISTORY, limits, new SearchHandle(), result -> {
+        }));
+    }
+
+    /**
+     * Searches the current position of a game on the calling thread, and on helper threads of the engine if it uses more than one thread.
+     * <p>
+     * Unlike a search of the position alone, a line reaching a position played twice in the game since the last capture or pawn move is a draw,
+     * like a line repeating one of its own positions.
+     *
+     * @param game   the game whose current position is searched
+     * @param limits limits of the search
+     * @return the result of the search
+     * @throws IllegalStateException if the engine is closed
+     */
+    public SearchResult search(final Game game, final SearchLimits limits) {
+        Validate.validState(!this.executor.isShutdown(), "the engine is closed");
+
+        return this.run(this.createSearcher(game.getBoard(), getHistory(game), limits, new SearchHandle(), result -> {
+        }));
+    }
+
+    /**
+     * Starts searching the position in the background.
+     *
+     * @param position the position to search
+     * @param limits   limits of the search
+     * @return handle of the running search
+     * @throws IllegalStateException if the engine is closed
+     */
+    public SearchHandle startSearch(final ChessBoard position, final SearchLimits limits) {
+        return this.startSearch(position, limits, result -> {
+        });
+    }
+
+    /**
+     * Starts searching the position in the background, reporting the result of every completed iteration.
+     *
+     * @param position the position to search
+     * @param limits   limits of the search
+     * @param listener listener called on the search thread after every completed iteration
+     * @return handle of the running search
+     * @throws IllegalStateException if the engine is closed
+     */
+    public SearchHandle startSearch(final ChessBoard position, final SearchLimits limits, final Consumer<SearchResult> listener) {
+        return this.startSearch(position, NO_HISTORY, limits, listener);
+    }
+
+    /**
+     * Starts searching the current position of a game in the background, reporting the result of every completed iteration.
+     * The position and the history of the game are copied, so the game may go on as soon as the search is started.
+     *
+     * @param game     the game whose current position is searched, see {@link #search(Game, SearchLimits)}
+     * @param limits   limits of the search
+     * @param listener listener called on the search thread after every completed iteration
+     * @return handle of the running search
+     * @throws IllegalStateException if the engine is closed
+     */
+    public SearchHandle startSearch(final Game game, final SearchLimits limits, final Consumer<SearchResult> listener) {
+        return this.startSearch(game.getBoard(), getHistory(game), limits, listener);
+    }
+
+    private SearchHandle startSearch(final ChessBoard position, final long[] history, final SearchLimits limits, final Consumer<SearchResult> listener) {
+        Validate.validState(!this.executor.isShutdown(), "the engine is closed");
+
+        final SearchHandle handle   = new SearchHandle();
+        final Searcher     searcher = this.createSearcher(position, history, limits, handle, listener);
+
+        this.executor.execute(() -> {
+            try {
+                handle.complete(this.run(searcher));
+            } catch (final Throwable e) {
+                // never leave the handle incomplete, whatever went wrong
+                handle.fail(e);
+            }
+        });
+
+        return handle;
+    }
+
+    /**
+     * Returns the transposition table shared by all searches of the engine.
+     *
+     * @return the transposition table
+     */
+    public TranspositionTable getTranspositionTable() {
+        return this.table;
+    }
+
+    /**
+     * Returns the size of the pawn hash table of every search thread.
+     *
+     * @return the size in kilobytes
+     */
+    public int getPawnTableSizeKilobytes() {
+        return this.pawnTableKilobytes;
+    }
+
+    /**
+     * Returns the number of probes and hits of the pawn hash tables of all completed searches since the engine was created or the statistics
+     * were last reset, next to the statistics of the transposition table, see {@link TranspositionTable#getStatistics()}.
+     *
+     * @return a snapshot of the statistics
+     */
+    public PawnHashTableStatistics getPawnHashTableStatistics() {
+        return new PawnHashTableStatistics(this.pawnTableProbes.sum(), this.pawnTableHits.sum());
+    }
+
+    /**
+     * Resets the statistics, see {@link #getPawnHashTableStatistics()}.
+     */
+    public void resetPawnHashTableStatistics() {
+        this.pawnTableProbes.reset();
+        this.pawnTableHits.reset();
+    }
+
+    /**
+     * Returns the number of threads of every search.
+     *
+     * @return the thread count
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /**
+     * Returns the tablebases probed by the searches.
+     *
+     * @return the tablebases, or an empty optional if the engine searches without tablebases
+     */
+    public Optional<Tablebase> getTablebase() {
+        return Optional.ofNullable(this.tablebase);
+    }
+
+    /**
+     * Stops the engine, cancelling all running background searches.
+     */
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+    }
+
+    private Searcher createSearcher(final ChessBoard position, final long[] history, final SearchLimits limits, final SearchHandle handle,
+                                    final Consumer<SearchResult> listener) {
+        this.table.newSearch();
+        return new Searcher(position, history, limits, this.table, this.tablebase, this.pawnTableKilobytes, handle, listener, this.threads,
+                            this.executor);
+    }
+
+    private SearchResult run(final Searcher searcher) {
+        try {
+            return searcher.run();
+        } finally {
+            // the helpers have finished with the main searcher
+            this.pawnTableProbes.add(searcher.getPawnTableProbes());
+            this.pawnTableHits.add(searcher.getPawnTableHits());
+        }
+    }
+
+    /**
+     * Returns the keys of the positions played in a game before its current position.
+     */
+    private static long[] getHistory(final Game game) {
+        final long[] keys = game.getPositionKeys();
+
+        return Arrays.copyOf(keys, keys.length - 1);
+    }
+
+    private static Thread createThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, "chess-engine-search-" + THREAD_COUNTER.incrementAndGet());
+
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,116 @@
+package net.thatapex.chesssite.engine;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A search running in the background, see {@link SearchEngine#startSearch(net.thatapex.chesssite.chess.board.ChessBoard, SearchLimits)}.
+ * <p>
+ * The handle gives access to the result of the last completed iteration while the search is running, and allows stopping it at any time.
+ * A cancelled search still completes with the best move found so far.
+ * <p>
+ * The handle is thread-safe.
+ */
+public final class SearchHandle {
+    private final CompletableFuture<SearchResult> future = new CompletableFuture<>();
+
+    private volatile boolean      cancelled;
+    private volatile SearchResult latestResult;
+
+    SearchHandle() {
+    }
+
+    /**
+     * Stops the search as soon as possible. Does nothing if the search is already done.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Returns whether the search was cancelled.
+     *
+     * @return {@code true} if {@link #cancel()} was called, {@code false} if otherwise
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Returns whether the search is done.
+     *
+     * @return {@code true} if the search has finished, {@code false} if it is still running
+     */
+    public boolean isDone() {
+        return this.future.isDone();
+    }
+
+    /**
+     * Returns the result of the last completed iteration, or the final result if the search is done.
+     *
+     * @return the latest result, empty if no iteration has been completed yet
+     */
+    public Optional<SearchResult> getLatestResult() {
+        return Optional.ofNullable(this.latestResult);
+    }
+
+    /**
+     * Waits for the search to finish.
+     *
+     * @return the final result
+     * @throws InterruptedException  if the current thread was interrupted while waiting
+     * @throws IllegalStateException if the search failed
+     */
+    public SearchResult await() throws InterruptedException {
+        try {
+            return this.future.get();
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("search failed", e.getCause());
+        }
+    }
+
+    /**
+     * Waits at most the given time for the search to finish.
+     *
+     * @param timeout maximum time to wait
+     * @param unit    unit of the timeout
+     * @return the final result, empty if the search did not finish in time
+     * @throws InterruptedException  if the current thread was interrupted while waiting
+     * @throws IllegalStateException if the search failed
+     */
+    public Optional<SearchResult> await(final long timeout, final TimeUnit unit) throws InterruptedException {
+        try {
+            return Optional.of(this.future.get(timeout, unit));
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("search failed", e.getCause());
+        } catch (final TimeoutException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns a stage completed with the final result, for reacting to the end of the search without blocking.
+     *
+     * @return the completion stage
+     */
+    public CompletionStage<SearchResult> getCompletionStage() {
+        return this.future.minimalCompletionStage();
+    }
+
+    void publish(final SearchResult result) {
+        this.latestResult = result;
+    }
+
+    void complete(final SearchResult result) {
+        this.latestResult = result;
+        this.future.complete(result);
+    }
+
+    void fail(final Throwable throwable) {
+        this.future.completeExceptionally(throwable);
+    }
+}
@@ -0,0 +1,157 @@
+package net.thatapex.chesssite.engine;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits of a single search: the maximum depth, the maximum number of visited nodes and the maximum time.
+ * <p>
+ * The search stops when any of the limits is reached, or when it is cancelled through its {@link SearchHandle}.
+ * Limits are immutable, the {@code with} methods return modified copies.
+ */
+public final class SearchLimits {
+
+    /**
+     * The greatest supported search depth, in plies.
+     */
+    public static final int MAX_DEPTH = 64;
+
+    private static final SearchLimits INFINITE = new SearchLimits(MAX_DEPTH, Long.MAX_VALUE, 0L);
+
+    private final int  maxDepth;
+    private final long maxNodes;
+    private final long maxTimeMillis;
+
+    private SearchLimits(final int maxDepth, final long maxNodes, final long maxTimeMillis) {
+        this.maxDepth      = maxDepth;
+        this.maxNodes      = maxNodes;
+        this.maxTimeMillis = maxTimeMillis;
+    }
+
+    /**
+     * Returns limits that only stop the search at {@link #MAX_DEPTH}, or when it is cancelled.
+     *
+     * @return the limits
+     */
+    public static SearchLimits infinite() {
+        return INFINITE;
+    }
+
+    /**
+     * Returns limits of a search to a fixed depth.
+     *
+     * @param depth the depth in plies, between 1 and {@link #MAX_DEPTH}
+     * @return the limits
+     */
+    public static SearchLimits ofDepth(final int depth) {
+        return INFINITE.withDepth(depth);
+    }
+
+    /**
+     * Returns limits of a search visiting at most the number of nodes.
+     * In a multi-threaded search only the nodes of the main thread are limited, the helper threads stop together with it.
+     *
+     * @param nodes the number of nodes, positive
+     * @return the limits
+     */
+    public static SearchLimits ofNodes(final long nodes) {
+        return INFINITE.withNodes(nodes);
+    }
+
+    /**
+     * Returns limits of a search running for at most the time.
+     *
+     * @param time the time, positive
+     * @param unit unit of the time
+     * @return the limits
+     */
+    public static SearchLimits ofTime(final long time, final TimeUnit unit) {
+        return INFINITE.withTime(time, unit);
+    }
+
+    /**
+     * Returns a copy of these limits with a different maximum depth.
+     *
+     * @param depth the depth in plies, between 1 and {@link #MAX_DEPTH}
+     * @return the modified limits
+     */
+    public SearchLimits withDepth(final int depth) {
+        Validate.inclusiveBetween(1, MAX_DEPTH, depth, "invalid depth");
+
+        return new SearchLimits(depth, this.maxNodes, this.maxTimeMillis);
+    }
+
+    /**
+     * Returns a copy of these limits with a different maximum number of nodes.
+     *
+     * @param nodes the number of nodes, positive
+     * @return the modified limits
+     */
+    public SearchLimits withNodes(final long nodes) {
+        Validate.isTrue(nodes > 0, "node limit must be positive");
+
+        return new SearchLimits(this.maxDepth, nodes, this.maxTimeMillis);
+    }
+
+    /**
+     * Returns a copy of these limits with a different maximum time.
+     *
+     * @param time the time, positive
+     * @param unit unit of the time
+     * @return the modified limits
+     */
+    public SearchLimits withTime(final long time, final TimeUnit unit) {
+        final long millis = unit.toMillis(time);
+
+        Validate.isTrue(millis > 0, "time limit must be at least one millisecond");
+
+        return new SearchLimits(this.maxDepth, this.maxNodes, millis);
+    }
+
+    /**
+     * Returns the maximum depth of the search.
+     *
+     * @return the depth in plies
+     */
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    /**
+     * Returns the maximum number of nodes the search may visit.
+     *
+     * @return the number of nodes, {@link Long#MAX_VALUE} if not limited
+     */
+    public long getMaxNodes() {
+        return this.maxNodes;
+    }
+
+    /**
+     * Returns the maximum time the search may run for.
+     *
+     * @return the time in milliseconds, 0 if not limited
+     */
+    public long getMaxTimeMillis() {
+        return this.maxTimeMillis;
+    }
+
+    /**
+     * Returns whether the search time is limited.
+     *
+     * @return {@code true} if the search has a time limit, {@code false} if otherwise
+     */
+    public boolean isTimeLimited() {
+        return this.maxTimeMillis > 0;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("maxDepth", this.maxDepth)
+                .append("maxNodes", this.maxNodes)
+                .append("maxTimeMillis", this.maxTimeMillis)
+                .toString();
+    }
+}
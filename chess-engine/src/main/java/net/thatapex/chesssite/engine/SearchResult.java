@@ -0,0 +1,104 @@
+package net.thatapex.chesssite.engine;
+
+import net.thatapex.chesssite.chess.move.Moves;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Arrays;
+
+/**
+ * The outcome of a search, or of one of its completed iterations.
+ */
+public final class SearchResult {
+    private final int   bestMove;
+    private final int   score;
+    private final int   depth;
+    private final long  nodes;
+    private final long  elapsedMillis;
+    private final int[] principalVariation;
+
+    SearchResult(final int bestMove, final int score, final int depth, final long nodes, final long elapsedMillis, final int[] principalVariation) {
+        this.bestMove           = bestMove;
+        this.score              = score;
+        this.depth              = depth;
+        this.nodes              = nodes;
+        this.elapsedMillis      = elapsedMillis;
+        this.principalVariation = principalVariation;
+    }
+
+    /**
+     * Returns the best move found.
+     *
+     * @return the encoded move (see {@link Moves}), {@link Moves#NONE} if the side to move has no legal moves
+     */
+    public int getBestMove() {
+        return this.bestMove;
+    }
+
+    /**
+     * Returns the score of the best move, see {@link Scores}.
+     *
+     * @return the score from the point of view of the side to move
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * Returns the depth of the last completed iteration.
+     *
+     * @return the depth in plies, 0 if not even the first iteration was completed
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Returns the number of nodes visited by the search.
+     *
+     * @return the number of nodes
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Returns the time the search took.
+     *
+     * @return the time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    /**
+     * Returns the number of nodes visited per second.
+     *
+     * @return the search speed
+     */
+    public long getNodesPerSecond() {
+        return this.nodes * 1000 / Math.max(1, this.elapsedMillis);
+    }
+
+    /**
+     * Returns the expected line of play, starting with the best move.
+     *
+     * @return a copy of the encoded moves, see {@link Moves}
+     */
+    public int[] getPrincipalVariation() {
+        return this.principalVariation.clone();
+    }
+
+    @Override
+    public String toString() {
+        final String[] variation = Arrays.stream(this.principalVariation).mapToObj(Moves::toNotation).toArray(String[]::new);
+
+        return new ToStringBuilder(this)
+                .append("bestMove", this.bestMove == Moves.NONE ? null : Moves.toNotation(this.bestMove))
+                .append("score", Scores.toString(this.score))
+                .append("depth", this.depth)
+                .append("nodes", this.nodes)
+                .append("elapsedMillis", this.elapsedMillis)
+                .append("principalVariation", String.join(" ", variation))
+                .toString();
+    }
+}
@@ -0,0 +1,545 @@
+package net.thatapex.chesssite.engine;
+
+import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.FlyweightChessBoard;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import net.thatapex.chesssite.chess.move.Moves;
+import net.thatapex.chesssite.chess.move.StaticExchange;
+import net.thatapex.chesssite.chess.tablebase.Tablebase;
+import net.thatapex.chesssite.chess.tablebase.Wdl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A single search of a position: iterative deepening of a principal variation search (PVS), an alpha-beta search where all moves but the first
+ * are searched with a null window first, followed by a quiescence search of captures and promotions.
+ * Results are cached in a {@link TranspositionTable}, which cuts off positions already searched deep enough and orders the best move known first.
+ * The remaining moves are ordered and generated lazily by a {@link MovePicker} for every ply, with the heuristics of {@link MoveOrdering}.
+ * <p>
+ * The searcher works on its own copy of the position and is used by a single thread only, but the transposition table may be shared.
+ * <p>
+ * A searcher may run helper searchers on other threads (Lazy SMP): they search the same position with their own boards and only communicate
+ * through the shared transposition table, filling it with results the main searcher then finds. Helpers with an odd index start one ply deeper,
+ * so that the threads do not all search the same depth at the same time. The result and the reported iterations are the ones of the main searcher,
+ * the helpers are stopped as soon as it completes. Without helpers the search is deterministic for a given state of the transposition table.
+ * <p>
+ * With {@link Tablebase tablebases}, positions reached by a capture or a pawn move with few enough pieces are scored by the tablebases instead
+ * of being searched. Positions reached by other moves are searched as usual, as the outcome alone does not tell how to make progress in a won position.
+ */
+final class Searcher {
+
+    /**
+     * The greatest number of plies from the root that the search may reach, including the quiescence search and check extensions.
+     */
+    static final int MAX_PLY = 128;
+
+    private static final int  CHECK_INTERVAL_MASK     = 1024 - 1;
+    private static final int  FIFTY_MOVE_RULE_PLIES   = 100;
+    private static final long NANOSECONDS_PER_MILLI   = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int  TIME_FOR_NEXT_ITERATION = 2;
+
+    private final FlyweightChessBoard    board;
+    private final long[]                 history;
+    private final SearchLimits           limits;
+    private final TranspositionTable     table;
+    private final Tablebase              tablebase;
+    private final SearchHandle           handle;
+    private final Consumer<SearchResult> listener;
+    private final Executor               executor;
+    private final int                    threadIndex;
+    private final PawnHashTable          pawnTable;
+    private final Evaluator              evaluator;
+    private final List<Searcher>         helpers                  = new ArrayList<>();
+    private final SearchHandle           helperHandle             = new SearchHandle();
+    private final MoveGenerator          generator                = new MoveGenerator();
+    private final MoveOrdering           ordering                 = new MoveOrdering();
+    private final StaticExchange         exchange                 = new StaticExchange();
+    private final MovePicker[]           pickers                  = new MovePicker[MAX_PLY];
+    private final int[][]                triedQuiets              = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][]                principalVariation       = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[]                  principalVariationLength = new int[MAX_PLY + 1];
+    private final long[]                 positionKeys             = new long[MAX_PLY + 1];
+    private final int[]                  drawMoves                = new int[MoveGenerator.MAX_MOVES];
+
+    private long    startTime;
+    private long    deadline;
+    private long    nodes;
+    private boolean stopped;
+    private int     rootBestMove;
+
+    private volatile long publishedNodes;
+
+    /**
+     * Creates the main searcher of a search.
+     *
+     * @param history            keys of the positions played before the position, the last one just before it, which a line may repeat
+     * @param tablebase          the tablebases to probe, or {@code null}
+     * @param pawnTableKilobytes size of the pawn hash table of every searcher
+     * @param threads            the number of threads searching, the main searcher and {@code threads - 1} helpers running on the executor
+     * @param executor           executor of the helpers
+     */
+    Searcher(final ChessBoard position, final long[] history, final SearchLimits limits, final TranspositionTable table, final Tablebase tablebase,
+             final int pawnTableKilobytes, final SearchHandle handle, final Consumer<SearchResult> listener, final int threads, final Executor executor) {
+        this(position, history, limits, table, tablebase, pawnTableKilobytes, handle, listener, executor, 0);
+
+        // the node limit applies to the main searcher, the helpers stop with it
+        final SearchLimits helperLimits = limits.withNodes(Long.MAX_VALUE);
+
+        for (int index = 1; index < threads; index++) {
+            this.helpers.add(new Searcher(position, history, helperLimits, table, tablebase, pawnTableKilobytes, this.helperHandle, result -> {
+            }, executor, index));
+        }
+    }
+
+    private Searcher(final ChessBoard position, final long[] history, final SearchLimits limits, final TranspositionTable table,
+                     final Tablebase tablebase, final int pawnTableKilobytes, final SearchHandle handle, final Consumer<SearchResult> listener, final Executor executor,
+                     final int threadIndex) {
+        this.board       = new FlyweightChessBoard(position);
+        this.history     = history;
+        this.limits      = limits;
+        this.table       = table;
+        this.tablebase   = tablebase;
+        this.handle      = handle;
+        this.listener    = listener;
+        this.executor    = executor;
+        this.threadIndex = threadIndex;
+        this.pawnTable   = new PawnHashTable(pawnTableKilobytes);
+        this.evaluator   = new Evaluator(this.pawnTable);
+
+        this.evaluator.attach(this.board);
+
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            this.pickers[ply] = new MovePicker(this.generator, this.ordering, ply);
+        }
+    }
+
+    /**
+     * Runs the search until it reaches one of the limits or is cancelled.
+     *
+     * @return the result of the last completed iteration
+     */
+    SearchResult run() {
+        this.startTime       = System.nanoTime();
+        this.deadline        = this.limits.isTimeLimited() ? this.startTime + this.limits.getMaxTimeMillis() * NANOSECONDS_PER_MILLI : Long.MAX_VALUE;
+        this.positionKeys[0] = this.board.getPositionKey();
+
+        final int[] rootMoves = new int[MoveGenerator.MAX_MOVES];
+        final int   count     = this.generator.generateLegalMoves(this.board, rootMoves);
+
+        if (count == 0) {
+            final int score = this.generator.getAttackMap().isInCheck() ? Scores.matedIn(0) : Scores.DRAW;
+
+            return new SearchResult(Moves.NONE, score, 0, 0, this.getElapsedMillis(), new int[0]);
+        }
+
+        // used only if not even the first iteration completes
+        this.rootBestMove = rootMoves[0];
+
+        SearchResult result = new SearchResult(this.rootBestMove, Scores.DRAW, 0, 0, 0, new int[]{this.rootBestMove});
+
+        final CompletableFuture<?>[] helperTasks = this.startHelpers();
+
+        try {
+            for (int depth = 1 + this.threadIndex % 2; depth <= this.limits.getMaxDepth(); depth++) {
+                final int score = this.search(depth, 0, -Scores.INFINITE, Scores.INFINITE);
+
+                if (this.stopped) {
+                    break;
+                }
+
+                this.rootBestMove = this.principalVariation[0][0];
+
+                result = new SearchResult(this.rootBestMove, score, depth, this.getTotalNodes(), this.getElapsedMillis(),
+                                          Arrays.copyOf(this.principalVariation[0], this.principalVariationLength[0]));
+
+                this.handle.publish(result);
+                this.listener.accept(result);
+
+                // a deeper search cannot find a faster mate
+                if (Scores.isMate(score) && Math.abs(Scores.getMatePlies(score)) <= depth) {
+                    break;
+                }
+
+                // the next iteration would most likely not complete in time
+                if (this.limits.isTimeLimited() && this.getElapsedMillis() * TIME_FOR_NEXT_ITERATION > this.limits.getMaxTimeMillis()) {
+                    break;
+                }
+            }
+        } finally {
+            this.stopHelpers(helperTasks);
+        }
+
+        this.publishedNodes = this.nodes;
+
+        return new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(), this.getTotalNodes(), this.getElapsedMillis(),
+                                result.getPrincipalVariation());
+    }
+
+    private CompletableFuture<?>[] startHelpers() {
+        final CompletableFuture<?>[] tasks = new CompletableFuture<?>[this.helpers.size()];
+
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = CompletableFuture.runAsync(this.helpers.get(i)::run, this.executor);
+        }
+
+        return tasks;
+    }
+
+    /**
+     * Stops the helpers and waits until they have finished, which they notice within a few nodes.
+     */
+    private void stopHelpers(final CompletableFuture<?>[] tasks) {
+        this.helperHandle.cancel();
+        CompletableFuture.allOf(tasks).join();
+    }
+
+    /**
+     * Returns the number of pawn hash table lookups of this searcher and its helpers, which must have finished.
+     */
+    long getPawnTableProbes() {
+        long total = this.pawnTable.getProbes();
+
+        for (final Searcher helper : this.helpers) {
+            total += helper.pawnTable.getProbes();
+        }
+
+        return total;
+    }
+
+    /**
+     * Returns the number of pawn hash table hits of this searcher and its helpers, which must have finished.
+     */
+    long getPawnTableHits() {
+        long total = this.pawnTable.getHits();
+
+        for (final Searcher helper : this.helpers) {
+            total += helper.pawnTable.getHits();
+        }
+
+        return total;
+    }
+
+    /**
+     * Returns the number of nodes searched by this searcher and its helpers, the nodes of running helpers are only counted every few nodes.
+     */
+    private long getTotalNodes() {
+        long total = this.nodes;
+
+        for (final Searcher helper : this.helpers) {
+            total += helper.publishedNodes;
+        }
+
+        return total;
+    }
+
+    private int search(int depth, final int ply, int alpha, int beta) {
+        this.principalVariationLength[ply] = ply;
+
+        if (ply > 0) {
+            if (this.isDraw(ply)) {
+                return Scores.DRAW;
+            }
+
+            // no line can be better than mating right now, or worse than getting mated right now
+            alpha = Math.max(alpha, Scores.matedIn(ply));
+            beta  = Math.min(beta, Scores.mateIn(ply + 1));
+
+            if (alpha >= beta) {
+                return alpha;
+            }
+
+            // a capture or a pawn move may have entered the tablebases
+            if (this.tablebase != null && this.board.getHalfmoveClock() == 0
+                && Long.bitCount(this.board.getOccupiedMask()) <= this.tablebase.getMaxPieces()) {
+                final Wdl wdl = this.tablebase.probeWdl(this.board).orElse(null);
+
+                if (wdl != null) {
+                    return wdl == Wdl.WIN ? Scores.tablebaseWinIn(ply) : wdl == Wdl.LOSS ? Scores.tablebaseLossIn(ply) : Scores.DRAW;
+                }
+            }
+        }
+
+        if (depth <= 0) {
+            return this.quiescence(ply, alpha, beta);
+        }
+
+        if (this.visitNode() || ply >= MAX_PLY - 1) {
+            return this.evaluate();
+        }
+
+        final long key      = this.positionKeys[ply];
+        final long entry    = this.table.probe(key);
+        int        hashMove = Moves.NONE;
+
+        if (entry != TranspositionTable.NO_ENTRY) {
+            hashMove = TranspositionTable.getMove(entry);
+
+            // the principal variation is always searched, so that it stays complete
+            if (ply > 0 && beta - alpha == 1 && TranspositionTable.getDepth(entry) >= depth) {
+                final int score = fromTableScore(TranspositionTable.getScore(entry), ply);
+                final int bound = TranspositionTable.getBound(entry);
+
+                if (bound == TranspositionTable.BOUND_EXACT
+                    || bound == TranspositionTable.BOUND_LOWER && score >= beta
+                    || bound == TranspositionTable.BOUND_UPPER && score <= alpha) {
+                    return score;
+                }
+            }
+        }
+
+        final MovePicker picker  = this.pickers[ply];
+
+        picker.reset(this.board, ply == 0 ? this.rootBestMove : hashMove, false);
+
+        final boolean inCheck       = picker.isInCheck();
+        final int     originalDepth = depth;
+
+        if (inCheck) {
+            depth++;
+        }
+
+        final int[] quiets        = this.triedQuiets[ply];
+        final int   originalAlpha = alpha;
+        int         quietCount    = 0;
+        int         searched      = 0;
+        int         bestScore     = -Scores.INFINITE;
+        int         bestMove      = Moves.NONE;
+        int         move;
+
+        while ((move = picker.next()) != Moves.NONE) {
+            int score;
+
+            this.makeMove(move, ply);
+
+            if (searched++ == 0) {
+                score = -this.search(depth - 1, ply + 1, -beta, -alpha);
+            } else {
+                score = -this.search(depth - 1, ply + 1, -alpha - 1, -alpha);
+
+                if (score > alpha && score < beta) {
+                    score = -this.search(depth - 1, ply + 1, -beta, -alpha);
+                }
+            }
+
+            this.board.unmakeMove();
+
+            if (this.stopped) {
+                return Scores.DRAW;
+            }
+
+            final boolean quiet = !Moves.isCapture(move) && !Moves.isPromotion(move);
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove  = move;
+
+                if (score > alpha) {
+                    alpha = score;
+                    this.updatePrincipalVariation(ply, move);
+
+                    if (alpha >= beta) {
+                        if (quiet) {
+                            this.ordering.updateQuietCutoff(this.board.getSideToMove(), ply, depth, move, quiets, quietCount);
+                        }
+
+                        break;
+                    }
+                }
+            }
+
+            if (quiet) {
+                quiets[quietCount++] = move;
+            }
+        }
+
+        if (searched == 0) {
+            return inCheck ? Scores.matedIn(ply) : Scores.DRAW;
+        }
+
+        final int bound = bestScore >= beta ? TranspositionTable.BOUND_LOWER
+                          : bestScore > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+
+        // the move of a failed low search is no better than any other, so the one known before is kept
+        this.table.store(key, bound == TranspositionTable.BOUND_UPPER ? hashMove : bestMove, toTableScore(bestScore, ply), originalDepth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Searches only captures and promotions, until the position is quiet, so that the evaluation is never taken in the middle of an exchange.
+     * When in check all moves are searched, as the side to move cannot choose to stand pat. Otherwise a position without captures
+     * is scored by its evaluation, even if it is a stalemate. Captures losing material by their static exchange evaluation are skipped.
+     */
+    private int quiescence(final int ply, int alpha, final int beta) {
+        this.principalVariationLength[ply] = ply;
+
+        if (this.visitNode() || ply >= MAX_PLY - 1) {
+            return this.evaluate();
+        }
+
+        final MovePicker picker = this.pickers[ply];
+
+        picker.reset(this.board, Moves.NONE, true);
+
+        final boolean inCheck   = picker.isInCheck();
+        int           bestScore = -Scores.INFINITE;
+
+        if (!inCheck) {
+            bestScore = this.evaluate();
+
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+
+            alpha = Math.max(alpha, bestScore);
+        }
+
+        int move;
+
+        while ((move = picker.next()) != Moves.NONE) {
+            if (!inCheck && !this.exchange.isAtLeast(this.board, move, 0)) {
+                continue;
+            }
+
+            this.makeMove(move, ply);
+            final int score = -this.quiescence(ply + 1, -beta, -alpha);
+            this.board.unmakeMove();
+
+            if (this.stopped) {
+                return Scores.DRAW;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+
+                if (score > alpha) {
+                    alpha = score;
+                    this.updatePrincipalVariation(ply, move);
+
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        // in check every move was searched
+        if (bestScore == -Scores.INFINITE) {
+            return Scores.matedIn(ply);
+        }
+
+        return bestScore;
+    }
+
+    private void makeMove(final int move, final int ply) {
+        this.board.makeMove(move);
+        this.positionKeys[ply + 1] = this.board.getPositionKey();
+    }
+
+    /**
+     * Returns whether the position at the ply is a draw by the 50-move rule, repeats a position of the searched line,
+     * or occurred twice in the history before the root.
+     * <p>
+     * Within the searched line, a single repetition is enough: the line can be repeated again, so it cannot be better than a draw.
+     * The positions before the root were actually played, and the game is only drawn once a position occurs three times.
+     */
+    private boolean isDraw(final int ply) {
+        final int halfmoveClock = this.board.getHalfmoveClock();
+
+        // a checkmate delivered by the last move takes precedence over the fifty-move rule
+        if (halfmoveClock >= FIFTY_MOVE_RULE_PLIES) {
+            return this.generator.generateLegalMoves(this.board, this.drawMoves) > 0 || !this.generator.getAttackMap().isInCheck();
+        }
+
+        final long key         = this.positionKeys[ply];
+        final int  limit       = ply - Math.min(halfmoveClock, ply + this.history.length);
+        int        repetitions = 0;
+
+        // the negative indices are the positions before the root, the last of the history first
+        for (int index = ply - 2; index >= limit; index -= 2) {
+            if (index >= 0) {
+                if (this.positionKeys[index] == key) {
+                    return true;
+                }
+            } else if (this.history[this.history.length + index] == key && ++repetitions == 2) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Counts the node and checks the limits of the search, the time, cancellation and thread interruption only every few nodes.
+     *
+     * @return {@code true} if the search must stop, {@code false} if otherwise
+     */
+    private boolean visitNode() {
+        this.nodes++;
+
+        if (this.nodes >= this.limits.getMaxNodes()) {
+            this.stopped = true;
+        } else if ((this.nodes & CHECK_INTERVAL_MASK) == 0) {
+            this.publishedNodes = this.nodes;
+            this.stopped        = this.isInterrupted();
+        }
+
+        return this.stopped;
+    }
+
+    private boolean isInterrupted() {
+        return this.handle.isCancelled() || System.nanoTime() >= this.deadline || Thread.currentThread().isInterrupted();
+    }
+
+    private void updatePrincipalVariation(final int ply, final int move) {
+        final int[] line  = this.principalVariation[ply];
+        final int[] child = this.principalVariation[ply + 1];
+        final int   end   = this.principalVariationLength[ply + 1];
+
+        line[ply] = move;
+        System.arraycopy(child, ply + 1, line, ply + 1, end - ply - 1);
+        this.principalVariationLength[ply] = end;
+    }
+
+    /**
+     * Scores the position by the incrementally updated material and piece-square evaluation.
+     *
+     * @return the score from the point of view of the side to move
+     */
+    private int evaluate() {
+        return this.evaluator.evaluate(this.board.getSideToMove());
+    }
+
+    /**
+     * Converts a mate or tablebase score from the distance to the root into the distance to the position, as the same position may be reached
+     * at different plies.
+     */
+    private static int toTableScore(final int score, final int ply) {
+        if (score >= Scores.TABLEBASE_BOUND) {
+            return score + ply;
+        } else if (score <= -Scores.TABLEBASE_BOUND) {
+            return score - ply;
+        }
+
+        return score;
+    }
+
+    private static int fromTableScore(final int score, final int ply) {
+        if (score >= Scores.TABLEBASE_BOUND) {
+            return score - ply;
+        } else if (score <= -Scores.TABLEBASE_BOUND) {
+            return score + ply;
+        }
+
+        return score;
+    }
+
+    private long getElapsedMillis() {
+        return (System.nanoTime() - this.startTime) / NANOSECONDS_PER_MILLI;
+    }
+}
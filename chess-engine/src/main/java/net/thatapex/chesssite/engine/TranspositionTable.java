@@ -0,0 +1,339 @@
+package net.thatapex.chesssite.engine;
+
+import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.move.Moves;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size cache of search results, keyed by the position key (see {@link ChessBoard#getPositionKey()}).
+ * <p>
+ * Entries are stored in a single {@code long[]}, two longs each: the position key XOR-ed with the data, and the data itself.
+ * The data packs the best move, the score, the depth, the bound type and the search generation, see {@link #getMove(long)} and the other accessors.
+ * Entries are grouped into buckets of {@value #BUCKET_SIZE}, and the {@link ReplacementPolicy} decides which entry of a bucket is replaced.
+ * A bucket is cache-line sized (64 bytes), but a {@code long[]} is not aligned to 64 bytes, so a bucket may still span two cache lines.
+ * <p>
+ * The table is lock-free and safe to share between threads. Threads may overwrite each other's entries at any time,
+ * so a key and its data can be read from two different writes, but then the key XOR-ed back with the data does not match
+ * the probed key and the entry is treated as a miss. A probe therefore never returns data of another position,
+ * except for genuine 64-bit key collisions.
+ * <p>
+ * Hits, misses and collisions are counted, see {@link #getStatistics()}.
+ */
+public final class TranspositionTable {
+
+    /**
+     * The value returned by {@link #probe(long)} if the position is not in the table.
+     */
+    public static final long NO_ENTRY = 0L;
+
+    /**
+     * Bound type of a score that is exact.
+     */
+    public static final int BOUND_EXACT = 1;
+
+    /**
+     * Bound type of a score that is a lower bound, the search failed high.
+     */
+    public static final int BOUND_LOWER = 2;
+
+    /**
+     * Bound type of a score that is an upper bound, the search failed low.
+     */
+    public static final int BOUND_UPPER = 3;
+
+    /**
+     * The number of entries in one bucket.
+     */
+    public static final int BUCKET_SIZE = 4;
+
+    /**
+     * The greatest supported table size in megabytes.
+     */
+    public static final int MAX_SIZE_MEGABYTES = 1 << 13;
+
+    private static final int ENTRY_LONGS      = 2;
+    private static final int ENTRY_BYTES      = ENTRY_LONGS * Long.BYTES;
+    private static final int BYTES_PER_MEGA   = 1 << 20;
+    private static final int FILL_SAMPLE_SIZE = 1000;
+
+    private static final int MOVE_BITS        = 24;
+    private static final int SCORE_SHIFT      = MOVE_BITS;
+    private static final int SCORE_BITS       = 16;
+    private static final int DEPTH_SHIFT      = SCORE_SHIFT + SCORE_BITS;
+    private static final int DEPTH_BITS       = 8;
+    private static final int BOUND_SHIFT      = DEPTH_SHIFT + DEPTH_BITS;
+    private static final int BOUND_BITS       = 2;
+    private static final int GENERATION_SHIFT = BOUND_SHIFT + BOUND_BITS;
+    private static final int GENERATION_BITS  = 8;
+    private static final int GENERATION_MASK  = (1 << GENERATION_BITS) - 1;
+
+    private final long[]            entries;
+    private final int               bucketMask;
+    private final ReplacementPolicy policy;
+    private final LongAdder         probes     = new LongAdder();
+    private final LongAdder         hits       = new LongAdder();
+    private final LongAdder         stores     = new LongAdder();
+    private final LongAdder         collisions = new LongAdder();
+
+    private volatile int generation;
+
+    /**
+     * Creates a table with the default {@link ReplacementPolicy#AGE_AND_DEPTH} policy.
+     *
+     * @param sizeMegabytes size of the table, rounded down to a power of two
+     */
+    public TranspositionTable(final int sizeMegabytes) {
+        this(sizeMegabytes, ReplacementPolicy.AGE_AND_DEPTH);
+    }
+
+    /**
+     * Creates a table.
+     *
+     * @param sizeMegabytes size of the table, between 1 and {@link #MAX_SIZE_MEGABYTES}, rounded down to a power of two
+     * @param policy        the replacement policy
+     */
+    public TranspositionTable(final int sizeMegabytes, final ReplacementPolicy policy) {
+        Validate.inclusiveBetween(1, MAX_SIZE_MEGABYTES, sizeMegabytes, "invalid table size");
+
+        final long buckets = Long.highestOneBit((long) sizeMegabytes * BYTES_PER_MEGA / (BUCKET_SIZE * ENTRY_BYTES));
+
+        this.entries    = new long[Math.toIntExact(buckets * BUCKET_SIZE * ENTRY_LONGS)];
+        this.bucketMask = (int) buckets - 1;
+        this.policy     = policy;
+    }
+
+    /**
+     * Looks a position up.
+     *
+     * @param key the position key
+     * @return the entry data, or {@link #NO_ENTRY} if the position is not in the table
+     */
+    public long probe(final long key) {
+        final int bucket = this.getBucketIndex(key);
+
+        this.probes.increment();
+
+        for (int slot = bucket; slot < bucket + BUCKET_SIZE * ENTRY_LONGS; slot += ENTRY_LONGS) {
+            final long data = this.entries[slot + 1];
+
+            if (data != NO_ENTRY && (this.entries[slot] ^ data) == key) {
+                this.hits.increment();
+                return data;
+            }
+        }
+
+        return NO_ENTRY;
+    }
+
+    /**
+     * Stores a search result.
+     *
+     * @param key   the position key
+     * @param move  the best move, {@link Moves#NONE} if not known
+     * @param score the score, between {@link Short#MIN_VALUE} and {@link Short#MAX_VALUE}
+     * @param depth the search depth, between 0 and 255
+     * @param bound the bound type of the score, {@link #BOUND_EXACT}, {@link #BOUND_LOWER} or {@link #BOUND_UPPER}
+     */
+    public void store(final long key, final int move, final int score, final int depth, final int bound) {
+        final int  bucket     = this.getBucketIndex(key);
+        final int  generation = this.generation;
+        final long data       = encode(move, score, depth, bound, generation);
+
+        int  replaced     = -1;
+        long replacedData = NO_ENTRY;
+        int  worstValue   = Integer.MAX_VALUE;
+
+        for (int slot = bucket; slot < bucket + BUCKET_SIZE * ENTRY_LONGS; slot += ENTRY_LONGS) {
+            final long oldData = this.entries[slot + 1];
+
+            if (oldData == NO_ENTRY || (this.entries[slot] ^ oldData) == key) {
+                if (oldData != NO_ENTRY && !this.shouldOverwriteSamePosition(oldData, depth, bound, generation)) {
+                    return;
+                }
+
+                replaced     = slot;
+                replacedData = NO_ENTRY;
+                break;
+            }
+
+            final int value = this.getReplacementValue(oldData, generation);
+
+            if (value < worstValue) {
+                worstValue   = value;
+                replaced     = slot;
+                replacedData = oldData;
+            }
+        }
+
+        if (replacedData != NO_ENTRY) {
+            this.collisions.increment();
+        }
+
+        this.stores.increment();
+        this.entries[replaced]     = key ^ data;
+        this.entries[replaced + 1] = data;
+    }
+
+    /**
+     * Marks the start of a new search. Entries of earlier searches stay usable, but are replaced before the ones of the current search.
+     */
+    public void newSearch() {
+        this.generation = (this.generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * Removes all entries. Must not be called while a search is using the table.
+     */
+    public void clear() {
+        Arrays.fill(this.entries, 0L);
+    }
+
+    /**
+     * Returns the number of entries the table can hold.
+     *
+     * @return the capacity of the table
+     */
+    public int getCapacity() {
+        return this.entries.length / ENTRY_LONGS;
+    }
+
+    /**
+     * Returns the replacement policy of the table.
+     *
+     * @return the replacement policy
+     */
+    public ReplacementPolicy getPolicy() {
+        return this.policy;
+    }
+
+    /**
+     * Estimates how full the table is, from a sample of the entries.
+     *
+     * @return the number of entries of the current search per thousand entries
+     */
+    public int getFillPermille() {
+        final int sample     = Math.min(FILL_SAMPLE_SIZE, this.getCapacity());
+        final int generation = this.generation;
+        int       used       = 0;
+
+        for (int entry = 0; entry < sample; entry++) {
+            final long data = this.entries[entry * ENTRY_LONGS + 1];
+
+            if (data != NO_ENTRY && getGeneration(data) == generation) {
+                used++;
+            }
+        }
+
+        return used * FILL_SAMPLE_SIZE / sample;
+    }
+
+    /**
+     * Returns the number of probes, hits, stores and collisions since the table was created or the statistics were last reset.
+     *
+     * @return a snapshot of the statistics
+     */
+    public TranspositionTableStatistics getStatistics() {
+        return new TranspositionTableStatistics(this.probes.sum(), this.hits.sum(), this.stores.sum(), this.collisions.sum(), this.getFillPermille());
+    }
+
+    /**
+     * Resets the statistics, see {@link #getStatistics()}.
+     */
+    public void resetStatistics() {
+        this.probes.reset();
+        this.hits.reset();
+        this.stores.reset();
+        this.collisions.reset();
+    }
+
+    /**
+     * Returns the best move of an entry.
+     *
+     * @param entry the entry data, see {@link #probe(long)}
+     * @return the encoded move, see {@link Moves}
+     */
+    public static int getMove(final long entry) {
+        return (int) (entry & ((1L << MOVE_BITS) - 1));
+    }
+
+    /**
+     * Returns the score of an entry.
+     *
+     * @param entry the entry data, see {@link #probe(long)}
+     * @return the score
+     */
+    public static int getScore(final long entry) {
+        return (short) (entry >>> SCORE_SHIFT);
+    }
+
+    /**
+     * Returns the search depth of an entry.
+     *
+     * @param entry the entry data, see {@link #probe(long)}
+     * @return the depth
+     */
+    public static int getDepth(final long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & ((1 << DEPTH_BITS) - 1);
+    }
+
+    /**
+     * Returns the bound type of the score of an entry.
+     *
+     * @param entry the entry data, see {@link #probe(long)}
+     * @return {@link #BOUND_EXACT}, {@link #BOUND_LOWER} or {@link #BOUND_UPPER}
+     */
+    public static int getBound(final long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & ((1 << BOUND_BITS) - 1);
+    }
+
+    private static int getGeneration(final long entry) {
+        return (int) (entry >>> GENERATION_SHIFT) & GENERATION_MASK;
+    }
+
+    private static long encode(final int move, final int score, final int depth, final int bound, final int generation) {
+        if (score < Short.MIN_VALUE || score > Short.MAX_VALUE || depth < 0 || depth >= 1 << DEPTH_BITS || bound < BOUND_EXACT || bound > BOUND_UPPER) {
+            throw new IllegalArgumentException("entry out of range");
+        }
+
+        // the bound is never 0, so valid data is never equal to NO_ENTRY
+        return Integer.toUnsignedLong(move) & ((1L << MOVE_BITS) - 1)
+               | (score & 0xFFFFL) << SCORE_SHIFT
+               | (long) depth << DEPTH_SHIFT
+               | (long) bound << BOUND_SHIFT
+               | (long) generation << GENERATION_SHIFT;
+    }
+
+    private int getBucketIndex(final long key) {
+        // the low bits of the key select the bucket, all of its bits are verified
+        return ((int) key & this.bucketMask) * BUCKET_SIZE * ENTRY_LONGS;
+    }
+
+    private boolean shouldOverwriteSamePosition(final long oldData, final int depth, final int bound, final int generation) {
+        switch (this.policy) {
+            case ALWAYS:
+                return true;
+            case DEPTH_PREFERRED:
+                return bound == BOUND_EXACT || depth >= getDepth(oldData);
+            default:
+                return bound == BOUND_EXACT || depth >= getDepth(oldData) || getGeneration(oldData) != generation;
+        }
+    }
+
+    /**
+     * Returns how valuable an entry of another position is, the least valuable entry of a bucket is replaced.
+     */
+    private int getReplacementValue(final long data, final int generation) {
+        switch (this.policy) {
+            case ALWAYS:
+                // the first entry of the bucket is always replaced
+                return 0;
+            case DEPTH_PREFERRED:
+                return getDepth(data);
+            default:
+                return (getGeneration(data) == generation ? 1 << DEPTH_BITS : 0) + getDepth(data);
+        }
+    }
+}
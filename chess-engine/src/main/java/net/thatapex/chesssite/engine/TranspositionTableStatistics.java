@@ -0,0 +1,87 @@
+package net.thatapex.chesssite.engine;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * A snapshot of the usage counters of a {@link TranspositionTable}.
+ */
+public final class TranspositionTableStatistics {
+    private final long probes;
+    private final long hits;
+    private final long stores;
+    private final long collisions;
+    private final int  fillPermille;
+
+    TranspositionTableStatistics(final long probes, final long hits, final long stores, final long collisions, final int fillPermille) {
+        this.probes       = probes;
+        this.hits         = hits;
+        this.stores       = stores;
+        this.collisions   = collisions;
+        this.fillPermille = fillPermille;
+    }
+
+    /**
+     * Returns the number of lookups.
+     *
+     * @return the number of lookups
+     */
+    public long getProbes() {
+        return this.probes;
+    }
+
+    /**
+     * Returns the number of lookups that found the position.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of stored results, not counting results discarded in favor of a better result of the same position.
+     *
+     * @return the number of stores
+     */
+    public long getStores() {
+        return this.stores;
+    }
+
+    /**
+     * Returns the number of stored results that overwrote a result of another position.
+     *
+     * @return the number of collisions
+     */
+    public long getCollisions() {
+        return this.collisions;
+    }
+
+    /**
+     * Returns the share of lookups that found the position.
+     *
+     * @return the hit rate, between 0 and 1, or 0 if there were no lookups
+     */
+    public double getHitRate() {
+        return this.probes == 0 ? 0 : (double) this.hits / this.probes;
+    }
+
+    /**
+     * Returns the estimated number of entries of the current search per thousand entries, see {@link TranspositionTable#getFillPermille()}.
+     *
+     * @return the fill rate in permille
+     */
+    public int getFillPermille() {
+        return this.fillPermille;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("probes", this.probes)
+                .append("hits", this.hits)
+                .append("stores", this.stores)
+                .append("collisions", this.collisions)
+                .append("fillPermille", this.fillPermille)
+                .toString();
+    }
+}
@@ -0,0 +1,44 @@
+package net.thatapex.chesssite.engine;
+
+import net.thatapex.chesssite.chess.board.BitboardChessBoard;
+import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import net.thatapex.chesssite.chess.move.Moves;
+
+public class EngineTestHelpers {
+
+    /**
+     * Creates a bitboard board with the position of a FEN string.
+     */
+    public static MutableChessBoard createBoard(final String fen) {
+        return createBoard(new BitboardChessBoard(), fen);
+    }
+
+    /**
+     * Sets up the position of a FEN string on the given board.
+     *
+     * @return the board
+     */
+    public static <T extends MutableChessBoard> T createBoard(final T board, final String fen) {
+        FenCodec.decode(fen, board);
+        return board;
+    }
+
+    /**
+     * Finds the legal move given in the coordinate notation, for example 'e2e4' or 'e7e8q'.
+     */
+    public static int findMove(final ChessBoard board, final String notation) {
+        final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        final int   count = new MoveGenerator().generateLegalMoves(board, moves);
+
+        for (int i = 0; i < count; i++) {
+            if (Moves.toNotation(moves[i]).equals(notation)) {
+                return moves[i];
+            }
+        }
+
+        throw new AssertionError("move " + notation + " is not legal");
+    }
+}
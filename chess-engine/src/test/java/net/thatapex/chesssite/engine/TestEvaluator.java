@@ -0,0 +1,101 @@
+package net.thatapex.chesssite.engine;
+
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.ZobristKeys;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Random;
+
+import static net.thatapex.chesssite.engine.EngineTestHelpers.createBoard;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class TestEvaluator {
+
+    @Test
+    public void testStartingPosition() {
+        final Evaluator evaluator = new Evaluator(createBoard(FenCodec.STARTING_POSITION));
+
+        assertThat(evaluator.evaluate(), is(equalTo(0)));
+        assertThat(evaluator.getPhase(), is(equalTo(Evaluator.MAX_PHASE)));
+    }
+
+    @Test
+    public void testSymmetry() {
+        final Evaluator white = new Evaluator(createBoard("r3k3/8/8/8/8/2N5/3P4/4K3 w - - 0 1"));
+        final Evaluator black = new Evaluator(createBoard("4k3/3p4/2n5/8/8/8/8/R3K3 b - - 0 1"));
+
+        assertThat(white.evaluate(), is(equalTo(-black.evaluate())));
+        assertThat(white.evaluate(ChessPieceColor.WHITE), is(equalTo(black.evaluate(ChessPieceColor.BLACK))));
+    }
+
+    @Test
+    public void testTapering() {
+        // only kings and pawns, the king belongs in the center, the pawns are the same on both sides
+        final Evaluator endgame = new Evaluator(createBoard("7k/4p3/8/8/3K4/8/4P3/8 w - - 0 1"));
+
+        assertThat(endgame.getPhase(), is(equalTo(0)));
+        assertThat(endgame.evaluate(), is(equalTo(endgame.getEndgameScore())));
+        assertThat(endgame.evaluate(), is(greaterThan(endgame.getMidgameScore())));
+
+        // with all pieces on the board, the king belongs in safety
+        final Evaluator middlegame = new Evaluator(createBoard("rnbqkbnr/pppppppp/8/8/4K3/8/PPPPPPPP/RNBQ1BNR w kq - 0 1"));
+
+        assertThat(middlegame.evaluate(), is(equalTo(middlegame.getMidgameScore())));
+        assertThat(middlegame.evaluate(), is(lessThan(0)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testIncrementalUpdates(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board     = createBoard(implementation.createBoard(), "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        final Evaluator         evaluator = new Evaluator(new PawnHashTable(16));
+        final Random            random    = new Random(0);
+        final int[]             moves     = new int[MoveGenerator.MAX_MOVES];
+        final MoveGenerator     generator = new MoveGenerator();
+
+        evaluator.attach(board);
+        assertEvaluation(evaluator, board);
+
+        int plies = 0;
+
+        for (; plies < 200; plies++) {
+            final int count = generator.generateLegalMoves(board, moves);
+
+            if (count == 0) {
+                break;
+            }
+
+            board.makeMove(moves[random.nextInt(count)]);
+            assertEvaluation(evaluator, board);
+        }
+
+        for (; plies > 0; plies--) {
+            board.unmakeMove();
+            assertEvaluation(evaluator, board);
+        }
+
+        // a new position set up on the same board
+        FenCodec.decode(FenCodec.STARTING_POSITION, board);
+        assertEvaluation(evaluator, board);
+    }
+
+    private static void assertEvaluation(final Evaluator evaluator, final MutableChessBoard board) {
+        final Evaluator expected = new Evaluator(board);
+
+        assertThat("invalid midgame score", evaluator.getMidgameScore(), is(equalTo(expected.getMidgameScore())));
+        assertThat("invalid endgame score", evaluator.getEndgameScore(), is(equalTo(expected.getEndgameScore())));
+        assertThat("invalid phase", evaluator.getPhase(), is(equalTo(expected.getPhase())));
+        assertThat("invalid pawn key", evaluator.getPawnKey(), is(equalTo(ZobristKeys.computePawnKey(board))));
+        assertThat("invalid cached evaluation", evaluator.evaluate(), is(equalTo(expected.evaluate())));
+    }
+}
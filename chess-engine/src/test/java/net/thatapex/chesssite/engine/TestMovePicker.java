@@ -0,0 +1,111 @@
+package net.thatapex.chesssite.engine;
+
+import net.thatapex.chesssite.chess.board.FlyweightChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import net.thatapex.chesssite.chess.move.Moves;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static net.thatapex.chesssite.engine.EngineTestHelpers.createBoard;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class TestMovePicker {
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @Test
+    public void testAllMovesPicked() {
+        final FlyweightChessBoard board     = createBoard(new FlyweightChessBoard(), KIWIPETE);
+        final MoveGenerator       generator = new MoveGenerator();
+        final MovePicker          picker    = new MovePicker(generator, new MoveOrdering(), 0);
+        final int[]               moves     = new int[MoveGenerator.MAX_MOVES];
+        final Random              random    = new Random(0);
+
+        for (int ply = 0; ply < 100; ply++) {
+            final int count = generator.generateLegalMoves(board, moves);
+
+            if (count == 0) {
+                break;
+            }
+
+            final int          hashMove = moves[random.nextInt(count)];
+            final List<String> expected = Arrays.stream(moves, 0, count).mapToObj(Moves::toNotation).collect(Collectors.toList());
+
+            picker.reset(board, hashMove, false);
+
+            final List<String> picked = pickAll(picker);
+
+            assertThat(picked, containsInAnyOrder(expected.toArray()));
+            assertThat(picked.get(0), is(equalTo(Moves.toNotation(hashMove))));
+
+            board.makeMove(hashMove);
+        }
+    }
+
+    @Test
+    public void testCaptureOrder() {
+        // the queen is taken by the pawn first, then by the knight, the rook by the knight first, then by the queen
+        final FlyweightChessBoard board  = createBoard(new FlyweightChessBoard(), "4k3/8/2r5/3q4/1N2P3/8/8/2Q1K3 w - - 0 1");
+        final MovePicker          picker = new MovePicker(new MoveGenerator(), new MoveOrdering(), 0);
+
+        picker.reset(board, Moves.NONE, true);
+
+        assertThat(pickAll(picker), contains("e4d5", "b4d5", "b4c6", "c1c6"));
+    }
+
+    @Test
+    public void testKillerMoves() {
+        final FlyweightChessBoard board    = createBoard(new FlyweightChessBoard(), FenCodec.STARTING_POSITION);
+        final MoveOrdering        ordering = new MoveOrdering();
+        final MovePicker          picker   = new MovePicker(new MoveGenerator(), ordering, 3);
+        final int                 first    = Moves.encode(6, 21, 0);
+        final int                 second   = Moves.encode(12, 28, Moves.FLAG_DOUBLE_PUSH);
+        final int                 history  = Moves.encode(1, 18, 0);
+
+        // the later cutoff becomes the first killer, the history move had its cutoff at another ply
+        ordering.updateQuietCutoff(ChessPieceColor.WHITE, 5, 4, history, new int[0], 0);
+        ordering.updateQuietCutoff(ChessPieceColor.WHITE, 3, 1, second, new int[0], 0);
+        ordering.updateQuietCutoff(ChessPieceColor.WHITE, 3, 1, first, new int[0], 0);
+
+        picker.reset(board, Moves.NONE, false);
+
+        assertThat(pickAll(picker).subList(0, 3), contains("g1f3", "e2e4", "b1c3"));
+
+        // the quiet moves are skipped if not in check
+        picker.reset(board, first, true);
+
+        assertThat(pickAll(picker).size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testCheckEvasions() {
+        final FlyweightChessBoard board  = createBoard(new FlyweightChessBoard(), "4k3/8/8/8/8/8/3q4/4K3 w - - 0 1");
+        final MovePicker          picker = new MovePicker(new MoveGenerator(), new MoveOrdering(), 0);
+
+        picker.reset(board, Moves.NONE, true);
+
+        assertThat(picker.isInCheck(), is(true));
+        assertThat(pickAll(picker), contains("e1d2", "e1f1"));
+    }
+
+    private static List<String> pickAll(final MovePicker picker) {
+        final List<String> picked = new ArrayList<>();
+        int                move;
+
+        while ((move = picker.next()) != Moves.NONE) {
+            picked.add(Moves.toNotation(move));
+        }
+
+        return picked;
+    }
+}
@@ -0,0 +1,114 @@
+package net.thatapex.chesssite.engine;
+
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.ZobristKeys;
+import net.thatapex.chesssite.chess.board.bitboard.Bitboards;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import net.thatapex.chesssite.chess.move.Moves;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.thatapex.chesssite.engine.EngineTestHelpers.createBoard;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestPawnHashTable {
+
+    @ParameterizedTest
+    @CsvSource({
+            // symmetrical structures
+            "4k3/pppppppp/8/8/8/8/PPPPPPPP/4K3 w - - 0 1, 0, 0",
+            // doubled and isolated pawns are worse in the endgame
+            "4k3/pp6/8/8/8/P7/P7/4K3 w - - 0 1, -30, -50",
+            // a passed pawn is worth more the further it is
+            "4k3/8/P7/8/8/8/8/4K3 w - - 0 1, 30, 55",
+            "4k3/8/8/8/8/p7/8/4K3 w - - 0 1, -30, -55"
+    })
+    public void testStructure(final String fen, final int midgameScore, final int endgameScore) {
+        final PawnHashTable     table = new PawnHashTable(16);
+        final MutableChessBoard board = createBoard(fen);
+        final int               entry = probe(table, board);
+
+        assertThat("invalid midgame score", table.getMidgameScore(entry), is(equalTo(midgameScore)));
+        assertThat("invalid endgame score", table.getEndgameScore(entry), is(equalTo(endgameScore)));
+    }
+
+    @Test
+    public void testPassedPawns() {
+        final PawnHashTable     table = new PawnHashTable(16);
+        final MutableChessBoard board = createBoard("4k3/6p1/8/P3p3/4P3/2p5/7P/4K3 w - - 0 1");
+        final List<ChessSquare> passed = new ArrayList<>();
+
+        Bitboards.addSquares(table.getPassedPawns(probe(table, board)), passed);
+
+        // the e-pawns block each other and the g-pawn has the h-pawn in front of it
+        assertThat(passed, containsInAnyOrder(ChessSquare.fromChessNotation("a5").orElseThrow(), ChessSquare.fromChessNotation("c3").orElseThrow()));
+    }
+
+    @Test
+    public void testStatistics() {
+        final PawnHashTable     table = new PawnHashTable(16);
+        final MutableChessBoard board = createBoard(FenCodec.STARTING_POSITION);
+
+        assertThat(table.getCapacity(), is(equalTo(Integer.highestOneBit(16 * 1024 / 24))));
+
+        final int first  = probe(table, board);
+        final int second = probe(table, board);
+
+        assertThat(second, is(equalTo(first)));
+        assertThat(table.getProbes(), is(equalTo(2L)));
+        assertThat(table.getHits(), is(equalTo(1L)));
+        assertThat(table.getHitRate(), is(equalTo(0.5)));
+
+        table.clear();
+        assertThat(table.getProbes(), is(equalTo(0L)));
+        assertThrows(IllegalArgumentException.class, () -> new PawnHashTable(0));
+    }
+
+    @Test
+    public void testEvaluatorHitRate() {
+        final PawnHashTable     table     = new PawnHashTable(64);
+        final Evaluator         evaluator = new Evaluator(table);
+        final MutableChessBoard board     = createBoard(FenCodec.STARTING_POSITION);
+        final MoveGenerator     generator = new MoveGenerator();
+        final int[]             moves     = new int[MoveGenerator.MAX_MOVES];
+
+        evaluator.attach(board);
+
+        // knight moves do not change the pawn structure, only the first evaluation misses
+        for (final String notation : new String[]{"g1f3", "g8f6", "b1c3", "b8c6", "f3g1", "f6g8"}) {
+            final int count = generator.generateLegalMoves(board, moves);
+            int       move  = Moves.NONE;
+
+            for (int i = 0; i < count; i++) {
+                if (Moves.toNotation(moves[i]).equals(notation)) {
+                    move = moves[i];
+                }
+            }
+
+            board.makeMove(move);
+            evaluator.evaluate();
+        }
+
+        assertThat(table.getProbes(), is(equalTo(6L)));
+        assertThat(table.getHits(), is(equalTo(5L)));
+        assertThat(table.getHitRate(), is(greaterThan(0.8)));
+    }
+
+    private static int probe(final PawnHashTable table, final MutableChessBoard board) {
+        return table.probe(ZobristKeys.computePawnKey(board), board.getPieceMask(ChessPieceType.PAWN, ChessPieceColor.WHITE),
+                           board.getPieceMask(ChessPieceType.PAWN, ChessPieceColor.BLACK));
+    }
+}
@@ -0,0 +1,263 @@
+package net.thatapex.chesssite.engine;
+
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.game.Game;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import net.thatapex.chesssite.chess.move.Moves;
+import net.thatapex.chesssite.chess.tablebase.Material;
+import net.thatapex.chesssite.chess.tablebase.Tablebase;
+import net.thatapex.chesssite.chess.tablebase.TablebaseGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static net.thatapex.chesssite.engine.EngineTestHelpers.createBoard;
+import static net.thatapex.chesssite.engine.EngineTestHelpers.findMove;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestSearchEngine {
+    private SearchEngine engine;
+
+    @BeforeEach
+    public void createEngine() {
+        this.engine = new SearchEngine();
+    }
+
+    @AfterEach
+    public void closeEngine() {
+        this.engine.close();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // back rank mate
+            "6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1, a1a8, 1",
+            // the king has to be driven to the corner first
+            "k7/8/2K5/8/8/8/8/7R w - - 0 1, c6b6, 3",
+            // taking the rook is not a mate, the king would recapture
+            "3k4/8/8/8/8/8/1q6/KR6 b - - 0 1, b2a3, 1",
+            // a smothered mate
+            "r5rk/6pp/7N/8/8/8/1Q6/6K1 w - - 0 1, h6f7, 1"
+    })
+    public void testFindsMate(final String fen, final String bestMove, final int matePlies) {
+        final SearchResult result = this.engine.search(createBoard(fen), SearchLimits.ofDepth(6));
+
+        assertThat("mate not found", result.getScore(), is(equalTo(Scores.mateIn(matePlies))));
+        assertThat("invalid best move", Moves.toNotation(result.getBestMove()), is(equalTo(bestMove)));
+        assertThat("invalid principal variation length", result.getPrincipalVariation().length, is(equalTo(matePlies)));
+    }
+
+    @Test
+    public void testWinsMaterial() {
+        // the rook wins the undefended queen
+        final SearchResult result = this.engine.search(createBoard("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1"), SearchLimits.ofDepth(4));
+
+        assertThat("invalid best move", Moves.toNotation(result.getBestMove()), is(equalTo("d2d5")));
+        assertThat("material not won", result.getScore(), is(greaterThan(300)));
+    }
+
+    @Test
+    public void testNoLegalMoves() {
+        final SearchResult checkmate = this.engine.search(createBoard("R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1"), SearchLimits.ofDepth(3));
+        final SearchResult stalemate = this.engine.search(createBoard("k7/8/1Q6/8/8/8/8/6K1 b - - 0 1"), SearchLimits.ofDepth(3));
+
+        assertThat(checkmate.getBestMove(), is(equalTo(Moves.NONE)));
+        assertThat(checkmate.getScore(), is(equalTo(Scores.matedIn(0))));
+        assertThat(stalemate.getBestMove(), is(equalTo(Moves.NONE)));
+        assertThat(stalemate.getScore(), is(equalTo(Scores.DRAW)));
+    }
+
+    @Test
+    public void testFiftyMoveRule() {
+        // every move reaches the 100th ply without a capture or a pawn move, but the mate is not a draw
+        final SearchResult mate = this.engine.search(createBoard("6k1/5ppp/8/8/8/8/8/R5K1 w - - 99 80"), SearchLimits.ofDepth(3));
+
+        assertThat(Moves.toNotation(mate.getBestMove()), is(equalTo("a1a8")));
+        assertThat(mate.getScore(), is(equalTo(Scores.mateIn(1))));
+
+        final SearchResult draw = this.engine.search(createBoard("6k1/8/8/8/8/8/8/R5K1 w - - 99 80"), SearchLimits.ofDepth(3));
+
+        assertThat(draw.getScore(), is(equalTo(Scores.DRAW)));
+    }
+
+    @Test
+    public void testRepetitionOfGame() throws InterruptedException {
+        final MutableChessBoard board = createBoard("4k1n1/8/8/8/8/8/8/3QK1N1 w - - 0 1");
+        final Game              game  = new Game(board);
+
+        for (final String move : new String[]{"g1f3", "g8f6", "f3g1", "f6g8", "g1f3", "g8f6", "f3g1"}) {
+            game.makeMove(findMove(game.getBoard(), move));
+        }
+
+        // a queen down, black repeats the starting position of the game a third time
+        final SearchResult result = this.engine.search(game, SearchLimits.ofDepth(3));
+
+        assertThat(Moves.toNotation(result.getBestMove()), is(equalTo("f6g8")));
+        assertThat(result.getScore(), is(equalTo(Scores.DRAW)));
+        assertThat(this.engine.startSearch(game, SearchLimits.ofDepth(3), it -> {
+        }).await().getScore(), is(equalTo(Scores.DRAW)));
+
+        // the position alone does not repeat within three plies
+        this.engine.getTranspositionTable().clear();
+        assertThat(this.engine.search(game.getBoard(), SearchLimits.ofDepth(3)).getScore(), is(lessThan(-500)));
+    }
+
+    @Test
+    public void testSingleRepetitionOfGame() {
+        final MutableChessBoard board = createBoard("4k1n1/8/8/8/8/8/8/3QK1N1 w - - 0 1");
+        final Game              game  = new Game(board);
+
+        for (final String move : new String[]{"g1f3", "g8f6", "f3g1"}) {
+            game.makeMove(findMove(game.getBoard(), move));
+        }
+
+        // repeating the starting position, which occurred only once, does not draw the game yet
+        assertThat(this.engine.search(game, SearchLimits.ofDepth(3)).getScore(), is(lessThan(-500)));
+    }
+
+    @Test
+    public void testLimits() {
+        final MutableChessBoard board = createBoard(FenCodec.STARTING_POSITION);
+
+        final SearchResult depthLimited = this.engine.search(board, SearchLimits.ofDepth(3));
+        assertThat(depthLimited.getDepth(), is(equalTo(3)));
+        assertLegal(board, depthLimited.getBestMove());
+
+        final SearchResult nodeLimited = this.engine.search(board, SearchLimits.ofNodes(5000));
+        assertThat(nodeLimited.getNodes(), is(lessThanOrEqualTo(5000L)));
+        assertLegal(board, nodeLimited.getBestMove());
+
+        // even a search stopped before completing any iteration returns a legal move
+        final SearchResult stoppedEarly = this.engine.search(board, SearchLimits.ofNodes(1));
+        assertThat(stoppedEarly.getDepth(), is(equalTo(0)));
+        assertLegal(board, stoppedEarly.getBestMove());
+
+        final SearchResult timeLimited = this.engine.search(board, SearchLimits.ofTime(100, TimeUnit.MILLISECONDS));
+        assertThat(timeLimited.getElapsedMillis(), is(lessThan(1000L)));
+        assertLegal(board, timeLimited.getBestMove());
+    }
+
+    @Test
+    public void testBackgroundSearch() throws InterruptedException {
+        final MutableChessBoard board  = createBoard(FenCodec.STARTING_POSITION);
+        final SearchHandle      handle = this.engine.startSearch(board, SearchLimits.infinite());
+
+        // the search works on its own copy of the board
+        board.resetState();
+
+        while (handle.getLatestResult().isEmpty()) {
+            Thread.sleep(1);
+        }
+
+        handle.cancel();
+
+        final SearchResult result = handle.await();
+
+        assertThat(handle.isDone(), is(true));
+        assertThat(result.getDepth(), is(greaterThanOrEqualTo(1)));
+        assertLegal(createBoard(FenCodec.STARTING_POSITION), result.getBestMove());
+        assertThat(handle.getLatestResult().orElseThrow(), is(equalTo(result)));
+    }
+
+    @Test
+    public void testMultiThreadedSearch() {
+        try (final SearchEngine engine = new SearchEngine(new TranspositionTable(4), 4)) {
+            final SearchResult mate = engine.search(createBoard("k7/8/2K5/8/8/8/8/7R w - - 0 1"), SearchLimits.ofDepth(6));
+
+            assertThat(mate.getScore(), is(equalTo(Scores.mateIn(3))));
+            assertThat(Moves.toNotation(mate.getBestMove()), is(equalTo("c6b6")));
+
+            final MutableChessBoard board  = createBoard(FenCodec.STARTING_POSITION);
+            final SearchResult      result = engine.search(board, SearchLimits.ofTime(200, TimeUnit.MILLISECONDS));
+
+            assertThat(result.getDepth(), is(greaterThanOrEqualTo(1)));
+            assertLegal(board, result.getBestMove());
+        }
+    }
+
+    @Test
+    public void testDeterministicSearch() {
+        final MutableChessBoard board = createBoard(FenCodec.STARTING_POSITION);
+
+        try (final SearchEngine first = new SearchEngine(); final SearchEngine second = new SearchEngine()) {
+            final SearchResult expected = first.search(board, SearchLimits.ofDepth(4));
+            final SearchResult actual   = second.search(board, SearchLimits.ofDepth(4));
+
+            assertThat(actual.getBestMove(), is(equalTo(expected.getBestMove())));
+            assertThat(actual.getScore(), is(equalTo(expected.getScore())));
+            assertThat(actual.getNodes(), is(equalTo(expected.getNodes())));
+        }
+    }
+
+    @Test
+    public void testPawnHashTableStatistics() {
+        try (final SearchEngine engine = new SearchEngine(new TranspositionTable(1), 2, null, 16)) {
+            assertThat(engine.getPawnTableSizeKilobytes(), is(equalTo(16)));
+            assertThat(engine.getPawnHashTableStatistics().getProbes(), is(equalTo(0L)));
+
+            engine.search(createBoard(FenCodec.STARTING_POSITION), SearchLimits.ofDepth(4));
+
+            final PawnHashTableStatistics statistics = engine.getPawnHashTableStatistics();
+
+            // most positions share their pawns with an earlier one
+            assertThat(statistics.getProbes(), is(greaterThan(0L)));
+            assertThat(statistics.getHits(), is(lessThanOrEqualTo(statistics.getProbes())));
+            assertThat(statistics.getHitRate(), is(greaterThan(0.5)));
+
+            engine.resetPawnHashTableStatistics();
+            assertThat(engine.getPawnHashTableStatistics().getProbes(), is(equalTo(0L)));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new SearchEngine(new TranspositionTable(1), 1, null, 0));
+    }
+
+    @Test
+    public void testTablebase() throws IOException {
+        final Path directory = Files.createTempDirectory("tablebase");
+
+        try {
+            new TablebaseGenerator(directory).generate(Material.parse("KQvK"));
+
+            try (final Tablebase tablebase = new Tablebase(directory, 4);
+                 final SearchEngine engine = new SearchEngine(new TranspositionTable(1), 1, tablebase)) {
+                // taking the rook with either piece wins, found at the capture instead of searching the mate
+                final SearchResult result = engine.search(createBoard("4k3/8/8/8/8/8/3r4/3QK3 w - - 0 1"), SearchLimits.ofDepth(3));
+
+                assertThat(result.getScore(), is(equalTo(Scores.tablebaseWinIn(1))));
+                assertThat(Moves.toNotation(result.getBestMove()), is(anyOf(equalTo("d1d2"), equalTo("e1d2"))));
+                assertThat(tablebase.getPageProbes(), is(greaterThan(0L)));
+                assertThat(engine.getTablebase().orElseThrow(), is(tablebase));
+            }
+        } finally {
+            try (final Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static void assertLegal(final MutableChessBoard board, final int move) {
+        final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        final int   count = new MoveGenerator().generateLegalMoves(board, moves);
+
+        assertThat("move " + Moves.toNotation(move) + " is not legal", Arrays.stream(moves, 0, count).anyMatch(it -> it == move), is(true));
+    }
+}
@@ -0,0 +1,172 @@
+package net.thatapex.chesssite.engine;
+
+import net.thatapex.chesssite.chess.board.BitboardChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.move.Moves;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestTranspositionTable {
+
+    @Test
+    public void testStoreAndProbe() {
+        final TranspositionTable table = new TranspositionTable(1);
+        final int                move  = Moves.encode(12, 28, Moves.FLAG_DOUBLE_PUSH);
+
+        assertThat(table.getCapacity(), is(equalTo((1 << 20) / 16)));
+        assertThat(table.probe(42L), is(equalTo(TranspositionTable.NO_ENTRY)));
+
+        table.store(42L, move, -Scores.mateIn(5), 7, TranspositionTable.BOUND_UPPER);
+
+        final long entry = table.probe(42L);
+
+        assertThat(entry, is(not(TranspositionTable.NO_ENTRY)));
+        assertThat(TranspositionTable.getMove(entry), is(equalTo(move)));
+        assertThat(TranspositionTable.getScore(entry), is(equalTo(-Scores.mateIn(5))));
+        assertThat(TranspositionTable.getDepth(entry), is(equalTo(7)));
+        assertThat(TranspositionTable.getBound(entry), is(equalTo(TranspositionTable.BOUND_UPPER)));
+
+        // same bucket, but a different key
+        assertThat(table.probe(42L | 1L << 40), is(equalTo(TranspositionTable.NO_ENTRY)));
+
+        table.clear();
+        assertThat(table.probe(42L), is(equalTo(TranspositionTable.NO_ENTRY)));
+    }
+
+    @Test
+    public void testInvalidEntries() {
+        final TranspositionTable table = new TranspositionTable(1);
+
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+        assertThrows(IllegalArgumentException.class, () -> table.store(1L, Moves.NONE, Short.MAX_VALUE + 1, 1, TranspositionTable.BOUND_EXACT));
+        assertThrows(IllegalArgumentException.class, () -> table.store(1L, Moves.NONE, 0, 256, TranspositionTable.BOUND_EXACT));
+        assertThrows(IllegalArgumentException.class, () -> table.store(1L, Moves.NONE, 0, 1, 0));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ReplacementPolicy.class)
+    public void testReplacement(final ReplacementPolicy policy) {
+        final TranspositionTable table        = new TranspositionTable(1, policy);
+        final long               bucketStride = (long) table.getCapacity() / TranspositionTable.BUCKET_SIZE;
+
+        // a deep result of an earlier search fills the bucket together with shallow ones of the current search
+        table.store(0, Moves.NONE, 0, 20, TranspositionTable.BOUND_EXACT);
+        table.newSearch();
+
+        for (int i = 1; i < TranspositionTable.BUCKET_SIZE; i++) {
+            table.store(i * bucketStride, Moves.NONE, 0, i, TranspositionTable.BOUND_EXACT);
+        }
+
+        // a shallower result of the same position replaces the deeper one only if the policy ignores depth
+        table.store(bucketStride, Moves.NONE, 0, 0, TranspositionTable.BOUND_LOWER);
+        assertThat(TranspositionTable.getDepth(table.probe(bucketStride)), is(equalTo(policy == ReplacementPolicy.ALWAYS ? 0 : 1)));
+
+        table.store(TranspositionTable.BUCKET_SIZE * bucketStride, Moves.NONE, 0, 5, TranspositionTable.BOUND_EXACT);
+
+        // the depth preferred policy evicts the shallowest entry, the others the first and oldest one
+        final long expectedVictim = policy == ReplacementPolicy.DEPTH_PREFERRED ? bucketStride : 0;
+
+        assertThat(table.probe(TranspositionTable.BUCKET_SIZE * bucketStride), is(not(TranspositionTable.NO_ENTRY)));
+
+        for (int i = 0; i < TranspositionTable.BUCKET_SIZE; i++) {
+            final long key = i * bucketStride;
+
+            assertThat("invalid replacement of " + key, table.probe(key) == TranspositionTable.NO_ENTRY, is(key == expectedVictim));
+        }
+
+        assertThat(table.getStatistics().getCollisions(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testStatistics() {
+        final TranspositionTable table = new TranspositionTable(1);
+
+        table.store(1L, Moves.NONE, 0, 1, TranspositionTable.BOUND_EXACT);
+        table.probe(1L);
+        table.probe(2L);
+
+        final TranspositionTableStatistics statistics = table.getStatistics();
+
+        assertThat(statistics.getProbes(), is(equalTo(2L)));
+        assertThat(statistics.getHits(), is(equalTo(1L)));
+        assertThat(statistics.getStores(), is(equalTo(1L)));
+        assertThat(statistics.getHitRate(), is(equalTo(0.5)));
+
+        table.resetStatistics();
+        assertThat(table.getStatistics().getProbes(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        // a small table, so that the threads keep overwriting each other's entries
+        final TranspositionTable table    = new TranspositionTable(1);
+        final AtomicLong         hits     = new AtomicLong();
+        final AtomicLong         failures = new AtomicLong();
+        final List<Thread>       threads  = new ArrayList<>();
+
+        for (int t = 0; t < 4; t++) {
+            final SplittableRandom random = new SplittableRandom(t);
+
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    // the data is derived from the key, so an entry mixed from two writes would be noticed
+                    final long key   = random.nextLong();
+                    final int  depth = (int) (key >>> 58);
+                    final int  score = (short) key;
+
+                    table.store(key, Moves.NONE, score, depth, TranspositionTable.BOUND_EXACT);
+
+                    final long entry = table.probe(key);
+
+                    if (entry != TranspositionTable.NO_ENTRY) {
+                        hits.incrementAndGet();
+
+                        if (TranspositionTable.getDepth(entry) != depth || TranspositionTable.getScore(entry) != score) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(hits.get(), is(greaterThan(0L)));
+        assertThat(failures.get(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testSharedBySearches() {
+        final BitboardChessBoard board = new BitboardChessBoard();
+        FenCodec.decode(FenCodec.STARTING_POSITION, board);
+
+        try (final SearchEngine engine = new SearchEngine(new TranspositionTable(1))) {
+            final SearchResult first = engine.search(board, SearchLimits.ofDepth(4));
+
+            assertThat(engine.getTranspositionTable().getStatistics().getHits(), is(greaterThan(0L)));
+
+            // the second search starts with the results of the first one
+            final SearchResult second = engine.search(board, SearchLimits.ofDepth(4));
+
+            assertThat(second.getNodes(), is(lessThan(first.getNodes())));
+        }
+    }
+}
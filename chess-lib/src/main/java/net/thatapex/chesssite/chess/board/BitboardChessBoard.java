@@ -0,0 +1,468 @@
+package net.thatapex.chesssite.chess.board;
+
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.move.Moves;
+import net.thatapex.chesssite.chess.pieces.ChessPiece;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+import net.thatapex.chesssite.chess.pieces.ChessPieces;
+import net.thatapex.chesssite.chess.pieces.types.King;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A compact implementation of the {@link MutableChessBoard}, backed by bitboards.
+ * <p>
+ * The position is stored as twelve 64-bit occupancy masks, one for every piece type and color pair, where every bit represents a single square.
+ * Castling rights, the en passant square and the side to move are packed into a single integer.
+ * The Zobrist key of the pieces is updated whenever a piece is put or removed, the key of the rest of the state is looked up from the packed integer.
+ * <p>
+ * The piece instances put on the board are kept only so that {@link #getPiece(ChessSquare)} returns the same objects as {@link MutableChessBoardImpl} would.
+ * Copies of this board share these instances instead of cloning them, as pieces are never modified.
+ */
+public class BitboardChessBoard implements MutableChessBoard {
+    private static final int PIECE_MASK_COUNT = ChessPieceType.values().size() * ChessPieceColor.values().length;
+
+    private static final int CASTLING_RIGHTS_BITS    = 2;
+    private static final int CASTLING_RIGHTS_MASK    = (1 << CASTLING_RIGHTS_BITS) - 1;
+    private static final int EN_PASSANT_SQUARE_SHIFT = CASTLING_RIGHTS_BITS * ChessPieceColor.values().length;
+    private static final int EN_PASSANT_SQUARE_MASK  = 0x7F << EN_PASSANT_SQUARE_SHIFT;
+    private static final int SIDE_TO_MOVE_BIT        = 1 << 11;
+    private static final int STATE_MASK              = (SIDE_TO_MOVE_BIT << 1) - 1;
+    private static final int HALFMOVE_CLOCK_SHIFT    = 12;
+    private static final int MAXIMUM_HALFMOVE_CLOCK  = (1 << (Integer.SIZE - HALFMOVE_CLOCK_SHIFT - 1)) - 1;
+    private static final int DEFAULT_STATE           = (1 << EN_PASSANT_SQUARE_SHIFT) - 1;
+    private static final int KING_FILE_INDEX         = King.KING_STARTING_FILE.getIndex();
+
+    /**
+     * State mask for every square, that clears the castling rights lost by moving a piece from or to that square.
+     */
+    private static final int[] CASTLING_RIGHTS_KEPT = new int[ChessSquare.SQUARE_COUNT];
+
+    private static final long[] CASTLING_RIGHTS_KEYS = new long[1 << EN_PASSANT_SQUARE_SHIFT];
+
+    static {
+        Arrays.fill(CASTLING_RIGHTS_KEPT, ~0);
+
+        for (int bits = 0; bits < CASTLING_RIGHTS_KEYS.length; bits++) {
+            for (final ChessPieceColor color : ChessPieceColor.values()) {
+                final int colorBits = bits >>> (color.ordinal() * CASTLING_RIGHTS_BITS);
+
+                CASTLING_RIGHTS_KEYS[bits] ^= ZobristKeys.getCastlingKey(color, CastlingRights.of((colorBits & 1) != 0, (colorBits & 2) != 0));
+            }
+        }
+
+        for (final ChessPieceColor color : ChessPieceColor.values()) {
+            final int shift = color.ordinal() * CASTLING_RIGHTS_BITS;
+            final int base  = color.getPieceStartingRank().getIndex() * ChessSquare.FILE_COUNT;
+
+            CASTLING_RIGHTS_KEPT[base + KING_FILE_INDEX]          = ~(CASTLING_RIGHTS_MASK << shift);
+            CASTLING_RIGHTS_KEPT[base + ChessSquare.FILE_COUNT - 1] = ~(1 << shift);
+            CASTLING_RIGHTS_KEPT[base]                            = ~(2 << shift);
+        }
+    }
+
+    private final long[]          pieceMasks = new long[PIECE_MASK_COUNT];
+    private final ChessPiece<?>[] pieces     = new ChessPiece<?>[ChessSquare.SQUARE_COUNT];
+    private final MoveUndoStack   undoStack  = new MoveUndoStack();
+    private       PieceListener   pieceListener;
+    private       long            piecesKey;
+    private       int             state;
+    private       int             halfmoveClock;
+    private       int             fullmoveNumber;
+
+    /**
+     * Constructs a new ChessBoard, initialized with the default board state.
+     */
+    public BitboardChessBoard() {
+        this.resetState();
+    }
+
+    /**
+     * Constructs a new ChessBoard, initialized with a copy of the supplied board.
+     *
+     * @param board board to copy the state from
+     */
+    public BitboardChessBoard(final ChessBoard board) {
+        Validate.isTrue(board.getBoardSize() == MutableChessBoardImpl.CHESS_BOARD_SIZE, "board size is invalid");
+
+        if (board instanceof BitboardChessBoard) {
+            final BitboardChessBoard that = (BitboardChessBoard) board;
+
+            System.arraycopy(that.pieceMasks, 0, this.pieceMasks, 0, PIECE_MASK_COUNT);
+            System.arraycopy(that.pieces, 0, this.pieces, 0, this.pieces.length);
+            this.piecesKey      = that.piecesKey;
+            this.state          = that.state;
+            this.halfmoveClock  = that.halfmoveClock;
+            this.fullmoveNumber = that.fullmoveNumber;
+            return;
+        }
+
+        final List<ChessPiece<?>> pieceList = board.asPieceList();
+
+        for (int i = 0; i < pieceList.size(); i++) {
+            final ChessPiece<?> piece = pieceList.get(i);
+
+            if (piece != null) {
+                this.putPiece(i, piece);
+            }
+        }
+
+        for (final ChessPieceColor color : ChessPieceColor.values()) {
+            this.setCastlingRightsFor(color, board.getCastlingRightsFor(color));
+        }
+
+        this.setEnPassantSquare(board.getEnPassantSquare().orElse(null));
+        this.setSideToMove(board.getSideToMove());
+        this.setHalfmoveClock(board.getHalfmoveClock());
+        this.setFullmoveNumber(board.getFullmoveNumber());
+    }
+
+    @Override
+    public int getBoardSize() {
+        return MutableChessBoardImpl.CHESS_BOARD_SIZE;
+    }
+
+    @Override
+    public List<ChessPiece<?>> asPieceList() {
+        return Collections.unmodifiableList(Arrays.asList(this.pieces));
+    }
+
+    @Override
+    public void resetState() {
+        this.clearPieces();
+        this.state          = DEFAULT_STATE;
+        this.halfmoveClock  = 0;
+        this.fullmoveNumber = 1;
+    }
+
+    @Override
+    public void setCastlingRightsFor(final ChessPieceColor color, final CastlingRights rights) {
+        final int shift = color.ordinal() * CASTLING_RIGHTS_BITS;
+        final int bits  = (rights.hasShortCastleRights() ? 1 : 0) | (rights.hasLongCastleRights() ? 2 : 0);
+
+        this.state = (this.state & ~(CASTLING_RIGHTS_MASK << shift)) | (bits << shift);
+    }
+
+    @Override
+    public void setSideToMove(final ChessPieceColor color) {
+        this.state = color == ChessPieceColor.WHITE ? this.state & ~SIDE_TO_MOVE_BIT : this.state | SIDE_TO_MOVE_BIT;
+    }
+
+    @Override
+    public void setHalfmoveClock(final int halfmoveClock) {
+        Validate.inclusiveBetween(0, MAXIMUM_HALFMOVE_CLOCK, halfmoveClock, "invalid halfmove clock");
+
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    @Override
+    public void setFullmoveNumber(final int fullmoveNumber) {
+        Validate.isTrue(fullmoveNumber > 0, "fullmove number must be positive");
+
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    @Override
+    public void setEnPassantSquare(final ChessSquare square) {
+        final int value = square == null ? 0 : square.index() + 1;
+
+        this.state = (this.state & ~EN_PASSANT_SQUARE_MASK) | (value << EN_PASSANT_SQUARE_SHIFT);
+    }
+
+    @Override
+    public void clearPieces() {
+        if (this.pieceListener != null) {
+            for (int index = 0; index < ChessSquare.SQUARE_COUNT; index++) {
+                this.removePiece(index);
+            }
+        }
+
+        Arrays.fill(this.pieceMasks, 0L);
+        Arrays.fill(this.pieces, null);
+        this.piecesKey = 0L;
+        this.undoStack.clear();
+    }
+
+    @Override
+    public void setPiece(final ChessSquare square, final ChessPiece<?> piece) {
+        final int index = square.index();
+
+        if (piece != null && !ChessPieces.isCanonical(piece)) {
+            // do not duplicate pieces, only squares occupied by the same type and color can hold the same instance
+            long candidates = this.pieceMasks[getMaskIndex(piece.getType(), piece.getColor())];
+
+            while (candidates != 0) {
+                final int candidate = Long.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+
+                if (this.pieces[candidate] == piece) {
+                    this.removePiece(candidate);
+                }
+            }
+        }
+
+        this.removePiece(index);
+
+        if (piece != null) {
+            this.putPiece(index, piece);
+        }
+    }
+
+    @Override
+    public void setPieceListener(final PieceListener listener) {
+        this.pieceListener = listener;
+    }
+
+    @Override
+    public CastlingRights getCastlingRightsFor(final ChessPieceColor color) {
+        final int bits = this.state >>> (color.ordinal() * CASTLING_RIGHTS_BITS);
+
+        return CastlingRights.of((bits & 1) != 0, (bits & 2) != 0);
+    }
+
+    @Override
+    public ChessPieceColor getSideToMove() {
+        return (this.state & SIDE_TO_MOVE_BIT) == 0 ? ChessPieceColor.WHITE : ChessPieceColor.BLACK;
+    }
+
+    @Override
+    public int getHalfmoveClock() {
+        return this.halfmoveClock;
+    }
+
+    @Override
+    public int getFullmoveNumber() {
+        return this.fullmoveNumber;
+    }
+
+    @Override
+    public long getPositionKey() {
+        final int enPassant = (this.state & EN_PASSANT_SQUARE_MASK) >>> EN_PASSANT_SQUARE_SHIFT;
+        long      key       = this.piecesKey ^ CASTLING_RIGHTS_KEYS[this.state & ((1 << EN_PASSANT_SQUARE_SHIFT) - 1)];
+
+        if (enPassant != 0) {
+            final ChessPieceColor color = this.getSideToMove();
+
+            key ^= ZobristKeys.getEnPassantKey(enPassant - 1, color, this.getPieceMask(ChessPieceType.PAWN, color));
+        }
+
+
+        return (this.state & SIDE_TO_MOVE_BIT) == 0 ? key : key ^ ZobristKeys.getSideToMoveKey();
+    }
+
+    @Override
+    public Optional<ChessSquare> getEnPassantSquare() {
+        final int value = (this.state & EN_PASSANT_SQUARE_MASK) >>> EN_PASSANT_SQUARE_SHIFT;
+
+        return ChessSquare.fromIndex(value - 1);
+    }
+
+    @Override
+    public Optional<ChessPiece<?>> getPiece(final ChessSquare square) {
+        return Optional.ofNullable(this.pieces[square.index()]);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends ChessPiece<T>> Optional<ChessPiece<T>> getPiece(final ChessSquare square, final ChessPieceType<T> type, final ChessPieceColor color) {
+        final int index = square.index();
+
+        if ((this.pieceMasks[getMaskIndex(type, color)] & (1L << index)) == 0) {
+            return Optional.empty();
+        }
+
+        return Optional.of((ChessPiece<T>) this.pieces[index]);
+    }
+
+    @Override
+    public long getPieceMask(final ChessPieceType<?> type, final ChessPieceColor color) {
+        return this.pieceMasks[getMaskIndex(type, color)];
+    }
+
+    @Override
+    public long getColorMask(final ChessPieceColor color) {
+        final int offset = getMaskIndex(ChessPieceType.KING, color);
+        long      mask   = 0L;
+
+        for (int i = 0; i < ChessPieceType.values().size(); i++) {
+            mask |= this.pieceMasks[offset + i];
+        }
+
+        return mask;
+    }
+
+    @Override
+    public long getOccupiedMask() {
+        long mask = 0L;
+
+        for (final long pieceMask : this.pieceMasks) {
+            mask |= pieceMask;
+        }
+
+        return mask;
+    }
+
+    @Override
+    public void makeMove(final int move) {
+        final int           from  = Moves.getFromIndex(move);
+        final int           to    = Moves.getToIndex(move);
+        final ChessPiece<?> piece = this.pieces[from];
+
+        if (piece == null || piece.getColor() != this.getSideToMove()) {
+            throw new IllegalArgumentException("there is no piece of the side to move on the source square");
+        }
+
+        final int           capturedIndex = Moves.hasFlag(move, Moves.FLAG_EN_PASSANT) ? getEnPassantCaptureIndex(to, piece.getColor()) : to;
+        final ChessPiece<?> captured      = this.pieces[capturedIndex];
+        final boolean       promotion     = Moves.isPromotion(move);
+
+        this.undoStack.push(move, this.state | (this.halfmoveClock << HALFMOVE_CLOCK_SHIFT), captured, promotion ? piece : null);
+
+        if (captured != null) {
+            this.removePiece(capturedIndex);
+        }
+
+        this.removePiece(from);
+        this.putPiece(to, promotion ? Moves.getPromotionType(move).instantiatePiece(piece.getColor()) : piece);
+
+        if (Moves.hasFlag(move, Moves.FLAG_CASTLING)) {
+            this.movePiece(getCastlingRookIndex(from, to), (from + to) / 2);
+        }
+
+        int state = (this.state & CASTLING_RIGHTS_KEPT[from] & CASTLING_RIGHTS_KEPT[to] & ~EN_PASSANT_SQUARE_MASK) ^ SIDE_TO_MOVE_BIT;
+
+        if (Moves.hasFlag(move, Moves.FLAG_DOUBLE_PUSH)) {
+            state |= ((from + to) / 2 + 1) << EN_PASSANT_SQUARE_SHIFT;
+        }
+
+        this.state         = state;
+        this.halfmoveClock = captured != null || piece.getType() == ChessPieceType.PAWN ? 0 : this.halfmoveClock + 1;
+
+        if (piece.getColor() == ChessPieceColor.BLACK) {
+            this.fullmoveNumber++;
+        }
+    }
+
+    @Override
+    public void unmakeMove() {
+        final int           move         = this.undoStack.getMove();
+        final int           state        = this.undoStack.getState();
+        final ChessPiece<?> captured     = this.undoStack.getCapturedPiece();
+        final ChessPiece<?> promotedPawn = this.undoStack.getPromotedPawn();
+        final int           from         = Moves.getFromIndex(move);
+        final int           to           = Moves.getToIndex(move);
+
+        this.undoStack.pop();
+
+        if (promotedPawn != null) {
+            this.removePiece(to);
+            this.putPiece(from, promotedPawn);
+        } else {
+            this.movePiece(to, from);
+        }
+
+        if (Moves.hasFlag(move, Moves.FLAG_CASTLING)) {
+            this.movePiece((from + to) / 2, getCastlingRookIndex(from, to));
+        }
+
+        this.state         = state & STATE_MASK;
+        this.halfmoveClock = state >>> HALFMOVE_CLOCK_SHIFT;
+
+        if (captured != null) {
+            this.putPiece(Moves.hasFlag(move, Moves.FLAG_EN_PASSANT) ? getEnPassantCaptureIndex(to, captured.getColor().getOpposite()) : to, captured);
+        }
+
+        if (this.getSideToMove() == ChessPieceColor.BLACK) {
+            this.fullmoveNumber--;
+        }
+    }
+
+    @Override
+    public ChessBoard cloneAsImmutable() {
+        return PersistentChessBoard.of(this);
+    }
+
+    @Override
+    public MutableChessBoard cloneAsMutable() {
+        return new BitboardChessBoard(this);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o instanceof PersistentChessBoard) {
+            // snapshots compare the position with any board
+            return o.equals(this);
+        }
+
+        if (!(o instanceof BitboardChessBoard)) {
+            return false;
+        }
+
+        final BitboardChessBoard that = (BitboardChessBoard) o;
+
+        return this.state == that.state
+               && this.halfmoveClock == that.halfmoveClock
+               && this.fullmoveNumber == that.fullmoveNumber
+               && Arrays.equals(this.pieceMasks, that.pieceMasks);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.getPositionKey());
+    }
+
+    private void putPiece(final int index, final ChessPiece<?> piece) {
+        this.pieceMasks[getMaskIndex(piece.getType(), piece.getColor())] |= 1L << index;
+        this.pieces[index] = piece;
+        this.piecesKey ^= ZobristKeys.getPieceKey(piece.getType(), piece.getColor(), index);
+
+        if (this.pieceListener != null) {
+            this.pieceListener.pieceAdded(piece, index);
+        }
+    }
+
+    private void movePiece(final int from, final int to) {
+        final ChessPiece<?> piece = this.pieces[from];
+
+        this.removePiece(from);
+        this.putPiece(to, piece);
+    }
+
+    private void removePiece(final int index) {
+        final ChessPiece<?> piece = this.pieces[index];
+
+        if (piece == null) {
+            return;
+        }
+
+        this.pieceMasks[getMaskIndex(piece.getType(), piece.getColor())] &= ~(1L << index);
+        this.pieces[index] = null;
+        this.piecesKey ^= ZobristKeys.getPieceKey(piece.getType(), piece.getColor(), index);
+
+        if (this.pieceListener != null) {
+            this.pieceListener.pieceRemoved(piece, index);
+        }
+    }
+
+    private static int getEnPassantCaptureIndex(final int enPassantIndex, final ChessPieceColor capturingColor) {
+        return enPassantIndex - capturingColor.getRankAdvanceDirection() * ChessSquare.FILE_COUNT;
+    }
+
+    private static int getCastlingRookIndex(final int kingFrom, final int kingTo) {
+        return kingTo > kingFrom ? kingFrom + (ChessSquare.FILE_COUNT - 1 - KING_FILE_INDEX) : kingFrom - KING_FILE_INDEX;
+    }
+
+    private static int getMaskIndex(final ChessPieceType<?> type, final ChessPieceColor color) {
+        return color.ordinal() * ChessPieceType.values().size() + type.getOrdinal();
+    }
+
+}
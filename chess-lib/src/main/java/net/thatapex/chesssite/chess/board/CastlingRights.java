@@ -8,6 +8,13 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
  * Represents castling rights of a player.
  */
 public class CastlingRights {
+    private static final CastlingRights[] SHARED_INSTANCES = {
+            new CastlingRights(false, false),
+            new CastlingRights(true, false),
+            new CastlingRights(false, true),
+            new CastlingRights(true, true)
+    };
+
     private final boolean shortCastleRights;
     private final boolean longCastleRights;
 
@@ -85,4 +92,15 @@ public class CastlingRights {
                 .append("longCastleRights", this.longCastleRights)
                 .toString();
     }
+
+    /**
+     * Returns a shared CastlingRights instance with the given rights. CastlingRights are immutable, so this can be used instead of the constructor to avoid allocating a new object.
+     *
+     * @param shortCastleRights whether the player can castle short
+     * @param longCastleRights  whether the player can castle long
+     * @return a shared CastlingRights instance
+     */
+    public static CastlingRights of(final boolean shortCastleRights, final boolean longCastleRights) {
+        return SHARED_INSTANCES[(shortCastleRights ? 1 : 0) | (longCastleRights ? 2 : 0)];
+    }
 }
@@ -1,5 +1,6 @@
 package net.thatapex.chesssite.chess.board;
 
+import net.thatapex.chesssite.chess.board.bitboard.Bitboards;
 import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
 import net.thatapex.chesssite.chess.pieces.ChessPiece;
 import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
@@ -11,7 +12,8 @@ import java.util.Optional;
 /**
  * Represents a chess board.
  * <p>
- * A chess board contains all the pieces on the board and also its state, that is both players' castling rights and an 'en passant' square location.
+ * A chess board contains all the pieces on the board and also its state, that is the side to move, both players' castling rights, an 'en passant' square location
+ * and the move counters.
  */
 public interface ChessBoard {
 
@@ -25,6 +27,8 @@ public interface ChessBoard {
     /**
      * Converts the board to a list of pieces. The returned list must be of the same size as {@link #getBoardSize()} and may contain null elements for missing pieces.
      * <p>
+     * The pieces are ordered by the index of the square they are located on, see {@link ChessSquare#index()}.
+     * <p>
      * The returned value may be immutable.
      *
      * @return a list of pieces on the board
@@ -46,6 +50,38 @@ public interface ChessBoard {
      */
     Optional<ChessSquare> getEnPassantSquare();
 
+    /**
+     * Gets the color of the player to make the next move.
+     *
+     * @return color of the side to move
+     */
+    ChessPieceColor getSideToMove();
+
+    /**
+     * Gets the number of halfmoves since the last capture or pawn move, used by the fifty-move rule.
+     *
+     * @return the halfmove clock
+     */
+    int getHalfmoveClock();
+
+    /**
+     * Gets the number of the full move, starting at 1 and incremented after every black's move.
+     *
+     * @return the fullmove number
+     */
+    int getFullmoveNumber();
+
+    /**
+     * Gets the 64-bit Zobrist key of the position, see {@link ZobristKeys}.
+     * <p>
+     * The key covers the pieces, the castling rights, the en passant square and the side to move, but not the move counters.
+     * Boards with equal positions always have equal keys, while different positions have different keys with a very high probability.
+     * The key is maintained incrementally, so this method is cheap.
+     *
+     * @return the position key
+     */
+    long getPositionKey();
+
     /**
      * Gets a piece located on a given square.
      *
@@ -65,6 +101,46 @@ public interface ChessBoard {
      */
     <T extends ChessPiece<T>> Optional<ChessPiece<T>> getPiece(ChessSquare square, ChessPieceType<T> type, ChessPieceColor color);
 
+    /**
+     * Gets a bitboard (see {@link Bitboards}) of squares occupied by pieces of the given type and the given color.
+     *
+     * @param type  type of the pieces
+     * @param color color of the pieces
+     * @return bitboard of occupied squares
+     */
+    long getPieceMask(ChessPieceType<?> type, ChessPieceColor color);
+
+    /**
+     * Gets a bitboard (see {@link Bitboards}) of squares occupied by pieces of the given color.
+     *
+     * @param color color of the pieces
+     * @return bitboard of occupied squares
+     */
+    default long getColorMask(final ChessPieceColor color) {
+        long mask = Bitboards.EMPTY;
+
+        for (final ChessPieceType<?> type : ChessPieceType.values()) {
+            mask |= this.getPieceMask(type, color);
+        }
+
+        return mask;
+    }
+
+    /**
+     * Gets a bitboard (see {@link Bitboards}) of all occupied squares.
+     *
+     * @return bitboard of occupied squares
+     */
+    default long getOccupiedMask() {
+        long mask = Bitboards.EMPTY;
+
+        for (final ChessPieceColor color : ChessPieceColor.values()) {
+            mask |= this.getColorMask(color);
+        }
+
+        return mask;
+    }
+
     /**
      * Clone this board as a new, immutable {@link ChessBoard}.
      * <p>
@@ -0,0 +1,51 @@
+package net.thatapex.chesssite.chess.board;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Lists all available {@link MutableChessBoard} implementations, so that code creating boards can be configured to use any of them.
+ */
+public enum ChessBoardImplementation {
+    /**
+     * The default implementation, see {@link MutableChessBoardImpl}
+     */
+    DEFAULT(MutableChessBoardImpl::new, MutableChessBoardImpl::new),
+
+    /**
+     * A compact implementation backed by bitboards, see {@link BitboardChessBoard}
+     */
+    BITBOARD(BitboardChessBoard::new, BitboardChessBoard::new),
+
+    /**
+     * An implementation storing pieces as byte codes of shared piece instances, see {@link FlyweightChessBoard}
+     */
+    FLYWEIGHT(FlyweightChessBoard::new, FlyweightChessBoard::new);
+
+    private final Supplier<MutableChessBoard>             constructor;
+    private final Function<ChessBoard, MutableChessBoard> copyConstructor;
+
+    ChessBoardImplementation(final Supplier<MutableChessBoard> constructor, final Function<ChessBoard, MutableChessBoard> copyConstructor) {
+        this.constructor     = constructor;
+        this.copyConstructor = copyConstructor;
+    }
+
+    /**
+     * Creates a new board, initialized with the default board state.
+     *
+     * @return the created board
+     */
+    public MutableChessBoard createBoard() {
+        return this.constructor.get();
+    }
+
+    /**
+     * Creates a new board, initialized with a copy of the supplied board.
+     *
+     * @param board board to copy the state from, may be of any implementation
+     * @return the created board
+     */
+    public MutableChessBoard copyBoard(final ChessBoard board) {
+        return this.copyConstructor.apply(board);
+    }
+}
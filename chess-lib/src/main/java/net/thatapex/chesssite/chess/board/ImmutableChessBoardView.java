@@ -46,6 +46,26 @@ public class ImmutableChessBoardView implements ChessBoard {
         return this.wrappedObject.getEnPassantSquare();
     }
 
+    @Override
+    public ChessPieceColor getSideToMove() {
+        return this.wrappedObject.getSideToMove();
+    }
+
+    @Override
+    public int getHalfmoveClock() {
+        return this.wrappedObject.getHalfmoveClock();
+    }
+
+    @Override
+    public int getFullmoveNumber() {
+        return this.wrappedObject.getFullmoveNumber();
+    }
+
+    @Override
+    public long getPositionKey() {
+        return this.wrappedObject.getPositionKey();
+    }
+
     @Override
     public Optional<ChessPiece<?>> getPiece(final ChessSquare square) {
         return this.wrappedObject.getPiece(square);
@@ -56,6 +76,21 @@ public class ImmutableChessBoardView implements ChessBoard {
         return this.wrappedObject.getPiece(square, type, color);
     }
 
+    @Override
+    public long getPieceMask(final ChessPieceType<?> type, final ChessPieceColor color) {
+        return this.wrappedObject.getPieceMask(type, color);
+    }
+
+    @Override
+    public long getColorMask(final ChessPieceColor color) {
+        return this.wrappedObject.getColorMask(color);
+    }
+
+    @Override
+    public long getOccupiedMask() {
+        return this.wrappedObject.getOccupiedMask();
+    }
+
     @Override
     public ChessBoard cloneAsImmutable() {
         return this;
@@ -63,7 +98,7 @@ public class ImmutableChessBoardView implements ChessBoard {
 
     @Override
     public MutableChessBoard cloneAsMutable() {
-        return new MutableChessBoardImpl(this);
+        return this.wrappedObject.cloneAsMutable();
     }
 
     @Override
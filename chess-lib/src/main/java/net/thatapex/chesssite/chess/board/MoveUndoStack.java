@@ -0,0 +1,89 @@
+package net.thatapex.chesssite.chess.board;
+
+import net.thatapex.chesssite.chess.pieces.ChessPiece;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Arrays;
+
+/**
+ * A growable stack of compact undo records, used by the {@link MutableChessBoard} implementations to take moves back.
+ * <p>
+ * A record packs the move and the irreversible part of the board state (castling rights, en passant square, halfmove clock), encoded by the board implementation,
+ * into a single long. The captured piece and the promoted pawn are kept next to it, so that taking a move back restores the very same piece instances.
+ */
+final class MoveUndoStack {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[]          records        = new long[INITIAL_CAPACITY];
+    private ChessPiece<?>[] capturedPieces = new ChessPiece<?>[INITIAL_CAPACITY];
+    private ChessPiece<?>[] promotedPawns  = new ChessPiece<?>[INITIAL_CAPACITY];
+    private int             size;
+
+    /**
+     * Pushes a new record onto the stack.
+     *
+     * @param move         the encoded move
+     * @param state        the board state before the move, encoded by the board implementation
+     * @param captured     the captured piece, or null if none
+     * @param promotedPawn the promoted pawn, or null if the move is not a promotion
+     */
+    void push(final int move, final int state, final ChessPiece<?> captured, final ChessPiece<?> promotedPawn) {
+        if (this.size == this.records.length) {
+            final int capacity = this.size * 2;
+
+            this.records        = Arrays.copyOf(this.records, capacity);
+            this.capturedPieces = Arrays.copyOf(this.capturedPieces, capacity);
+            this.promotedPawns  = Arrays.copyOf(this.promotedPawns, capacity);
+        }
+
+        this.records[this.size]        = Integer.toUnsignedLong(move) | ((long) state << Integer.SIZE);
+        this.capturedPieces[this.size] = captured;
+        this.promotedPawns[this.size]  = promotedPawn;
+        this.size++;
+    }
+
+    /**
+     * Removes the top record from the stack. The record must be read before it is popped.
+     */
+    void pop() {
+        Validate.validState(this.size > 0, "there is no move to take back");
+
+        this.size--;
+        this.capturedPieces[this.size] = null;
+        this.promotedPawns[this.size]  = null;
+    }
+
+    int getMove() {
+        return (int) this.peek();
+    }
+
+    int getState() {
+        return (int) (this.peek() >>> Integer.SIZE);
+    }
+
+    ChessPiece<?> getCapturedPiece() {
+        this.peek();
+        return this.capturedPieces[this.size - 1];
+    }
+
+    ChessPiece<?> getPromotedPawn() {
+        this.peek();
+        return this.promotedPawns[this.size - 1];
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    void clear() {
+        Arrays.fill(this.capturedPieces, 0, this.size, null);
+        Arrays.fill(this.promotedPawns, 0, this.size, null);
+        this.size = 0;
+    }
+
+    private long peek() {
+        Validate.validState(this.size > 0, "there is no move to take back");
+
+        return this.records[this.size - 1];
+    }
+}
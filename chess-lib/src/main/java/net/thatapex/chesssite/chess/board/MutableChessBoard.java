@@ -1,6 +1,8 @@
 package net.thatapex.chesssite.chess.board;
 
 import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import net.thatapex.chesssite.chess.move.Moves;
 import net.thatapex.chesssite.chess.pieces.ChessPiece;
 import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
 
@@ -10,7 +12,7 @@ import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
 public interface MutableChessBoard extends ChessBoard {
 
     /**
-     * Clears all pieces from the board and completely resets the board state, resetting the en passant square and the castling rights
+     * Clears all pieces from the board and completely resets the board state, resetting the en passant square, the castling rights, the side to move and the move counters
      */
     void resetState();
 
@@ -22,6 +24,27 @@ public interface MutableChessBoard extends ChessBoard {
      */
     void setCastlingRightsFor(ChessPieceColor color, CastlingRights rights);
 
+    /**
+     * Sets the color of the player to make the next move.
+     *
+     * @param color color of the side to move
+     */
+    void setSideToMove(ChessPieceColor color);
+
+    /**
+     * Sets the number of halfmoves since the last capture or pawn move.
+     *
+     * @param halfmoveClock the halfmove clock, must not be negative
+     */
+    void setHalfmoveClock(int halfmoveClock);
+
+    /**
+     * Sets the number of the full move.
+     *
+     * @param fullmoveNumber the fullmove number, must be positive
+     */
+    void setFullmoveNumber(int fullmoveNumber);
+
     /**
      * Sets the en passant square on the board, replacing the previous one.
      *
@@ -40,10 +63,42 @@ public interface MutableChessBoard extends ChessBoard {
      * Puts a piece on a chess board, making sure only one instance of the piece is on the board.
      * <p>
      * The same piece cannot be on the board in two places, so if the piece is already on the board it will be moved to the new position.
+     * The canonical instances of {@link net.thatapex.chesssite.chess.pieces.ChessPieces} are the exception, they are shared by all squares
+     * holding a piece of their type and color, so they are never moved.
      *
      * @param square square to put the piece on
      * @param piece  piece, null means that the piece will be removed from that square
      */
     void setPiece(ChessSquare square, ChessPiece<?> piece);
 
+    /**
+     * Sets the listener notified about every piece put on or removed from a square of this board, including the changes made by moves.
+     * <p>
+     * The listener is not notified about the pieces already on the board, and is not copied to clones of this board.
+     *
+     * @param listener the listener, replacing the previous one, null to remove the listener
+     */
+    void setPieceListener(PieceListener listener);
+
+    /**
+     * Makes a move in place, updating the whole board state, and pushes a compact undo record onto the undo stack of this board.
+     * <p>
+     * The move must be encoded as described in {@link Moves} and legal in the current position, for example generated by a {@link MoveGenerator}.
+     * Only the basic sanity of the move is validated.
+     *
+     * @param move the encoded move
+     * @throws IllegalArgumentException if there is no piece of the side to move on the source square of the move
+     */
+    void makeMove(int move);
+
+    /**
+     * Takes back the last move made with {@link #makeMove(int)}, restoring the exact previous board state, including the identity of the pieces.
+     * <p>
+     * Modifying the board by any other method than {@link #makeMove(int)} after a move is made makes the result of this method undefined.
+     * The undo stack is cleared by {@link #resetState()} and {@link #clearPieces()}.
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    void unmakeMove();
+
 }
@@ -1,14 +1,14 @@
 package net.thatapex.chesssite.chess.board;
 
-import net.thatapex.chesssite.chess.board.coordinate.ChessFile;
-import net.thatapex.chesssite.chess.board.coordinate.ChessRank;
 import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.move.Moves;
 import net.thatapex.chesssite.chess.pieces.ChessPiece;
 import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
 import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+import net.thatapex.chesssite.chess.pieces.ChessPieces;
+import net.thatapex.chesssite.chess.pieces.types.King;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -20,11 +20,21 @@ import java.util.Optional;
  * A default implementation of the {@link MutableChessBoard}
  */
 public class MutableChessBoardImpl implements MutableChessBoard {
-    public static final int CHESS_BOARD_SIZE = (ChessFile.MAXIMUM_INDEX - ChessFile.MINIMUM_INDEX + 1) * (ChessRank.MAXIMUM_INDEX - ChessRank.MINIMUM_INDEX + 1);
+    public static final int CHESS_BOARD_SIZE = ChessSquare.SQUARE_COUNT;
+
+    private static final int KING_FILE_INDEX         = King.KING_STARTING_FILE.getIndex();
+    private static final int EN_PASSANT_SQUARE_SHIFT = 4;
+    private static final int HALFMOVE_CLOCK_SHIFT    = 11;
 
     private final List<ChessPiece<?>>                  pieces          = new ArrayList<>(CHESS_BOARD_SIZE);
     private final Map<ChessPieceColor, CastlingRights> castlingRights  = new HashMap<>(ChessPieceColor.values().length);
+    private final MoveUndoStack                        undoStack       = new MoveUndoStack();
+    private       PieceListener                        pieceListener;
     private       ChessSquare                          enPassantSquare = null;
+    private       ChessPieceColor                      sideToMove      = ChessPieceColor.WHITE;
+    private       int                                  halfmoveClock   = 0;
+    private       int                                  fullmoveNumber  = 1;
+    private       long                                 positionKey;
 
     /**
      * Constructs a new ChessBoard, initialized with the default board state.
@@ -51,6 +61,11 @@ public class MutableChessBoardImpl implements MutableChessBoard {
         }
 
         this.enPassantSquare = board.getEnPassantSquare().orElse(null);
+        this.sideToMove      = board.getSideToMove();
+        this.halfmoveClock   = board.getHalfmoveClock();
+        this.fullmoveNumber  = board.getFullmoveNumber();
+        // like the incremental updates, the key leaves out the en passant square
+        this.positionKey     = ZobristKeys.computeKey(this) ^ ZobristKeys.getEnPassantKey(this);
     }
 
     @Override
@@ -73,11 +88,17 @@ public class MutableChessBoardImpl implements MutableChessBoard {
         }
 
         this.enPassantSquare = null;
+        this.sideToMove      = ChessPieceColor.WHITE;
+        this.halfmoveClock   = 0;
+        this.fullmoveNumber  = 1;
+        this.positionKey     = ZobristKeys.computeKey(this);
     }
 
     @Override
     public void setCastlingRightsFor(final ChessPieceColor color, final CastlingRights rights) {
-        this.castlingRights.put(color, rights);
+        final CastlingRights previous = this.castlingRights.put(color, rights);
+
+        this.positionKey ^= ZobristKeys.getCastlingKey(color, previous) ^ ZobristKeys.getCastlingKey(color, rights);
     }
 
     @Override
@@ -85,25 +106,61 @@ public class MutableChessBoardImpl implements MutableChessBoard {
         this.enPassantSquare = square;
     }
 
+    @Override
+    public void setSideToMove(final ChessPieceColor color) {
+        if (this.sideToMove != color) {
+            this.positionKey ^= ZobristKeys.getSideToMoveKey();
+        }
+
+        this.sideToMove = color;
+    }
+
+    @Override
+    public void setHalfmoveClock(final int halfmoveClock) {
+        Validate.isTrue(halfmoveClock >= 0, "halfmove clock must not be negative");
+
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    @Override
+    public void setFullmoveNumber(final int fullmoveNumber) {
+        Validate.isTrue(fullmoveNumber > 0, "fullmove number must be positive");
+
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
     @Override
     public void clearPieces() {
+        for (int i = 0; i < this.pieces.size(); i++) {
+            this.replacePiece(i, null);
+        }
+
         this.pieces.clear();
 
         for (int i = 0; i < CHESS_BOARD_SIZE; i++) {
             this.pieces.add(null);
         }
+
+        this.undoStack.clear();
     }
 
     @Override
     public void setPiece(final ChessSquare square, final ChessPiece<?> piece) {
-        // do not duplicate pieces
-        for (int i = 0; i < this.pieces.size(); i++) {
-            if (this.pieces.get(i) == piece) {
-                this.pieces.set(i, null);
+        // do not duplicate pieces, except for the shared instances
+        if (piece != null && !ChessPieces.isCanonical(piece)) {
+            for (int i = 0; i < this.pieces.size(); i++) {
+                if (this.pieces.get(i) == piece) {
+                    this.replacePiece(i, null);
+                }
             }
         }
 
-        this.pieces.set(this.getIndex(square), piece);
+        this.replacePiece(square.index(), piece);
+    }
+
+    @Override
+    public void setPieceListener(final PieceListener listener) {
+        this.pieceListener = listener;
     }
 
     @Override
@@ -111,14 +168,35 @@ public class MutableChessBoardImpl implements MutableChessBoard {
         return this.castlingRights.get(color);
     }
 
+    @Override
+    public long getPositionKey() {
+        // the en passant key depends on the pawns around the square, so it is not part of the incremental key
+        return this.enPassantSquare == null ? this.positionKey : this.positionKey ^ ZobristKeys.getEnPassantKey(this);
+    }
+
     @Override
     public Optional<ChessSquare> getEnPassantSquare() {
         return Optional.ofNullable(this.enPassantSquare);
     }
 
+    @Override
+    public ChessPieceColor getSideToMove() {
+        return this.sideToMove;
+    }
+
+    @Override
+    public int getHalfmoveClock() {
+        return this.halfmoveClock;
+    }
+
+    @Override
+    public int getFullmoveNumber() {
+        return this.fullmoveNumber;
+    }
+
     @Override
     public Optional<ChessPiece<?>> getPiece(final ChessSquare square) {
-        return Optional.ofNullable(this.pieces.get(this.getIndex(square)));
+        return Optional.ofNullable(this.pieces.get(square.index()));
     }
 
     @SuppressWarnings("unchecked")
@@ -129,9 +207,96 @@ public class MutableChessBoardImpl implements MutableChessBoard {
                 .map(piece -> ((ChessPiece<T>) piece));
     }
 
+    @Override
+    public long getPieceMask(final ChessPieceType<?> type, final ChessPieceColor color) {
+        long mask = 0L;
+
+        for (int i = 0; i < CHESS_BOARD_SIZE; i++) {
+            final ChessPiece<?> piece = this.pieces.get(i);
+
+            if (piece != null && piece.getType().equals(type) && piece.getColor().equals(color)) {
+                mask |= 1L << i;
+            }
+        }
+
+        return mask;
+    }
+
+    @Override
+    public void makeMove(final int move) {
+        final int           from  = Moves.getFromIndex(move);
+        final int           to    = Moves.getToIndex(move);
+        final ChessPiece<?> piece = this.pieces.get(from);
+
+        if (piece == null || piece.getColor() != this.sideToMove) {
+            throw new IllegalArgumentException("there is no piece of the side to move on the source square");
+        }
+
+        final int           capturedIndex = Moves.hasFlag(move, Moves.FLAG_EN_PASSANT) ? getEnPassantCaptureIndex(to, piece.getColor()) : to;
+        final ChessPiece<?> captured      = this.pieces.get(capturedIndex);
+        final boolean       promotion     = Moves.isPromotion(move);
+
+        this.undoStack.push(move, this.encodeIrreversibleState(), captured, promotion ? piece : null);
+
+        this.replacePiece(capturedIndex, null);
+        this.replacePiece(from, null);
+        this.replacePiece(to, promotion ? Moves.getPromotionType(move).instantiatePiece(piece.getColor()) : piece);
+
+        if (Moves.hasFlag(move, Moves.FLAG_CASTLING)) {
+            final int rookIndex = getCastlingRookIndex(from, to);
+
+            this.replacePiece((from + to) / 2, this.pieces.get(rookIndex));
+            this.replacePiece(rookIndex, null);
+        }
+
+        this.revokeCastlingRights(from);
+        this.revokeCastlingRights(to);
+
+        this.setEnPassantSquare(Moves.hasFlag(move, Moves.FLAG_DOUBLE_PUSH) ? ChessSquare.ofIndex((from + to) / 2) : null);
+        this.setSideToMove(this.sideToMove.getOpposite());
+        this.halfmoveClock = captured != null || piece.getType() == ChessPieceType.PAWN ? 0 : this.halfmoveClock + 1;
+
+        if (piece.getColor() == ChessPieceColor.BLACK) {
+            this.fullmoveNumber++;
+        }
+    }
+
+    @Override
+    public void unmakeMove() {
+        final int           move         = this.undoStack.getMove();
+        final int           state        = this.undoStack.getState();
+        final ChessPiece<?> captured     = this.undoStack.getCapturedPiece();
+        final ChessPiece<?> promotedPawn = this.undoStack.getPromotedPawn();
+        final int           from         = Moves.getFromIndex(move);
+        final int           to           = Moves.getToIndex(move);
+
+        this.undoStack.pop();
+
+        this.replacePiece(from, promotedPawn != null ? promotedPawn : this.pieces.get(to));
+        this.replacePiece(to, null);
+
+        if (Moves.hasFlag(move, Moves.FLAG_CASTLING)) {
+            final int rookIndex = (from + to) / 2;
+
+            this.replacePiece(getCastlingRookIndex(from, to), this.pieces.get(rookIndex));
+            this.replacePiece(rookIndex, null);
+        }
+
+        this.setSideToMove(this.sideToMove.getOpposite());
+        this.decodeIrreversibleState(state);
+
+        if (captured != null) {
+            this.replacePiece(Moves.hasFlag(move, Moves.FLAG_EN_PASSANT) ? getEnPassantCaptureIndex(to, this.sideToMove) : to, captured);
+        }
+
+        if (this.sideToMove == ChessPieceColor.BLACK) {
+            this.fullmoveNumber--;
+        }
+    }
+
     @Override
     public ChessBoard cloneAsImmutable() {
-        return new ImmutableChessBoardView(this.cloneAsMutable());
+        return PersistentChessBoard.of(this);
     }
 
     @Override
@@ -145,21 +310,105 @@ public class MutableChessBoardImpl implements MutableChessBoard {
             return true;
         }
 
+        if (o instanceof PersistentChessBoard) {
+            // snapshots compare the position with any board
+            return o.equals(this);
+        }
+
         if (!(o instanceof MutableChessBoardImpl)) {
             return false;
         }
 
         final MutableChessBoardImpl that = (MutableChessBoardImpl) o;
 
-        return new EqualsBuilder().append(this.pieces, that.pieces).append(this.castlingRights, that.castlingRights).append(this.enPassantSquare, that.enPassantSquare).isEquals();
+        return new EqualsBuilder()
+                .append(this.pieces, that.pieces)
+                .append(this.castlingRights, that.castlingRights)
+                .append(this.enPassantSquare, that.enPassantSquare)
+                .append(this.sideToMove, that.sideToMove)
+                .append(this.halfmoveClock, that.halfmoveClock)
+                .append(this.fullmoveNumber, that.fullmoveNumber)
+                .isEquals();
     }
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder(17, 37).append(this.pieces).append(this.castlingRights).append(this.enPassantSquare).toHashCode();
+        return Long.hashCode(this.getPositionKey());
+    }
+
+    /**
+     * Puts a piece on the square, or removes it if null, keeping the position key up to date and notifying the piece listener.
+     */
+    private void replacePiece(final int index, final ChessPiece<?> piece) {
+        final ChessPiece<?> previous = this.pieces.set(index, piece);
+
+        if (previous != null) {
+            this.positionKey ^= ZobristKeys.getPieceKey(previous.getType(), previous.getColor(), index);
+
+            if (this.pieceListener != null) {
+                this.pieceListener.pieceRemoved(previous, index);
+            }
+        }
+
+        if (piece != null) {
+            this.positionKey ^= ZobristKeys.getPieceKey(piece.getType(), piece.getColor(), index);
+
+            if (this.pieceListener != null) {
+                this.pieceListener.pieceAdded(piece, index);
+            }
+        }
+    }
+
+    /**
+     * Removes the castling rights lost by moving a piece from or to the given square, that is a king's or a rook's starting square.
+     */
+    private void revokeCastlingRights(final int index) {
+        for (final ChessPieceColor color : ChessPieceColor.values()) {
+            final int            base   = color.getPieceStartingRank().getIndex() * ChessSquare.FILE_COUNT;
+            final CastlingRights rights = this.castlingRights.get(color);
+
+            if (index == base + KING_FILE_INDEX) {
+                this.setCastlingRightsFor(color, CastlingRights.of(false, false));
+            } else if (index == base + ChessSquare.FILE_COUNT - 1) {
+                this.setCastlingRightsFor(color, CastlingRights.of(false, rights.hasLongCastleRights()));
+            } else if (index == base) {
+                this.setCastlingRightsFor(color, CastlingRights.of(rights.hasShortCastleRights(), false));
+            }
+        }
+    }
+
+    private int encodeIrreversibleState() {
+        int state = 0;
+
+        for (final ChessPieceColor color : ChessPieceColor.values()) {
+            final CastlingRights rights = this.castlingRights.get(color);
+            final int            bits   = (rights.hasShortCastleRights() ? 1 : 0) | (rights.hasLongCastleRights() ? 2 : 0);
+
+            state |= bits << (color.ordinal() * 2);
+        }
+
+        state |= (this.enPassantSquare == null ? 0 : this.enPassantSquare.index() + 1) << EN_PASSANT_SQUARE_SHIFT;
+        return state | (this.halfmoveClock << HALFMOVE_CLOCK_SHIFT);
+    }
+
+    private void decodeIrreversibleState(final int state) {
+        for (final ChessPieceColor color : ChessPieceColor.values()) {
+            final int bits = state >>> (color.ordinal() * 2);
+
+            this.setCastlingRightsFor(color, CastlingRights.of((bits & 1) != 0, (bits & 2) != 0));
+        }
+
+        final int enPassant = (state >>> EN_PASSANT_SQUARE_SHIFT) & 0x7F;
+
+        this.setEnPassantSquare(enPassant == 0 ? null : ChessSquare.ofIndex(enPassant - 1));
+        this.halfmoveClock = state >>> HALFMOVE_CLOCK_SHIFT;
+    }
+
+    private static int getEnPassantCaptureIndex(final int enPassantIndex, final ChessPieceColor capturingColor) {
+        return enPassantIndex - capturingColor.getRankAdvanceDirection() * ChessSquare.FILE_COUNT;
     }
 
-    private int getIndex(final ChessSquare square) {
-        return (ChessRank.MAXIMUM_INDEX - ChessRank.MINIMUM_INDEX + 1) * square.getFile().getIndex() + square.getRank().getIndex();
+    private static int getCastlingRookIndex(final int kingFrom, final int kingTo) {
+        return kingTo > kingFrom ? kingFrom + (ChessSquare.FILE_COUNT - 1 - KING_FILE_INDEX) : kingFrom - KING_FILE_INDEX;
     }
 }
@@ -0,0 +1,342 @@
+package net.thatapex.chesssite.chess.board;
+
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.move.Moves;
+import net.thatapex.chesssite.chess.pieces.ChessPiece;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+import net.thatapex.chesssite.chess.pieces.ChessPieces;
+import net.thatapex.chesssite.chess.pieces.types.King;
+import org.apache.commons.lang3.Validate;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An immutable, persistent implementation of the {@link ChessBoard}.
+ * <p>
+ * Making a move with {@link #withMove(int)} does not modify the board, it returns a new board that shares all unchanged data with this one.
+ * The pieces are stored in one array per rank, and a move only copies the (at most three) ranks it touches,
+ * so keeping many snapshots of a game, for spectators, history or analysis threads, costs very little memory and time.
+ * Snapshots of other boards are taken with {@link #of(ChessBoard)}, which the mutable boards also return from {@link #cloneAsImmutable()}.
+ * A snapshot equals every board with the same position, whatever its implementation, see {@link #equals(Object)}.
+ * <p>
+ * Boards are safe to share between threads without any synchronization.
+ */
+public final class PersistentChessBoard implements ChessBoard {
+    private static final int PIECE_MASK_COUNT = ChessPieceType.values().size() * ChessPieceColor.values().length;
+    private static final int KING_FILE_INDEX  = King.KING_STARTING_FILE.getIndex();
+
+    private final ChessPiece<?>[][] ranks;
+    private final long[]            pieceMasks;
+    private final CastlingRights    whiteCastlingRights;
+    private final CastlingRights    blackCastlingRights;
+    private final ChessSquare       enPassantSquare;
+    private final ChessPieceColor   sideToMove;
+    private final int               halfmoveClock;
+    private final int               fullmoveNumber;
+    private final long              positionKey;
+
+    private PersistentChessBoard(final ChessPiece<?>[][] ranks, final long[] pieceMasks, final CastlingRights whiteCastlingRights, final CastlingRights blackCastlingRights,
+                                 final ChessSquare enPassantSquare, final ChessPieceColor sideToMove, final int halfmoveClock, final int fullmoveNumber, final long positionKey) {
+        this.ranks               = ranks;
+        this.pieceMasks          = pieceMasks;
+        this.whiteCastlingRights = whiteCastlingRights;
+        this.blackCastlingRights = blackCastlingRights;
+        this.enPassantSquare     = enPassantSquare;
+        this.sideToMove          = sideToMove;
+        this.halfmoveClock       = halfmoveClock;
+        this.fullmoveNumber      = fullmoveNumber;
+        this.positionKey         = positionKey;
+    }
+
+    /**
+     * Creates a persistent copy of the board. The piece instances are shared, as pieces are never modified.
+     *
+     * @param board board to copy the state from, may be of any implementation
+     * @return the copy, or the board itself if it already is persistent
+     */
+    public static PersistentChessBoard of(final ChessBoard board) {
+        if (board instanceof PersistentChessBoard) {
+            return (PersistentChessBoard) board;
+        }
+
+        Validate.isTrue(board.getBoardSize() == ChessSquare.SQUARE_COUNT, "board size is invalid");
+
+        final ChessPiece<?>[][]   ranks      = new ChessPiece<?>[ChessSquare.RANK_COUNT][ChessSquare.FILE_COUNT];
+        final long[]              pieceMasks = new long[PIECE_MASK_COUNT];
+        final List<ChessPiece<?>> pieces     = board.asPieceList();
+
+        for (int index = 0; index < pieces.size(); index++) {
+            final ChessPiece<?> piece = pieces.get(index);
+
+            if (piece != null) {
+                ranks[index / ChessSquare.FILE_COUNT][index % ChessSquare.FILE_COUNT] = piece;
+                pieceMasks[getMaskIndex(piece.getType(), piece.getColor())] |= 1L << index;
+            }
+        }
+
+        return new PersistentChessBoard(ranks, pieceMasks, board.getCastlingRightsFor(ChessPieceColor.WHITE), board.getCastlingRightsFor(ChessPieceColor.BLACK),
+                                        board.getEnPassantSquare().orElse(null), board.getSideToMove(), board.getHalfmoveClock(), board.getFullmoveNumber(),
+                                        board.getPositionKey());
+    }
+
+    /**
+     * Returns the board after the move is made, this board is left unchanged.
+     * <p>
+     * Like {@link MutableChessBoard#makeMove(int)}, the move is expected to be legal, only the moving piece is validated.
+     *
+     * @param move the encoded move, see {@link Moves}
+     * @return the board after the move
+     * @throws IllegalArgumentException if there is no piece of the side to move on the source square
+     */
+    public PersistentChessBoard withMove(final int move) {
+        final int           from  = Moves.getFromIndex(move);
+        final int           to    = Moves.getToIndex(move);
+        final ChessPiece<?> piece = this.getPieceAt(from);
+
+        if (piece == null || piece.getColor() != this.sideToMove) {
+            throw new IllegalArgumentException("there is no piece of the side to move on the source square");
+        }
+
+        final Change        change        = new Change(this);
+        final int           capturedIndex = Moves.hasFlag(move, Moves.FLAG_EN_PASSANT) ? to - piece.getColor().getRankAdvanceDirection() * ChessSquare.FILE_COUNT : to;
+        final ChessPiece<?> captured      = this.getPieceAt(capturedIndex);
+
+        change.setPiece(capturedIndex, null);
+        change.setPiece(from, null);
+        change.setPiece(to, Moves.isPromotion(move) ? ChessPieces.of(Moves.getPromotionType(move), piece.getColor()) : piece);
+
+        if (Moves.hasFlag(move, Moves.FLAG_CASTLING)) {
+            final int rookFrom = to > from ? from + (ChessSquare.FILE_COUNT - 1 - KING_FILE_INDEX) : from - KING_FILE_INDEX;
+
+            change.setPiece((from + to) / 2, this.getPieceAt(rookFrom));
+            change.setPiece(rookFrom, null);
+        }
+
+        final CastlingRights whiteRights = revokeCastlingRights(this.whiteCastlingRights, ChessPieceColor.WHITE, from, to);
+        final CastlingRights blackRights = revokeCastlingRights(this.blackCastlingRights, ChessPieceColor.BLACK, from, to);
+        final ChessSquare    enPassant   = Moves.hasFlag(move, Moves.FLAG_DOUBLE_PUSH) ? ChessSquare.ofIndex((from + to) / 2) : null;
+
+        long key = change.piecesKey
+                   ^ ZobristKeys.getCastlingKey(ChessPieceColor.WHITE, this.whiteCastlingRights) ^ ZobristKeys.getCastlingKey(ChessPieceColor.WHITE, whiteRights)
+                   ^ ZobristKeys.getCastlingKey(ChessPieceColor.BLACK, this.blackCastlingRights) ^ ZobristKeys.getCastlingKey(ChessPieceColor.BLACK, blackRights)
+                   ^ ZobristKeys.getSideToMoveKey();
+
+        if (this.enPassantSquare != null) {
+            key ^= ZobristKeys.getEnPassantKey(this.enPassantSquare.index(), this.sideToMove, this.getPieceMask(ChessPieceType.PAWN, this.sideToMove));
+        }
+
+        if (enPassant != null) {
+            final ChessPieceColor color = this.sideToMove.getOpposite();
+
+            key ^= ZobristKeys.getEnPassantKey(enPassant.index(), color, change.pieceMasks[getMaskIndex(ChessPieceType.PAWN, color)]);
+        }
+
+        return new PersistentChessBoard(change.ranks, change.pieceMasks, whiteRights, blackRights, enPassant, this.sideToMove.getOpposite(),
+                                        captured != null || piece.getType() == ChessPieceType.PAWN ? 0 : this.halfmoveClock + 1,
+                                        this.sideToMove == ChessPieceColor.BLACK ? this.fullmoveNumber + 1 : this.fullmoveNumber,
+                                        key);
+    }
+
+    @Override
+    public int getBoardSize() {
+        return ChessSquare.SQUARE_COUNT;
+    }
+
+    @Override
+    public List<ChessPiece<?>> asPieceList() {
+        return new AbstractList<>() {
+            @Override
+            public ChessPiece<?> get(final int index) {
+                return PersistentChessBoard.this.getPieceAt(index);
+            }
+
+            @Override
+            public int size() {
+                return ChessSquare.SQUARE_COUNT;
+            }
+        };
+    }
+
+    @Override
+    public CastlingRights getCastlingRightsFor(final ChessPieceColor color) {
+        return color == ChessPieceColor.WHITE ? this.whiteCastlingRights : this.blackCastlingRights;
+    }
+
+    @Override
+    public Optional<ChessSquare> getEnPassantSquare() {
+        return Optional.ofNullable(this.enPassantSquare);
+    }
+
+    @Override
+    public ChessPieceColor getSideToMove() {
+        return this.sideToMove;
+    }
+
+    @Override
+    public int getHalfmoveClock() {
+        return this.halfmoveClock;
+    }
+
+    @Override
+    public int getFullmoveNumber() {
+        return this.fullmoveNumber;
+    }
+
+    @Override
+    public long getPositionKey() {
+        return this.positionKey;
+    }
+
+    @Override
+    public Optional<ChessPiece<?>> getPiece(final ChessSquare square) {
+        return Optional.ofNullable(this.getPieceAt(square.index()));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends ChessPiece<T>> Optional<ChessPiece<T>> getPiece(final ChessSquare square, final ChessPieceType<T> type, final ChessPieceColor color) {
+        final int index = square.index();
+
+        if ((this.pieceMasks[getMaskIndex(type, color)] & (1L << index)) == 0) {
+            return Optional.empty();
+        }
+
+        return Optional.of((ChessPiece<T>) this.getPieceAt(index));
+    }
+
+    @Override
+    public long getPieceMask(final ChessPieceType<?> type, final ChessPieceColor color) {
+        return this.pieceMasks[getMaskIndex(type, color)];
+    }
+
+    @Override
+    public ChessBoard cloneAsImmutable() {
+        return this;
+    }
+
+    @Override
+    public MutableChessBoard cloneAsMutable() {
+        return new BitboardChessBoard(this);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof ChessBoard)) {
+            return false;
+        }
+
+        // the position of any other board, so that a snapshot equals the board it was taken from
+        final ChessBoard that = (ChessBoard) o;
+
+        return this.positionKey == that.getPositionKey()
+               && this.halfmoveClock == that.getHalfmoveClock()
+               && this.fullmoveNumber == that.getFullmoveNumber()
+               && this.sideToMove == that.getSideToMove()
+               && this.whiteCastlingRights.equals(that.getCastlingRightsFor(ChessPieceColor.WHITE))
+               && this.blackCastlingRights.equals(that.getCastlingRightsFor(ChessPieceColor.BLACK))
+               && this.getEnPassantSquare().equals(that.getEnPassantSquare())
+               && this.hasPiecesOf(that);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.positionKey);
+    }
+
+    private boolean hasPiecesOf(final ChessBoard board) {
+        if (board instanceof PersistentChessBoard) {
+            return Arrays.equals(this.pieceMasks, ((PersistentChessBoard) board).pieceMasks);
+        }
+
+        for (final ChessPieceColor color : ChessPieceColor.values()) {
+            for (final ChessPieceType<?> type : ChessPieceType.values()) {
+                if (this.pieceMasks[getMaskIndex(type, color)] != board.getPieceMask(type, color)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private ChessPiece<?> getPieceAt(final int index) {
+        return this.ranks[index / ChessSquare.FILE_COUNT][index % ChessSquare.FILE_COUNT];
+    }
+
+    private static CastlingRights revokeCastlingRights(final CastlingRights rights, final ChessPieceColor color, final int from, final int to) {
+        if (!rights.hasShortCastleRights() && !rights.hasLongCastleRights()) {
+            return rights;
+        }
+
+        final int base = color.getPieceStartingRank().getIndex() * ChessSquare.FILE_COUNT;
+
+        if (from == base + KING_FILE_INDEX) {
+            return CastlingRights.of(false, false);
+        }
+
+        boolean shortCastle = rights.hasShortCastleRights();
+        boolean longCastle  = rights.hasLongCastleRights();
+
+        if (from == base + ChessSquare.FILE_COUNT - 1 || to == base + ChessSquare.FILE_COUNT - 1) {
+            shortCastle = false;
+        }
+
+        if (from == base || to == base) {
+            longCastle = false;
+        }
+
+        return shortCastle == rights.hasShortCastleRights() && longCastle == rights.hasLongCastleRights() ? rights : CastlingRights.of(shortCastle, longCastle);
+    }
+
+    private static int getMaskIndex(final ChessPieceType<?> type, final ChessPieceColor color) {
+        return color.ordinal() * ChessPieceType.values().size() + type.getOrdinal();
+    }
+
+    /**
+     * The pieces of a board being derived from another one, copying every rank only the first time it changes.
+     */
+    private static final class Change {
+        private final ChessPiece<?>[][] ranks;
+        private final long[]            pieceMasks;
+        private       int               copiedRanks;
+        private       long              piecesKey;
+
+        private Change(final PersistentChessBoard board) {
+            this.ranks      = board.ranks.clone();
+            this.pieceMasks = board.pieceMasks.clone();
+            this.piecesKey  = board.positionKey;
+        }
+
+        private void setPiece(final int index, final ChessPiece<?> piece) {
+            final int rank = index / ChessSquare.FILE_COUNT;
+            final int file = index % ChessSquare.FILE_COUNT;
+
+            if ((this.copiedRanks & (1 << rank)) == 0) {
+                this.ranks[rank] = this.ranks[rank].clone();
+                this.copiedRanks |= 1 << rank;
+            }
+
+            final ChessPiece<?> previous = this.ranks[rank][file];
+
+            if (previous != null) {
+                this.pieceMasks[getMaskIndex(previous.getType(), previous.getColor())] &= ~(1L << index);
+                this.piecesKey ^= ZobristKeys.getPieceKey(previous.getType(), previous.getColor(), index);
+            }
+
+            if (piece != null) {
+                this.pieceMasks[getMaskIndex(piece.getType(), piece.getColor())] |= 1L << index;
+                this.piecesKey ^= ZobristKeys.getPieceKey(piece.getType(), piece.getColor(), index);
+            }
+
+            this.ranks[rank][file] = piece;
+        }
+    }
+}
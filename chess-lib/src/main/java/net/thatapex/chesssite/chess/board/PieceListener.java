@@ -0,0 +1,30 @@
+package net.thatapex.chesssite.chess.board;
+
+import net.thatapex.chesssite.chess.pieces.ChessPiece;
+
+/**
+ * Listens to the pieces being put on and removed from the squares of a {@link MutableChessBoard}, see {@link MutableChessBoard#setPieceListener(PieceListener)}.
+ * <p>
+ * Every change of a square is reported, whether it is made by {@link MutableChessBoard#setPiece}, {@link MutableChessBoard#clearPieces()},
+ * or by making and unmaking moves, so that state derived from the pieces, like an evaluation, can be kept up to date incrementally.
+ * A piece moving from one square to another is reported as a removal followed by an addition. The listener is called on every move,
+ * so it should be cheap.
+ */
+public interface PieceListener {
+
+    /**
+     * Called after a piece has been put on an empty square.
+     *
+     * @param piece the piece
+     * @param index index of the square
+     */
+    void pieceAdded(ChessPiece<?> piece, int index);
+
+    /**
+     * Called after a piece has been removed from a square.
+     *
+     * @param piece the piece
+     * @param index index of the square
+     */
+    void pieceRemoved(ChessPiece<?> piece, int index);
+}
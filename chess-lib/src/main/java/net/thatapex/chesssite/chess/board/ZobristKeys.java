@@ -0,0 +1,188 @@
+package net.thatapex.chesssite.chess.board;
+
+import net.thatapex.chesssite.chess.board.bitboard.AttackTables;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.pieces.ChessPiece;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+
+import java.util.List;
+
+/**
+ * Random keys used to compute Zobrist keys of chess positions, see {@link ChessBoard#getPositionKey()}.
+ * <p>
+ * A position key is a XOR of the keys of every piece on its square, the castling rights of both players, the file of the en passant square and the side to move.
+ * Like in the Polyglot book format, the en passant square only counts if a pawn of the side to move attacks it,
+ * so a double push that allows no capture does not tell apart positions that are the same for the repetition rules.
+ * Thanks to that, boards can update their keys incrementally by XOR-ing out the old and XOR-ing in the new parts of the state.
+ * <p>
+ * The keys are generated from a fixed seed, so position keys are stable between runs and can be persisted.
+ */
+public final class ZobristKeys {
+    private static final long SEED = 0x43_68_65_73_73_53_69_74L;
+
+    private static final int PIECE_KEY_COUNT = ChessPieceType.values().size() * ChessPieceColor.values().length;
+
+    private static final long[][] PIECE_KEYS      = new long[PIECE_KEY_COUNT][ChessSquare.SQUARE_COUNT];
+    private static final long[]   CASTLING_KEYS   = new long[ChessPieceColor.values().length * 2];
+    private static final long[]   EN_PASSANT_KEYS = new long[ChessSquare.FILE_COUNT];
+    private static final long     SIDE_TO_MOVE_KEY;
+
+    static {
+        long state = SEED;
+
+        for (final long[] pieceKeys : PIECE_KEYS) {
+            for (int index = 0; index < pieceKeys.length; index++) {
+                pieceKeys[index] = mix(state += 0x9E3779B97F4A7C15L);
+            }
+        }
+
+        for (int index = 0; index < CASTLING_KEYS.length; index++) {
+            CASTLING_KEYS[index] = mix(state += 0x9E3779B97F4A7C15L);
+        }
+
+        for (int index = 0; index < EN_PASSANT_KEYS.length; index++) {
+            EN_PASSANT_KEYS[index] = mix(state += 0x9E3779B97F4A7C15L);
+        }
+
+        SIDE_TO_MOVE_KEY = mix(state + 0x9E3779B97F4A7C15L);
+    }
+
+    private ZobristKeys() {
+    }
+
+    /**
+     * Returns the key of a piece of the given type and color, on the given square.
+     *
+     * @param type        type of the piece
+     * @param color       color of the piece
+     * @param squareIndex index of the square, see {@link ChessSquare#index()}
+     * @return the piece key
+     */
+    public static long getPieceKey(final ChessPieceType<?> type, final ChessPieceColor color, final int squareIndex) {
+        return PIECE_KEYS[color.ordinal() * ChessPieceType.values().size() + type.getOrdinal()][squareIndex];
+    }
+
+    /**
+     * Returns the key of the castling rights of the given player.
+     *
+     * @param color  color of the player
+     * @param rights castling rights of the player
+     * @return the castling rights key
+     */
+    public static long getCastlingKey(final ChessPieceColor color, final CastlingRights rights) {
+        final int offset = color.ordinal() * 2;
+
+        return (rights.hasShortCastleRights() ? CASTLING_KEYS[offset] : 0L) ^ (rights.hasLongCastleRights() ? CASTLING_KEYS[offset + 1] : 0L);
+    }
+
+    /**
+     * Returns the key of the en passant square. Only the file of the square is significant.
+     *
+     * @param squareIndex index of the en passant square, see {@link ChessSquare#index()}
+     * @return the en passant key
+     */
+    public static long getEnPassantKey(final int squareIndex) {
+        return EN_PASSANT_KEYS[squareIndex % ChessSquare.FILE_COUNT];
+    }
+
+    /**
+     * Returns the part of the position key for the en passant square, the key of the square if a pawn of the side to move attacks it, and 0 otherwise.
+     *
+     * @param squareIndex index of the en passant square, see {@link ChessSquare#index()}
+     * @param sideToMove  color of the side to move
+     * @param pawns       mask of the pawns of the side to move
+     * @return the en passant key, or 0
+     */
+    public static long getEnPassantKey(final int squareIndex, final ChessPieceColor sideToMove, final long pawns) {
+        // the squares a pawn of the side to move attacks the en passant square from are the ones an opposing pawn would attack
+        return (AttackTables.getPawnAttacks(sideToMove.getOpposite(), squareIndex) & pawns) != 0 ? getEnPassantKey(squareIndex) : 0L;
+    }
+
+    /**
+     * Returns the part of the position key of the board for its en passant square, see {@link #getEnPassantKey(int, ChessPieceColor, long)}.
+     *
+     * @param board the board
+     * @return the en passant key, or 0
+     */
+    public static long getEnPassantKey(final ChessBoard board) {
+        final ChessPieceColor sideToMove = board.getSideToMove();
+
+        return board.getEnPassantSquare()
+                .map(square -> getEnPassantKey(square.index(), sideToMove, board.getPieceMask(ChessPieceType.PAWN, sideToMove)))
+                .orElse(0L);
+    }
+
+    /**
+     * Returns the key XOR-ed into the keys of positions with black to move.
+     *
+     * @return the side to move key
+     */
+    public static long getSideToMoveKey() {
+        return SIDE_TO_MOVE_KEY;
+    }
+
+    /**
+     * Computes the position key of the board from scratch.
+     *
+     * @param board the board
+     * @return the position key
+     */
+    public static long computeKey(final ChessBoard board) {
+        long                      key    = 0L;
+        final List<ChessPiece<?>> pieces = board.asPieceList();
+
+        for (int index = 0; index < pieces.size(); index++) {
+            final ChessPiece<?> piece = pieces.get(index);
+
+            if (piece != null) {
+                key ^= getPieceKey(piece.getType(), piece.getColor(), index);
+            }
+        }
+
+        for (final ChessPieceColor color : ChessPieceColor.values()) {
+            key ^= getCastlingKey(color, board.getCastlingRightsFor(color));
+        }
+
+        key ^= getEnPassantKey(board);
+
+        if (board.getSideToMove() == ChessPieceColor.BLACK) {
+            key ^= SIDE_TO_MOVE_KEY;
+        }
+
+        return key;
+    }
+
+    /**
+     * Computes the key of the pawns of the board, a XOR of the piece keys of the pawns only.
+     * Positions with the same pawns share the key, so it can be used to cache evaluations of the pawn structure.
+     *
+     * @param board the board
+     * @return the pawn key
+     */
+    public static long computePawnKey(final ChessBoard board) {
+        long key = 0L;
+
+        for (final ChessPieceColor color : ChessPieceColor.values()) {
+            long pawns = board.getPieceMask(ChessPieceType.PAWN, color);
+
+            while (pawns != 0) {
+                key ^= getPieceKey(ChessPieceType.PAWN, color, Long.numberOfTrailingZeros(pawns));
+                pawns &= pawns - 1;
+            }
+        }
+
+        return key;
+    }
+
+    /**
+     * The SplitMix64 finalizer, spreads sequential states into well distributed keys.
+     */
+    private static long mix(final long state) {
+        long value = state;
+
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,197 @@
+package net.thatapex.chesssite.chess.board.bitboard;
+
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+
+/**
+ * Precomputed attack tables, built once when the class is loaded.
+ * <p>
+ * Every table is indexed by {@link ChessSquare#index()} and contains bitboards (see {@link Bitboards}) of squares attacked or reachable from that square on an empty board.
+ */
+public final class AttackTables {
+    private static final int[][] KNIGHT_JUMPS = {{-2, -1}, {-2, 1}, {2, -1}, {2, 1}, {-1, -2}, {1, -2}, {-1, 2}, {1, 2}};
+
+    private static final long[]   KNIGHT_ATTACKS = new long[ChessSquare.SQUARE_COUNT];
+    private static final long[]   KING_ATTACKS   = new long[ChessSquare.SQUARE_COUNT];
+    private static final long[][] PAWN_ATTACKS   = new long[ChessPieceColor.values().length][ChessSquare.SQUARE_COUNT];
+    private static final long[][] PAWN_PUSHES    = new long[ChessPieceColor.values().length][ChessSquare.SQUARE_COUNT];
+    private static final long[][] PAWN_SPANS     = new long[ChessPieceColor.values().length][ChessSquare.SQUARE_COUNT];
+    private static final long[][] RAYS           = new long[Direction.values().length][ChessSquare.SQUARE_COUNT];
+    private static final long[]   ROOK_RAYS      = new long[ChessSquare.SQUARE_COUNT];
+    private static final long[]   BISHOP_RAYS    = new long[ChessSquare.SQUARE_COUNT];
+    private static final long[][] BETWEEN        = new long[ChessSquare.SQUARE_COUNT][ChessSquare.SQUARE_COUNT];
+    private static final long[][] LINES          = new long[ChessSquare.SQUARE_COUNT][ChessSquare.SQUARE_COUNT];
+
+    static {
+        for (int index = 0; index < ChessSquare.SQUARE_COUNT; index++) {
+            final ChessSquare square = ChessSquare.ofIndex(index);
+
+            for (final int[] jump : KNIGHT_JUMPS) {
+                KNIGHT_ATTACKS[index] |= shiftedMask(square, jump[0], jump[1]);
+            }
+
+            for (final Direction direction : Direction.values()) {
+                KING_ATTACKS[index] |= shiftedMask(square, direction.getFileDelta(), direction.getRankDelta());
+
+                for (final ChessSquare raySquare : square.makeLine(direction.getFileDelta(), direction.getRankDelta())) {
+                    RAYS[direction.ordinal()][index] |= Bitboards.squareMask(raySquare);
+                }
+
+                if (direction.isDiagonal()) {
+                    BISHOP_RAYS[index] |= RAYS[direction.ordinal()][index];
+                } else {
+                    ROOK_RAYS[index] |= RAYS[direction.ordinal()][index];
+                }
+            }
+
+            for (final ChessPieceColor color : ChessPieceColor.values()) {
+                final int advance = color.getRankAdvanceDirection();
+
+                PAWN_ATTACKS[color.ordinal()][index] = shiftedMask(square, -1, advance) | shiftedMask(square, 1, advance);
+                PAWN_PUSHES[color.ordinal()][index]  = shiftedMask(square, 0, advance);
+
+                if (square.getRank().equals(color.getPawnStartingRank())) {
+                    PAWN_PUSHES[color.ordinal()][index] |= shiftedMask(square, 0, 2 * advance);
+                }
+
+                final int ranksToPromotion = Math.abs(color.getPromotionRank().getIndex() - square.getRank().getIndex());
+
+                for (int ranks = 1; ranks <= ranksToPromotion; ranks++) {
+                    PAWN_SPANS[color.ordinal()][index] |= shiftedMask(square, -1, ranks * advance) | shiftedMask(square, 0, ranks * advance)
+                                                          | shiftedMask(square, 1, ranks * advance);
+                }
+            }
+        }
+
+        // needs the rays of all squares, so it cannot be done in the loop above
+        for (int index = 0; index < ChessSquare.SQUARE_COUNT; index++) {
+            for (final Direction direction : Direction.values()) {
+                final long ray     = RAYS[direction.ordinal()][index];
+                final long line    = ray | RAYS[direction.getOpposite().ordinal()][index] | Bitboards.squareMask(index);
+                long       targets = ray;
+
+                while (targets != 0) {
+                    final int target = Long.numberOfTrailingZeros(targets);
+                    targets &= targets - 1;
+
+                    BETWEEN[index][target] = ray & ~RAYS[direction.ordinal()][target] & ~Bitboards.squareMask(target);
+                    LINES[index][target]   = line;
+                }
+            }
+        }
+    }
+
+    private AttackTables() {
+    }
+
+    /**
+     * Returns the squares attacked by a knight.
+     *
+     * @param squareIndex index of the square the knight is located on
+     * @return bitboard of attacked squares
+     */
+    public static long getKnightAttacks(final int squareIndex) {
+        return KNIGHT_ATTACKS[squareIndex];
+    }
+
+    /**
+     * Returns the squares attacked by a king. Castling moves are not included.
+     *
+     * @param squareIndex index of the square the king is located on
+     * @return bitboard of attacked squares
+     */
+    public static long getKingAttacks(final int squareIndex) {
+        return KING_ATTACKS[squareIndex];
+    }
+
+    /**
+     * Returns the squares attacked (diagonally) by a pawn of the given color.
+     *
+     * @param color       color of the pawn
+     * @param squareIndex index of the square the pawn is located on
+     * @return bitboard of attacked squares
+     */
+    public static long getPawnAttacks(final ChessPieceColor color, final int squareIndex) {
+        return PAWN_ATTACKS[color.ordinal()][squareIndex];
+    }
+
+    /**
+     * Returns the squares a pawn of the given color can be pushed to, including the double push from its starting rank.
+     *
+     * @param color       color of the pawn
+     * @param squareIndex index of the square the pawn is located on
+     * @return bitboard of squares reachable with a push
+     */
+    public static long getPawnPushes(final ChessPieceColor color, final int squareIndex) {
+        return PAWN_PUSHES[color.ordinal()][squareIndex];
+    }
+
+    /**
+     * Returns the squares in front of a pawn of the given color, on its own and the adjacent files, up to the promotion rank.
+     * A pawn is passed if there are no opposing pawns on these squares.
+     *
+     * @param color       color of the pawn
+     * @param squareIndex index of the square the pawn is located on
+     * @return bitboard of squares in front of the pawn
+     */
+    public static long getPawnFrontSpan(final ChessPieceColor color, final int squareIndex) {
+        return PAWN_SPANS[color.ordinal()][squareIndex];
+    }
+
+    /**
+     * Returns all squares in the given direction, up to the edge of the board, not including the starting square.
+     *
+     * @param direction   direction of the ray
+     * @param squareIndex index of the starting square
+     * @return bitboard of squares on the ray
+     */
+    public static long getRay(final Direction direction, final int squareIndex) {
+        return RAYS[direction.ordinal()][squareIndex];
+    }
+
+    /**
+     * Returns the squares a rook attacks on an empty board.
+     *
+     * @param squareIndex index of the square the rook is located on
+     * @return bitboard of attacked squares
+     */
+    public static long getRookRays(final int squareIndex) {
+        return ROOK_RAYS[squareIndex];
+    }
+
+    /**
+     * Returns the squares a bishop attacks on an empty board.
+     *
+     * @param squareIndex index of the square the bishop is located on
+     * @return bitboard of attacked squares
+     */
+    public static long getBishopRays(final int squareIndex) {
+        return BISHOP_RAYS[squareIndex];
+    }
+
+    /**
+     * Returns the squares strictly between two squares that lie on a common rank, file or diagonal.
+     *
+     * @param fromIndex index of the first square
+     * @param toIndex   index of the second square
+     * @return bitboard of squares between the two squares, empty if the squares are not aligned or are adjacent
+     */
+    public static long getBetween(final int fromIndex, final int toIndex) {
+        return BETWEEN[fromIndex][toIndex];
+    }
+
+    /**
+     * Returns the whole rank, file or diagonal, from edge to edge, going through two aligned squares.
+     *
+     * @param fromIndex index of the first square
+     * @param toIndex   index of the second square
+     * @return bitboard of squares on the common line, empty if the squares are not aligned
+     */
+    public static long getLine(final int fromIndex, final int toIndex) {
+        return LINES[fromIndex][toIndex];
+    }
+
+    private static long shiftedMask(final ChessSquare square, final int fileDelta, final int rankDelta) {
+        return square.getShifted(fileDelta, rankDelta).map(Bitboards::squareMask).orElse(Bitboards.EMPTY);
+    }
+}
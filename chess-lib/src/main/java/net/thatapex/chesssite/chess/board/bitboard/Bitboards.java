@@ -0,0 +1,117 @@
+package net.thatapex.chesssite.chess.board.bitboard;
+
+import net.thatapex.chesssite.chess.board.coordinate.ChessFile;
+import net.thatapex.chesssite.chess.board.coordinate.ChessRank;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+
+import java.util.Collection;
+
+/**
+ * Helper methods for working with bitboards.
+ * <p>
+ * A bitboard is a {@code long} where every bit represents a single square, the bit number being the square's {@link ChessSquare#index()}.
+ */
+public final class Bitboards {
+
+    /**
+     * A bitboard without any squares
+     */
+    public static final long EMPTY = 0L;
+
+    /**
+     * A bitboard with every square
+     */
+    public static final long ALL = ~0L;
+
+    private static final long FIRST_FILE = 0x0101010101010101L;
+    private static final long FIRST_RANK = 0xFFL;
+
+    private Bitboards() {
+    }
+
+    /**
+     * Returns a bitboard containing only the given square.
+     *
+     * @param squareIndex index of the square
+     * @return a bitboard with a single square
+     */
+    public static long squareMask(final int squareIndex) {
+        return 1L << squareIndex;
+    }
+
+    /**
+     * Returns a bitboard containing only the given square.
+     *
+     * @param square the square
+     * @return a bitboard with a single square
+     */
+    public static long squareMask(final ChessSquare square) {
+        return 1L << square.index();
+    }
+
+    /**
+     * Returns a bitboard containing every square on the given file.
+     *
+     * @param file the file
+     * @return a bitboard with the whole file
+     */
+    public static long fileMask(final ChessFile file) {
+        return FIRST_FILE << (file.getIndex() - ChessFile.MINIMUM_INDEX);
+    }
+
+    /**
+     * Returns a bitboard containing every square on the given rank.
+     *
+     * @param rank the rank
+     * @return a bitboard with the whole rank
+     */
+    public static long rankMask(final ChessRank rank) {
+        return FIRST_RANK << (8 * (rank.getIndex() - ChessRank.MINIMUM_INDEX));
+    }
+
+    /**
+     * Checks if the bitboard contains the given square.
+     *
+     * @param bitboard    the bitboard
+     * @param squareIndex index of the square
+     * @return {@code true} if the square is set in the bitboard, {@code false} if otherwise
+     */
+    public static boolean contains(final long bitboard, final int squareIndex) {
+        return (bitboard & (1L << squareIndex)) != 0;
+    }
+
+    /**
+     * Returns the lowest index of a square set in the bitboard.
+     *
+     * @param bitboard the bitboard, must not be empty
+     * @return index of the first square in the bitboard
+     */
+    public static int firstSquare(final long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+
+    /**
+     * Returns the number of squares set in the bitboard.
+     *
+     * @param bitboard the bitboard
+     * @return number of squares in the bitboard
+     */
+    public static int count(final long bitboard) {
+        return Long.bitCount(bitboard);
+    }
+
+    /**
+     * Adds every square of the bitboard to the collection, in the order of their indexes.
+     *
+     * @param bitboard the bitboard
+     * @param squares  output collection
+     */
+    public static void addSquares(final long bitboard, final Collection<ChessSquare> squares) {
+        long remaining = bitboard;
+
+        while (remaining != 0) {
+            squares.add(ChessSquare.ofIndex(Long.numberOfTrailingZeros(remaining)));
+            remaining &= remaining - 1;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package net.thatapex.chesssite.chess.board.bitboard;
+
+/**
+ * Represents one of the eight directions a sliding piece can move in.
+ */
+public enum Direction {
+    NORTH(0, 1),
+    NORTH_EAST(1, 1),
+    EAST(1, 0),
+    SOUTH_EAST(1, -1),
+    SOUTH(0, -1),
+    SOUTH_WEST(-1, -1),
+    WEST(-1, 0),
+    NORTH_WEST(-1, 1);
+
+    private static final Direction[] VALUES = values();
+
+    private final int fileDelta;
+    private final int rankDelta;
+
+    Direction(final int fileDelta, final int rankDelta) {
+        this.fileDelta = fileDelta;
+        this.rankDelta = rankDelta;
+    }
+
+    /**
+     * Returns by how many files a single step in this direction moves.
+     *
+     * @return file delta of a single step, -1, 0 or 1
+     */
+    public int getFileDelta() {
+        return this.fileDelta;
+    }
+
+    /**
+     * Returns by how many ranks a single step in this direction moves.
+     *
+     * @return rank delta of a single step, -1, 0 or 1
+     */
+    public int getRankDelta() {
+        return this.rankDelta;
+    }
+
+    /**
+     * Returns whether this direction is diagonal (the way bishops move), as opposed to orthogonal (the way rooks move).
+     *
+     * @return {@code true} if this direction is diagonal, {@code false} if otherwise
+     */
+    public boolean isDiagonal() {
+        return this.fileDelta != 0 && this.rankDelta != 0;
+    }
+
+    /**
+     * Returns whether moving in this direction increases the square index (see {@link net.thatapex.chesssite.chess.board.coordinate.ChessSquare#index()}).
+     *
+     * @return {@code true} if this direction increases the square index, {@code false} if otherwise
+     */
+    public boolean isPositive() {
+        return this.rankDelta > 0 || (this.rankDelta == 0 && this.fileDelta > 0);
+    }
+
+    /**
+     * Returns the direction opposite to this one
+     *
+     * @return the direction opposite to this one
+     */
+    public Direction getOpposite() {
+        return VALUES[(this.ordinal() + VALUES.length / 2) % VALUES.length];
+    }
+}
@@ -0,0 +1,187 @@
+package net.thatapex.chesssite.chess.board.bitboard;
+
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+
+/**
+ * Computes attacks of sliding pieces (rooks, bishops and queens) for any board occupancy in constant time, using magic bitboards.
+ * <p>
+ * For every square only the occupancy of the squares that can block the piece (its rays without the board edges) matters.
+ * That relevant occupancy is multiplied by a per-square "magic" number, which maps every possible occupancy to a unique slot of a precomputed attack table.
+ * The magic numbers were found with a random trial-and-error search and are hardcoded, the attack tables are filled in once, when the class is loaded.
+ */
+public final class SlidingAttacks {
+    private static final long[] ROOK_MAGIC_NUMBERS = {
+            0x0A80004000801220L, 0x8040004010002008L, 0x2080200010008008L, 0x1100100008210004L,
+            0xC200209084020008L, 0x2100010004000208L, 0x0400081000822421L, 0x0200010422048844L,
+            0x0800800080400024L, 0x0001402000401000L, 0x3000801000802001L, 0x4400800800100083L,
+            0x0904802402480080L, 0x4040800400020080L, 0x0018808042000100L, 0x4040800080004100L,
+            0x0040048001458024L, 0x00A0004000205000L, 0x3100808010002000L, 0x4825010010000820L,
+            0x5004808008000401L, 0x2024818004000A00L, 0x0005808002000100L, 0x2100060004806104L,
+            0x0080400880008421L, 0x4062220600410280L, 0x010A004A00108022L, 0x0000100080080080L,
+            0x0021000500080010L, 0x0044000202001008L, 0x0000100400080102L, 0xC020128200040545L,
+            0x0080002000400040L, 0x0000804000802004L, 0x0000120022004080L, 0x010A386103001001L,
+            0x9010080080800400L, 0x8440020080800400L, 0x0004228824001001L, 0x000000490A000084L,
+            0x0080002000504000L, 0x200020005000C000L, 0x0012088020420010L, 0x0010010080080800L,
+            0x0085001008010004L, 0x0002000204008080L, 0x0040413002040008L, 0x0000304081020004L,
+            0x0080204000800080L, 0x3008804000290100L, 0x1010100080200080L, 0x2008100208028080L,
+            0x5000850800910100L, 0x8402019004680200L, 0x0120911028020400L, 0x0000008044010200L,
+            0x0020850200244012L, 0x0020850200244012L, 0x0000102001040841L, 0x140900040A100021L,
+            0x000200282410A102L, 0x000200282410A102L, 0x000200282410A102L, 0x4048240043802106L
+    };
+
+    private static final long[] BISHOP_MAGIC_NUMBERS = {
+            0x40106000A1160020L, 0x0020010250810120L, 0x2010010220280081L, 0x002806004050C040L,
+            0x0002021018000000L, 0x2001112010000400L, 0x0881010120218080L, 0x1030820110010500L,
+            0x0000120222042400L, 0x2000020404040044L, 0x8000480094208000L, 0x0003422A02000001L,
+            0x000A220210100040L, 0x8004820202226000L, 0x0018234854100800L, 0x0100004042101040L,
+            0x0004001004082820L, 0x0010000810010048L, 0x1014004208081300L, 0x2080818802044202L,
+            0x0040880C00A00100L, 0x0080400200522010L, 0x0001000188180B04L, 0x0080249202020204L,
+            0x1004400004100410L, 0x00013100A0022206L, 0x2148500001040080L, 0x4241080011004300L,
+            0x4020848004002000L, 0x10101380D1004100L, 0x0008004422020284L, 0x01010A1041008080L,
+            0x0808080400082121L, 0x0808080400082121L, 0x0091128200100C00L, 0x0202200802010104L,
+            0x8C0A020200440085L, 0x01A0008080B10040L, 0x0889520080122800L, 0x100902022202010AL,
+            0x04081A0816002000L, 0x0000681208005000L, 0x8170840041008802L, 0x0A00004200810805L,
+            0x0830404408210100L, 0x2602208106006102L, 0x1048300680802628L, 0x2602208106006102L,
+            0x0602010120110040L, 0x0941010801043000L, 0x000040440A210428L, 0x0008240020880021L,
+            0x0400002012048200L, 0x00AC102001210220L, 0x0220021002009900L, 0x84440C080A013080L,
+            0x0001008044200440L, 0x0004C04410841000L, 0x2000500104011130L, 0x1A0C010011C20229L,
+            0x0044800112202200L, 0x0434804908100424L, 0x0300404822C08200L, 0x48081010008A2A80L
+    };
+
+    private static final Direction[] ROOK_DIRECTIONS   = {Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST};
+    private static final Direction[] BISHOP_DIRECTIONS = {Direction.NORTH_EAST, Direction.SOUTH_EAST, Direction.SOUTH_WEST, Direction.NORTH_WEST};
+
+    private static final Magic[] ROOK_MAGICS   = new Magic[ChessSquare.SQUARE_COUNT];
+    private static final Magic[] BISHOP_MAGICS = new Magic[ChessSquare.SQUARE_COUNT];
+
+    static {
+        for (int index = 0; index < ChessSquare.SQUARE_COUNT; index++) {
+            ROOK_MAGICS[index]   = createMagic(index, ROOK_DIRECTIONS, ROOK_MAGIC_NUMBERS[index]);
+            BISHOP_MAGICS[index] = createMagic(index, BISHOP_DIRECTIONS, BISHOP_MAGIC_NUMBERS[index]);
+        }
+    }
+
+    private SlidingAttacks() {
+    }
+
+    /**
+     * Returns the squares attacked by a rook, for the given board occupancy.
+     * <p>
+     * The returned bitboard includes the first blocker in every direction, regardless of its color.
+     *
+     * @param squareIndex index of the square the rook is located on
+     * @param occupancy   bitboard of all occupied squares
+     * @return bitboard of attacked squares
+     */
+    public static long getRookAttacks(final int squareIndex, final long occupancy) {
+        return ROOK_MAGICS[squareIndex].getAttacks(occupancy);
+    }
+
+    /**
+     * Returns the squares attacked by a bishop, for the given board occupancy.
+     * <p>
+     * The returned bitboard includes the first blocker in every direction, regardless of its color.
+     *
+     * @param squareIndex index of the square the bishop is located on
+     * @param occupancy   bitboard of all occupied squares
+     * @return bitboard of attacked squares
+     */
+    public static long getBishopAttacks(final int squareIndex, final long occupancy) {
+        return BISHOP_MAGICS[squareIndex].getAttacks(occupancy);
+    }
+
+    /**
+     * Returns the squares attacked by a queen, for the given board occupancy.
+     * <p>
+     * The returned bitboard includes the first blocker in every direction, regardless of its color.
+     *
+     * @param squareIndex index of the square the queen is located on
+     * @param occupancy   bitboard of all occupied squares
+     * @return bitboard of attacked squares
+     */
+    public static long getQueenAttacks(final int squareIndex, final long occupancy) {
+        return ROOK_MAGICS[squareIndex].getAttacks(occupancy) | BISHOP_MAGICS[squareIndex].getAttacks(occupancy);
+    }
+
+    /**
+     * Computes sliding attacks by walking the rays square by square. Only used to build the tables.
+     *
+     * @param squareIndex index of the square the piece is located on
+     * @param directions  directions the piece moves in
+     * @param occupancy   bitboard of all occupied squares
+     * @return bitboard of attacked squares
+     */
+    static long computeAttacksSlowly(final int squareIndex, final Direction[] directions, final long occupancy) {
+        long attacks = Bitboards.EMPTY;
+
+        for (final Direction direction : directions) {
+            final long ray      = AttackTables.getRay(direction, squareIndex);
+            final long blockers = ray & occupancy;
+
+            if (blockers == 0) {
+                attacks |= ray;
+                continue;
+            }
+
+            final int blocker = direction.isPositive() ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+            attacks |= ray & ~AttackTables.getRay(direction, blocker);
+        }
+
+        return attacks;
+    }
+
+    private static Magic createMagic(final int squareIndex, final Direction[] directions, final long magic) {
+        final long   relevantMask = getRelevantOccupancyMask(squareIndex, directions);
+        final int    shift        = Long.SIZE - Long.bitCount(relevantMask);
+        final long[] table        = new long[1 << Long.bitCount(relevantMask)];
+
+        // enumerate every subset of the relevant mask (Carry-Rippler trick)
+        long subset = 0;
+
+        do {
+            table[(int) ((subset * magic) >>> shift)] = computeAttacksSlowly(squareIndex, directions, subset);
+            subset = (subset - relevantMask) & relevantMask;
+        } while (subset != 0);
+
+        return new Magic(relevantMask, magic, shift, table);
+    }
+
+    private static long getRelevantOccupancyMask(final int squareIndex, final Direction[] directions) {
+        long mask = Bitboards.EMPTY;
+
+        for (final Direction direction : directions) {
+            final long ray = AttackTables.getRay(direction, squareIndex);
+
+            if (ray == 0) {
+                continue;
+            }
+
+            // the last square of every ray can never block anything
+            final int edge = direction.isPositive() ? 63 - Long.numberOfLeadingZeros(ray) : Long.numberOfTrailingZeros(ray);
+            mask |= ray & ~Bitboards.squareMask(edge);
+        }
+
+        return mask;
+    }
+
+    /**
+     * Magic lookup data for a single square.
+     */
+    private static final class Magic {
+        private final long   relevantMask;
+        private final long   magic;
+        private final int    shift;
+        private final long[] attacks;
+
+        private Magic(final long relevantMask, final long magic, final int shift, final long[] attacks) {
+            this.relevantMask = relevantMask;
+            this.magic        = magic;
+            this.shift        = shift;
+            this.attacks      = attacks;
+        }
+
+        private long getAttacks(final long occupancy) {
+            return this.attacks[(int) (((occupancy & this.relevantMask) * this.magic) >>> this.shift)];
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package net.thatapex.chesssite.chess.board.codec;
+
+import net.thatapex.chesssite.chess.board.CastlingRights;
+import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.pieces.ChessPiece;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads and writes chess positions in a compact binary format, meant for storing and transferring positions.
+ * <p>
+ * An encoded position consists of:
+ * <ul>
+ *     <li>8 bytes - the occupancy bitboard, bit {@code n} is set if the square with index {@code n} is occupied</li>
+ *     <li>a nibble for every occupied square in the order of the square indices, the high nibble first and padded to a whole byte;
+ *     the nibble holds {@code 1 + color * 6 + type}, where color and type are the ordinals of the piece color and type</li>
+ *     <li>2 bytes - the castling rights in bits 0-3 (white short, white long, black short, black long), black to move in bit 4,
+ *     presence of the en passant square in bit 5 and its index in bits 6-11</li>
+ *     <li>2 bytes - the halfmove clock</li>
+ *     <li>2 bytes - the fullmove number</li>
+ * </ul>
+ * All multi-byte values are big-endian regardless of the byte order of the buffer.
+ * A position with all 32 pieces takes 30 bytes, no position takes more than {@link #MAX_ENCODED_SIZE} bytes.
+ */
+public final class BinaryCodec {
+
+    /**
+     * The size in bytes of the largest possible encoded position.
+     */
+    public static final int MAX_ENCODED_SIZE = Long.BYTES + ChessSquare.SQUARE_COUNT / 2 + 3 * Short.BYTES;
+
+    private static final int MAXIMUM_COUNTER = 0xFFFF;
+
+    private static final int SIDE_TO_MOVE_BIT  = 1 << 4;
+    private static final int EN_PASSANT_BIT    = 1 << 5;
+    private static final int EN_PASSANT_SHIFT  = 6;
+    private static final int STATE_BITS        = 12;
+    private static final int SQUARE_INDEX_MASK = ChessSquare.SQUARE_COUNT - 1;
+    private static final int NIBBLE_MASK       = 0xF;
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * Returns the size in bytes of the encoded board.
+     *
+     * @param board the board
+     * @return the encoded size
+     */
+    public static int getEncodedSize(final ChessBoard board) {
+        return Long.BYTES + (Long.bitCount(board.getOccupiedMask()) + 1) / 2 + 3 * Short.BYTES;
+    }
+
+    /**
+     * Writes the board into the buffer, starting at its current position.
+     *
+     * @param board  the board
+     * @param buffer buffer to write into, it must have at least {@link #getEncodedSize(ChessBoard)} bytes remaining
+     * @throws IllegalArgumentException         if the move counters of the board do not fit into the format
+     * @throws java.nio.BufferOverflowException if there is not enough space left in the buffer
+     */
+    public static void encode(final ChessBoard board, final ByteBuffer buffer) {
+        final int halfmoveClock  = board.getHalfmoveClock();
+        final int fullmoveNumber = board.getFullmoveNumber();
+
+        if (halfmoveClock > MAXIMUM_COUNTER || fullmoveNumber > MAXIMUM_COUNTER) {
+            throw new IllegalArgumentException("move counters are too big to be encoded");
+        }
+
+        final long occupied = board.getOccupiedMask();
+        putLong(buffer, occupied);
+
+        // the pieces are read from the piece list, a mask per piece type would be computed from scratch by some boards
+        final List<ChessPiece<?>> pieces      = board.asPieceList();
+        final int                 typeCount   = ChessPieceType.values().size();
+        long                      squares     = occupied;
+        int                       pendingCode = -1;
+
+        while (squares != 0) {
+            final int index = Long.numberOfTrailingZeros(squares);
+            squares &= squares - 1;
+
+            final int code = getPieceCode(pieces.get(index), typeCount);
+
+            if (pendingCode < 0) {
+                pendingCode = code;
+            } else {
+                buffer.put((byte) (pendingCode << 4 | code));
+                pendingCode = -1;
+            }
+        }
+
+        if (pendingCode >= 0) {
+            buffer.put((byte) (pendingCode << 4));
+        }
+
+        putShort(buffer, encodeState(board));
+        putShort(buffer, halfmoveClock);
+        putShort(buffer, fullmoveNumber);
+    }
+
+    /**
+     * Returns the board encoded into a new array.
+     *
+     * @param board the board
+     * @return the encoded board
+     * @throws IllegalArgumentException if the move counters of the board do not fit into the format
+     */
+    public static byte[] encode(final ChessBoard board) {
+        final byte[] bytes = new byte[getEncodedSize(board)];
+        encode(board, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * Reads a position from the buffer, starting at its current position, and sets it up on the board, resetting the previous board state.
+     * <p>
+     * If the data is invalid the board is left in an unspecified state.
+     *
+     * @param buffer buffer to read from
+     * @param board  board to be set up
+     * @throws IllegalArgumentException if the data is not a valid encoded position
+     * @throws BufferUnderflowException if the buffer ends before the end of the position
+     */
+    public static void decode(final ByteBuffer buffer, final MutableChessBoard board) {
+        board.resetState();
+
+        final List<ChessPieceType<?>> types     = ChessPieceType.values();
+        long                          squares   = getLong(buffer);
+        int                           data      = 0;
+        boolean                       lowNibble = false;
+
+        while (squares != 0) {
+            final int index = Long.numberOfTrailingZeros(squares);
+            squares &= squares - 1;
+
+            final int code;
+
+            if (lowNibble) {
+                code = data & NIBBLE_MASK;
+            } else {
+                data = buffer.get();
+                code = (data >>> 4) & NIBBLE_MASK;
+            }
+
+            lowNibble = !lowNibble;
+
+            if (code == 0 || code > types.size() * ChessPieceColor.values().length) {
+                throw new IllegalArgumentException("invalid piece code " + code);
+            }
+
+            final ChessPieceColor   color = ChessPieceColor.values()[(code - 1) / types.size()];
+            final ChessPieceType<?> type  = types.get((code - 1) % types.size());
+
+            board.setPiece(ChessSquare.ofIndex(index), type.instantiatePiece(color));
+        }
+
+        if (lowNibble && (data & NIBBLE_MASK) != 0) {
+            throw new IllegalArgumentException("invalid padding");
+        }
+
+        final int state = getShort(buffer);
+
+        if (state >>> STATE_BITS != 0) {
+            throw new IllegalArgumentException("invalid state " + state);
+        }
+
+        board.setCastlingRightsFor(ChessPieceColor.WHITE, CastlingRights.of((state & 1) != 0, (state & 2) != 0));
+        board.setCastlingRightsFor(ChessPieceColor.BLACK, CastlingRights.of((state & 4) != 0, (state & 8) != 0));
+        board.setSideToMove((state & SIDE_TO_MOVE_BIT) != 0 ? ChessPieceColor.BLACK : ChessPieceColor.WHITE);
+        board.setEnPassantSquare((state & EN_PASSANT_BIT) != 0 ? ChessSquare.ofIndex((state >>> EN_PASSANT_SHIFT) & SQUARE_INDEX_MASK) : null);
+        board.setHalfmoveClock(getShort(buffer));
+        board.setFullmoveNumber(getShort(buffer));
+    }
+
+    /**
+     * Reads a position from the array and sets it up on the board, resetting the previous board state.
+     *
+     * @param bytes the encoded position
+     * @param board board to be set up
+     * @throws IllegalArgumentException if the array is not a valid encoded position
+     */
+    public static void decode(final byte[] bytes, final MutableChessBoard board) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        try {
+            decode(buffer, board);
+        } catch (final BufferUnderflowException e) {
+            throw new IllegalArgumentException("encoded position is truncated", e);
+        }
+
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException("unexpected trailing bytes");
+        }
+    }
+
+    private static int getPieceCode(final ChessPiece<?> piece, final int typeCount) {
+        if (piece == null) {
+            throw new IllegalStateException("occupied square without a piece");
+        }
+
+        return 1 + piece.getColor().ordinal() * typeCount + piece.getType().getOrdinal();
+    }
+
+    private static int encodeState(final ChessBoard board) {
+        final CastlingRights        whiteRights     = board.getCastlingRightsFor(ChessPieceColor.WHITE);
+        final CastlingRights        blackRights     = board.getCastlingRightsFor(ChessPieceColor.BLACK);
+        final Optional<ChessSquare> enPassantSquare = board.getEnPassantSquare();
+        int                         state           = 0;
+
+        state |= whiteRights.hasShortCastleRights() ? 1 : 0;
+        state |= whiteRights.hasLongCastleRights() ? 2 : 0;
+        state |= blackRights.hasShortCastleRights() ? 4 : 0;
+        state |= blackRights.hasLongCastleRights() ? 8 : 0;
+        state |= board.getSideToMove() == ChessPieceColor.BLACK ? SIDE_TO_MOVE_BIT : 0;
+
+        if (enPassantSquare.isPresent()) {
+            state |= EN_PASSANT_BIT | enPassantSquare.get().index() << EN_PASSANT_SHIFT;
+        }
+
+        return state;
+    }
+
+    private static void putLong(final ByteBuffer buffer, final long value) {
+        buffer.putLong(buffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value));
+    }
+
+    private static long getLong(final ByteBuffer buffer) {
+        final long value = buffer.getLong();
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value);
+    }
+
+    private static void putShort(final ByteBuffer buffer, final int value) {
+        buffer.put((byte) (value >>> 8)).put((byte) value);
+    }
+
+    private static int getShort(final ByteBuffer buffer) {
+        return (buffer.get() & 0xFF) << 8 | buffer.get() & 0xFF;
+    }
+}
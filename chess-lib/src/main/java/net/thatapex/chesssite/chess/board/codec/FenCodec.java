@@ -0,0 +1,350 @@
+package net.thatapex.chesssite.chess.board.codec;
+
+import net.thatapex.chesssite.chess.board.CastlingRights;
+import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.pieces.ChessPiece;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads and writes chess positions in the Forsyth-Edwards Notation (FEN), for example {@value #STARTING_POSITION}.
+ * <p>
+ * Positions are parsed directly from any {@link CharSequence}, without splitting it into intermediate strings,
+ * and written directly into a caller-supplied {@link Appendable}.
+ * <p>
+ * The halfmove clock and the fullmove number are optional when parsing, they default to 0 and 1.
+ */
+public final class FenCodec {
+
+    /**
+     * The FEN of the starting position of a classical chess game.
+     */
+    public static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final char PAWN_CHARACTER = 'P';
+    private static final char EMPTY_FIELD    = '-';
+
+    private FenCodec() {
+    }
+
+    /**
+     * Parses a FEN and sets up its position on the board, resetting the previous board state.
+     * <p>
+     * If the FEN is invalid the board is left in an unspecified state.
+     *
+     * @param fen   the FEN to parse
+     * @param board board to be set up
+     * @throws IllegalArgumentException if the FEN is invalid
+     */
+    public static void decode(final CharSequence fen, final MutableChessBoard board) {
+        board.resetState();
+
+        final Parser parser = new Parser(fen);
+
+        parser.parsePlacement(board);
+        parser.skipSeparator();
+
+        board.setSideToMove(parser.parseSideToMove());
+        parser.skipSeparator();
+
+        parser.parseCastlingRights(board);
+        parser.skipSeparator();
+
+        board.setEnPassantSquare(parser.parseEnPassantSquare());
+
+        if (parser.hasMore()) {
+            parser.skipSeparator();
+            board.setHalfmoveClock(parser.parseNumber());
+            parser.skipSeparator();
+            board.setFullmoveNumber(parser.parseNumber());
+        }
+
+        parser.expectEnd();
+    }
+
+    /**
+     * Writes the FEN of the board into the output.
+     *
+     * @param board the board
+     * @param out   output to write into
+     * @throws IOException if the output throws
+     */
+    public static void encode(final ChessBoard board, final Appendable out) throws IOException {
+        final List<ChessPiece<?>> pieces = board.asPieceList();
+
+        for (int rank = ChessSquare.RANK_COUNT - 1; rank >= 0; rank--) {
+            int emptySquares = 0;
+
+            for (int file = 0; file < ChessSquare.FILE_COUNT; file++) {
+                final ChessPiece<?> piece = pieces.get(rank * ChessSquare.FILE_COUNT + file);
+
+                if (piece == null) {
+                    emptySquares++;
+                    continue;
+                }
+
+                if (emptySquares > 0) {
+                    out.append((char) ('0' + emptySquares));
+                    emptySquares = 0;
+                }
+
+                out.append(toCharacter(piece));
+            }
+
+            if (emptySquares > 0) {
+                out.append((char) ('0' + emptySquares));
+            }
+
+            if (rank > 0) {
+                out.append('/');
+            }
+        }
+
+        out.append(' ').append(board.getSideToMove() == ChessPieceColor.WHITE ? 'w' : 'b').append(' ');
+
+        final CastlingRights whiteRights = board.getCastlingRightsFor(ChessPieceColor.WHITE);
+        final CastlingRights blackRights = board.getCastlingRightsFor(ChessPieceColor.BLACK);
+        boolean              anyRights   = false;
+
+        if (whiteRights.hasShortCastleRights()) {
+            out.append('K');
+            anyRights = true;
+        }
+
+        if (whiteRights.hasLongCastleRights()) {
+            out.append('Q');
+            anyRights = true;
+        }
+
+        if (blackRights.hasShortCastleRights()) {
+            out.append('k');
+            anyRights = true;
+        }
+
+        if (blackRights.hasLongCastleRights()) {
+            out.append('q');
+            anyRights = true;
+        }
+
+        if (!anyRights) {
+            out.append(EMPTY_FIELD);
+        }
+
+        out.append(' ');
+
+        final Optional<ChessSquare> enPassantSquare = board.getEnPassantSquare();
+
+        if (enPassantSquare.isPresent()) {
+            out.append(enPassantSquare.get().toChessNotation());
+        } else {
+            out.append(EMPTY_FIELD);
+        }
+
+        out.append(' ').append(Integer.toString(board.getHalfmoveClock())).append(' ').append(Integer.toString(board.getFullmoveNumber()));
+    }
+
+    /**
+     * Writes the FEN of the board into the builder.
+     *
+     * @param board   the board
+     * @param builder builder to write into
+     */
+    public static void encode(final ChessBoard board, final StringBuilder builder) {
+        try {
+            encode(board, (Appendable) builder);
+        } catch (final IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the FEN of the board.
+     *
+     * @param board the board
+     * @return the FEN
+     */
+    public static String encode(final ChessBoard board) {
+        final StringBuilder builder = new StringBuilder(90);
+        encode(board, builder);
+        return builder.toString();
+    }
+
+    private static char toCharacter(final ChessPiece<?> piece) {
+        final char character = piece.getType() == ChessPieceType.PAWN ? PAWN_CHARACTER : piece.getType().getChessNotationCharacter();
+
+        return piece.getColor() == ChessPieceColor.WHITE ? character : Character.toLowerCase(character);
+    }
+
+    private static ChessPieceType<?> toPieceType(final char character) {
+        final char upperCase = Character.toUpperCase(character);
+
+        if (upperCase == PAWN_CHARACTER) {
+            return ChessPieceType.PAWN;
+        }
+
+        for (final ChessPieceType<?> type : ChessPieceType.values()) {
+            if (type.getChessNotationCharacter() == upperCase) {
+                return type;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Reads the fields of a FEN in order, keeping only the current position in the input.
+     */
+    private static final class Parser {
+        private final CharSequence input;
+        private       int          position;
+
+        private Parser(final CharSequence input) {
+            this.input = input;
+        }
+
+        private void parsePlacement(final MutableChessBoard board) {
+            int rank = ChessSquare.RANK_COUNT - 1;
+            int file = 0;
+
+            while (this.position < this.input.length() && this.input.charAt(this.position) != ' ') {
+                final char character = this.input.charAt(this.position++);
+
+                if (character == '/') {
+                    this.check(file == ChessSquare.FILE_COUNT && rank > 0, "invalid rank length");
+
+                    rank--;
+                    file = 0;
+                } else if (character >= '1' && character <= '8') {
+                    file += character - '0';
+
+                    this.check(file <= ChessSquare.FILE_COUNT, "invalid rank length");
+                } else {
+                    final ChessPieceType<?> type = toPieceType(character);
+
+                    this.check(type != null, "invalid piece character");
+                    this.check(file < ChessSquare.FILE_COUNT, "invalid rank length");
+
+                    final ChessPieceColor color = Character.isUpperCase(character) ? ChessPieceColor.WHITE : ChessPieceColor.BLACK;
+
+                    board.setPiece(ChessSquare.ofIndex(rank * ChessSquare.FILE_COUNT + file), type.instantiatePiece(color));
+                    file++;
+                }
+            }
+
+            this.check(rank == 0 && file == ChessSquare.FILE_COUNT, "invalid piece placement");
+        }
+
+        private ChessPieceColor parseSideToMove() {
+            final char character = this.next();
+
+            if (character == 'w') {
+                return ChessPieceColor.WHITE;
+            }
+
+            this.check(character == 'b', "invalid side to move");
+            return ChessPieceColor.BLACK;
+        }
+
+        private void parseCastlingRights(final MutableChessBoard board) {
+            if (this.peek() == EMPTY_FIELD) {
+                this.position++;
+
+                board.setCastlingRightsFor(ChessPieceColor.WHITE, CastlingRights.of(false, false));
+                board.setCastlingRightsFor(ChessPieceColor.BLACK, CastlingRights.of(false, false));
+                return;
+            }
+
+            int rights = 0;
+
+            while (this.position < this.input.length() && this.input.charAt(this.position) != ' ') {
+                final int right = "KQkq".indexOf(this.input.charAt(this.position++));
+
+                this.check(right >= 0 && (rights & (1 << right)) == 0, "invalid castling rights");
+                rights |= 1 << right;
+            }
+
+            this.check(rights != 0, "invalid castling rights");
+
+            board.setCastlingRightsFor(ChessPieceColor.WHITE, CastlingRights.of((rights & 1) != 0, (rights & 2) != 0));
+            board.setCastlingRightsFor(ChessPieceColor.BLACK, CastlingRights.of((rights & 4) != 0, (rights & 8) != 0));
+        }
+
+        private ChessSquare parseEnPassantSquare() {
+            if (this.peek() == EMPTY_FIELD) {
+                this.position++;
+                return null;
+            }
+
+            final char fileLetter = this.next();
+            final char rankDigit  = this.next();
+
+            this.check(rankDigit == '3' || rankDigit == '6', "invalid en passant square");
+
+            final Optional<ChessSquare> square = ChessSquare.fromChessNotation(fileLetter, rankDigit);
+
+            this.check(square.isPresent(), "invalid en passant square");
+            return square.get();
+        }
+
+        private int parseNumber() {
+            final int start = this.position;
+            int       value = 0;
+
+            while (this.position < this.input.length() && Character.isDigit(this.input.charAt(this.position))) {
+                value = value * 10 + (this.input.charAt(this.position++) - '0');
+
+                this.check(value <= 0xFFFF, "move counter is too big");
+            }
+
+            this.check(this.position > start, "invalid move counter");
+            return value;
+        }
+
+        private void skipSeparator() {
+            this.check(this.peek() == ' ', "missing field separator");
+
+            while (this.position < this.input.length() && this.input.charAt(this.position) == ' ') {
+                this.position++;
+            }
+        }
+
+        private boolean hasMore() {
+            int index = this.position;
+
+            while (index < this.input.length() && Character.isWhitespace(this.input.charAt(index))) {
+                index++;
+            }
+
+            return index < this.input.length();
+        }
+
+        private void expectEnd() {
+            this.check(!this.hasMore(), "unexpected trailing characters");
+        }
+
+        private char peek() {
+            this.check(this.position < this.input.length(), "unexpected end of input");
+            return this.input.charAt(this.position);
+        }
+
+        private char next() {
+            final char character = this.peek();
+            this.position++;
+            return character;
+        }
+
+        private void check(final boolean condition, final String message) {
+            if (!condition) {
+                throw new IllegalArgumentException(message + " at index " + this.position + " of FEN: " + this.input);
+            }
+        }
+    }
+}
@@ -23,20 +23,12 @@ public abstract class ChessCoordinate<ThisT extends ChessCoordinate<ThisT>> {
     }
 
     /**
-     * Clones this coordinate, replacing the index with a new value.
+     * Looks up the canonical coordinate of the same type as this one, with the given index.
      *
-     * @param index the internal index for this coordinate
-     * @return a new coordinate of the type T
-     * @see ChessCoordinate#ChessCoordinate(int)
+     * @param index the internal index for the coordinate
+     * @return {@link Optional} containing the coordinate if the index is valid, empty optional otherwise.
      */
-    protected abstract ThisT cloneCoordinate(int index);
-
-    /**
-     * Validates if this coordinate is an actual coordinate that is possible to be represented on a chess board.
-     *
-     * @return {@link Optional} containing {@code this} if the coordinate is valid, empty optional otherwise.
-     */
-    protected abstract Optional<ThisT> validate();
+    protected abstract Optional<ThisT> lookupCoordinate(int index);
 
     /**
      * Returns the internal index for this coordinate
@@ -49,11 +41,13 @@ public abstract class ChessCoordinate<ThisT extends ChessCoordinate<ThisT>> {
 
     /**
      * Makes an exact copy of this coordinate.
+     * <p>
+     * Coordinates are interned, so the returned value is the canonical instance for this coordinate's index.
      *
      * @return an exact copy of this coordinate.
      */
     public ThisT copy() {
-        return cloneCoordinate(this.index);
+        return lookupCoordinate(this.index).orElseThrow();
     }
 
     /**
@@ -63,7 +57,7 @@ public abstract class ChessCoordinate<ThisT extends ChessCoordinate<ThisT>> {
      * @return An {@link Optional} containing the shifted coordinate if it is valid, empty optional otherwise.
      */
     public Optional<ThisT> shift(int shiftValue) {
-        return cloneCoordinate(this.index + shiftValue).validate();
+        return lookupCoordinate(this.index + shiftValue);
     }
 
     /**
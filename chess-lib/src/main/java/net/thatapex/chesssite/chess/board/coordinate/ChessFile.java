@@ -2,7 +2,10 @@ package net.thatapex.chesssite.chess.board.coordinate;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Represents a file (a vertical line) on a chess board.
@@ -21,6 +24,13 @@ public final class ChessFile extends ChessCoordinate<ChessFile> {
      */
     public static final int MAXIMUM_INDEX = 7;
 
+    /**
+     * Canonical instances of every valid file, already wrapped in an {@link Optional} so that looking them up does not allocate
+     */
+    private static final List<Optional<ChessFile>> VALUES = IntStream.rangeClosed(MINIMUM_INDEX, MAXIMUM_INDEX)
+            .mapToObj(index -> Optional.of(new ChessFile(index)))
+            .collect(Collectors.toUnmodifiableList());
+
     /**
      * Construct a new file.
      *
@@ -40,17 +50,8 @@ public final class ChessFile extends ChessCoordinate<ChessFile> {
     }
 
     @Override
-    protected Optional<ChessFile> validate() {
-        if (getIndex() < MINIMUM_INDEX || getIndex() > MAXIMUM_INDEX) {
-            return Optional.empty();
-        }
-
-        return Optional.of(this);
-    }
-
-    @Override
-    protected ChessFile cloneCoordinate(final int index) {
-        return new ChessFile(index);
+    protected Optional<ChessFile> lookupCoordinate(final int index) {
+        return fromIndex(index);
     }
 
     @Override
@@ -86,7 +87,11 @@ public final class ChessFile extends ChessCoordinate<ChessFile> {
      * @return {@link Optional} containing a {@link ChessFile} with the given index if it's valid, empty optional otherwise.
      */
     public static Optional<ChessFile> fromIndex(final int index) {
-        return new ChessFile(index).validate();
+        if (index < MINIMUM_INDEX || index > MAXIMUM_INDEX) {
+            return Optional.empty();
+        }
+
+        return VALUES.get(index - MINIMUM_INDEX);
     }
 
     /**
@@ -97,6 +102,6 @@ public final class ChessFile extends ChessCoordinate<ChessFile> {
      * @return {@link Optional} containing a {@link ChessFile} with the given letter if it's valid, empty optional otherwise.
      */
     public static Optional<ChessFile> fromFileLetter(final char letter) {
-        return new ChessFile(letter - 'a').validate();
+        return fromIndex(letter - 'a');
     }
 }
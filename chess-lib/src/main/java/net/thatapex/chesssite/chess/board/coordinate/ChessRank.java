@@ -2,8 +2,10 @@ package net.thatapex.chesssite.chess.board.coordinate;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
+import java.util.List;
 import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Represents a rank (a horizontal line) on a chess board.
@@ -22,6 +24,13 @@ public final class ChessRank extends ChessCoordinate<ChessRank> {
      */
     public static final int MAXIMUM_INDEX = 7;
 
+    /**
+     * Canonical instances of every valid rank, already wrapped in an {@link Optional} so that looking them up does not allocate
+     */
+    private static final List<Optional<ChessRank>> VALUES = IntStream.rangeClosed(MINIMUM_INDEX, MAXIMUM_INDEX)
+            .mapToObj(index -> Optional.of(new ChessRank(index)))
+            .collect(Collectors.toUnmodifiableList());
+
     /**
      * Construct a new rank.
      *
@@ -41,17 +50,8 @@ public final class ChessRank extends ChessCoordinate<ChessRank> {
     }
 
     @Override
-    protected Optional<ChessRank> validate() {
-        if (getIndex() < MINIMUM_INDEX || getIndex() > MAXIMUM_INDEX) {
-            return Optional.empty();
-        }
-
-        return Optional.of(this);
-    }
-
-    @Override
-    protected ChessRank cloneCoordinate(final int index) {
-        return new ChessRank(index);
+    protected Optional<ChessRank> lookupCoordinate(final int index) {
+        return fromIndex(index);
     }
 
     @Override
@@ -87,7 +87,11 @@ public final class ChessRank extends ChessCoordinate<ChessRank> {
      * @return {@link Optional} containing a {@link ChessRank} with the given index if it's valid, empty optional otherwise.
      */
     public static Optional<ChessRank> fromIndex(final int index) {
-        return new ChessRank(index).validate();
+        if (index < MINIMUM_INDEX || index > MAXIMUM_INDEX) {
+            return Optional.empty();
+        }
+
+        return VALUES.get(index - MINIMUM_INDEX);
     }
 
     /**
@@ -98,6 +102,6 @@ public final class ChessRank extends ChessCoordinate<ChessRank> {
      * @return {@link Optional} containing a {@link ChessRank} with the given number if it's valid, empty optional otherwise.
      */
     public static Optional<ChessRank> fromRankNumber(final int number) {
-        return new ChessRank(number - 1).validate();
+        return fromIndex(number - 1);
     }
 }
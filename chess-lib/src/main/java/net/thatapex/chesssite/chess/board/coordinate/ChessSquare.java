@@ -1,25 +1,60 @@
 package net.thatapex.chesssite.chess.board.coordinate;
 
 import net.thatapex.chesssite.chess.board.MutableChessBoardImpl;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
  * Represents a single square on a {@link MutableChessBoardImpl}
+ * <p>
+ * All 64 squares are pre-built, the factory methods ({@link #of(ChessFile, ChessRank)}, {@link #ofIndex(int)}, {@link #getShifted(int, int)}, ...)
+ * always return these canonical instances, so they can be compared by identity and looked up in arrays by {@link #index()}.
  */
 public final class ChessSquare {
+
+    /**
+     * Number of files on a chess board, that is the number of squares on a rank
+     */
+    public static final int FILE_COUNT = ChessFile.MAXIMUM_INDEX - ChessFile.MINIMUM_INDEX + 1;
+
+    /**
+     * Number of ranks on a chess board, that is the number of squares on a file
+     */
+    public static final int RANK_COUNT = ChessRank.MAXIMUM_INDEX - ChessRank.MINIMUM_INDEX + 1;
+
+    /**
+     * Number of all squares on a chess board
+     */
+    public static final int SQUARE_COUNT = FILE_COUNT * RANK_COUNT;
+
+    private static final ChessSquare[]               SQUARES   = new ChessSquare[SQUARE_COUNT];
+    private static final List<Optional<ChessSquare>> OPTIONALS = new ArrayList<>(SQUARE_COUNT);
+    private static final String[]                    NOTATIONS = new String[SQUARE_COUNT];
+
+    static {
+        for (int index = 0; index < SQUARE_COUNT; index++) {
+            final ChessFile file = ChessFile.fromIndex(ChessFile.MINIMUM_INDEX + index % FILE_COUNT).orElseThrow();
+            final ChessRank rank = ChessRank.fromIndex(ChessRank.MINIMUM_INDEX + index / FILE_COUNT).orElseThrow();
+
+            SQUARES[index] = new ChessSquare(file, rank);
+            OPTIONALS.add(Optional.of(SQUARES[index]));
+            NOTATIONS[index] = String.valueOf(file.getFileLetter()) + rank.getRankNumber();
+        }
+    }
+
     private final ChessFile file;
     private final ChessRank rank;
 
     /**
      * Constructs a new {@link ChessSquare} at the given position.
+     * <p>
+     * Prefer {@link #of(ChessFile, ChessRank)}, which returns the canonical instance instead of allocating a new one.
      *
      * @param file file at which the square is located at.
      * @param rank rank at which the square is located at.
@@ -47,6 +82,18 @@ public final class ChessSquare {
         return this.rank;
     }
 
+    /**
+     * Returns the index of this square, from 0 to {@link #SQUARE_COUNT} - 1.
+     * <p>
+     * Squares are indexed rank by rank, starting from the first rank: 'a1' is 0, 'h1' is 7, 'a2' is 8 and so on, up to 'h8' being 63.
+     *
+     * @return the index of this square
+     * @see #ofIndex(int)
+     */
+    public int index() {
+        return (this.rank.getIndex() - ChessRank.MINIMUM_INDEX) * FILE_COUNT + this.file.getIndex() - ChessFile.MINIMUM_INDEX;
+    }
+
     /**
      * Gets a unique representation of the current square in chess notation (for example: 'e4' or 'd8').
      * The resulting string is always lowercase.
@@ -55,7 +102,7 @@ public final class ChessSquare {
      * @see <a href="https://en.wikipedia.org/wiki/Algebraic_notation_(chess)#Naming_the_squares>Chess Notation article on Wikipedia</a>
      */
     public String toChessNotation() {
-        return String.valueOf(this.file.getFileLetter()) + this.rank.getRankNumber();
+        return NOTATIONS[this.index()];
     }
 
     /**
@@ -88,15 +135,21 @@ public final class ChessSquare {
     }
 
     /**
-     * Creates a new ChessSquare with file equal to {@code this.getFile() + fileDelta} and rank equal to {@code this.getRank() + rankDelta}
+     * Gets the ChessSquare with file equal to {@code this.getFile() + fileDelta} and rank equal to {@code this.getRank() + rankDelta}
      *
      * @param fileDelta file delta
      * @param rankDelta rank delta
-     * @return a new ChessSquare or an empty optional if either the new file or the new rank is invalid
+     * @return the shifted ChessSquare or an empty optional if either the new file or the new rank is invalid
      */
     public Optional<ChessSquare> getShifted(final int fileDelta, final int rankDelta) {
-        return this.file.shift(fileDelta)
-                .flatMap(file -> this.rank.shift(rankDelta).map(rank -> new ChessSquare(file, rank)));
+        final int fileIndex = this.file.getIndex() + fileDelta;
+        final int rankIndex = this.rank.getIndex() + rankDelta;
+
+        if (fileIndex < ChessFile.MINIMUM_INDEX || fileIndex > ChessFile.MAXIMUM_INDEX || rankIndex < ChessRank.MINIMUM_INDEX || rankIndex > ChessRank.MAXIMUM_INDEX) {
+            return Optional.empty();
+        }
+
+        return OPTIONALS.get((rankIndex - ChessRank.MINIMUM_INDEX) * FILE_COUNT + fileIndex - ChessFile.MINIMUM_INDEX);
     }
 
     /**
@@ -186,7 +239,7 @@ public final class ChessSquare {
         final List<ChessSquare> middlePoints      = new ArrayList<>(middlePointsCount);
 
         for (int i = 1; i <= middlePointsCount; i++) {
-            middlePoints.add(this.getShifted(deltaFileNormalized * i, deltaRankNormalized * i).orElseThrow());
+            middlePoints.add(ofIndex(this.index() + (deltaRankNormalized * FILE_COUNT + deltaFileNormalized) * i));
         }
 
         return Optional.of(new ChessPath(this, middlePoints, targetSquare, type));
@@ -204,12 +257,12 @@ public final class ChessSquare {
 
         final var that = (ChessSquare) o;
 
-        return new EqualsBuilder().append(this.file, that.file).append(this.rank, that.rank).isEquals();
+        return Objects.equals(this.file, that.file) && Objects.equals(this.rank, that.rank);
     }
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder(17, 37).append(this.file).append(this.rank).toHashCode();
+        return 31 * Objects.hashCode(this.file) + Objects.hashCode(this.rank);
     }
 
     @Override
@@ -220,16 +273,72 @@ public final class ChessSquare {
                 .toString();
     }
 
-    public static Optional<ChessSquare> fromChessNotation(final String notation) {
-        final char[] charArray = notation.toCharArray();
+    /**
+     * Returns the canonical square located at the given position.
+     *
+     * @param file file at which the square is located at.
+     * @param rank rank at which the square is located at.
+     * @return the canonical square
+     */
+    public static ChessSquare of(final ChessFile file, final ChessRank rank) {
+        return SQUARES[(rank.getIndex() - ChessRank.MINIMUM_INDEX) * FILE_COUNT + file.getIndex() - ChessFile.MINIMUM_INDEX];
+    }
+
+    /**
+     * Returns the canonical square with the given index.
+     *
+     * @param index index of the square, see {@link #index()}
+     * @return the canonical square
+     * @throws ArrayIndexOutOfBoundsException if the index is not in the range from 0 to {@link #SQUARE_COUNT} - 1
+     */
+    public static ChessSquare ofIndex(final int index) {
+        return SQUARES[index];
+    }
+
+    /**
+     * Returns the canonical square with the given index.
+     *
+     * @param index index of the square, see {@link #index()}
+     * @return {@link Optional} containing the canonical square if the index is valid, empty optional otherwise.
+     */
+    public static Optional<ChessSquare> fromIndex(final int index) {
+        if (index < 0 || index >= SQUARE_COUNT) {
+            return Optional.empty();
+        }
+
+        return OPTIONALS.get(index);
+    }
 
-        if (charArray.length != 2) {
+    /**
+     * Converts a chess notation square name (for example: 'e4' or 'd8') to a {@link ChessSquare}.
+     *
+     * @param notation chess notation square name, must be lowercase
+     * @return {@link Optional} containing the canonical square if the notation is valid, empty optional otherwise.
+     * @see #toChessNotation()
+     */
+    public static Optional<ChessSquare> fromChessNotation(final CharSequence notation) {
+        if (notation.length() != 2) {
             return Optional.empty();
         }
 
-        final var file = ChessFile.fromFileLetter(charArray[0]);
-        final var rank = ChessRank.fromRankNumber(charArray[1] - '0');
+        return fromChessNotation(notation.charAt(0), notation.charAt(1));
+    }
+
+    /**
+     * Converts a file letter and a rank digit (for example: 'e' and '4') to a {@link ChessSquare}.
+     *
+     * @param fileLetter file letter, from 'a' to 'h'
+     * @param rankDigit  rank digit, from '1' to '8'
+     * @return {@link Optional} containing the canonical square if both characters are valid, empty optional otherwise.
+     */
+    public static Optional<ChessSquare> fromChessNotation(final char fileLetter, final char rankDigit) {
+        final int fileIndex = fileLetter - 'a';
+        final int rankIndex = rankDigit - '1';
+
+        if (fileIndex < 0 || fileIndex >= FILE_COUNT || rankIndex < 0 || rankIndex >= RANK_COUNT) {
+            return Optional.empty();
+        }
 
-        return file.flatMap(f -> rank.map(r -> new ChessSquare(f, r)));
+        return OPTIONALS.get(rankIndex * FILE_COUNT + fileIndex);
     }
 }
@@ -29,13 +29,13 @@ public class ClassicalChessGameBoardSetup implements BoardSetup {
         for (int i = ChessFile.MINIMUM_INDEX; i <= ChessFile.MAXIMUM_INDEX; i++) {
             final ChessFile file = ChessFile.fromIndex(i).orElseThrow();
 
-            board.setPiece(new ChessSquare(file, ChessPieceColor.WHITE.getPawnStartingRank()), ChessPieceType.PAWN.instantiatePiece(ChessPieceColor.WHITE));
-            board.setPiece(new ChessSquare(file, ChessPieceColor.BLACK.getPawnStartingRank()), ChessPieceType.PAWN.instantiatePiece(ChessPieceColor.BLACK));
+            board.setPiece(ChessSquare.of(file, ChessPieceColor.WHITE.getPawnStartingRank()), ChessPieceType.PAWN.instantiatePiece(ChessPieceColor.WHITE));
+            board.setPiece(ChessSquare.of(file, ChessPieceColor.BLACK.getPawnStartingRank()), ChessPieceType.PAWN.instantiatePiece(ChessPieceColor.BLACK));
         }
     }
 
     private void setPiece(final MutableChessBoard board, final ChessPieceType<?> pieceType, final ChessFile file) {
-        board.setPiece(new ChessSquare(file, ChessPieceColor.WHITE.getPieceStartingRank()), pieceType.instantiatePiece(ChessPieceColor.WHITE));
-        board.setPiece(new ChessSquare(file, ChessPieceColor.BLACK.getPieceStartingRank()), pieceType.instantiatePiece(ChessPieceColor.BLACK));
+        board.setPiece(ChessSquare.of(file, ChessPieceColor.WHITE.getPieceStartingRank()), pieceType.instantiatePiece(ChessPieceColor.WHITE));
+        board.setPiece(ChessSquare.of(file, ChessPieceColor.BLACK.getPieceStartingRank()), pieceType.instantiatePiece(ChessPieceColor.BLACK));
     }
 }
@@ -0,0 +1,30 @@
+package net.thatapex.chesssite.chess.board.setup;
+
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+
+/**
+ * A {@link BoardSetup} that sets up a position described by a FEN, see {@link FenCodec}.
+ */
+public class FenBoardSetup implements BoardSetup {
+    private final CharSequence fen;
+
+    /**
+     * Constructs a new setup of the given position.
+     *
+     * @param fen FEN of the position, it is parsed every time the setup is applied
+     */
+    public FenBoardSetup(final CharSequence fen) {
+        this.fen = fen;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the FEN is invalid
+     */
+    @Override
+    public void setup(final MutableChessBoard board) {
+        FenCodec.decode(this.fen, board);
+    }
+}
@@ -0,0 +1,65 @@
+package net.thatapex.chesssite.chess.book;
+
+import net.thatapex.chesssite.chess.move.Moves;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * A move of an {@link OpeningBook} position, with its weight.
+ */
+public final class BookEntry {
+    private final int move;
+    private final int weight;
+
+    public BookEntry(final int move, final int weight) {
+        this.move   = move;
+        this.weight = weight;
+    }
+
+    /**
+     * Returns the move.
+     *
+     * @return the encoded move, see {@link Moves}
+     */
+    public int getMove() {
+        return this.move;
+    }
+
+    /**
+     * Returns the weight of the move, how often it should be played relative to the other moves of the position.
+     *
+     * @return the weight, at least 1
+     */
+    public int getWeight() {
+        return this.weight;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof BookEntry)) {
+            return false;
+        }
+
+        final BookEntry that = (BookEntry) o;
+
+        return new EqualsBuilder().append(this.move, that.move).append(this.weight, that.weight).isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37).append(this.move).append(this.weight).toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("move", Moves.toNotation(this.move))
+                .append("weight", this.weight)
+                .toString();
+    }
+}
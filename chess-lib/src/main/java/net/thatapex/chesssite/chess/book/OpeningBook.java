@@ -0,0 +1,184 @@
+package net.thatapex.chesssite.chess.book;
+
+import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import net.thatapex.chesssite.chess.move.Moves;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * An opening book: moves known to be played in positions of the opening, looked up by the position key (see {@link ChessBoard#getPositionKey()}).
+ * <p>
+ * The book is a file of records sorted by the position key, memory-mapped as a whole when the book is opened and searched with a binary search,
+ * so opening a book neither reads nor parses it. The file consists of:
+ * <ul>
+ *     <li>a header of {@link #HEADER_SIZE} bytes: the magic number {@link #MAGIC}, the version and the number of records</li>
+ *     <li>the records of {@link #RECORD_SIZE} bytes: the position key (a long), the move (an int, see {@link Moves}) and its weight (an int),
+ *     sorted by the position key, and by descending weight within a position</li>
+ * </ul>
+ * Books are written by {@link OpeningBookBuilder}. Position keys are stable between runs, so a book stays valid as long as the keys
+ * of {@link net.thatapex.chesssite.chess.board.ZobristKeys} do not change.
+ * <p>
+ * The moves found are checked to be legal in the position, so that a key collision never returns an illegal move.
+ * A book is immutable and may be used from several threads.
+ */
+public final class OpeningBook {
+    static final int MAGIC       = 0x43_53_4F_42;
+    static final int VERSION     = 2;
+    static final int HEADER_SIZE = 2 * Integer.BYTES + Long.BYTES;
+    static final int RECORD_SIZE = Long.BYTES + 2 * Integer.BYTES;
+
+    private static final OpeningBook EMPTY = new OpeningBook(ByteBuffer.allocate(0), 0);
+
+    private final ByteBuffer records;
+    private final int        size;
+
+    private OpeningBook(final ByteBuffer records, final int size) {
+        this.records = records;
+        this.size    = size;
+    }
+
+    /**
+     * Opens a book file, mapping it into memory. The mapping stays valid after the file is closed, so the book needs no closing.
+     *
+     * @param path the book file
+     * @return the book
+     * @throws IOException if the file cannot be read, is not a book file, or has more records than fit in a single mapping
+     */
+    public static OpeningBook open(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+
+            if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Invalid size of the book " + path);
+            }
+
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+                throw new IOException("Not a book file of version " + VERSION + ": " + path);
+            }
+
+            final long size = buffer.getLong(2 * Integer.BYTES);
+
+            if (size * RECORD_SIZE != fileSize - HEADER_SIZE) {
+                throw new IOException("Invalid size of the book " + path);
+            }
+
+            return new OpeningBook(buffer.position(HEADER_SIZE).slice(), (int) size);
+        }
+    }
+
+    /**
+     * Returns a book without any moves.
+     *
+     * @return the empty book
+     */
+    public static OpeningBook empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the number of records of the book, the total number of moves of all positions.
+     *
+     * @return the record count
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the book moves of a position.
+     *
+     * @param board the position
+     * @return the legal moves of the position found in the book, the highest weight first, or an empty list if the position is not in the book
+     */
+    public List<BookEntry> getEntries(final ChessBoard board) {
+        final long            key     = board.getPositionKey();
+        final List<BookEntry> entries = new ArrayList<>();
+        int                   index   = this.findFirst(key);
+
+        if (index == this.size || this.getKey(index) != key) {
+            return entries;
+        }
+
+        final int[] legalMoves = new int[MoveGenerator.MAX_MOVES];
+        final int   count      = new MoveGenerator().generateLegalMoves(board, legalMoves);
+
+        for (; index < this.size && this.getKey(index) == key; index++) {
+            final int move = this.records.getInt(index * RECORD_SIZE + Long.BYTES);
+
+            for (int i = 0; i < count; i++) {
+                if (legalMoves[i] == move) {
+                    entries.add(new BookEntry(move, this.records.getInt(index * RECORD_SIZE + Long.BYTES + Integer.BYTES)));
+                    break;
+                }
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * Selects a book move of a position at random, with the probability of every move proportional to its weight.
+     *
+     * @param board  the position
+     * @param random the source of randomness
+     * @return the encoded move, or {@link Moves#NONE} if the position is not in the book
+     */
+    public int selectMove(final ChessBoard board, final Random random) {
+        final List<BookEntry> entries = this.getEntries(board);
+        long                  total   = 0;
+
+        for (final BookEntry entry : entries) {
+            total += entry.getWeight();
+        }
+
+        if (total == 0) {
+            return Moves.NONE;
+        }
+
+        long choice = (long) (random.nextDouble() * total);
+
+        for (final BookEntry entry : entries) {
+            choice -= entry.getWeight();
+
+            if (choice < 0) {
+                return entry.getMove();
+            }
+        }
+
+        return entries.get(entries.size() - 1).getMove();
+    }
+
+    /**
+     * Returns the index of the first record of a position key, or of the first record with a greater key if there is none.
+     */
+    private int findFirst(final long key) {
+        int low  = 0;
+        int high = this.size;
+
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+
+            if (this.getKey(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private long getKey(final int index) {
+        return this.records.getLong(index * RECORD_SIZE);
+    }
+}
@@ -0,0 +1,192 @@
+package net.thatapex.chesssite.chess.book;
+
+import net.thatapex.chesssite.chess.board.FlyweightChessBoard;
+import net.thatapex.chesssite.chess.board.setup.BoardSetup;
+import net.thatapex.chesssite.chess.board.setup.ClassicalChessGameBoardSetup;
+import net.thatapex.chesssite.chess.pgn.PgnGame;
+import net.thatapex.chesssite.chess.pgn.PgnReader;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Builds {@link OpeningBook} files from games played from the classical starting position.
+ * <p>
+ * The weight of a move in a position is the number of games it was played in, counting only the first moves of every game,
+ * see {@link #OpeningBookBuilder(int)}. Moves played in fewer games than a minimum weight are left out of the written book,
+ * so that rare sidelines do not make the book larger.
+ * <p>
+ * The builder keeps the weights of all the positions seen in memory until the book is written, which is small compared
+ * to the games, as the openings of most games share their positions.
+ */
+public final class OpeningBookBuilder {
+
+    /**
+     * The number of moves of every game added to a book by default, in plies.
+     */
+    public static final int DEFAULT_MAX_PLIES = 24;
+
+    private static final int WRITE_BUFFER_RECORDS = 4096;
+
+    private final Map<Long, Map<Integer, Integer>> weights = new HashMap<>();
+    private final FlyweightChessBoard              board   = new FlyweightChessBoard();
+    private final BoardSetup                       setup   = new ClassicalChessGameBoardSetup();
+    private final int                              maxPlies;
+
+    private int gameCount;
+    private int invalidGameCount;
+
+    /**
+     * Creates a builder.
+     *
+     * @param maxPlies the number of moves of every game to add, in plies, at least 1
+     */
+    public OpeningBookBuilder(final int maxPlies) {
+        Validate.isTrue(maxPlies >= 1, "invalid ply count");
+
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * Adds the games of a PGN file.
+     * <p>
+     * The text is read one game at a time by a {@link PgnReader}, resolving only the moves added to the book. Games starting from another position
+     * than the classical one (with a FEN tag) are skipped, and so are the games that cannot be read, like the ones with a malformed tag.
+     * A game with a move that cannot be resolved is counted as invalid, but the moves before it are still added.
+     *
+     * @param reader the PGN text, read until its end
+     * @return the number of games read
+     * @throws IOException if the text cannot be read
+     */
+    public int addPgn(final Reader reader) throws IOException {
+        final PgnReader pgn = new PgnReader(reader);
+
+        pgn.setMaxPlies(Math.min(this.maxPlies, PgnReader.MAX_PLIES));
+        pgn.setLenient(true);
+
+        while (true) {
+            final Optional<PgnGame> game;
+
+            try {
+                game = pgn.readGame();
+            } catch (final IllegalArgumentException e) {
+                continue;
+            }
+
+            if (game.isEmpty()) {
+                break;
+            }
+
+            if (game.get().getTag(PgnGame.FEN_TAG).isEmpty()) {
+                this.addGame(game.get());
+            }
+        }
+
+        this.gameCount        += pgn.getGameCount();
+        this.invalidGameCount += pgn.getInvalidGameCount();
+        return pgn.getGameCount();
+    }
+
+    /**
+     * Returns the number of games read from all the PGN files, like {@link #addPgn(Reader)}, including the skipped and the invalid ones.
+     *
+     * @return the game count
+     */
+    public int getGameCount() {
+        return this.gameCount;
+    }
+
+    /**
+     * Returns the number of games that could not be read, or only up to an illegal move.
+     *
+     * @return the invalid game count
+     */
+    public int getInvalidGameCount() {
+        return this.invalidGameCount;
+    }
+
+    /**
+     * Returns the number of distinct positions seen in the added games.
+     *
+     * @return the position count
+     */
+    public int getPositionCount() {
+        return this.weights.size();
+    }
+
+    /**
+     * Writes the book, replacing an existing file.
+     *
+     * @param path      the book file
+     * @param minWeight the least weight of the written moves, 1 to write all moves
+     * @return the number of records written
+     * @throws IOException if the file cannot be written
+     */
+    public int write(final Path path, final int minWeight) throws IOException {
+        final List<long[]> records = new ArrayList<>();
+
+        for (final Map.Entry<Long, Map<Integer, Integer>> position : this.weights.entrySet()) {
+            for (final Map.Entry<Integer, Integer> move : position.getValue().entrySet()) {
+                if (move.getValue() >= minWeight) {
+                    records.add(new long[]{position.getKey(), move.getKey(), move.getValue()});
+                }
+            }
+        }
+
+        // by key, then the greatest weight first, the moves only keep the order stable
+        records.sort(Comparator.<long[]>comparingLong(record -> record[0])
+                             .thenComparingLong(record -> -record[2])
+                             .thenComparingLong(record -> record[1]));
+
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                          StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_RECORDS * OpeningBook.RECORD_SIZE);
+
+            buffer.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putLong(records.size());
+
+            for (final long[] record : records) {
+                if (buffer.remaining() < OpeningBook.RECORD_SIZE) {
+                    writeFully(channel, buffer);
+                }
+
+                buffer.putLong(record[0]).putInt((int) record[1]).putInt((int) record[2]);
+            }
+
+            writeFully(channel, buffer);
+        }
+
+        return records.size();
+    }
+
+    private void addGame(final PgnGame game) {
+        this.setup.setup(this.board);
+
+        for (int ply = 0; ply < Math.min(game.getMoveCount(), this.maxPlies); ply++) {
+            final int move = game.getMove(ply);
+
+            this.weights.computeIfAbsent(this.board.getPositionKey(), key -> new HashMap<>()).merge(move, 1, Integer::sum);
+            this.board.makeMove(move);
+        }
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+}
@@ -0,0 +1,302 @@
+package net.thatapex.chesssite.chess.game;
+
+import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.ImmutableChessBoardView;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.PersistentChessBoard;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import net.thatapex.chesssite.chess.move.Moves;
+import net.thatapex.chesssite.chess.move.PotentialMove;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Represents a game of chess, a sequence of moves played from a starting position, together with the rules that end the game.
+ * <p>
+ * The game keeps the keys (see {@link ChessBoard#getPositionKey()}) of all positions that occurred in a primitive array,
+ * along with the number of times every position has occurred so far. A repetition is only looked for among the positions since
+ * the last capture or pawn move, and only until the previous occurrence is found, so the whole history is never scanned.
+ * <p>
+ * Every position is also kept as a {@link PersistentChessBoard}, see {@link #getPosition(int)}. The snapshots share all unchanged ranks
+ * with the previous position, so they cost little more than the moves, and may be handed to other threads while the game goes on.
+ * <p>
+ * The following rules end the game automatically: checkmate, stalemate, a fivefold repetition and the 75-move rule.
+ * A threefold repetition and the 50-move rule only allow a player to claim a draw, see {@link #claimDraw()}.
+ * <p>
+ * The game is not thread-safe.
+ */
+public class Game {
+    private static final int INITIAL_CAPACITY = 128;
+
+    private static final int THREEFOLD_REPETITION         = 3;
+    private static final int FIVEFOLD_REPETITION          = 5;
+    private static final int FIFTY_MOVE_RULE_PLIES        = 100;
+    private static final int SEVENTY_FIVE_MOVE_RULE_PLIES = 150;
+
+    private final MutableChessBoard board;
+    private final ChessBoard        boardView;
+    private final MoveGenerator     generator  = new MoveGenerator();
+    private final int[]             legalMoves = new int[MoveGenerator.MAX_MOVES];
+
+    private int                    legalMoveCount;
+    private int[]                  moves        = new int[INITIAL_CAPACITY];
+    private PersistentChessBoard[] positions    = new PersistentChessBoard[INITIAL_CAPACITY + 1];
+    private long[]                 positionKeys = new long[INITIAL_CAPACITY + 1];
+    private int[]                  repetitions  = new int[INITIAL_CAPACITY + 1];
+    private int                    ply;
+    private GameStatus             status;
+
+    /**
+     * Starts a new game from the current position of the board.
+     * <p>
+     * From now on the board is owned by the game and must not be modified directly, the position can be read with {@link #getBoard()}.
+     *
+     * @param board the board with the starting position
+     */
+    public Game(final MutableChessBoard board) {
+        this.board           = board;
+        this.boardView       = new ImmutableChessBoardView(board);
+        this.positions[0]    = PersistentChessBoard.of(board);
+        this.positionKeys[0] = board.getPositionKey();
+        this.repetitions[0]  = 1;
+
+        this.updateStatus();
+    }
+
+    /**
+     * Returns a read-only view of the current position.
+     *
+     * @return the current position
+     */
+    public ChessBoard getBoard() {
+        return this.boardView;
+    }
+
+    /**
+     * Returns the current status of the game.
+     *
+     * @return the game status
+     */
+    public GameStatus getStatus() {
+        return this.status;
+    }
+
+    /**
+     * Returns whether the side to move is in check.
+     *
+     * @return {@code true} if the side to move is in check, {@code false} if otherwise
+     */
+    public boolean isInCheck() {
+        return this.generator.getAttackMap().isInCheck();
+    }
+
+    /**
+     * Returns the number of moves (plies) made in this game.
+     *
+     * @return the number of moves
+     */
+    public int getMoveCount() {
+        return this.ply;
+    }
+
+    /**
+     * Returns a move made in this game.
+     *
+     * @param index index of the move, the first move has index 0
+     * @return the encoded move, see {@link Moves}
+     * @throws IndexOutOfBoundsException if the move was not made
+     */
+    public int getMove(final int index) {
+        Objects.checkIndex(index, this.ply);
+
+        return this.moves[index];
+    }
+
+    /**
+     * Returns all moves made in this game.
+     *
+     * @return a copy of the encoded moves, see {@link Moves}
+     */
+    public int[] getMoves() {
+        return Arrays.copyOf(this.moves, this.ply);
+    }
+
+    /**
+     * Returns the keys of all positions of this game, see {@link ChessBoard#getPositionKey()}.
+     *
+     * @return a copy of the keys, from the starting position to the current one, which is the last
+     */
+    public long[] getPositionKeys() {
+        return Arrays.copyOf(this.positionKeys, this.ply + 1);
+    }
+
+    /**
+     * Returns a snapshot of a position of this game, that never changes as the game goes on or moves are taken back.
+     *
+     * @param index index of the position, 0 for the starting position and {@link #getMoveCount()} for the current one
+     * @return the position
+     * @throws IndexOutOfBoundsException if the position was not reached
+     */
+    public PersistentChessBoard getPosition(final int index) {
+        Objects.checkIndex(index, this.ply + 1);
+
+        return this.positions[index];
+    }
+
+    /**
+     * Copies the legal moves of the current position into the buffer.
+     *
+     * @param moves output buffer of at least {@link MoveGenerator#MAX_MOVES} elements, moves will be written starting at index 0
+     * @return number of legal moves, 0 if the game is finished
+     */
+    public int getLegalMoves(final int[] moves) {
+        final int count = this.status.isFinished() ? 0 : this.legalMoveCount;
+
+        System.arraycopy(this.legalMoves, 0, moves, 0, count);
+        return count;
+    }
+
+    /**
+     * Returns how many times the current position has occurred in this game, including now.
+     *
+     * @return the number of occurrences of the current position
+     */
+    public int getRepetitionCount() {
+        return this.repetitions[this.ply];
+    }
+
+    /**
+     * Makes a move, if it is legal.
+     *
+     * @param squareFrom the square of the moving piece
+     * @param move       the move
+     * @return {@code true} if the move was made, {@code false} if it is not legal
+     * @throws IllegalStateException if the game is finished
+     */
+    public boolean makeMove(final ChessSquare squareFrom, final PotentialMove move) {
+        return this.makeMove(Moves.find(this.legalMoves, this.legalMoveCount, squareFrom, move));
+    }
+
+    /**
+     * Makes a move, if it is legal.
+     *
+     * @param move the encoded move, see {@link Moves}
+     * @return {@code true} if the move was made, {@code false} if it is not legal
+     * @throws IllegalStateException if the game is finished
+     */
+    public boolean makeMove(final int move) {
+        Validate.validState(!this.status.isFinished(), "the game is finished");
+
+        if (!this.isLegal(move)) {
+            return false;
+        }
+
+        if (this.ply + 1 == this.positionKeys.length) {
+            this.grow();
+        }
+
+        this.board.makeMove(move);
+
+        this.moves[this.ply] = move;
+        this.ply++;
+        this.positions[this.ply]    = this.positions[this.ply - 1].withMove(move);
+        this.positionKeys[this.ply] = this.board.getPositionKey();
+        this.repetitions[this.ply]  = this.countRepetitions();
+
+        this.updateStatus();
+        return true;
+    }
+
+    /**
+     * Takes back the last move, the game continues even if it was finished.
+     *
+     * @throws IllegalStateException if no move was made
+     */
+    public void undoMove() {
+        Validate.validState(this.ply > 0, "there is no move to take back");
+
+        this.board.unmakeMove();
+        this.positions[this.ply] = null;
+        this.ply--;
+
+        this.updateStatus();
+    }
+
+    /**
+     * Returns whether the side to move may claim a draw, because of a threefold repetition or the 50-move rule.
+     *
+     * @return {@code true} if a draw can be claimed, {@code false} if otherwise
+     */
+    public boolean canClaimDraw() {
+        return !this.status.isFinished()
+               && (this.repetitions[this.ply] >= THREEFOLD_REPETITION || this.board.getHalfmoveClock() >= FIFTY_MOVE_RULE_PLIES);
+    }
+
+    /**
+     * Claims a draw because of a threefold repetition or the 50-move rule, finishing the game if the claim is correct.
+     *
+     * @return {@code true} if the game was drawn, {@code false} if a draw cannot be claimed
+     */
+    public boolean claimDraw() {
+        if (!this.canClaimDraw()) {
+            return false;
+        }
+
+        this.status = this.repetitions[this.ply] >= THREEFOLD_REPETITION ? GameStatus.DRAW_BY_THREEFOLD_REPETITION : GameStatus.DRAW_BY_FIFTY_MOVE_RULE;
+        return true;
+    }
+
+    private boolean isLegal(final int move) {
+        for (int i = 0; i < this.legalMoveCount; i++) {
+            if (this.legalMoves[i] == move) {
+                return move != Moves.NONE;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Finds the previous occurrence of the current position and returns the number of occurrences including the current one.
+     * Positions before the last capture or pawn move cannot repeat, and only positions with the same side to move are compared.
+     */
+    private int countRepetitions() {
+        final long key   = this.positionKeys[this.ply];
+        final int  limit = this.ply - Math.min(this.board.getHalfmoveClock(), this.ply);
+
+        for (int index = this.ply - 2; index >= limit; index -= 2) {
+            if (this.positionKeys[index] == key) {
+                return this.repetitions[index] + 1;
+            }
+        }
+
+        return 1;
+    }
+
+    private void updateStatus() {
+        this.legalMoveCount = this.generator.generateLegalMoves(this.board, this.legalMoves);
+
+        // a checkmate delivered with the last move allowed by the 75-move rule still counts
+        if (this.legalMoveCount == 0) {
+            this.status = this.isInCheck() ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        } else if (this.repetitions[this.ply] >= FIVEFOLD_REPETITION) {
+            this.status = GameStatus.DRAW_BY_FIVEFOLD_REPETITION;
+        } else if (this.board.getHalfmoveClock() >= SEVENTY_FIVE_MOVE_RULE_PLIES) {
+            this.status = GameStatus.DRAW_BY_SEVENTY_FIVE_MOVE_RULE;
+        } else {
+            this.status = GameStatus.IN_PROGRESS;
+        }
+    }
+
+    private void grow() {
+        final int capacity = this.moves.length * 2;
+
+        this.moves        = Arrays.copyOf(this.moves, capacity);
+        this.positions    = Arrays.copyOf(this.positions, capacity + 1);
+        this.positionKeys = Arrays.copyOf(this.positionKeys, capacity + 1);
+        this.repetitions  = Arrays.copyOf(this.repetitions, capacity + 1);
+    }
+}
@@ -0,0 +1,52 @@
+package net.thatapex.chesssite.chess.game;
+
+/**
+ * Represents the state of a {@link Game}, whether it is still being played and if not, how it ended.
+ */
+public enum GameStatus {
+    IN_PROGRESS(false, false),
+    CHECKMATE(true, false),
+    STALEMATE(true, true),
+    /**
+     * The same position occurred three times and a player claimed a draw.
+     */
+    DRAW_BY_THREEFOLD_REPETITION(true, true),
+    /**
+     * The same position occurred five times, the game is drawn automatically.
+     */
+    DRAW_BY_FIVEFOLD_REPETITION(true, true),
+    /**
+     * No pawn moved and nothing was captured in the last 50 moves of both players and a player claimed a draw.
+     */
+    DRAW_BY_FIFTY_MOVE_RULE(true, true),
+    /**
+     * No pawn moved and nothing was captured in the last 75 moves of both players, the game is drawn automatically.
+     */
+    DRAW_BY_SEVENTY_FIVE_MOVE_RULE(true, true);
+
+    private final boolean finished;
+    private final boolean draw;
+
+    GameStatus(final boolean finished, final boolean draw) {
+        this.finished = finished;
+        this.draw     = draw;
+    }
+
+    /**
+     * Returns whether the game is over, no more moves can be made.
+     *
+     * @return {@code true} if the game is over, {@code false} if otherwise
+     */
+    public boolean isFinished() {
+        return this.finished;
+    }
+
+    /**
+     * Returns whether the game ended in a draw.
+     *
+     * @return {@code true} if the game is drawn, {@code false} if otherwise
+     */
+    public boolean isDraw() {
+        return this.draw;
+    }
+}
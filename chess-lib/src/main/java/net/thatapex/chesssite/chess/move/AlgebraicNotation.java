@@ -0,0 +1,251 @@
+package net.thatapex.chesssite.chess.move;
+
+import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.bitboard.Bitboards;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+
+import java.util.Optional;
+
+/**
+ * Resolves moves written in the standard algebraic notation (SAN), as used by PGN files, for example 'e4', 'Nbd7', 'exd5', 'e8=Q+' or 'O-O',
+ * and writes moves in it.
+ * <p>
+ * A move is resolved against the legal moves of a position: the moving piece, the target square, the promotion and the disambiguation
+ * of the notation must match exactly one of them. Capture marks, check and mate marks and annotations like '!?' are accepted but not verified.
+ * Castling may also be written with zeros, and promotions without the '=' sign.
+ * <p>
+ * An instance reuses its move buffer, so it is not thread-safe.
+ */
+public final class AlgebraicNotation {
+    private static final String SHORT_CASTLING = "O-O";
+    private static final String LONG_CASTLING  = "O-O-O";
+    private static final String SUFFIXES       = "+#!?";
+
+    private static final int SHORT_CASTLING_FILE = 6;
+    private static final int LONG_CASTLING_FILE  = 2;
+    private static final int ANY                 = -1;
+
+    private final MoveGenerator generator = new MoveGenerator();
+    private final int[]         moves     = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * Resolves a move.
+     *
+     * @param board    the position before the move
+     * @param notation the move in the standard algebraic notation
+     * @return the encoded move, see {@link Moves}
+     * @throws IllegalArgumentException if the notation is invalid, or does not match exactly one legal move
+     */
+    public int parse(final ChessBoard board, final CharSequence notation) {
+        int end = notation.length();
+
+        while (end > 0 && SUFFIXES.indexOf(notation.charAt(end - 1)) >= 0) {
+            end--;
+        }
+
+        final String san   = notation.subSequence(0, end).toString().replace('0', 'O');
+        final int    count = this.generator.generateLegalMoves(board, this.moves);
+
+        if (san.equals(SHORT_CASTLING) || san.equals(LONG_CASTLING)) {
+            final int file = san.equals(SHORT_CASTLING) ? SHORT_CASTLING_FILE : LONG_CASTLING_FILE;
+
+            for (int i = 0; i < count; i++) {
+                if (Moves.hasFlag(this.moves[i], Moves.FLAG_CASTLING) && Moves.getToIndex(this.moves[i]) % ChessSquare.FILE_COUNT == file) {
+                    return this.moves[i];
+                }
+            }
+
+            throw new IllegalArgumentException("Illegal move: " + notation);
+        }
+
+        int               length    = san.length();
+        ChessPieceType<?> promotion = null;
+
+        if (length > 2 && Character.isUpperCase(san.charAt(length - 1))) {
+            promotion = parsePieceType(san.charAt(length - 1), notation)
+                            .filter(ChessPieceType::isValidPromotionTarget)
+                            .orElseThrow(() -> new IllegalArgumentException("Invalid move notation: " + notation));
+            length -= san.charAt(length - 2) == '=' ? 2 : 1;
+        }
+
+        if (length < 2) {
+            throw new IllegalArgumentException("Invalid move notation: " + notation);
+        }
+
+        final int target = ChessSquare.fromChessNotation(san.charAt(length - 2), san.charAt(length - 1))
+                                      .orElseThrow(() -> new IllegalArgumentException("Invalid move notation: " + notation))
+                                      .index();
+
+        int               start = 0;
+        ChessPieceType<?> type  = ChessPieceType.PAWN;
+
+        if (Character.isUpperCase(san.charAt(0))) {
+            type  = parsePieceType(san.charAt(0), notation).orElseThrow(() -> new IllegalArgumentException("Invalid move notation: " + notation));
+            start = 1;
+        }
+
+        int fromFile = ANY;
+        int fromRank = ANY;
+
+        for (int i = start; i < length - 2; i++) {
+            final char character = san.charAt(i);
+
+            if (character >= 'a' && character <= 'h') {
+                fromFile = character - 'a';
+            } else if (character >= '1' && character <= '8') {
+                fromRank = character - '1';
+            } else if (character != 'x') {
+                throw new IllegalArgumentException("Invalid move notation: " + notation);
+            }
+        }
+
+        int found = Moves.NONE;
+
+        for (int i = 0; i < count; i++) {
+            final int move = this.moves[i];
+            final int from = Moves.getFromIndex(move);
+
+            if (Moves.getToIndex(move) != target
+                || Moves.isPromotion(move) != (promotion != null)
+                || promotion != null && Moves.getPromotionType(move) != promotion
+                || fromFile != ANY && from % ChessSquare.FILE_COUNT != fromFile
+                || fromRank != ANY && from / ChessSquare.FILE_COUNT != fromRank
+                || (board.getPieceMask(type, board.getSideToMove()) & Bitboards.squareMask(from)) == 0) {
+                continue;
+            }
+
+            if (found != Moves.NONE) {
+                throw new IllegalArgumentException("Ambiguous move: " + notation);
+            }
+
+            found = move;
+        }
+
+        if (found == Moves.NONE) {
+            throw new IllegalArgumentException("Illegal move: " + notation);
+        }
+
+        return found;
+    }
+
+    /**
+     * Writes a move in the shortest unambiguous form, with a check or mate mark.
+     *
+     * @param board the position before the move, which is made and unmade to find out whether the move gives check
+     * @param move  the encoded move, see {@link Moves}
+     * @return the move in the standard algebraic notation
+     * @throws IllegalArgumentException if the move is not legal in the position
+     */
+    public String format(final MutableChessBoard board, final int move) {
+        final int count = this.generator.generateLegalMoves(board, this.moves);
+
+        if (!contains(this.moves, count, move)) {
+            throw new IllegalArgumentException("Illegal move: " + Moves.toNotation(move));
+        }
+
+        final StringBuilder builder = new StringBuilder();
+        final int           from    = Moves.getFromIndex(move);
+        final int           to      = Moves.getToIndex(move);
+
+        if (Moves.hasFlag(move, Moves.FLAG_CASTLING)) {
+            builder.append(to % ChessSquare.FILE_COUNT == SHORT_CASTLING_FILE ? SHORT_CASTLING : LONG_CASTLING);
+        } else {
+            final ChessPieceType<?> type = getPieceType(board, from);
+
+            if (type == ChessPieceType.PAWN) {
+                if (Moves.isCapture(move)) {
+                    builder.append(ChessSquare.ofIndex(from).toChessNotation().charAt(0));
+                }
+            } else {
+                builder.append(type.getChessNotationCharacter());
+                this.appendDisambiguation(builder, board, type, move, count);
+            }
+
+            if (Moves.isCapture(move)) {
+                builder.append('x');
+            }
+
+            builder.append(ChessSquare.ofIndex(to).toChessNotation());
+
+            if (Moves.isPromotion(move)) {
+                builder.append('=').append(Moves.getPromotionType(move).getChessNotationCharacter());
+            }
+        }
+
+        board.makeMove(move);
+
+        final int replyCount = this.generator.generateLegalMoves(board, this.moves);
+
+        if (this.generator.getAttackMap().isInCheck()) {
+            builder.append(replyCount == 0 ? '#' : '+');
+        }
+
+        board.unmakeMove();
+        return builder.toString();
+    }
+
+    /**
+     * Appends the file, the rank or the square of the moving piece if other pieces of the same type can move to the same square.
+     */
+    private void appendDisambiguation(final StringBuilder builder, final ChessBoard board, final ChessPieceType<?> type, final int move,
+                                      final int count) {
+        final int from  = Moves.getFromIndex(move);
+        boolean   other = false;
+        boolean   file  = false;
+        boolean   rank  = false;
+
+        for (int i = 0; i < count; i++) {
+            final int otherFrom = Moves.getFromIndex(this.moves[i]);
+
+            if (otherFrom == from || Moves.getToIndex(this.moves[i]) != Moves.getToIndex(move)
+                || (board.getPieceMask(type, board.getSideToMove()) & Bitboards.squareMask(otherFrom)) == 0) {
+                continue;
+            }
+
+            other = true;
+            file |= otherFrom % ChessSquare.FILE_COUNT == from % ChessSquare.FILE_COUNT;
+            rank |= otherFrom / ChessSquare.FILE_COUNT == from / ChessSquare.FILE_COUNT;
+        }
+
+        final String square = ChessSquare.ofIndex(from).toChessNotation();
+
+        // the file if it is enough, otherwise the rank if it is enough, otherwise both
+        if (other && (!file || rank)) {
+            builder.append(square.charAt(0));
+        }
+
+        if (file) {
+            builder.append(square.charAt(1));
+        }
+    }
+
+    private static boolean contains(final int[] moves, final int count, final int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static ChessPieceType<?> getPieceType(final ChessBoard board, final int squareIndex) {
+        for (final ChessPieceType<?> type : ChessPieceType.values()) {
+            if ((board.getPieceMask(type, board.getSideToMove()) & Bitboards.squareMask(squareIndex)) != 0) {
+                return type;
+            }
+        }
+
+        throw new IllegalArgumentException("No piece to move on " + ChessSquare.ofIndex(squareIndex));
+    }
+
+    private static Optional<ChessPieceType<?>> parsePieceType(final char character, final CharSequence notation) {
+        if (character == 'P') {
+            throw new IllegalArgumentException("Invalid move notation: " + notation);
+        }
+
+        return ChessPieceType.getByNotationCharacter(character);
+    }
+}
@@ -0,0 +1,425 @@
+package net.thatapex.chesssite.chess.move;
+
+import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.bitboard.AttackTables;
+import net.thatapex.chesssite.chess.board.bitboard.Bitboards;
+import net.thatapex.chesssite.chess.board.bitboard.SlidingAttacks;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+
+import java.util.Optional;
+
+/**
+ * The attacks of the opponent on a player's pieces in a single position, computed once per position.
+ * <p>
+ * The map is computed from the point of view of the defending player, it contains:
+ * <ul>
+ *     <li>the squares attacked by the opponent, with the opponent's sliding pieces seeing through the defending king,
+ *     so that the king cannot escape a check by stepping back along the checking line,</li>
+ *     <li>the opponent's pieces giving check to the defending king,</li>
+ *     <li>the defending pieces pinned to their king, which may only move along the line between the king and the pinning piece.</li>
+ * </ul>
+ * Together these are enough to tell whether a move leaves the own king in check, without simulating the move on the board.
+ * <p>
+ * An instance is reused by calling {@link #compute(ChessBoard, ChessPieceColor)} for every position, so it must not be shared between threads.
+ * A position without a king of the defending player is never in check and has no pinned pieces.
+ */
+public class AttackMap {
+    private static final int RANK_SIZE         = 8;
+    private static final int CASTLING_DISTANCE = 2;
+
+    private ChessPieceColor color;
+    private int             kingIndex;
+    private long            own;
+    private long            occupied;
+    private long            attacked;
+    private long            checkers;
+    private long            pinned;
+    private long            ownPawns;
+    private long            ownKnights;
+    private long            ownDiagonalSliders;
+    private long            ownOrthogonalSliders;
+    private long            enemyPawns;
+    private long            enemyKnights;
+    private long            enemyDiagonalSliders;
+    private long            enemyOrthogonalSliders;
+    private long            enemyKing;
+    private int             enPassantIndex;
+
+    /**
+     * Computes the attack map of the given position.
+     *
+     * @param board the board state
+     * @param color color of the defending player
+     * @return this attack map
+     */
+    public AttackMap compute(final ChessBoard board, final ChessPieceColor color) {
+        final ChessPieceColor enemy = color.getOpposite();
+
+        this.color                  = color;
+        this.own                    = board.getColorMask(color);
+        this.occupied               = this.own | board.getColorMask(enemy);
+        this.ownPawns               = board.getPieceMask(ChessPieceType.PAWN, color);
+        this.ownKnights             = board.getPieceMask(ChessPieceType.KNIGHT, color);
+        this.ownDiagonalSliders     = board.getPieceMask(ChessPieceType.BISHOP, color) | board.getPieceMask(ChessPieceType.QUEEN, color);
+        this.ownOrthogonalSliders   = board.getPieceMask(ChessPieceType.ROOK, color) | board.getPieceMask(ChessPieceType.QUEEN, color);
+        this.enemyPawns             = board.getPieceMask(ChessPieceType.PAWN, enemy);
+        this.enemyKnights           = board.getPieceMask(ChessPieceType.KNIGHT, enemy);
+        this.enemyDiagonalSliders   = board.getPieceMask(ChessPieceType.BISHOP, enemy) | board.getPieceMask(ChessPieceType.QUEEN, enemy);
+        this.enemyOrthogonalSliders = board.getPieceMask(ChessPieceType.ROOK, enemy) | board.getPieceMask(ChessPieceType.QUEEN, enemy);
+        this.enemyKing              = board.getPieceMask(ChessPieceType.KING, enemy);
+
+        final Optional<ChessSquare> enPassantSquare = board.getEnPassantSquare();
+        this.enPassantIndex = enPassantSquare.isPresent() ? enPassantSquare.get().index() : -1;
+
+        final long king = board.getPieceMask(ChessPieceType.KING, color);
+        this.kingIndex = king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+
+        this.attacked = computeAttackedSquares(enemy, this.occupied & ~king, this.enemyPawns, this.enemyKnights,
+                                               this.enemyDiagonalSliders, this.enemyOrthogonalSliders, this.enemyKing);
+        this.checkers = Bitboards.EMPTY;
+        this.pinned   = Bitboards.EMPTY;
+
+        if (this.kingIndex >= 0) {
+            this.computeCheckersAndPins();
+        }
+
+        return this;
+    }
+
+    /**
+     * Computes the squares attacked by the pieces of the given color.
+     * <p>
+     * A square is attacked if a piece of that color could capture an enemy piece standing on it, regardless of whether that capture would be legal.
+     *
+     * @param board the board state
+     * @param color color of the attacking player
+     * @return bitboard of attacked squares
+     */
+    public static long computeAttackedSquares(final ChessBoard board, final ChessPieceColor color) {
+        return computeAttackedSquares(color, board.getOccupiedMask(),
+                                      board.getPieceMask(ChessPieceType.PAWN, color),
+                                      board.getPieceMask(ChessPieceType.KNIGHT, color),
+                                      board.getPieceMask(ChessPieceType.BISHOP, color) | board.getPieceMask(ChessPieceType.QUEEN, color),
+                                      board.getPieceMask(ChessPieceType.ROOK, color) | board.getPieceMask(ChessPieceType.QUEEN, color),
+                                      board.getPieceMask(ChessPieceType.KING, color));
+    }
+
+    private static long computeAttackedSquares(final ChessPieceColor color, final long occupancy, long pawns, long knights,
+                                               long diagonalSliders, long orthogonalSliders, long kings) {
+        long attacks = Bitboards.EMPTY;
+
+        while (pawns != 0) {
+            attacks |= AttackTables.getPawnAttacks(color, Long.numberOfTrailingZeros(pawns));
+            pawns &= pawns - 1;
+        }
+
+        while (knights != 0) {
+            attacks |= AttackTables.getKnightAttacks(Long.numberOfTrailingZeros(knights));
+            knights &= knights - 1;
+        }
+
+        while (diagonalSliders != 0) {
+            attacks |= SlidingAttacks.getBishopAttacks(Long.numberOfTrailingZeros(diagonalSliders), occupancy);
+            diagonalSliders &= diagonalSliders - 1;
+        }
+
+        while (orthogonalSliders != 0) {
+            attacks |= SlidingAttacks.getRookAttacks(Long.numberOfTrailingZeros(orthogonalSliders), occupancy);
+            orthogonalSliders &= orthogonalSliders - 1;
+        }
+
+        while (kings != 0) {
+            attacks |= AttackTables.getKingAttacks(Long.numberOfTrailingZeros(kings));
+            kings &= kings - 1;
+        }
+
+        return attacks;
+    }
+
+    private void computeCheckersAndPins() {
+        this.checkers = (AttackTables.getKnightAttacks(this.kingIndex) & this.enemyKnights)
+                        | (AttackTables.getPawnAttacks(this.color, this.kingIndex) & this.enemyPawns);
+
+        // sliders that would attack the king on an empty board either check it, pin a single own piece in between, or are blocked
+        long sliders = (AttackTables.getBishopRays(this.kingIndex) & this.enemyDiagonalSliders)
+                       | (AttackTables.getRookRays(this.kingIndex) & this.enemyOrthogonalSliders);
+
+        while (sliders != 0) {
+            final int slider = Long.numberOfTrailingZeros(sliders);
+            sliders &= sliders - 1;
+
+            final long blockers = AttackTables.getBetween(this.kingIndex, slider) & this.occupied;
+
+            if (blockers == 0) {
+                this.checkers |= Bitboards.squareMask(slider);
+            } else if ((blockers & (blockers - 1)) == 0 && (blockers & this.own) != 0) {
+                this.pinned |= blockers;
+            }
+        }
+    }
+
+    /**
+     * Returns the color of the defending player.
+     *
+     * @return color of the defending player
+     */
+    public ChessPieceColor getColor() {
+        return this.color;
+    }
+
+    /**
+     * Returns the index of the square of the defending king.
+     *
+     * @return index of the king square, or -1 if the defending player has no king
+     */
+    public int getKingIndex() {
+        return this.kingIndex;
+    }
+
+    /**
+     * Returns the index of the en passant square of the position.
+     *
+     * @return index of the en passant square, or -1 if there is none
+     */
+    public int getEnPassantIndex() {
+        return this.enPassantIndex;
+    }
+
+    /**
+     * Returns the squares attacked by the opponent. Sliding pieces see through the defending king.
+     *
+     * @return bitboard of attacked squares
+     */
+    public long getAttackedSquares() {
+        return this.attacked;
+    }
+
+    /**
+     * Returns whether the square is attacked by the opponent.
+     *
+     * @param squareIndex index of the square
+     * @return {@code true} if the square is attacked, {@code false} if otherwise
+     * @see #getAttackedSquares()
+     */
+    public boolean isAttacked(final int squareIndex) {
+        return Bitboards.contains(this.attacked, squareIndex);
+    }
+
+    /**
+     * Returns the opponent's pieces giving check to the defending king.
+     *
+     * @return bitboard of the checking pieces
+     */
+    public long getCheckers() {
+        return this.checkers;
+    }
+
+    /**
+     * Returns the squares that a piece other than the king may move to without leaving the king in check (ignoring pins),
+     * that is the checking piece and the squares between it and the king.
+     *
+     * @return bitboard of the squares resolving the check, all squares if the king is not in check, no squares in a double check
+     */
+    public long getCheckMask() {
+        if (this.checkers == 0) {
+            return Bitboards.ALL;
+        }
+
+        if ((this.checkers & (this.checkers - 1)) != 0) {
+            return Bitboards.EMPTY;
+        }
+
+        return this.checkers | AttackTables.getBetween(this.kingIndex, Long.numberOfTrailingZeros(this.checkers));
+    }
+
+    /**
+     * Returns the defending pieces pinned to their king.
+     *
+     * @return bitboard of pinned pieces
+     */
+    public long getPinnedPieces() {
+        return this.pinned;
+    }
+
+    /**
+     * Returns the squares a piece can move to without exposing its king, according to the pins alone.
+     *
+     * @param squareIndex index of the square of the piece
+     * @return the line through the king and the pinned piece, or all squares if the piece is not pinned
+     */
+    public long getPinRay(final int squareIndex) {
+        return Bitboards.contains(this.pinned, squareIndex) ? AttackTables.getLine(this.kingIndex, squareIndex) : Bitboards.ALL;
+    }
+
+    /**
+     * Returns whether the defending king is in check.
+     *
+     * @return {@code true} if the king is in check, {@code false} if otherwise
+     */
+    public boolean isInCheck() {
+        return this.checkers != 0;
+    }
+
+    /**
+     * Returns whether the defending player is checkmated, that is in check without any legal moves.
+     *
+     * @return {@code true} if the player is checkmated, {@code false} if otherwise
+     */
+    public boolean isCheckmate() {
+        return this.isInCheck() && !this.hasLegalMoves();
+    }
+
+    /**
+     * Returns whether the defending player is stalemated, that is not in check but without any legal moves.
+     *
+     * @return {@code true} if the player is stalemated, {@code false} if otherwise
+     */
+    public boolean isStalemate() {
+        return !this.isInCheck() && !this.hasLegalMoves();
+    }
+
+    /**
+     * Checks whether a move of a defending piece leaves its king safe, that is not in check.
+     * <p>
+     * The move itself must be valid for the piece (see {@link net.thatapex.chesssite.chess.pieces.ChessPiece#isMoveLegal(ChessBoard, ChessSquare, PotentialMove)}),
+     * a king move by two squares is considered castling, which is only safe if the king is not in check and does not pass through an attacked square.
+     *
+     * @param from index of the square of the moving piece
+     * @param to   index of the target square
+     * @return {@code true} if the move leaves the king safe, {@code false} if otherwise
+     */
+    public boolean isMoveSafe(final int from, final int to) {
+        if (this.kingIndex < 0) {
+            return true;
+        }
+
+        if (from == this.kingIndex) {
+            if (Math.abs(to - from) == CASTLING_DISTANCE) {
+                return this.checkers == 0 && !this.isAttacked((from + to) / 2) && !this.isAttacked(to);
+            }
+
+            return !this.isAttacked(to);
+        }
+
+        if (to == this.enPassantIndex && Bitboards.contains(this.ownPawns, from) && !Bitboards.contains(this.occupied, to)
+                && Bitboards.contains(AttackTables.getPawnAttacks(this.color, from), to)) {
+            return this.isEnPassantLegal(from, this.color.getRankAdvanceDirection() * RANK_SIZE);
+        }
+
+        return Bitboards.contains(this.getCheckMask() & this.getPinRay(from), to);
+    }
+
+    /**
+     * Returns whether the defending player has at least one legal move.
+     * <p>
+     * This stops at the first legal move found, so it is much cheaper than generating all moves.
+     * Castling is not considered, since whenever castling is legal, so is moving the king by one square towards the rook.
+     *
+     * @return {@code true} if the player has a legal move, {@code false} if otherwise
+     */
+    public boolean hasLegalMoves() {
+        if (this.kingIndex >= 0 && (AttackTables.getKingAttacks(this.kingIndex) & ~this.own & ~this.attacked) != 0) {
+            return true;
+        }
+
+        final long checkMask = this.getCheckMask();
+
+        if (checkMask == 0) {
+            return false;
+        }
+
+        final long targets = ~this.own & checkMask;
+
+        // a pinned knight can never move
+        long knights = this.ownKnights & ~this.pinned;
+
+        while (knights != 0) {
+            if ((AttackTables.getKnightAttacks(Long.numberOfTrailingZeros(knights)) & targets) != 0) {
+                return true;
+            }
+
+            knights &= knights - 1;
+        }
+
+        long diagonalSliders = this.ownDiagonalSliders;
+
+        while (diagonalSliders != 0) {
+            final int from = Long.numberOfTrailingZeros(diagonalSliders);
+            diagonalSliders &= diagonalSliders - 1;
+
+            if ((SlidingAttacks.getBishopAttacks(from, this.occupied) & targets & this.getPinRay(from)) != 0) {
+                return true;
+            }
+        }
+
+        long orthogonalSliders = this.ownOrthogonalSliders;
+
+        while (orthogonalSliders != 0) {
+            final int from = Long.numberOfTrailingZeros(orthogonalSliders);
+            orthogonalSliders &= orthogonalSliders - 1;
+
+            if ((SlidingAttacks.getRookAttacks(from, this.occupied) & targets & this.getPinRay(from)) != 0) {
+                return true;
+            }
+        }
+
+        final long enemies = this.occupied & ~this.own;
+        final int  advance = this.color.getRankAdvanceDirection() * RANK_SIZE;
+        long       pawns   = this.ownPawns;
+
+        while (pawns != 0) {
+            final int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+
+            final long allowed = checkMask & this.getPinRay(from);
+            long       moves   = AttackTables.getPawnAttacks(this.color, from) & enemies;
+
+            // a blocked pawn cannot move by two squares either
+            if (!Bitboards.contains(this.occupied, from + advance)) {
+                moves |= AttackTables.getPawnPushes(this.color, from) & ~this.occupied;
+            }
+
+            if ((moves & allowed) != 0 || this.isEnPassantLegal(from, advance)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks whether the pawn on the given square can legally capture en passant.
+     * <p>
+     * The capture removes two pieces from the same rank at once, which can expose the king in a way that pins do not describe,
+     * so the attacks on the king are recomputed with the occupancy after the capture.
+     *
+     * @param from    index of the square of the capturing pawn
+     * @param advance the difference of square indices of a single pawn push
+     * @return {@code true} if the en passant capture is legal, {@code false} if otherwise
+     */
+    boolean isEnPassantLegal(final int from, final int advance) {
+        final int to       = this.enPassantIndex;
+        final int captured = to - advance;
+
+        if (to < 0
+                || !Bitboards.contains(AttackTables.getPawnAttacks(this.color, from), to)
+                || Bitboards.contains(this.occupied, to)
+                || !Bitboards.contains(this.enemyPawns, captured)) {
+            return false;
+        }
+
+        if (this.kingIndex < 0) {
+            return true;
+        }
+
+        final long occupancy = (this.occupied & ~Bitboards.squareMask(from) & ~Bitboards.squareMask(captured)) | Bitboards.squareMask(to);
+        final long leapers   = this.enemyPawns | this.enemyKnights;
+
+        // checks by sliders are covered by the recomputed attacks, the pawn can block them by landing in between
+        return (this.checkers & leapers & ~Bitboards.squareMask(captured)) == 0
+               && (SlidingAttacks.getBishopAttacks(this.kingIndex, occupancy) & this.enemyDiagonalSliders) == 0
+               && (SlidingAttacks.getRookAttacks(this.kingIndex, occupancy) & this.enemyOrthogonalSliders) == 0;
+    }
+}
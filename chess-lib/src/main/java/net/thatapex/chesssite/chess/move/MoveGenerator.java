@@ -0,0 +1,291 @@
+package net.thatapex.chesssite.chess.move;
+
+import net.thatapex.chesssite.chess.board.CastlingRights;
+import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.bitboard.AttackTables;
+import net.thatapex.chesssite.chess.board.bitboard.Bitboards;
+import net.thatapex.chesssite.chess.board.bitboard.SlidingAttacks;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+
+/**
+ * Generates all legal moves in a position, encoded as described in {@link Moves}.
+ * <p>
+ * The moves are written into a buffer owned by the caller, so that the generation itself never allocates any objects.
+ * A buffer of {@link #MAX_MOVES} elements is enough to hold the moves of any reachable position.
+ * <p>
+ * Moves that would leave the own king in check are filtered out with an {@link AttackMap} computed once per position,
+ * so candidate moves are never simulated on the board.
+ * <p>
+ * For searches the moves can also be generated in two stages, captures and promotions first and the remaining quiet moves only if they are
+ * still needed, see {@link #generateLegalCaptures} and {@link #generateLegalQuietMoves}. Together the two stages generate the same moves
+ * as {@link #generateLegalMoves}.
+ * <p>
+ * An instance keeps the state of the position it is currently generating moves for, so it must not be shared between threads.
+ * Instances are cheap though, and can be reused for any number of positions.
+ */
+public class MoveGenerator {
+
+    /**
+     * Upper bound of the number of legal moves in a chess position.
+     */
+    public static final int MAX_MOVES = 256;
+
+    private static final ChessPieceType<?>[] PROMOTION_TYPES = {ChessPieceType.QUEEN, ChessPieceType.ROOK, ChessPieceType.BISHOP, ChessPieceType.KNIGHT};
+
+    private static final int RANK_SIZE        = 8;
+    private static final int KING_FILE_INDEX  = 4;
+    private static final int SHORT_ROOK_INDEX = 7;
+    private static final int LONG_ROOK_INDEX  = 0;
+    private static final int LAST_RANK_OFFSET = ChessSquare.SQUARE_COUNT - RANK_SIZE;
+
+    private static final long PROMOTION_RANKS = 0xFF00_0000_0000_00FFL;
+
+    private static final int STAGE_CAPTURES = 1;
+    private static final int STAGE_QUIETS   = 2;
+    private static final int STAGE_ALL      = STAGE_CAPTURES | STAGE_QUIETS;
+
+    private final AttackMap attackMap = new AttackMap();
+
+    private ChessPieceColor color;
+    private long            own;
+    private long            occupied;
+    private long            checkMask;
+    private long            targets;
+    private long            pushTargets;
+    private int             stages;
+    private int[]           moves;
+    private int             count;
+
+    /**
+     * Generates all legal moves of the side to move.
+     *
+     * @param board the board state
+     * @param moves output buffer, moves will be written starting at index 0
+     * @return number of generated moves
+     */
+    public int generateLegalMoves(final ChessBoard board, final int[] moves) {
+        return this.generateLegalMoves(board, board.getSideToMove(), moves, 0);
+    }
+
+    /**
+     * Generates all legal moves of the given color.
+     *
+     * @param board the board state
+     * @param color color of the side to move
+     * @param moves output buffer, moves will be written starting at index 0
+     * @return number of generated moves
+     */
+    public int generateLegalMoves(final ChessBoard board, final ChessPieceColor color, final int[] moves) {
+        return this.generateLegalMoves(board, color, moves, 0);
+    }
+
+    /**
+     * Generates all legal moves of the given color.
+     * <p>
+     * The offset allows a single buffer to be shared by consecutive plies of a search.
+     *
+     * @param board  the board state
+     * @param color  color of the side to move
+     * @param moves  output buffer
+     * @param offset index in the output buffer of the first generated move
+     * @return number of generated moves
+     */
+    public int generateLegalMoves(final ChessBoard board, final ChessPieceColor color, final int[] moves, final int offset) {
+        return this.generate(board, color, moves, offset, STAGE_ALL);
+    }
+
+    /**
+     * Generates the legal captures, including en passant, and promotions of the side to move.
+     *
+     * @param board  the board state
+     * @param moves  output buffer
+     * @param offset index in the output buffer of the first generated move
+     * @return number of generated moves
+     */
+    public int generateLegalCaptures(final ChessBoard board, final int[] moves, final int offset) {
+        return this.generate(board, board.getSideToMove(), moves, offset, STAGE_CAPTURES);
+    }
+
+    /**
+     * Generates the legal moves of the side to move that are neither captures nor promotions, including castling.
+     *
+     * @param board  the board state
+     * @param moves  output buffer
+     * @param offset index in the output buffer of the first generated move
+     * @return number of generated moves
+     */
+    public int generateLegalQuietMoves(final ChessBoard board, final int[] moves, final int offset) {
+        return this.generate(board, board.getSideToMove(), moves, offset, STAGE_QUIETS);
+    }
+
+    /**
+     * Returns the attack map of the position the moves were last generated for.
+     *
+     * @return the attack map, reused by the next generation
+     */
+    public AttackMap getAttackMap() {
+        return this.attackMap;
+    }
+
+    private int generate(final ChessBoard board, final ChessPieceColor color, final int[] moves, final int offset, final int stages) {
+        this.attackMap.compute(board, color);
+
+        final long enemies = board.getColorMask(color.getOpposite());
+
+        this.color       = color;
+        this.own         = board.getColorMask(color);
+        this.occupied    = this.own | enemies;
+        this.checkMask   = this.attackMap.getCheckMask();
+        this.stages      = stages;
+        this.targets     = ((stages & STAGE_CAPTURES) != 0 ? enemies : 0L) | ((stages & STAGE_QUIETS) != 0 ? ~this.occupied : 0L);
+        this.pushTargets = ((stages & STAGE_CAPTURES) != 0 ? PROMOTION_RANKS : 0L) | ((stages & STAGE_QUIETS) != 0 ? ~PROMOTION_RANKS : 0L);
+        this.moves       = moves;
+        this.count       = offset;
+
+        final int kingIndex = this.attackMap.getKingIndex();
+
+        if (kingIndex >= 0) {
+            this.addMoves(kingIndex, AttackTables.getKingAttacks(kingIndex) & ~this.attackMap.getAttackedSquares());
+        }
+
+        // in a double check only the king can move
+        if (this.checkMask != 0) {
+            this.generatePieceMoves(board);
+
+            if (kingIndex >= 0 && (stages & STAGE_QUIETS) != 0 && !this.attackMap.isInCheck()) {
+                this.generateCastlingMoves(kingIndex, board.getCastlingRightsFor(color), board.getPieceMask(ChessPieceType.ROOK, color));
+            }
+        }
+
+        this.moves = null;
+        return this.count - offset;
+    }
+
+    private void generatePieceMoves(final ChessBoard board) {
+        this.generatePawnMoves(board.getPieceMask(ChessPieceType.PAWN, this.color));
+
+        // a pinned knight can never move
+        long knights = board.getPieceMask(ChessPieceType.KNIGHT, this.color) & ~this.attackMap.getPinnedPieces();
+
+        while (knights != 0) {
+            final int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+
+            this.addMoves(from, AttackTables.getKnightAttacks(from) & this.checkMask);
+        }
+
+        long diagonalSliders = board.getPieceMask(ChessPieceType.BISHOP, this.color) | board.getPieceMask(ChessPieceType.QUEEN, this.color);
+
+        while (diagonalSliders != 0) {
+            final int from = Long.numberOfTrailingZeros(diagonalSliders);
+            diagonalSliders &= diagonalSliders - 1;
+
+            this.addMoves(from, SlidingAttacks.getBishopAttacks(from, this.occupied) & this.checkMask & this.attackMap.getPinRay(from));
+        }
+
+        long orthogonalSliders = board.getPieceMask(ChessPieceType.ROOK, this.color) | board.getPieceMask(ChessPieceType.QUEEN, this.color);
+
+        while (orthogonalSliders != 0) {
+            final int from = Long.numberOfTrailingZeros(orthogonalSliders);
+            orthogonalSliders &= orthogonalSliders - 1;
+
+            this.addMoves(from, SlidingAttacks.getRookAttacks(from, this.occupied) & this.checkMask & this.attackMap.getPinRay(from));
+        }
+    }
+
+    private void generatePawnMoves(long pawns) {
+        final long enemies = this.occupied & ~this.own;
+        final int  advance = this.color.getRankAdvanceDirection() * RANK_SIZE;
+
+        while (pawns != 0) {
+            final int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+
+            final long allowed = this.checkMask & this.attackMap.getPinRay(from);
+
+            // a blocked pawn cannot move by two squares either
+            if (!Bitboards.contains(this.occupied, from + advance)) {
+                long pushes = AttackTables.getPawnPushes(this.color, from) & ~this.occupied & allowed & this.pushTargets;
+
+                while (pushes != 0) {
+                    final int to = Long.numberOfTrailingZeros(pushes);
+                    pushes &= pushes - 1;
+
+                    this.addPawnMove(from, to, to - from == 2 * advance ? Moves.FLAG_DOUBLE_PUSH : 0);
+                }
+            }
+
+            if ((this.stages & STAGE_CAPTURES) == 0) {
+                continue;
+            }
+
+            long captures = AttackTables.getPawnAttacks(this.color, from) & enemies & allowed;
+
+            while (captures != 0) {
+                final int to = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+
+                this.addPawnMove(from, to, Moves.FLAG_CAPTURE);
+            }
+
+            if (this.attackMap.isEnPassantLegal(from, advance)) {
+                this.addPawnMove(from, this.attackMap.getEnPassantIndex(), Moves.FLAG_CAPTURE | Moves.FLAG_EN_PASSANT);
+            }
+        }
+    }
+
+    private void addPawnMove(final int from, final int to, final int flags) {
+        if (to < RANK_SIZE || to >= LAST_RANK_OFFSET) {
+            for (final ChessPieceType<?> promotion : PROMOTION_TYPES) {
+                this.moves[this.count++] = Moves.encodePromotion(from, to, promotion, flags);
+            }
+
+            return;
+        }
+
+        this.moves[this.count++] = Moves.encode(from, to, flags);
+    }
+
+    /**
+     * Adds moves to all given target squares of the generated stages, the targets must already be filtered by the legality masks.
+     */
+    private void addMoves(final int from, final long attacks) {
+        long targets = attacks & this.targets;
+
+        while (targets != 0) {
+            final int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+
+            this.moves[this.count++] = Moves.encode(from, to, Bitboards.contains(this.occupied, to) ? Moves.FLAG_CAPTURE : 0);
+        }
+    }
+
+    private void generateCastlingMoves(final int from, final CastlingRights rights, final long rooks) {
+        final int base = this.color == ChessPieceColor.WHITE ? 0 : LAST_RANK_OFFSET;
+
+        if (from != base + KING_FILE_INDEX) {
+            return;
+        }
+
+        if (rights.hasShortCastleRights()
+                && Bitboards.contains(rooks, base + SHORT_ROOK_INDEX)
+                && !Bitboards.contains(this.occupied, from + 1)
+                && !Bitboards.contains(this.occupied, from + 2)
+                && !this.attackMap.isAttacked(from + 1)
+                && !this.attackMap.isAttacked(from + 2)) {
+            this.moves[this.count++] = Moves.encode(from, from + 2, Moves.FLAG_CASTLING);
+        }
+
+        if (rights.hasLongCastleRights()
+                && Bitboards.contains(rooks, base + LONG_ROOK_INDEX)
+                && !Bitboards.contains(this.occupied, from - 1)
+                && !Bitboards.contains(this.occupied, from - 2)
+                && !Bitboards.contains(this.occupied, from - 3)
+                && !this.attackMap.isAttacked(from - 1)
+                && !this.attackMap.isAttacked(from - 2)) {
+            this.moves[this.count++] = Moves.encode(from, from - 2, Moves.FLAG_CASTLING);
+        }
+    }
+}
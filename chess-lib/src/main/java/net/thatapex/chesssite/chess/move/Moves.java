@@ -0,0 +1,198 @@
+package net.thatapex.chesssite.chess.move;
+
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+
+/**
+ * Utilities for moves encoded as primitive integers, used where allocating a {@link PotentialMove} for every move would be too costly.
+ * <p>
+ * An encoded move packs the following fields:
+ * <ul>
+ *     <li>bits 0-5: index of the source square, see {@link ChessSquare#index()}</li>
+ *     <li>bits 6-11: index of the target square</li>
+ *     <li>bits 12-14: promotion piece type ordinal + 1 (see {@link ChessPieceType#getOrdinal()}), or 0 if the move is not a promotion</li>
+ *     <li>bits 15 and up: move flags, see {@link #FLAG_CAPTURE}, {@link #FLAG_EN_PASSANT}, {@link #FLAG_CASTLING} and {@link #FLAG_DOUBLE_PUSH}</li>
+ * </ul>
+ * The value {@link #NONE} is never a valid move.
+ */
+public final class Moves {
+
+    /**
+     * A value that does not represent any move.
+     */
+    public static final int NONE = 0;
+
+    /**
+     * Flag of moves that capture a piece, including en passant captures.
+     */
+    public static final int FLAG_CAPTURE = 1 << 15;
+
+    /**
+     * Flag of en passant captures.
+     */
+    public static final int FLAG_EN_PASSANT = 1 << 16;
+
+    /**
+     * Flag of castling moves, encoded as a king move by two squares.
+     */
+    public static final int FLAG_CASTLING = 1 << 17;
+
+    /**
+     * Flag of pawn moves by two squares, from their starting rank.
+     */
+    public static final int FLAG_DOUBLE_PUSH = 1 << 18;
+
+    private static final int SQUARE_BITS     = 6;
+    private static final int SQUARE_MASK     = (1 << SQUARE_BITS) - 1;
+    private static final int TO_SHIFT        = SQUARE_BITS;
+    private static final int PROMOTION_SHIFT = 2 * SQUARE_BITS;
+    private static final int PROMOTION_MASK  = 0x7;
+
+    private Moves() {
+    }
+
+    /**
+     * Encodes a move.
+     *
+     * @param fromIndex index of the source square
+     * @param toIndex   index of the target square
+     * @param flags     move flags
+     * @return the encoded move
+     */
+    public static int encode(final int fromIndex, final int toIndex, final int flags) {
+        return fromIndex | (toIndex << TO_SHIFT) | flags;
+    }
+
+    /**
+     * Encodes a promotion.
+     *
+     * @param fromIndex index of the source square
+     * @param toIndex   index of the target square
+     * @param promotion piece type the pawn promotes to
+     * @param flags     move flags
+     * @return the encoded move
+     */
+    public static int encodePromotion(final int fromIndex, final int toIndex, final ChessPieceType<?> promotion, final int flags) {
+        return encode(fromIndex, toIndex, flags) | ((promotion.getOrdinal() + 1) << PROMOTION_SHIFT);
+    }
+
+    /**
+     * Returns the index of the source square of the move.
+     *
+     * @param move the encoded move
+     * @return index of the source square
+     */
+    public static int getFromIndex(final int move) {
+        return move & SQUARE_MASK;
+    }
+
+    /**
+     * Returns the index of the target square of the move.
+     *
+     * @param move the encoded move
+     * @return index of the target square
+     */
+    public static int getToIndex(final int move) {
+        return (move >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    /**
+     * Checks if the move is a promotion.
+     *
+     * @param move the encoded move
+     * @return whether or not the move is a promotion
+     */
+    public static boolean isPromotion(final int move) {
+        return ((move >>> PROMOTION_SHIFT) & PROMOTION_MASK) != 0;
+    }
+
+    /**
+     * Returns the piece type the pawn promotes to.
+     *
+     * @param move the encoded move
+     * @return the promotion piece type, or null if the move is not a promotion
+     */
+    public static ChessPieceType<?> getPromotionType(final int move) {
+        final int value = (move >>> PROMOTION_SHIFT) & PROMOTION_MASK;
+
+        return value == 0 ? null : ChessPieceType.values().get(value - 1);
+    }
+
+    /**
+     * Checks if the move has the given flag set.
+     *
+     * @param move the encoded move
+     * @param flag one of the move flags
+     * @return whether or not the flag is set
+     */
+    public static boolean hasFlag(final int move, final int flag) {
+        return (move & flag) != 0;
+    }
+
+    /**
+     * Checks if the move is a capture.
+     *
+     * @param move the encoded move
+     * @return whether or not the move captures a piece
+     */
+    public static boolean isCapture(final int move) {
+        return hasFlag(move, FLAG_CAPTURE);
+    }
+
+    /**
+     * Converts the encoded move to a {@link PotentialMove}.
+     *
+     * @param move the encoded move
+     * @return the converted move
+     */
+    public static PotentialMove toPotentialMove(final int move) {
+        final ChessPieceType<?> promotion = getPromotionType(move);
+
+        return new PotentialMove(ChessSquare.ofIndex(getToIndex(move)), promotion == null ? null : new Promotion(promotion));
+    }
+
+    /**
+     * Finds the encoded move matching the given {@link PotentialMove} in the move buffer.
+     *
+     * @param moves      move buffer
+     * @param count      number of moves in the buffer
+     * @param squareFrom source square of the move
+     * @param move       the move to find
+     * @return the encoded move, or {@link #NONE} if not found
+     */
+    public static int find(final int[] moves, final int count, final ChessSquare squareFrom, final PotentialMove move) {
+        final int fromIndex = squareFrom.index();
+        final int toIndex   = move.getTargetSquare().index();
+        final int promotion = move.getPromotion().map(it -> it.getTargetPieceType().getOrdinal() + 1).orElse(0);
+
+        for (int i = 0; i < count; i++) {
+            final int candidate = moves[i];
+
+            if (getFromIndex(candidate) == fromIndex && getToIndex(candidate) == toIndex && ((candidate >>> PROMOTION_SHIFT) & PROMOTION_MASK) == promotion) {
+                return candidate;
+            }
+        }
+
+        return NONE;
+    }
+
+    /**
+     * Converts the move to a long algebraic notation, for example 'e2e4' or 'e7e8q'.
+     *
+     * @param move the encoded move
+     * @return move in long algebraic notation
+     */
+    public static String toNotation(final int move) {
+        final StringBuilder builder = new StringBuilder(5)
+                .append(ChessSquare.ofIndex(getFromIndex(move)).toChessNotation())
+                .append(ChessSquare.ofIndex(getToIndex(move)).toChessNotation());
+
+        final ChessPieceType<?> promotion = getPromotionType(move);
+
+        if (promotion != null) {
+            builder.append(Character.toLowerCase(promotion.getChessNotationCharacter()));
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,174 @@
+package net.thatapex.chesssite.chess.move;
+
+import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.bitboard.AttackTables;
+import net.thatapex.chesssite.chess.board.bitboard.Bitboards;
+import net.thatapex.chesssite.chess.board.bitboard.SlidingAttacks;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+
+/**
+ * Static exchange evaluation (SEE): the material won or lost by a capture once all pieces attacking the target square have captured on it,
+ * least valuable piece first, with either side allowed to stop capturing whenever that is better for it.
+ * <p>
+ * The exchange is computed from the attacker masks of the target square only, removing every capturing piece from the occupancy,
+ * so that sliders behind it join the exchange. The board is never changed nor copied. Pins, checks other than a king capturing into an attack,
+ * and promotions of recapturing pawns are ignored, so the result is an estimate of the tactics on the square, not a search.
+ * <p>
+ * Values are the {@link ChessPieceType#getSymbolicalMaterialValue() symbolical material values} of the pieces.
+ * <p>
+ * An instance reuses its buffer of the gains of every capture, so it is not thread-safe.
+ */
+public final class StaticExchange {
+
+    /**
+     * Types of the pieces in the order they take part in an exchange, the least valuable first.
+     */
+    private static final ChessPieceType<?>[] CAPTURE_ORDER = {ChessPieceType.PAWN, ChessPieceType.KNIGHT, ChessPieceType.BISHOP,
+                                                              ChessPieceType.ROOK, ChessPieceType.QUEEN, ChessPieceType.KING};
+
+    /**
+     * Upper bound of the number of captures in an exchange on a single square.
+     */
+    private static final int MAX_CAPTURES = 32;
+
+    private final int[] gains = new int[MAX_CAPTURES];
+
+    /**
+     * Evaluates the exchange started by a move.
+     * <p>
+     * The move may also be a quiet move, evaluating whether the moved piece is safe on its target square.
+     *
+     * @param board the position before the move
+     * @param move  the move, see {@link Moves}
+     * @return the material won by the side making the move, negative if it loses material
+     * @throws IllegalArgumentException if there is no piece on the starting square of the move
+     */
+    public int evaluate(final ChessBoard board, final int move) {
+        final int  from     = Moves.getFromIndex(move);
+        final int  to       = Moves.getToIndex(move);
+        final long fromMask = Bitboards.squareMask(from);
+
+        ChessPieceColor         side  = (board.getColorMask(ChessPieceColor.WHITE) & fromMask) != 0 ? ChessPieceColor.WHITE : ChessPieceColor.BLACK;
+        final ChessPieceType<?> mover = findPieceType(board, side, fromMask);
+
+        if (mover == null) {
+            throw new IllegalArgumentException("No piece to move on " + Moves.toNotation(move));
+        }
+
+        final ChessPieceType<?> victim   = findPieceType(board, side.getOpposite(), Bitboards.squareMask(to));
+        final int[]             gains    = this.gains;
+        long                    occupied = board.getOccupiedMask() ^ fromMask;
+        int                     next     = mover.getSymbolicalMaterialValue();
+
+        gains[0] = victim == null ? 0 : victim.getSymbolicalMaterialValue();
+
+        if (Moves.hasFlag(move, Moves.FLAG_EN_PASSANT)) {
+            // the captured pawn is next to the starting square, on the same rank
+            final int captured = from - from % ChessSquare.FILE_COUNT + to % ChessSquare.FILE_COUNT;
+
+            gains[0] = ChessPieceType.PAWN.getSymbolicalMaterialValue();
+            occupied ^= Bitboards.squareMask(captured);
+        }
+
+        if (Moves.isPromotion(move)) {
+            next = Moves.getPromotionType(move).getSymbolicalMaterialValue();
+            gains[0] += next - ChessPieceType.PAWN.getSymbolicalMaterialValue();
+        }
+
+        int depth = 0;
+
+        while (depth < MAX_CAPTURES - 1) {
+            side = side.getOpposite();
+
+            final long attackers = getAttackers(board, to, occupied) & occupied;
+            final long own       = attackers & board.getColorMask(side);
+
+            if (own == 0) {
+                break;
+            }
+
+            final ChessPieceType<?> attacker     = findPieceType(board, side, own);
+            final long              pieces       = own & board.getPieceMask(attacker, side);
+            final long              attackerMask = pieces & -pieces;
+
+            // the king cannot capture a defended piece
+            if (attacker == ChessPieceType.KING && (attackers & ~own) != 0) {
+                break;
+            }
+
+            depth++;
+            gains[depth] = next - gains[depth - 1];
+            next         = attacker.getSymbolicalMaterialValue();
+            occupied    ^= attackerMask;
+        }
+
+        // either side stops capturing when continuing would be worse for it
+        for (; depth > 0; depth--) {
+            gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+        }
+
+        return gains[0];
+    }
+
+    /**
+     * Returns whether the exchange started by a move wins at least the given material, see {@link #evaluate(ChessBoard, int)}.
+     *
+     * @param board     the position before the move
+     * @param move      the move, see {@link Moves}
+     * @param threshold the least material to win, 0 for an exchange that does not lose material
+     * @return {@code true} if the exchange wins at least the threshold, {@code false} if otherwise
+     */
+    public boolean isAtLeast(final ChessBoard board, final int move, final int threshold) {
+        return this.evaluate(board, move) >= threshold;
+    }
+
+    /**
+     * Returns the pieces of both colors attacking a square, with the given occupancy blocking the sliders.
+     * <p>
+     * Pieces missing from the occupancy are still returned, so they are usually masked out by the caller.
+     *
+     * @param board       the board state
+     * @param squareIndex index of the attacked square
+     * @param occupied    bitboard of the squares blocking the sliders
+     * @return bitboard of the attacking pieces
+     */
+    public static long getAttackers(final ChessBoard board, final int squareIndex, final long occupied) {
+        final long diagonalSliders   = board.getPieceMask(ChessPieceType.BISHOP, ChessPieceColor.WHITE)
+                                       | board.getPieceMask(ChessPieceType.BISHOP, ChessPieceColor.BLACK)
+                                       | board.getPieceMask(ChessPieceType.QUEEN, ChessPieceColor.WHITE)
+                                       | board.getPieceMask(ChessPieceType.QUEEN, ChessPieceColor.BLACK);
+        final long orthogonalSliders = board.getPieceMask(ChessPieceType.ROOK, ChessPieceColor.WHITE)
+                                       | board.getPieceMask(ChessPieceType.ROOK, ChessPieceColor.BLACK)
+                                       | board.getPieceMask(ChessPieceType.QUEEN, ChessPieceColor.WHITE)
+                                       | board.getPieceMask(ChessPieceType.QUEEN, ChessPieceColor.BLACK);
+        final long knights           = board.getPieceMask(ChessPieceType.KNIGHT, ChessPieceColor.WHITE)
+                                       | board.getPieceMask(ChessPieceType.KNIGHT, ChessPieceColor.BLACK);
+        final long kings             = board.getPieceMask(ChessPieceType.KING, ChessPieceColor.WHITE)
+                                       | board.getPieceMask(ChessPieceType.KING, ChessPieceColor.BLACK);
+
+        // a pawn attacks the square if a pawn of the other color on the square would attack the pawn
+        return (AttackTables.getPawnAttacks(ChessPieceColor.BLACK, squareIndex) & board.getPieceMask(ChessPieceType.PAWN, ChessPieceColor.WHITE))
+               | (AttackTables.getPawnAttacks(ChessPieceColor.WHITE, squareIndex) & board.getPieceMask(ChessPieceType.PAWN, ChessPieceColor.BLACK))
+               | (AttackTables.getKnightAttacks(squareIndex) & knights)
+               | (AttackTables.getKingAttacks(squareIndex) & kings)
+               | (SlidingAttacks.getBishopAttacks(squareIndex, occupied) & diagonalSliders)
+               | (SlidingAttacks.getRookAttacks(squareIndex, occupied) & orthogonalSliders);
+    }
+
+    /**
+     * Returns the least valuable type of the pieces of a color on the given squares.
+     *
+     * @return the type, or {@code null} if there is no piece of the color on the squares
+     */
+    private static ChessPieceType<?> findPieceType(final ChessBoard board, final ChessPieceColor color, final long squares) {
+        for (final ChessPieceType<?> type : CAPTURE_ORDER) {
+            if ((board.getPieceMask(type, color) & squares) != 0) {
+                return type;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,148 @@
+package net.thatapex.chesssite.chess.pgn;
+
+import net.thatapex.chesssite.chess.board.setup.BoardSetup;
+import net.thatapex.chesssite.chess.board.setup.ClassicalChessGameBoardSetup;
+import net.thatapex.chesssite.chess.board.setup.FenBoardSetup;
+import net.thatapex.chesssite.chess.move.Moves;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A game of a PGN file: its tags, its moves and its result.
+ * <p>
+ * The game starts from the position of its FEN tag, or from the classical starting position if it has none, see {@link #getSetup()}.
+ * Comments, variations and annotations of the moves are not kept. A game is immutable.
+ */
+public final class PgnGame {
+
+    /**
+     * The tag of the starting position of a game that does not start from the classical one.
+     */
+    public static final String FEN_TAG = "FEN";
+
+    /**
+     * The tag of the result of a game.
+     */
+    public static final String RESULT_TAG = "Result";
+
+    private final Map<String, String> tags;
+    private final int[]               moves;
+    private final PgnResult           result;
+
+    /**
+     * Creates a game.
+     *
+     * @param tags   the tags in the order they are written, the Result tag is replaced by the result when the game is written
+     * @param moves  the encoded moves, see {@link Moves}, legal from the starting position of the game
+     * @param result the result of the game
+     */
+    public PgnGame(final Map<String, String> tags, final int[] moves, final PgnResult result) {
+        Validate.notNull(result, "result cannot be null");
+
+        this.tags   = Collections.unmodifiableMap(new LinkedHashMap<>(tags));
+        this.moves  = moves.clone();
+        this.result = result;
+    }
+
+    /**
+     * Returns the tags of the game.
+     *
+     * @return the unmodifiable tags, by name, in the order they were read or given
+     */
+    public Map<String, String> getTags() {
+        return this.tags;
+    }
+
+    /**
+     * Returns the value of a tag.
+     *
+     * @param name the name of the tag, for example 'White'
+     * @return the value, or an empty optional if the game has no such tag
+     */
+    public Optional<String> getTag(final String name) {
+        return Optional.ofNullable(this.tags.get(name));
+    }
+
+    /**
+     * Returns the setup of the starting position of the game.
+     *
+     * @return the position of the FEN tag, or the classical starting position if the game has no FEN tag
+     */
+    public BoardSetup getSetup() {
+        return this.getTag(FEN_TAG).<BoardSetup>map(FenBoardSetup::new).orElseGet(ClassicalChessGameBoardSetup::new);
+    }
+
+    /**
+     * Returns the number of moves of the game, in plies.
+     *
+     * @return the move count
+     */
+    public int getMoveCount() {
+        return this.moves.length;
+    }
+
+    /**
+     * Returns a move of the game.
+     *
+     * @param index the index of the move, from 0 for the first move
+     * @return the encoded move, see {@link Moves}
+     */
+    public int getMove(final int index) {
+        return this.moves[index];
+    }
+
+    /**
+     * Returns the moves of the game.
+     *
+     * @return a copy of the encoded moves, see {@link Moves}
+     */
+    public int[] getMoves() {
+        return this.moves.clone();
+    }
+
+    /**
+     * Returns the result of the game, from its termination marker.
+     *
+     * @return the result
+     */
+    public PgnResult getResult() {
+        return this.result;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof PgnGame)) {
+            return false;
+        }
+
+        final PgnGame that = (PgnGame) o;
+
+        return new EqualsBuilder().append(this.tags, that.tags).append(this.moves, that.moves).append(this.result, that.result).isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37).append(this.tags).append(this.moves).append(this.result).toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("tags", this.tags)
+                .append("moves", Arrays.stream(this.moves).mapToObj(Moves::toNotation).toArray())
+                .append("result", this.result)
+                .toString();
+    }
+}
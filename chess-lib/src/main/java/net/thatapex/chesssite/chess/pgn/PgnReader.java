@@ -0,0 +1,559 @@
+package net.thatapex.chesssite.chess.pgn;
+
+import net.thatapex.chesssite.chess.board.FlyweightChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.board.setup.BoardSetup;
+import net.thatapex.chesssite.chess.board.setup.ClassicalChessGameBoardSetup;
+import net.thatapex.chesssite.chess.move.AlgebraicNotation;
+import org.apache.commons.lang3.Validate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads the games of a PGN text one at a time, resolving their moves against the board.
+ * <p>
+ * The text is read through a buffer of fixed size and only the game being read is kept in memory, so files of any size can be read.
+ * Comments, variations, numeric annotation glyphs and escaped lines are skipped as they are read, never stored, while the lengths
+ * of the kept parts of a game are bounded: at most {@link #MAX_TAGS} tags of {@link #MAX_TAG_LENGTH} characters, tokens of
+ * {@link #MAX_TOKEN_LENGTH} characters and {@link #MAX_PLIES} moves. A game exceeding any of them is invalid.
+ * <p>
+ * A game that cannot be read, with an illegal or ambiguous move, an invalid FEN tag, a malformed tag or an unterminated comment or variation,
+ * is skipped up to its termination marker before an exception is thrown, so reading can go on with the next game. A game without
+ * a termination marker ends with the tags of the next game or the end of the text, with an unknown result.
+ * <p>
+ * Readers only interested in the first moves of the games, like the openings, can limit the plies resolved with {@link #setMaxPlies(int)}
+ * and keep the moves before an illegal one with {@link #setLenient(boolean)}.
+ * <p>
+ * The reader is not thread-safe.
+ */
+public final class PgnReader implements Closeable {
+
+    /**
+     * The greatest number of tags of a game.
+     */
+    public static final int MAX_TAGS = 64;
+
+    /**
+     * The greatest length of the name or the value of a tag.
+     */
+    public static final int MAX_TAG_LENGTH = 4096;
+
+    /**
+     * The greatest length of a token of the moves, like a move with its number or a result.
+     */
+    public static final int MAX_TOKEN_LENGTH = 64;
+
+    /**
+     * The greatest number of moves of a game, in plies.
+     */
+    public static final int MAX_PLIES = 4096;
+
+    private static final int    BUFFER_SIZE      = 8192;
+    private static final int    INITIAL_CAPACITY = 256;
+    private static final String DELIMITERS       = "[]{}();$%\"";
+
+    private static final int END_OF_TEXT = 0;
+    private static final int TAG_START   = 1;
+    private static final int WORD        = 2;
+
+    private final Reader              reader;
+    private final char[]              buffer         = new char[BUFFER_SIZE];
+    private final StringBuilder       token          = new StringBuilder();
+    private final Map<String, String> tags           = new LinkedHashMap<>();
+    private final FlyweightChessBoard board          = new FlyweightChessBoard();
+    private final BoardSetup          classicalSetup = new ClassicalChessGameBoardSetup();
+    private final AlgebraicNotation   notation       = new AlgebraicNotation();
+
+    private int   position;
+    private int   limit;
+    private int   line     = 1;
+    private int[] moves    = new int[INITIAL_CAPACITY];
+    private int   moveCount;
+    private int   maxPlies;
+    private int   gameCount;
+    private int   invalidGameCount;
+
+    private boolean inMoves;
+    private boolean lenient;
+
+    /**
+     * Creates a reader of a text.
+     *
+     * @param reader the text, read in blocks, so it does not need to be buffered
+     */
+    public PgnReader(final Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Creates a reader of a stream. Malformed input is replaced rather than failing the whole stream.
+     *
+     * @param in      the stream
+     * @param charset the encoding of the text, usually UTF-8 or ISO-8859-1
+     */
+    public PgnReader(final InputStream in, final Charset charset) {
+        this(new InputStreamReader(in, newDecoder(charset)));
+    }
+
+    /**
+     * Creates a reader of a channel. Malformed input is replaced rather than failing the whole channel.
+     *
+     * @param channel the channel
+     * @param charset the encoding of the text, usually UTF-8 or ISO-8859-1
+     */
+    public PgnReader(final ReadableByteChannel channel, final Charset charset) {
+        this(Channels.newReader(channel, newDecoder(charset), BUFFER_SIZE));
+    }
+
+    /**
+     * Reads the next game.
+     *
+     * @return the game, or an empty optional at the end of the text
+     * @throws IOException              if the text cannot be read
+     * @throws IllegalArgumentException if the game is invalid, it is skipped and the next call reads the next game
+     */
+    public Optional<PgnGame> readGame() throws IOException {
+        this.tags.clear();
+        this.moveCount = 0;
+
+        int character = this.skipSeparators();
+
+        if (character < 0) {
+            return Optional.empty();
+        }
+
+        this.gameCount++;
+
+        final int startLine = this.line;
+
+        this.inMoves = character != '[';
+
+        try {
+            while (character == '[') {
+                this.readTag();
+                character = this.skipSeparators();
+            }
+
+            if (character >= 0) {
+                this.unread();
+            }
+
+            final String fen = this.tags.get(PgnGame.FEN_TAG);
+
+            if (fen != null) {
+                FenCodec.decode(fen, this.board);
+            } else {
+                this.classicalSetup.setup(this.board);
+            }
+
+            this.inMoves = true;
+
+            final PgnResult result = this.readMoves();
+
+            return Optional.of(new PgnGame(this.tags, Arrays.copyOf(this.moves, this.moveCount), result));
+        } catch (final IllegalArgumentException e) {
+            final int errorLine = this.line;
+
+            this.invalidGameCount++;
+            this.skipGame();
+            throw new IllegalArgumentException("Invalid game at line " + startLine + ", error at line " + errorLine + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Limits the moves resolved in every game. The moves after the limit are still read up to the termination marker of the game,
+     * but neither resolved against the board nor kept, so they are not checked either.
+     *
+     * @param maxPlies the number of moves resolved in every game, in plies, from 1 to {@link #MAX_PLIES}
+     */
+    public void setMaxPlies(final int maxPlies) {
+        Validate.inclusiveBetween(1, MAX_PLIES, maxPlies, "invalid ply count");
+
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * Sets whether a game with an illegal or ambiguous move is returned with the moves before it. The rest of the game is skipped up
+     * to its termination marker, and the game is still counted as invalid. Other errors, like a malformed tag, always fail the game.
+     *
+     * @param lenient whether the moves before an illegal move are returned
+     */
+    public void setLenient(final boolean lenient) {
+        this.lenient = lenient;
+    }
+
+    /**
+     * Returns the number of games read so far, valid or not.
+     *
+     * @return the game count
+     */
+    public int getGameCount() {
+        return this.gameCount;
+    }
+
+    /**
+     * Returns the number of invalid games read so far.
+     *
+     * @return the invalid game count
+     */
+    public int getInvalidGameCount() {
+        return this.invalidGameCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    /**
+     * Reads a tag, the opening bracket already read.
+     */
+    private void readTag() throws IOException {
+        if (this.tags.size() == MAX_TAGS) {
+            throw new IllegalArgumentException("Too many tags");
+        }
+
+        this.token.setLength(0);
+
+        int character = this.skipWhitespace();
+
+        while (character >= 0 && (Character.isLetterOrDigit(character) || character == '_')) {
+            this.append(character, MAX_TAG_LENGTH);
+            character = this.read();
+        }
+
+        final String name = this.token.toString();
+
+        if (character >= 0 && Character.isWhitespace(character)) {
+            character = this.skipWhitespace();
+        }
+
+        if (name.isEmpty() || character != '"') {
+            throw new IllegalArgumentException("Invalid tag: " + name);
+        }
+
+        this.token.setLength(0);
+
+        while ((character = this.read()) != '"') {
+            if (character == '\\') {
+                character = this.read();
+            }
+
+            if (character < 0 || character == '\n') {
+                throw new IllegalArgumentException("Unterminated value of the tag " + name);
+            }
+
+            this.append(character, MAX_TAG_LENGTH);
+        }
+
+        if (this.skipWhitespace() != ']') {
+            throw new IllegalArgumentException("Invalid tag: " + name);
+        }
+
+        this.tags.put(name, this.token.toString());
+    }
+
+    /**
+     * Reads the moves of a game up to its termination marker.
+     */
+    private PgnResult readMoves() throws IOException {
+        while (true) {
+            final int type = this.nextToken();
+
+            if (type == END_OF_TEXT) {
+                return PgnResult.UNKNOWN;
+            } else if (type == TAG_START) {
+                // a game without a termination marker, the tags belong to the next game
+                this.unread();
+                return PgnResult.UNKNOWN;
+            }
+
+            final Optional<PgnResult> result = PgnResult.fromNotation(this.token);
+
+            if (result.isPresent()) {
+                return result.get();
+            }
+
+            final int start = getMoveStart(this.token);
+
+            // the moves after the limit are not resolved, the limit is 0 without one
+            if (start == this.token.length() || (this.maxPlies > 0 && this.moveCount == this.maxPlies)) {
+                continue;
+            }
+
+            if (this.moveCount == MAX_PLIES) {
+                throw new IllegalArgumentException("Too many moves");
+            }
+
+            if (this.moveCount == this.moves.length) {
+                this.moves = Arrays.copyOf(this.moves, this.moves.length * 2);
+            }
+
+            final int move;
+
+            try {
+                move = this.notation.parse(this.board, this.token.subSequence(start, this.token.length()));
+            } catch (final IllegalArgumentException e) {
+                if (!this.lenient) {
+                    throw e;
+                }
+
+                this.invalidGameCount++;
+                return this.skipGame();
+            }
+
+            this.board.makeMove(move);
+            this.moves[this.moveCount++] = move;
+        }
+    }
+
+    /**
+     * Skips the rest of an invalid game: up to its termination marker, or the tags of the next game if its moves have already started.
+     *
+     * @return the result of the termination marker, or an unknown result without one
+     */
+    private PgnResult skipGame() throws IOException {
+        boolean moves = this.inMoves;
+
+        while (true) {
+            final int type;
+
+            try {
+                type = this.nextToken();
+            } catch (final IllegalArgumentException e) {
+                // a token too long, its rest is read as the next token, or an unterminated comment or variation
+                moves = true;
+                continue;
+            }
+
+            if (type == END_OF_TEXT) {
+                return PgnResult.UNKNOWN;
+            } else if (type == TAG_START) {
+                if (moves) {
+                    this.unread();
+                    return PgnResult.UNKNOWN;
+                }
+
+                this.skipUntil(']');
+            } else {
+                final Optional<PgnResult> result = PgnResult.fromNotation(this.token);
+
+                if (result.isPresent()) {
+                    return result.get();
+                }
+
+                moves = true;
+            }
+        }
+    }
+
+    /**
+     * Reads the next token of the moves into the token buffer, skipping comments, variations and annotation glyphs.
+     *
+     * @return {@link #WORD}, {@link #TAG_START} after reading an opening bracket, or {@link #END_OF_TEXT}
+     */
+    private int nextToken() throws IOException {
+        while (true) {
+            final int character = this.skipSeparators();
+
+            if (character < 0) {
+                return END_OF_TEXT;
+            }
+
+            switch (character) {
+                case '[':
+                    return TAG_START;
+                case '(':
+                    this.skipVariation();
+                    continue;
+                case '$':
+                    this.readWord(this.read());
+                    continue;
+                case ')':
+                case ']':
+                case '"':
+                    continue;
+                default:
+                    this.readWord(character);
+                    return WORD;
+            }
+        }
+    }
+
+    private void readWord(final int first) throws IOException {
+        this.token.setLength(0);
+
+        int character = first;
+
+        while (character >= 0 && !Character.isWhitespace(character) && DELIMITERS.indexOf(character) < 0) {
+            this.append(character, MAX_TOKEN_LENGTH);
+            character = this.read();
+        }
+
+        if (character >= 0) {
+            this.unread();
+        }
+    }
+
+    /**
+     * Skips whitespace, comments and escaped lines.
+     *
+     * @return the next other character, already read, or -1 at the end of the text
+     */
+    private int skipSeparators() throws IOException {
+        while (true) {
+            final int character = this.skipWhitespace();
+
+            if (character == '{') {
+                this.skipComment();
+            } else if (character == ';' || character == '%') {
+                this.skipUntil('\n');
+            } else {
+                return character;
+            }
+        }
+    }
+
+    private int skipWhitespace() throws IOException {
+        int character;
+
+        do {
+            character = this.read();
+        } while (character >= 0 && Character.isWhitespace(character));
+
+        return character;
+    }
+
+    private void skipUntil(final char end) throws IOException {
+        int character;
+
+        do {
+            character = this.read();
+        } while (character >= 0 && character != end);
+    }
+
+    /**
+     * Skips a comment, the opening brace already read. An unterminated comment ends at the end of the text, or at a bracket
+     * starting a line, taken as the tags of the next game.
+     *
+     * @throws IllegalArgumentException if the comment is unterminated
+     */
+    private void skipComment() throws IOException {
+        int previous = 0;
+        int character;
+
+        while ((character = this.read()) != '}') {
+            if (character < 0) {
+                throw new IllegalArgumentException("Unterminated comment");
+            } else if (character == '[' && previous == '\n') {
+                this.unread();
+                throw new IllegalArgumentException("Unterminated comment");
+            }
+
+            previous = character;
+        }
+    }
+
+    /**
+     * Skips a variation, the opening parenthesis already read, with the variations and comments nested in it. An unterminated variation
+     * ends at the end of the text, or at a bracket, taken as the tags of the next game.
+     *
+     * @throws IllegalArgumentException if the variation is unterminated
+     */
+    private void skipVariation() throws IOException {
+        int depth = 1;
+
+        while (depth > 0) {
+            final int character = this.skipSeparators();
+
+            if (character < 0) {
+                throw new IllegalArgumentException("Unterminated variation");
+            } else if (character == '[') {
+                this.unread();
+                throw new IllegalArgumentException("Unterminated variation");
+            } else if (character == '(') {
+                depth++;
+            } else if (character == ')') {
+                depth--;
+            }
+        }
+    }
+
+    private void append(final int character, final int maxLength) {
+        if (this.token.length() == maxLength) {
+            throw new IllegalArgumentException("Token longer than " + maxLength + " characters");
+        }
+
+        this.token.append((char) character);
+    }
+
+    private int read() throws IOException {
+        if (this.position == this.limit) {
+            final int count = this.reader.read(this.buffer);
+
+            if (count <= 0) {
+                return -1;
+            }
+
+            this.position = 0;
+            this.limit    = count;
+        }
+
+        final char character = this.buffer[this.position++];
+
+        if (character == '\n') {
+            this.line++;
+        }
+
+        return character;
+    }
+
+    /**
+     * Steps back by a character, which is always in the buffer as it was the last one read.
+     */
+    private void unread() {
+        if (this.buffer[--this.position] == '\n') {
+            this.line--;
+        }
+    }
+
+    /**
+     * Returns the start of the move in a token, after its move number, like '12.' or '12...'.
+     */
+    private static int getMoveStart(final CharSequence token) {
+        int index = 0;
+
+        while (index < token.length() && Character.isDigit(token.charAt(index))) {
+            index++;
+        }
+
+        if (index == 0 || index == token.length() || token.charAt(index) != '.') {
+            return 0;
+        }
+
+        while (index < token.length() && token.charAt(index) == '.') {
+            index++;
+        }
+
+        return index;
+    }
+
+    private static CharsetDecoder newDecoder(final Charset charset) {
+        return charset.newDecoder()
+                      .onMalformedInput(CodingErrorAction.REPLACE)
+                      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+}
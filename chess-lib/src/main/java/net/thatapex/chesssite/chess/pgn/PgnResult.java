@@ -0,0 +1,47 @@
+package net.thatapex.chesssite.chess.pgn;
+
+import java.util.Optional;
+
+/**
+ * The result of a game as written in PGN files, both in the Result tag and as the termination marker of the moves.
+ */
+public enum PgnResult {
+    WHITE_WINS("1-0"),
+    BLACK_WINS("0-1"),
+    DRAW("1/2-1/2"),
+    /**
+     * The game is still being played, was abandoned or its result is not known.
+     */
+    UNKNOWN("*");
+
+    private final String notation;
+
+    PgnResult(final String notation) {
+        this.notation = notation;
+    }
+
+    /**
+     * Returns the result of its notation.
+     *
+     * @param notation the notation, for example '1-0'
+     * @return the result, or an empty optional if the notation is not a result
+     */
+    public static Optional<PgnResult> fromNotation(final CharSequence notation) {
+        for (final PgnResult result : values()) {
+            if (result.notation.contentEquals(notation)) {
+                return Optional.of(result);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the notation of the result.
+     *
+     * @return the notation, for example '1-0'
+     */
+    public String getNotation() {
+        return this.notation;
+    }
+}
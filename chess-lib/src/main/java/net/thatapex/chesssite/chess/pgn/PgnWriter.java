@@ -0,0 +1,198 @@
+package net.thatapex.chesssite.chess.pgn;
+
+import net.thatapex.chesssite.chess.board.FlyweightChessBoard;
+import net.thatapex.chesssite.chess.move.AlgebraicNotation;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+/**
+ * Writes games in the PGN export format, one at a time, straight to the underlying text, so any number of games can be written.
+ * <p>
+ * Every game starts with the Seven Tag Roster (Event, Site, Date, Round, White, Black and Result), with the unknown values written as '?',
+ * followed by the other tags in their order, an empty line and the moves in the standard algebraic notation, wrapped into lines of at most
+ * {@link #MAX_LINE_LENGTH} characters and ended by the result. The Result tag always matches the result of the game,
+ * and a SetUp tag is added before a FEN tag if the game has none. The moves are formatted before anything is written,
+ * so a game with an illegal move is not written at all.
+ * <p>
+ * The writer is not thread-safe.
+ */
+public final class PgnWriter implements Closeable, Flushable {
+
+    /**
+     * The greatest length of a line of moves.
+     */
+    public static final int MAX_LINE_LENGTH = 79;
+
+    private static final String   DATE_TAG         = "Date";
+    private static final String[] SEVEN_TAG_ROSTER = {"Event", "Site", DATE_TAG, "Round", "White", "Black", PgnGame.RESULT_TAG};
+    private static final String   UNKNOWN_VALUE    = "?";
+    private static final String   UNKNOWN_DATE     = "????.??.??";
+    private static final String   SETUP_TAG        = "SetUp";
+
+    private final Writer              writer;
+    private final FlyweightChessBoard board    = new FlyweightChessBoard();
+    private final AlgebraicNotation   notation = new AlgebraicNotation();
+    private final StringBuilder       token    = new StringBuilder();
+    private final StringBuilder       movetext = new StringBuilder();
+
+    private int lineLength;
+
+    /**
+     * Creates a writer of a text.
+     *
+     * @param writer the text, written a token at a time, so it should be buffered
+     */
+    public PgnWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Creates a writer of a stream.
+     *
+     * @param out     the stream
+     * @param charset the encoding of the text, usually UTF-8 or ISO-8859-1
+     */
+    public PgnWriter(final OutputStream out, final Charset charset) {
+        this(new BufferedWriter(new OutputStreamWriter(out, charset)));
+    }
+
+    /**
+     * Creates a writer of a channel.
+     *
+     * @param channel the channel
+     * @param charset the encoding of the text, usually UTF-8 or ISO-8859-1
+     */
+    public PgnWriter(final WritableByteChannel channel, final Charset charset) {
+        this(new BufferedWriter(Channels.newWriter(channel, charset)));
+    }
+
+    /**
+     * Writes a game.
+     *
+     * @param game the game
+     * @throws IOException              if the text cannot be written
+     * @throws IllegalArgumentException if the FEN tag of the game is invalid or a move is illegal
+     */
+    public void writeGame(final PgnGame game) throws IOException {
+        final Map<String, String> tags = game.getTags();
+
+        // formatted in memory first, like a game read it is at most PgnReader#MAX_PLIES moves long
+        this.formatMoves(game);
+
+        for (final String name : SEVEN_TAG_ROSTER) {
+            final String value = name.equals(PgnGame.RESULT_TAG) ? game.getResult().getNotation()
+                                 : tags.getOrDefault(name, name.equals(DATE_TAG) ? UNKNOWN_DATE : UNKNOWN_VALUE);
+
+            this.writeTag(name, value);
+        }
+
+        for (final Map.Entry<String, String> tag : tags.entrySet()) {
+            if (isInSevenTagRoster(tag.getKey())) {
+                continue;
+            }
+
+            // readers need the SetUp tag to look for the FEN tag
+            if (tag.getKey().equals(PgnGame.FEN_TAG) && !tags.containsKey(SETUP_TAG)) {
+                this.writeTag(SETUP_TAG, "1");
+            }
+
+            this.writeTag(tag.getKey(), tag.getValue());
+        }
+
+        this.writer.write('\n');
+        this.writer.append(this.movetext);
+        this.writer.write("\n\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.writer.close();
+    }
+
+    /**
+     * Formats the moves of a game and its result into the movetext buffer, checking that every move is legal.
+     */
+    private void formatMoves(final PgnGame game) {
+        game.getSetup().setup(this.board);
+        this.movetext.setLength(0);
+        this.lineLength = 0;
+
+        for (int i = 0; i < game.getMoveCount(); i++) {
+            final int move = game.getMove(i);
+
+            this.token.setLength(0);
+
+            if (this.board.getSideToMove() == ChessPieceColor.WHITE) {
+                this.token.append(this.board.getFullmoveNumber()).append(". ");
+            } else if (i == 0) {
+                this.token.append(this.board.getFullmoveNumber()).append("... ");
+            }
+
+            this.token.append(this.notation.format(this.board, move));
+            this.appendToken(this.token);
+            this.board.makeMove(move);
+        }
+
+        this.appendToken(game.getResult().getNotation());
+    }
+
+    private void writeTag(final String name, final String value) throws IOException {
+        this.writer.write('[');
+        this.writer.write(name);
+        this.writer.write(" \"");
+
+        for (int i = 0; i < value.length(); i++) {
+            final char character = value.charAt(i);
+
+            if (character == '"' || character == '\\') {
+                this.writer.write('\\');
+            }
+
+            this.writer.write(character == '\n' || character == '\r' ? ' ' : character);
+        }
+
+        this.writer.write("\"]\n");
+    }
+
+    /**
+     * Appends a token of the moves, starting a new line if it does not fit in the current one. A move number is kept with its move.
+     */
+    private void appendToken(final CharSequence text) {
+        if (this.lineLength > 0 && this.lineLength + 1 + text.length() > MAX_LINE_LENGTH) {
+            this.movetext.append('\n');
+            this.lineLength = 0;
+        } else if (this.lineLength > 0) {
+            this.movetext.append(' ');
+            this.lineLength++;
+        }
+
+        this.movetext.append(text);
+        this.lineLength += text.length();
+    }
+
+    private static boolean isInSevenTagRoster(final String name) {
+        for (final String rosterName : SEVEN_TAG_ROSTER) {
+            if (rosterName.equals(name)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
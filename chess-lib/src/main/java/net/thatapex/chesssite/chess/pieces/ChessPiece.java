@@ -1,10 +1,12 @@
 package net.thatapex.chesssite.chess.pieces;
 
 import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.bitboard.AttackTables;
+import net.thatapex.chesssite.chess.board.bitboard.Bitboards;
 import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.move.AttackMap;
 import net.thatapex.chesssite.chess.move.PotentialMove;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import java.util.Collection;
@@ -17,14 +19,19 @@ import java.util.Collection;
 public abstract class ChessPiece<T extends ChessPiece<T>> {
 
     private final ChessPieceColor color;
+    private final int             typeOrdinal;
+    private final byte            code;
 
     /**
-     * Constructs a piece of a given color
+     * Constructs a piece of a given type and color
      *
+     * @param type  type of the piece, must be the same as the one returned by {@link #getType()}
      * @param color color of the piece
      */
-    protected ChessPiece(final ChessPieceColor color) {
-        this.color = color;
+    protected ChessPiece(final ChessPieceType<T> type, final ChessPieceColor color) {
+        this.color       = color;
+        this.typeOrdinal = type.getOrdinal();
+        this.code        = (byte) ChessPieces.getCode(type, color);
     }
 
     /**
@@ -36,8 +43,29 @@ public abstract class ChessPiece<T extends ChessPiece<T>> {
         return this.color;
     }
 
+    /**
+     * Returns the ordinal of the type of this piece, the same as {@code getType().getOrdinal()} but without a virtual call.
+     *
+     * @return the ordinal of the type of this piece
+     * @see ChessPieceType#getOrdinal()
+     */
+    public int getTypeOrdinal() {
+        return this.typeOrdinal;
+    }
+
+    /**
+     * Returns the code of this piece, a number identifying its type and color, see {@link ChessPieces#getCode(ChessPieceType, ChessPieceColor)}.
+     *
+     * @return the code of this piece
+     */
+    public int getCode() {
+        return this.code;
+    }
+
     /**
      * Makes a copy of the piece but changes it color
+     * <p>
+     * The copy is always a new instance, use {@link ChessPieces#of(ChessPieceType, ChessPieceColor)} to get the shared canonical instance instead.
      *
      * @param color color of the cloned piece
      * @return cloned piece
@@ -64,21 +92,34 @@ public abstract class ChessPiece<T extends ChessPiece<T>> {
     public abstract ChessPieceType<T> getType();
 
     /**
-     * Computes a collection of a moves that are potentially legal.
+     * Computes a bitboard (see {@link Bitboards}) of target squares of moves that are potentially legal.
      * <p>
      * A move is considered potentially legal if a piece with the given type and color could make this move in at least one possible board state.
      * <p>
      * For example a white pawn move from e2 to e3, e2 to e4 or e2 to d3 (a capture) is potentially legal, but e2 to e5 is never legal
+     * <p>
+     * Implementations look the moves up in the {@link AttackTables}, so this method is cheap and does not allocate.
+     *
+     * @param position position of the piece
+     * @return bitboard of target squares of potentially legal moves
+     */
+    public abstract long getPotentialLegalMoveMask(ChessSquare position);
+
+    /**
+     * Computes a collection of a moves that are potentially legal.
      *
      * @param position position of the piece
      * @param squares  output collection, potential moves will be added to this collection
+     * @see #getPotentialLegalMoveMask(ChessSquare)
      */
-    public abstract void initializePotentialLegalMoves(ChessSquare position, Collection<ChessSquare> squares);
+    public void initializePotentialLegalMoves(final ChessSquare position, final Collection<ChessSquare> squares) {
+        Bitboards.addSquares(this.getPotentialLegalMoveMask(position), squares);
+    }
 
     /**
      * Checks if a piece move is legal in the current board state.
      * <p>
-     * This method only checks if a move is legal for the piece, it does not consider whether the move will result in an invalid position (i.e. putting one's own king in check)
+     * This method only checks if a move is legal for the piece, it does not consider whether the move will result in an invalid position (i.e. putting one's own king in check), see {@link #isMoveLegal(ChessBoard, ChessSquare, PotentialMove, AttackMap)} for that
      *
      * @param boardState the board state
      * @param squareFrom the square that this piece is located at
@@ -87,6 +128,42 @@ public abstract class ChessPiece<T extends ChessPiece<T>> {
      */
     public abstract boolean isMoveLegal(ChessBoard boardState, ChessSquare squareFrom, PotentialMove move);
 
+    /**
+     * Checks if a piece move is legal in the current board state, including whether the move leaves one's own king in check.
+     * <p>
+     * The check is answered from the pins and checks in the attack map, without simulating the move on a copy of the board.
+     * An attack map can be reused for all moves of the same position, which is much cheaper than computing it for every move.
+     *
+     * @param boardState the board state
+     * @param squareFrom the square that this piece is located at
+     * @param move       move to be checked
+     * @param attackMap  the attack map of the board state, computed for the color of this piece
+     * @return whether or not the move is legal
+     * @throws IllegalArgumentException if the attack map was computed for the other color
+     * @see AttackMap#isMoveSafe(int, int)
+     */
+    public boolean isMoveLegal(final ChessBoard boardState, final ChessSquare squareFrom, final PotentialMove move, final AttackMap attackMap) {
+        Validate.isTrue(attackMap.getColor() == this.color, "attack map was computed for the other color");
+
+        return this.isMoveLegal(boardState, squareFrom, move) && attackMap.isMoveSafe(squareFrom.index(), move.getTargetSquare().index());
+    }
+
+    /**
+     * Checks if a non-promoting move to one of the attacked squares is legal, that is if the target square is not occupied by a piece of the same color.
+     *
+     * @param boardState the board state
+     * @param attacks    bitboard of squares attacked by this piece
+     * @param move       move to be checked
+     * @return whether or not the move is legal
+     */
+    protected boolean isAttackMoveLegal(final ChessBoard boardState, final long attacks, final PotentialMove move) {
+        if (move.getPromotion().isPresent()) {
+            return false;
+        }
+
+        return Bitboards.contains(attacks & ~boardState.getColorMask(this.color), move.getTargetSquare().index());
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
@@ -97,14 +174,12 @@ public abstract class ChessPiece<T extends ChessPiece<T>> {
             return false;
         }
 
-        final ChessPiece<?> that = (ChessPiece<?>) o;
-
-        return new EqualsBuilder().append(this.getType(), that.getType()).append(this.color, that.color).isEquals();
+        return this.code == ((ChessPiece<?>) o).code;
     }
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder(17, 37).append(this.getType()).append(this.color).toHashCode();
+        return this.code;
     }
 
     @Override
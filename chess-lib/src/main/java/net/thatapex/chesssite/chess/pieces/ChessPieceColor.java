@@ -39,7 +39,7 @@ public enum ChessPieceColor {
      *
      * @return the color opposite to this one
      */
-    ChessPieceColor getOpposite() {
+    public ChessPieceColor getOpposite() {
         switch (this) {
             case WHITE:
                 return ChessPieceColor.BLACK;
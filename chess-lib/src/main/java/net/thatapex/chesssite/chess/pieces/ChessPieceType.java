@@ -14,22 +14,24 @@ import java.util.Optional;
 import java.util.function.Function;
 
 public class ChessPieceType<T extends ChessPiece<T>> {
-    public static final ChessPieceType<King>   KING   = new ChessPieceType<>(King.class, King::new, 'K', false, 0);
-    public static final ChessPieceType<Queen>  QUEEN  = new ChessPieceType<>(Queen.class, Queen::new, 'Q', true, 9);
-    public static final ChessPieceType<Bishop> BISHOP = new ChessPieceType<>(Bishop.class, Bishop::new, 'B', true, 3);
-    public static final ChessPieceType<Knight> KNIGHT = new ChessPieceType<>(Knight.class, Knight::new, 'N', true, 3);
-    public static final ChessPieceType<Rook>   ROOK   = new ChessPieceType<>(Rook.class, Rook::new, 'R', true, 5);
-    public static final ChessPieceType<Pawn>   PAWN   = new ChessPieceType<>(Pawn.class, Pawn::new, (char) 0, false, 1);
+    public static final ChessPieceType<King>   KING   = new ChessPieceType<>(0, King.class, King::new, 'K', false, 0);
+    public static final ChessPieceType<Queen>  QUEEN  = new ChessPieceType<>(1, Queen.class, Queen::new, 'Q', true, 9);
+    public static final ChessPieceType<Bishop> BISHOP = new ChessPieceType<>(2, Bishop.class, Bishop::new, 'B', true, 3);
+    public static final ChessPieceType<Knight> KNIGHT = new ChessPieceType<>(3, Knight.class, Knight::new, 'N', true, 3);
+    public static final ChessPieceType<Rook>   ROOK   = new ChessPieceType<>(4, Rook.class, Rook::new, 'R', true, 5);
+    public static final ChessPieceType<Pawn>   PAWN   = new ChessPieceType<>(5, Pawn.class, Pawn::new, (char) 0, false, 1);
 
     private static final List<ChessPieceType<?>> VALUES = Arrays.asList(KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN);
 
+    private final int                          ordinal;
     private final Class<T>                     baseClass;
     private final Function<ChessPieceColor, T> constructor;
     private final char                         chessNotationCharacter;
     private final boolean                      validPromotionTarget;
     private final int                          symbolicalMaterialValue;
 
-    protected ChessPieceType(final Class<T> baseClass, final Function<ChessPieceColor, T> constructor, final char chessNotationCharacter, final boolean validPromotionTarget, final int symbolicalMaterialValue) {
+    protected ChessPieceType(final int ordinal, final Class<T> baseClass, final Function<ChessPieceColor, T> constructor, final char chessNotationCharacter, final boolean validPromotionTarget, final int symbolicalMaterialValue) {
+        this.ordinal                 = ordinal;
         this.baseClass               = baseClass;
         this.constructor             = constructor;
         this.chessNotationCharacter  = chessNotationCharacter;
@@ -37,6 +39,15 @@ public class ChessPieceType<T extends ChessPiece<T>> {
         this.symbolicalMaterialValue = symbolicalMaterialValue;
     }
 
+    /**
+     * Returns the position of this type in {@link #values()}, can be used as a compact array index.
+     *
+     * @return the ordinal of this type
+     */
+    public int getOrdinal() {
+        return this.ordinal;
+    }
+
     public Class<T> getBaseClass() {
         return this.baseClass;
     }
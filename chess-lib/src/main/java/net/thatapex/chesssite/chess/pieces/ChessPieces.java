@@ -0,0 +1,115 @@
+package net.thatapex.chesssite.chess.pieces;
+
+/**
+ * Canonical, shared instances of all pieces, one for every piece type and color pair.
+ * <p>
+ * Pieces are never modified, so a board does not need its own instances. Boards that only use the canonical instances
+ * can store pieces as small integer codes (see {@link #getCode(ChessPieceType, ChessPieceColor)}) and compare them by reference.
+ * <p>
+ * The codes are {@code 1 + color * 6 + type}, where color and type are the ordinals of the piece color and type,
+ * code {@link #NO_PIECE} stands for an empty square.
+ */
+public final class ChessPieces {
+
+    /**
+     * The code of an empty square.
+     */
+    public static final int NO_PIECE = 0;
+
+    /**
+     * The number of piece codes, including {@link #NO_PIECE}.
+     */
+    public static final int CODE_COUNT = 1 + ChessPieceType.values().size() * ChessPieceColor.values().length;
+
+    private static final ChessPiece<?>[] PIECES = new ChessPiece<?>[CODE_COUNT];
+
+    static {
+        for (final ChessPieceColor color : ChessPieceColor.values()) {
+            for (final ChessPieceType<?> type : ChessPieceType.values()) {
+                PIECES[getCode(type, color)] = type.instantiatePiece(color);
+            }
+        }
+    }
+
+    private ChessPieces() {
+    }
+
+    /**
+     * Returns the canonical instance of a piece.
+     *
+     * @param type  type of the piece
+     * @param color color of the piece
+     * @param <T>   the runtime type of the piece
+     * @return the shared piece
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends ChessPiece<T>> T of(final ChessPieceType<T> type, final ChessPieceColor color) {
+        return (T) PIECES[getCode(type, color)];
+    }
+
+    /**
+     * Returns the canonical instance of a piece with the code.
+     *
+     * @param code code of the piece
+     * @return the shared piece, or {@code null} for {@link #NO_PIECE}
+     * @throws ArrayIndexOutOfBoundsException if the code is invalid
+     */
+    public static ChessPiece<?> fromCode(final int code) {
+        return PIECES[code];
+    }
+
+    /**
+     * Returns the canonical instance of a piece equal to the given one.
+     *
+     * @param piece the piece, may be {@code null}
+     * @return the shared piece, or {@code null} if the piece is {@code null}
+     */
+    public static ChessPiece<?> canonicalize(final ChessPiece<?> piece) {
+        return piece == null ? null : PIECES[piece.getCode()];
+    }
+
+    /**
+     * Returns whether a piece is the canonical instance of its type and color.
+     * <p>
+     * A canonical instance may be on several squares of a board at once, so boards never move it away from its previous square
+     * when it is put on another one, unlike the other instances, see {@link net.thatapex.chesssite.chess.board.MutableChessBoard#setPiece}.
+     *
+     * @param piece the piece
+     * @return {@code true} if the piece is the shared instance, {@code false} if otherwise
+     */
+    public static boolean isCanonical(final ChessPiece<?> piece) {
+        return PIECES[piece.getCode()] == piece;
+    }
+
+    /**
+     * Returns the code of a piece.
+     *
+     * @param type  type of the piece
+     * @param color color of the piece
+     * @return the code, between 1 (inclusive) and {@link #CODE_COUNT} (exclusive)
+     */
+    public static int getCode(final ChessPieceType<?> type, final ChessPieceColor color) {
+        // evaluated without any static field, pieces are created while this class is being initialized
+        return 1 + color.ordinal() * ChessPieceType.values().size() + type.getOrdinal();
+    }
+
+    /**
+     * Returns the type ordinal of a piece code, see {@link ChessPieceType#getOrdinal()}.
+     *
+     * @param code code of the piece, not {@link #NO_PIECE}
+     * @return the ordinal of the piece type
+     */
+    public static int getTypeOrdinal(final int code) {
+        return PIECES[code].getTypeOrdinal();
+    }
+
+    /**
+     * Returns the color of a piece code.
+     *
+     * @param code code of the piece, not {@link #NO_PIECE}
+     * @return the color of the piece
+     */
+    public static ChessPieceColor getColor(final int code) {
+        return PIECES[code].getColor();
+    }
+}
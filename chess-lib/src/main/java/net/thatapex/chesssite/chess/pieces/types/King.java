@@ -1,6 +1,9 @@
 package net.thatapex.chesssite.chess.pieces.types;
 
+import net.thatapex.chesssite.chess.board.CastlingRights;
 import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.bitboard.AttackTables;
+import net.thatapex.chesssite.chess.board.bitboard.Bitboards;
 import net.thatapex.chesssite.chess.board.coordinate.ChessFile;
 import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
 import net.thatapex.chesssite.chess.move.PotentialMove;
@@ -8,8 +11,6 @@ import net.thatapex.chesssite.chess.pieces.ChessPiece;
 import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
 import net.thatapex.chesssite.chess.pieces.ChessPieceType;
 
-import java.util.Collection;
-
 /**
  * Represents a King piece.
  */
@@ -20,13 +21,17 @@ public class King extends ChessPiece<King> {
      */
     public static final ChessFile KING_STARTING_FILE = ChessFile.fromFileLetter('e').orElseThrow();
 
+    private static final int CASTLING_DISTANCE   = 2;
+    private static final int SHORT_ROOK_DISTANCE = 3;
+    private static final int LONG_ROOK_DISTANCE  = 4;
+
     /**
      * Create a new king
      *
      * @param color color of the king
      */
     public King(final ChessPieceColor color) {
-        super(color);
+        super(ChessPieceType.KING, color);
     }
 
     @Override
@@ -35,24 +40,45 @@ public class King extends ChessPiece<King> {
     }
 
     @Override
-    public void initializePotentialLegalMoves(final ChessSquare position, final Collection<ChessSquare> squares) {
-       position.getShifted(-1, -1).ifPresent(squares::add);
-       position.getShifted(-1, 0).ifPresent(squares::add);
-       position.getShifted(-1, 1).ifPresent(squares::add);
-       position.getShifted(0, -1).ifPresent(squares::add);
-       position.getShifted(0, 1).ifPresent(squares::add);
-       position.getShifted(1, -1).ifPresent(squares::add);
-       position.getShifted(1, 0).ifPresent(squares::add);
-       position.getShifted(1, 1).ifPresent(squares::add);
-
-        if (position.getFile().equals(KING_STARTING_FILE) && position.getRank().equals(getColor().getPieceStartingRank())) {
-            squares.add(position.getShifted(-2, 0).orElseThrow());
-            squares.add(position.getShifted(2, 0).orElseThrow());
+    public long getPotentialLegalMoveMask(final ChessSquare position) {
+        final long attacks = AttackTables.getKingAttacks(position.index());
+
+        if (position.getFile() == KING_STARTING_FILE && position.getRank() == getColor().getPieceStartingRank()) {
+            // castling moves
+            return attacks | Bitboards.squareMask(position.index() - 2) | Bitboards.squareMask(position.index() + 2);
         }
+
+        return attacks;
     }
 
     @Override
     public boolean isMoveLegal(final ChessBoard boardState, final ChessSquare squareFrom, final PotentialMove move) {
-        throw new UnsupportedOperationException("not implemented yet");
+        final int from = squareFrom.index();
+        final int to   = move.getTargetSquare().index();
+
+        if (Math.abs(to - from) == CASTLING_DISTANCE && squareFrom.getRank().equals(move.getTargetSquare().getRank())) {
+            return move.getPromotion().isEmpty() && this.isCastlingLegal(boardState, squareFrom, to > from);
+        }
+
+        return this.isAttackMoveLegal(boardState, AttackTables.getKingAttacks(from), move);
+    }
+
+    /**
+     * Checks if castling is allowed by the castling rights and the placement of the pieces, that is the king and the rook are on their starting squares
+     * and all squares between them are empty. Whether the king is in check or passes through an attacked square is not considered.
+     */
+    private boolean isCastlingLegal(final ChessBoard boardState, final ChessSquare squareFrom, final boolean shortCastle) {
+        final CastlingRights rights = boardState.getCastlingRightsFor(this.getColor());
+
+        if (!squareFrom.getFile().equals(KING_STARTING_FILE) || !squareFrom.getRank().equals(this.getColor().getPieceStartingRank())
+                || !(shortCastle ? rights.hasShortCastleRights() : rights.hasLongCastleRights())) {
+            return false;
+        }
+
+        final int from = squareFrom.index();
+        final int rook = shortCastle ? from + SHORT_ROOK_DISTANCE : from - LONG_ROOK_DISTANCE;
+
+        return Bitboards.contains(boardState.getPieceMask(ChessPieceType.ROOK, this.getColor()), rook)
+               && (AttackTables.getBetween(from, rook) & boardState.getOccupiedMask()) == 0;
     }
 }
@@ -1,14 +1,13 @@
 package net.thatapex.chesssite.chess.pieces.types;
 
 import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.bitboard.AttackTables;
 import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
 import net.thatapex.chesssite.chess.move.PotentialMove;
 import net.thatapex.chesssite.chess.pieces.ChessPiece;
 import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
 import net.thatapex.chesssite.chess.pieces.ChessPieceType;
 
-import java.util.Collection;
-
 /**
  * Represents a Knight piece.
  */
@@ -20,7 +19,7 @@ public class Knight extends ChessPiece<Knight> {
      * @param color color of the knight
      */
     public Knight(final ChessPieceColor color) {
-        super(color);
+        super(ChessPieceType.KNIGHT, color);
     }
 
     @Override
@@ -29,19 +28,12 @@ public class Knight extends ChessPiece<Knight> {
     }
 
     @Override
-    public void initializePotentialLegalMoves(final ChessSquare position, final Collection<ChessSquare> squares) {
-        position.getShifted(-2, -1).ifPresent(squares::add);
-        position.getShifted(-2, 1).ifPresent(squares::add);
-        position.getShifted(2, -1).ifPresent(squares::add);
-        position.getShifted(2, 1).ifPresent(squares::add);
-        position.getShifted(-1, -2).ifPresent(squares::add);
-        position.getShifted(1, -2).ifPresent(squares::add);
-        position.getShifted(-1, 2).ifPresent(squares::add);
-        position.getShifted(1, 2).ifPresent(squares::add);
+    public long getPotentialLegalMoveMask(final ChessSquare position) {
+        return AttackTables.getKnightAttacks(position.index());
     }
 
     @Override
     public boolean isMoveLegal(final ChessBoard boardState, final ChessSquare squareFrom, final PotentialMove move) {
-        throw new UnsupportedOperationException("not implemented yet");
+        return this.isAttackMoveLegal(boardState, AttackTables.getKnightAttacks(squareFrom.index()), move);
     }
 }
@@ -1,13 +1,15 @@
 package net.thatapex.chesssite.chess.pieces.types;
 
 import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.bitboard.AttackTables;
+import net.thatapex.chesssite.chess.board.bitboard.Bitboards;
 import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
 import net.thatapex.chesssite.chess.move.PotentialMove;
 import net.thatapex.chesssite.chess.pieces.ChessPiece;
 import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
 import net.thatapex.chesssite.chess.pieces.ChessPieceType;
 
-import java.util.Collection;
+import java.util.Optional;
 
 /**
  * Represents a Pawn piece.
@@ -20,7 +22,7 @@ public class Pawn extends ChessPiece<Pawn> {
      * @param color color of the pawn
      */
     public Pawn(final ChessPieceColor color) {
-        super(color);
+        super(ChessPieceType.PAWN, color);
     }
 
     @Override
@@ -29,20 +31,40 @@ public class Pawn extends ChessPiece<Pawn> {
     }
 
     @Override
-    public void initializePotentialLegalMoves(final ChessSquare position, final Collection<ChessSquare> squares) {
-        final int rankAdvanceDirection = getColor().getRankAdvanceDirection();
-
-        position.getShifted(-1, rankAdvanceDirection).ifPresent(squares::add);
-        position.getShifted(0, rankAdvanceDirection).ifPresent(squares::add);
-        position.getShifted(1, rankAdvanceDirection).ifPresent(squares::add);
-
-        if (position.getRank().equals(getColor().getPawnStartingRank())) {
-            position.getShifted(0, rankAdvanceDirection * 2).ifPresent(squares::add);
-        }
+    public long getPotentialLegalMoveMask(final ChessSquare position) {
+        return AttackTables.getPawnAttacks(getColor(), position.index()) | AttackTables.getPawnPushes(getColor(), position.index());
     }
 
     @Override
     public boolean isMoveLegal(final ChessBoard boardState, final ChessSquare squareFrom, final PotentialMove move) {
-        throw new UnsupportedOperationException("not implemented yet");
+        final ChessSquare target = move.getTargetSquare();
+
+        // a pawn must promote when it reaches the last rank, and cannot promote anywhere else
+        if (move.getPromotion().isPresent() != target.getRank().equals(this.getColor().getPromotionRank())) {
+            return false;
+        }
+
+        final int  from     = squareFrom.index();
+        final int  to       = target.index();
+        final int  advance  = this.getColor().getRankAdvanceDirection() * ChessSquare.FILE_COUNT;
+        final long occupied = boardState.getOccupiedMask();
+
+        if (Bitboards.contains(AttackTables.getPawnPushes(this.getColor(), from), to)) {
+            // a double push also requires the square in between to be empty
+            return !Bitboards.contains(occupied, to) && !Bitboards.contains(occupied, from + advance);
+        }
+
+        if (!Bitboards.contains(AttackTables.getPawnAttacks(this.getColor(), from), to)) {
+            return false;
+        }
+
+        if (Bitboards.contains(boardState.getColorMask(this.getColor().getOpposite()), to)) {
+            return true;
+        }
+
+        final Optional<ChessSquare> enPassantSquare = boardState.getEnPassantSquare();
+
+        return enPassantSquare.isPresent() && enPassantSquare.get().index() == to
+               && Bitboards.contains(boardState.getPieceMask(ChessPieceType.PAWN, this.getColor().getOpposite()), to - advance);
     }
 }
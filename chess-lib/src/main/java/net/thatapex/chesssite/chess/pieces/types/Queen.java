@@ -1,6 +1,8 @@
 package net.thatapex.chesssite.chess.pieces.types;
 
 import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.bitboard.AttackTables;
+import net.thatapex.chesssite.chess.board.bitboard.SlidingAttacks;
 import net.thatapex.chesssite.chess.board.coordinate.ChessFile;
 import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
 import net.thatapex.chesssite.chess.move.PotentialMove;
@@ -8,8 +10,6 @@ import net.thatapex.chesssite.chess.pieces.ChessPiece;
 import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
 import net.thatapex.chesssite.chess.pieces.ChessPieceType;
 
-import java.util.Collection;
-
 /**
  * Represents a Queen piece.
  */
@@ -26,7 +26,7 @@ public class Queen extends ChessPiece<Queen> {
      * @param color color of the queen
      */
     public Queen(final ChessPieceColor color) {
-        super(color);
+        super(ChessPieceType.QUEEN, color);
     }
 
     @Override
@@ -35,19 +35,12 @@ public class Queen extends ChessPiece<Queen> {
     }
 
     @Override
-    public void initializePotentialLegalMoves(final ChessSquare position, final Collection<ChessSquare> squares) {
-        squares.addAll(position.makeLine(-1, -1));
-        squares.addAll(position.makeLine(-1, 1));
-        squares.addAll(position.makeLine(1, -1));
-        squares.addAll(position.makeLine(1, 1));
-        squares.addAll(position.makeLine(-1, 0));
-        squares.addAll(position.makeLine(1, 0));
-        squares.addAll(position.makeLine(0, -1));
-        squares.addAll(position.makeLine(0, 1));
+    public long getPotentialLegalMoveMask(final ChessSquare position) {
+        return AttackTables.getRookRays(position.index()) | AttackTables.getBishopRays(position.index());
     }
 
     @Override
     public boolean isMoveLegal(final ChessBoard boardState, final ChessSquare squareFrom, final PotentialMove move) {
-        throw new UnsupportedOperationException("not implemented yet");
+        return this.isAttackMoveLegal(boardState, SlidingAttacks.getQueenAttacks(squareFrom.index(), boardState.getOccupiedMask()), move);
     }
 }
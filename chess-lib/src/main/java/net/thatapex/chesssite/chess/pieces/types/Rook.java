@@ -1,14 +1,14 @@
 package net.thatapex.chesssite.chess.pieces.types;
 
 import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.bitboard.AttackTables;
+import net.thatapex.chesssite.chess.board.bitboard.SlidingAttacks;
 import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
 import net.thatapex.chesssite.chess.move.PotentialMove;
 import net.thatapex.chesssite.chess.pieces.ChessPiece;
 import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
 import net.thatapex.chesssite.chess.pieces.ChessPieceType;
 
-import java.util.Collection;
-
 /**
  * Represents a Rook piece.
  */
@@ -20,7 +20,7 @@ public class Rook extends ChessPiece<Rook> {
      * @param color color of the rook
      */
     public Rook(final ChessPieceColor color) {
-        super(color);
+        super(ChessPieceType.ROOK, color);
     }
 
     @Override
@@ -29,15 +29,12 @@ public class Rook extends ChessPiece<Rook> {
     }
 
     @Override
-    public void initializePotentialLegalMoves(final ChessSquare position, final Collection<ChessSquare> squares) {
-        squares.addAll(position.makeLine(-1, 0));
-        squares.addAll(position.makeLine(1, 0));
-        squares.addAll(position.makeLine(0, -1));
-        squares.addAll(position.makeLine(0, 1));
+    public long getPotentialLegalMoveMask(final ChessSquare position) {
+        return AttackTables.getRookRays(position.index());
     }
 
     @Override
     public boolean isMoveLegal(final ChessBoard boardState, final ChessSquare squareFrom, final PotentialMove move) {
-        throw new UnsupportedOperationException("not implemented yet");
+        return this.isAttackMoveLegal(boardState, SlidingAttacks.getRookAttacks(squareFrom.index(), boardState.getOccupiedMask()), move);
     }
 }
@@ -0,0 +1,357 @@
+package net.thatapex.chesssite.chess.tablebase;
+
+import net.thatapex.chesssite.chess.board.CastlingRights;
+import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The pieces of a tablebase, named like 'KQvK' or 'KRPvKR': the pieces of the stronger side with the king first, a 'v', and the pieces of the weaker side.
+ * <p>
+ * A tablebase is stored only for the canonical material, where white is the stronger side, see {@link #isCanonical()}.
+ * Positions where black has the stronger pieces are looked up with the colors swapped and the board flipped vertically,
+ * which keeps the result for the side to move.
+ * <p>
+ * Every position is identified by its index: the side to move, followed by the square of every piece in the order of the name as base-64 digits.
+ * Identical pieces of a side are ordered by their squares, so each position has a single index, while positions with the squares of identical
+ * pieces swapped are stored too, but never looked up. The index ignores castling rights and en passant squares.
+ */
+public final class Material {
+
+    /**
+     * The greatest supported number of pieces.
+     */
+    public static final int MAX_PIECES = 5;
+
+    private static final char SIDE_SEPARATOR = 'v';
+    private static final char PAWN_CHARACTER = 'P';
+
+    /**
+     * Types of the pieces of a side in the order of the name.
+     */
+    private static final ChessPieceType<?>[] NAME_ORDER = {ChessPieceType.KING, ChessPieceType.QUEEN, ChessPieceType.ROOK,
+                                                           ChessPieceType.BISHOP, ChessPieceType.KNIGHT, ChessPieceType.PAWN};
+
+    private static final int COUNT_BITS = 4;
+
+    private final String              name;
+    private final ChessPieceType<?>[] types;
+    private final ChessPieceColor[]   colors;
+    private final long                countsKey;
+    private final long                mirroredCountsKey;
+
+    private Material(final ChessPieceType<?>[] types, final ChessPieceColor[] colors) {
+        final StringBuilder builder = new StringBuilder(types.length + 1);
+
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0 && colors[i] != colors[i - 1]) {
+                builder.append(SIDE_SEPARATOR);
+            }
+
+            builder.append(getCharacter(types[i]));
+        }
+
+        long countsKey         = 0L;
+        long mirroredCountsKey = 0L;
+
+        for (int i = 0; i < types.length; i++) {
+            countsKey         += 1L << getCountShift(types[i], colors[i]);
+            mirroredCountsKey += 1L << getCountShift(types[i], colors[i].getOpposite());
+        }
+
+        this.name              = builder.toString();
+        this.types             = types;
+        this.colors            = colors;
+        this.countsKey         = countsKey;
+        this.mirroredCountsKey = mirroredCountsKey;
+    }
+
+    /**
+     * Parses a material from its name, for example 'KQvK'.
+     *
+     * @param name the name, the pieces of both sides, each starting with the king and separated by a 'v'
+     * @return the material
+     * @throws IllegalArgumentException if the name is invalid
+     */
+    public static Material parse(final String name) {
+        final int separator = name.indexOf(SIDE_SEPARATOR);
+
+        if (separator < 0 || name.length() - 1 > MAX_PIECES) {
+            throw new IllegalArgumentException("Invalid material: " + name);
+        }
+
+        final int[][] counts = new int[ChessPieceColor.values().length][ChessPieceType.values().size()];
+
+        for (int i = 0; i < name.length(); i++) {
+            if (i == separator) {
+                continue;
+            }
+
+            final char              character = name.charAt(i);
+            final ChessPieceType<?> type      = character == PAWN_CHARACTER ? ChessPieceType.PAWN
+                                                : ChessPieceType.getByNotationCharacter(character)
+                                                                .orElseThrow(() -> new IllegalArgumentException("Invalid material: " + name));
+
+            counts[i < separator ? 0 : 1][type.getOrdinal()]++;
+        }
+
+        final Material material = of(counts);
+
+        // the same pieces in another order, or without a king
+        if (!material.name.equals(name)) {
+            throw new IllegalArgumentException("Invalid material: " + name);
+        }
+
+        return material;
+    }
+
+    /**
+     * Returns the material of the pieces on a board.
+     *
+     * @param board the board
+     * @return the material, canonical or not
+     * @throws IllegalArgumentException if the board has more than {@link #MAX_PIECES} pieces or not exactly one king of each color
+     */
+    public static Material of(final ChessBoard board) {
+        final int[][] counts = new int[ChessPieceColor.values().length][ChessPieceType.values().size()];
+
+        for (final ChessPieceColor color : ChessPieceColor.values()) {
+            for (final ChessPieceType<?> type : NAME_ORDER) {
+                counts[color.ordinal()][type.getOrdinal()] = Long.bitCount(board.getPieceMask(type, color));
+            }
+        }
+
+        return of(counts);
+    }
+
+    private static Material of(final int[][] counts) {
+        final List<ChessPieceType<?>> types  = new ArrayList<>();
+        final List<ChessPieceColor>   colors = new ArrayList<>();
+
+        for (final ChessPieceColor color : ChessPieceColor.values()) {
+            if (counts[color.ordinal()][ChessPieceType.KING.getOrdinal()] != 1) {
+                throw new IllegalArgumentException("Every side must have a single king");
+            }
+
+            for (final ChessPieceType<?> type : NAME_ORDER) {
+                for (int count = 0; count < counts[color.ordinal()][type.getOrdinal()]; count++) {
+                    types.add(type);
+                    colors.add(color);
+                }
+            }
+        }
+
+        if (types.size() > MAX_PIECES) {
+            throw new IllegalArgumentException("Too many pieces: " + types.size());
+        }
+
+        return new Material(types.toArray(new ChessPieceType<?>[0]), colors.toArray(new ChessPieceColor[0]));
+    }
+
+    /**
+     * Returns the number of pieces, including the kings.
+     *
+     * @return the piece count
+     */
+    public int getPieceCount() {
+        return this.types.length;
+    }
+
+    /**
+     * Returns the number of indices of the positions with this material, the size of its tablebase.
+     *
+     * @return the position count
+     */
+    public long getPositionCount() {
+        return (long) ChessPieceColor.values().length << (this.types.length * Integer.numberOfTrailingZeros(ChessSquare.SQUARE_COUNT));
+    }
+
+    /**
+     * Returns whether this is the material of the stored tablebase: white has the greater material value, or more pieces if the values are
+     * equal, or the name of the white pieces is not less than the one of the black pieces.
+     *
+     * @return {@code true} if this material is canonical, {@code false} if its mirror is
+     */
+    public boolean isCanonical() {
+        final int whiteValue = this.getValue(ChessPieceColor.WHITE);
+        final int blackValue = this.getValue(ChessPieceColor.BLACK);
+
+        if (whiteValue != blackValue) {
+            return whiteValue > blackValue;
+        }
+
+        final int separator = this.name.indexOf(SIDE_SEPARATOR);
+        final int whiteSize = separator;
+        final int blackSize = this.name.length() - separator - 1;
+
+        if (whiteSize != blackSize) {
+            return whiteSize > blackSize;
+        }
+
+        return this.name.substring(0, separator).compareTo(this.name.substring(separator + 1)) >= 0;
+    }
+
+    /**
+     * Returns the material with the colors of the pieces swapped.
+     *
+     * @return the mirrored material
+     */
+    public Material mirror() {
+        final int[][] counts = new int[ChessPieceColor.values().length][ChessPieceType.values().size()];
+
+        for (int i = 0; i < this.types.length; i++) {
+            counts[this.colors[i].getOpposite().ordinal()][this.types[i].getOrdinal()]++;
+        }
+
+        return of(counts);
+    }
+
+    /**
+     * Returns the canonical material of this one, see {@link #isCanonical()}.
+     *
+     * @return this material or its mirror
+     */
+    public Material getCanonical() {
+        return this.isCanonical() ? this : this.mirror();
+    }
+
+    /**
+     * Returns the index of a position, mirroring the position if its material is the mirror of this one.
+     *
+     * @param board the position
+     * @return the index, between 0 and {@link #getPositionCount()}
+     * @throws IllegalArgumentException if the material of the board is neither this one nor its mirror
+     */
+    public long getIndex(final ChessBoard board) {
+        final long    countsKey = getCountsKey(board);
+        final boolean mirrored  = countsKey != this.countsKey;
+
+        if (mirrored && countsKey != this.mirroredCountsKey) {
+            throw new IllegalArgumentException("The board does not match the material " + this.name);
+        }
+
+        final ChessPieceColor sideToMove = mirrored ? board.getSideToMove().getOpposite() : board.getSideToMove();
+        long                  index      = sideToMove.ordinal();
+        long                  remaining  = 0L;
+
+        for (int i = 0; i < this.types.length; i++) {
+            // identical pieces are next to each other
+            if (i == 0 || this.types[i] != this.types[i - 1] || this.colors[i] != this.colors[i - 1]) {
+                remaining = board.getPieceMask(this.types[i], mirrored ? this.colors[i].getOpposite() : this.colors[i]);
+
+                if (mirrored) {
+                    remaining = Long.reverseBytes(remaining);
+                }
+            }
+
+            index = index * ChessSquare.SQUARE_COUNT + Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+        }
+
+        return index;
+    }
+
+    /**
+     * Sets a board up with the position of an index, without castling rights and en passant square.
+     *
+     * @param index the index, between 0 and {@link #getPositionCount()}
+     * @param board the board to set up
+     * @return {@code true} if the position was set up, {@code false} if two pieces of the index share a square
+     */
+    public boolean setup(final long index, final MutableChessBoard board) {
+        board.clearPieces();
+
+        long remaining = index;
+        long occupied  = 0L;
+
+        for (int i = this.types.length - 1; i >= 0; i--) {
+            final int square = (int) (remaining % ChessSquare.SQUARE_COUNT);
+
+            remaining /= ChessSquare.SQUARE_COUNT;
+
+            if ((occupied & 1L << square) != 0) {
+                return false;
+            }
+
+            occupied |= 1L << square;
+            board.setPiece(ChessSquare.ofIndex(square), this.types[i].instantiatePiece(this.colors[i]));
+        }
+
+        for (final ChessPieceColor color : ChessPieceColor.values()) {
+            board.setCastlingRightsFor(color, CastlingRights.of(false, false));
+        }
+
+        board.setSideToMove(ChessPieceColor.values()[(int) remaining]);
+        board.setEnPassantSquare(null);
+        board.setHalfmoveClock(0);
+        return true;
+    }
+
+    /**
+     * Returns the numbers of pieces of every type and color, packed in a long.
+     */
+    private static long getCountsKey(final ChessBoard board) {
+        long key = 0L;
+
+        for (final ChessPieceColor color : ChessPieceColor.values()) {
+            for (final ChessPieceType<?> type : NAME_ORDER) {
+                key += (long) Long.bitCount(board.getPieceMask(type, color)) << getCountShift(type, color);
+            }
+        }
+
+        return key;
+    }
+
+    private static int getCountShift(final ChessPieceType<?> type, final ChessPieceColor color) {
+        return (color.ordinal() * ChessPieceType.values().size() + type.getOrdinal()) * COUNT_BITS;
+    }
+
+    private int getValue(final ChessPieceColor color) {
+        int value = 0;
+
+        for (int i = 0; i < this.types.length; i++) {
+            if (this.colors[i] == color) {
+                value += this.types[i].getSymbolicalMaterialValue();
+            }
+        }
+
+        return value;
+    }
+
+    private static char getCharacter(final ChessPieceType<?> type) {
+        return type == ChessPieceType.PAWN ? PAWN_CHARACTER : type.getChessNotationCharacter();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof Material)) {
+            return false;
+        }
+
+        return this.name.equals(((Material) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.name.hashCode();
+    }
+
+    /**
+     * Returns the name of the material, for example 'KQvK'.
+     *
+     * @return the name
+     */
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
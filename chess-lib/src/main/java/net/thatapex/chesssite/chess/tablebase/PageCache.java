@@ -0,0 +1,147 @@
+package net.thatapex.chesssite.chess.tablebase;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of read-only memory-mapped regions of the tablebase files, evicting a page that was not used recently when full.
+ * <p>
+ * Mapping whole files would reserve address space for all of them; mapping only the probed pages keeps the mapped memory bounded
+ * by the capacity, while the operating system keeps the often read pages in its page cache. Evicted pages are unmapped when they are
+ * garbage collected, as Java has no way to unmap a buffer explicitly.
+ * <p>
+ * The cache is read by all the search threads, so a hit takes no lock: the pages are kept in a concurrent map, and a page only marks
+ * itself as used. A missing page is mapped by the first thread that needs it, while the other threads wait for that page only.
+ * Evicting takes a lock, but only after a miss, and evicts the first page not used since the last eviction, an approximation of the least
+ * recently used one.
+ */
+final class PageCache {
+    static final int PAGE_BITS = 16;
+    static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    private final ConcurrentHashMap<Long, Page> pages        = new ConcurrentHashMap<>();
+    private final Object                        evictionLock = new Object();
+    private final LongAdder                     probes       = new LongAdder();
+    private final LongAdder                     hits         = new LongAdder();
+    private final int                           capacity;
+
+    /**
+     * Creates a cache.
+     *
+     * @param capacity the greatest number of mapped pages, at least 1
+     */
+    PageCache(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid page cache capacity: " + capacity);
+        }
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * Reads a byte of a file, mapping its page if it is not in the cache.
+     *
+     * @param fileId   the identifier of the file, unique within this cache
+     * @param channel  the channel of the file
+     * @param position the position of the byte in the file
+     * @return the byte
+     * @throws UncheckedIOException if the page cannot be mapped
+     */
+    byte read(final int fileId, final FileChannel channel, final long position) {
+        final long page   = position >>> PAGE_BITS;
+        final Long key    = (long) fileId << Integer.SIZE | page;
+        Page       cached = this.pages.get(key);
+
+        this.probes.increment();
+
+        if (cached != null) {
+            this.hits.increment();
+
+            // only written once per eviction, so that the hot pages are not written by every probe
+            if (!cached.used) {
+                cached.used = true;
+            }
+        } else {
+            cached = this.pages.computeIfAbsent(key, ignored -> new Page(map(channel, page)));
+
+            if (this.pages.size() > this.capacity) {
+                this.evict(key);
+            }
+        }
+
+        return cached.buffer.get((int) (position & PAGE_SIZE - 1));
+    }
+
+    /**
+     * Removes all pages and resets the statistics.
+     */
+    void clear() {
+        this.pages.clear();
+        this.probes.reset();
+        this.hits.reset();
+    }
+
+    int getSize() {
+        return this.pages.size();
+    }
+
+    long getProbes() {
+        return this.probes.sum();
+    }
+
+    long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Evicts pages until the cache is within its capacity again, never the page just mapped.
+     * The used marks are cleared when every other page was used, so the pages used since then are kept the next time.
+     */
+    private void evict(final Long mappedKey) {
+        synchronized (this.evictionLock) {
+            while (this.pages.size() > this.capacity) {
+                Long victim = null;
+
+                for (final Map.Entry<Long, Page> entry : this.pages.entrySet()) {
+                    if (!entry.getKey().equals(mappedKey) && !entry.getValue().used) {
+                        victim = entry.getKey();
+                        break;
+                    }
+                }
+
+                if (victim == null) {
+                    this.pages.values().forEach(page -> page.used = false);
+                } else {
+                    this.pages.remove(victim);
+                }
+            }
+        }
+    }
+
+    private static MappedByteBuffer map(final FileChannel channel, final long page) {
+        try {
+            final long start = page << PAGE_BITS;
+
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(PAGE_SIZE, channel.size() - start));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A mapped page, and whether it was read since the last eviction.
+     */
+    private static final class Page {
+        private final    MappedByteBuffer buffer;
+        private volatile boolean          used;
+
+        private Page(final MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package net.thatapex.chesssite.chess.tablebase;
+
+import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Endgame tablebases: the win/draw/loss outcome of every position with a few pieces, read from the files of a directory.
+ * <p>
+ * The files are written by {@link TablebaseGenerator}, see TablebaseFormat for their layout. They are read through memory-mapped
+ * regions kept in a bounded page cache, so probing does not read whole files, nor maps more than the cache capacity.
+ * <p>
+ * Positions with castling rights or an en passant square are not in the tablebases. The outcomes ignore the 50-move rule.
+ * <p>
+ * A tablebase is safe to probe from several threads.
+ */
+public final class Tablebase implements AutoCloseable {
+    private final Map<Material, Integer> fileIds  = new HashMap<>();
+    private final List<FileChannel>      channels = new ArrayList<>();
+    private final PageCache              cache;
+    private final int                    maxPieces;
+
+    /**
+     * Opens the tablebases of a directory.
+     *
+     * @param directory  the directory with the tablebase files, a missing directory has no tablebases
+     * @param cachePages the greatest number of pages of 64 kilobytes mapped at the same time, at least 1
+     * @throws IOException if a tablebase file cannot be opened or is invalid
+     */
+    public Tablebase(final Path directory, final int cachePages) throws IOException {
+        this.cache = new PageCache(cachePages);
+
+        int maxPieces = 0;
+
+        if (Files.isDirectory(directory)) {
+            try (final DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + TablebaseFormat.FILE_EXTENSION)) {
+                for (final Path path : stream) {
+                    final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+                    final Material    material;
+
+                    try {
+                        material = TablebaseFormat.readHeader(channel);
+                    } catch (final IOException e) {
+                        channel.close();
+                        this.close();
+                        throw new IOException("Invalid tablebase file " + path, e);
+                    }
+
+                    this.fileIds.put(material, this.channels.size());
+                    this.channels.add(channel);
+                    maxPieces = Math.max(maxPieces, material.getPieceCount());
+                }
+            }
+        }
+
+        this.maxPieces = maxPieces;
+    }
+
+    /**
+     * Looks the outcome of a position up.
+     *
+     * @param board the position
+     * @return the outcome for the side to move, or an empty optional if the position is not in the tablebases
+     */
+    public Optional<Wdl> probeWdl(final ChessBoard board) {
+        if (Long.bitCount(board.getOccupiedMask()) > this.maxPieces || board.getEnPassantSquare().isPresent()) {
+            return Optional.empty();
+        }
+
+        for (final ChessPieceColor color : ChessPieceColor.values()) {
+            if (board.getCastlingRightsFor(color).hasShortCastleRights() || board.getCastlingRightsFor(color).hasLongCastleRights()) {
+                return Optional.empty();
+            }
+        }
+
+        final Material material;
+
+        try {
+            material = Material.of(board).getCanonical();
+        } catch (final IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        final Integer fileId = this.fileIds.get(material);
+
+        if (fileId == null) {
+            return Optional.empty();
+        }
+
+        final long index = material.getIndex(board);
+        final byte data  = this.cache.read(fileId, this.channels.get(fileId), TablebaseFormat.HEADER_SIZE + index / TablebaseFormat.VALUES_PER_BYTE);
+        final int  value = data >>> (index % TablebaseFormat.VALUES_PER_BYTE) * TablebaseFormat.VALUE_BITS & TablebaseFormat.VALUE_MASK;
+
+        return value == TablebaseFormat.INVALID ? Optional.empty() : Optional.of(Wdl.values()[value]);
+    }
+
+    /**
+     * Returns the greatest number of pieces of the available tablebases, including the kings.
+     *
+     * @return the piece count, 0 if there are no tablebases
+     */
+    public int getMaxPieces() {
+        return this.maxPieces;
+    }
+
+    /**
+     * Returns the materials of the available tablebases.
+     *
+     * @return the canonical materials, see {@link Material#isCanonical()}
+     */
+    public Set<Material> getMaterials() {
+        return Collections.unmodifiableSet(this.fileIds.keySet());
+    }
+
+    /**
+     * Returns the number of page lookups of the probes.
+     *
+     * @return the number of lookups
+     */
+    public long getPageProbes() {
+        return this.cache.getProbes();
+    }
+
+    /**
+     * Returns the number of page lookups that found the page already mapped.
+     *
+     * @return the number of hits
+     */
+    public long getPageHits() {
+        return this.cache.getHits();
+    }
+
+    /**
+     * Closes the tablebase files. The tablebase must not be probed afterwards.
+     *
+     * @throws IOException if a file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.cache.clear();
+
+        IOException exception = null;
+
+        for (final FileChannel channel : this.channels) {
+            try {
+                channel.close();
+            } catch (final IOException e) {
+                exception = e;
+            }
+        }
+
+        this.fileIds.clear();
+        this.channels.clear();
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package net.thatapex.chesssite.chess.tablebase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The file format of the tablebases, one file named after its material with the {@link #FILE_EXTENSION} extension for every canonical material.
+ * <p>
+ * A file consists of:
+ * <ul>
+ *     <li>a header of {@link #HEADER_SIZE} bytes: the magic number {@link #MAGIC}, the version, and the name of the material padded with zeros</li>
+ *     <li>the outcomes of all indices of the material, see {@link Material#getIndex}, 2 bits each: 4 indices in every byte, the first one
+ *     in the lowest bits. The values are the {@link Wdl} ordinals, or {@link #INVALID} for indices of illegal positions.</li>
+ * </ul>
+ */
+final class TablebaseFormat {
+    static final String FILE_EXTENSION  = ".cstb";
+    static final int    MAGIC           = 0x43_53_54_42;
+    static final int    VERSION         = 1;
+    static final int    HEADER_SIZE     = 32;
+    static final int    INVALID         = 3;
+    static final int    VALUE_BITS      = 2;
+    static final int    VALUE_MASK      = (1 << VALUE_BITS) - 1;
+    static final int    VALUES_PER_BYTE = Byte.SIZE / VALUE_BITS;
+
+    private static final int NAME_OFFSET = 2 * Integer.BYTES;
+
+    private TablebaseFormat() {
+    }
+
+    static Path getPath(final Path directory, final Material material) {
+        return directory.resolve(material + FILE_EXTENSION);
+    }
+
+    /**
+     * Reads and validates the header of a tablebase file.
+     *
+     * @return the material of the tablebase
+     * @throws IOException if the file cannot be read or is not a tablebase file
+     */
+    static Material readHeader(final FileChannel channel) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("Truncated tablebase header");
+            }
+        }
+
+        header.flip();
+
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a tablebase file of version " + VERSION);
+        }
+
+        final byte[] name   = new byte[HEADER_SIZE - NAME_OFFSET];
+        int          length = 0;
+
+        header.get(name);
+
+        while (length < name.length && name[length] != 0) {
+            length++;
+        }
+
+        final Material material;
+
+        try {
+            material = Material.parse(new String(name, 0, length, StandardCharsets.US_ASCII));
+        } catch (final IllegalArgumentException e) {
+            throw new IOException("Invalid tablebase material", e);
+        }
+
+        if (channel.size() != HEADER_SIZE + getDataSize(material)) {
+            throw new IOException("Invalid size of the tablebase " + material);
+        }
+
+        return material;
+    }
+
+    /**
+     * Writes a tablebase file, replacing an existing one.
+     *
+     * @param values the outcomes of all indices, {@link Wdl} ordinals or {@link #INVALID}
+     */
+    static void write(final Path directory, final Material material, final byte[] values) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + (int) getDataSize(material)).order(ByteOrder.BIG_ENDIAN);
+
+        buffer.putInt(MAGIC).putInt(VERSION).put(material.toString().getBytes(StandardCharsets.US_ASCII));
+        buffer.position(HEADER_SIZE);
+
+        for (int index = 0; index < values.length; index += VALUES_PER_BYTE) {
+            int packed = 0;
+
+            for (int offset = 0; offset < VALUES_PER_BYTE; offset++) {
+                packed |= values[index + offset] << offset * VALUE_BITS;
+            }
+
+            buffer.put((byte) packed);
+        }
+
+        buffer.flip();
+
+        try (final FileChannel channel = FileChannel.open(getPath(directory, material), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                          StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    static long getDataSize(final Material material) {
+        return material.getPositionCount() / VALUES_PER_BYTE;
+    }
+}
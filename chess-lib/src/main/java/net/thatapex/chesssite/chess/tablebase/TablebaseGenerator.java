@@ -0,0 +1,218 @@
+package net.thatapex.chesssite.chess.tablebase;
+
+import net.thatapex.chesssite.chess.board.FlyweightChessBoard;
+import net.thatapex.chesssite.chess.board.bitboard.Bitboards;
+import net.thatapex.chesssite.chess.board.coordinate.ChessRank;
+import net.thatapex.chesssite.chess.move.AttackMap;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import net.thatapex.chesssite.chess.move.Moves;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Generates the tablebase files read by {@link Tablebase}.
+ * <p>
+ * A tablebase is computed by retrograde analysis in memory, one byte for every index of the material:
+ * <ol>
+ *     <li>Indices of illegal positions are marked invalid: pieces sharing a square, pawns on the first or the last rank,
+ *     or the side not to move in check. Checkmates are lost and stalemates are drawn.</li>
+ *     <li>The remaining positions are visited until none of them changes: a position is won if a move leads to a lost position,
+ *     and lost if all moves lead to won positions. Moves that capture or promote lead to the tablebases of other materials,
+ *     which are generated first.</li>
+ *     <li>The positions still unresolved are drawn.</li>
+ * </ol>
+ * Positions reached by a double pawn push are looked up without their en passant square, so a few of them may miss an en passant capture.
+ * <p>
+ * The generation of a material takes time and memory proportional to {@link Material#getPositionCount()}, which grows 64 times with
+ * every piece. A generator keeps the generated tablebases in memory, so that they are reused by the tablebases depending on them.
+ */
+public final class TablebaseGenerator {
+    private static final byte UNRESOLVED = 4;
+
+    private static final ChessPieceType<?>[] PROMOTION_TYPES = {ChessPieceType.QUEEN, ChessPieceType.ROOK,
+                                                                ChessPieceType.BISHOP, ChessPieceType.KNIGHT};
+
+    private final Map<Material, byte[]> tables = new HashMap<>();
+    private final Path                  directory;
+
+    /**
+     * Creates a generator.
+     *
+     * @param directory the directory to write the tablebase files to, which must exist
+     */
+    public TablebaseGenerator(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Generates and writes the tablebase of a material and of all materials reachable from it by captures and promotions, unless they were
+     * already generated by this generator.
+     *
+     * @param material the material, canonical or not
+     * @throws IOException              if a tablebase file cannot be written
+     * @throws IllegalArgumentException if the material has too many positions to be generated in memory
+     */
+    public void generate(final Material material) throws IOException {
+        this.getTable(material.getCanonical());
+    }
+
+    /**
+     * Returns the materials generated by this generator.
+     *
+     * @return the canonical materials
+     */
+    public Iterable<Material> getGeneratedMaterials() {
+        return this.tables.keySet();
+    }
+
+    private byte[] getTable(final Material material) throws IOException {
+        byte[] table = this.tables.get(material);
+
+        if (table == null) {
+            if (material.getPositionCount() > Integer.MAX_VALUE - Byte.SIZE) {
+                throw new IllegalArgumentException("Too many positions to generate " + material);
+            }
+
+            this.generateDependencies(material);
+
+            table = this.solve(material);
+            TablebaseFormat.write(this.directory, material, table);
+            this.tables.put(material, table);
+        }
+
+        return table;
+    }
+
+    /**
+     * Generates the materials left after a capture or a promotion.
+     */
+    private void generateDependencies(final Material material) throws IOException {
+        final String name      = material.toString();
+        final int    separator = name.indexOf('v');
+
+        for (int i = 1; i < name.length(); i++) {
+            if (i == separator || i == separator + 1) {
+                continue;
+            }
+
+            // one piece captured
+            this.getTable(Material.parse(name.substring(0, i) + name.substring(i + 1)).getCanonical());
+
+            if (name.charAt(i) == 'P') {
+                for (final ChessPieceType<?> type : PROMOTION_TYPES) {
+                    this.getTable(parseUnordered(name.substring(0, i) + type.getChessNotationCharacter() + name.substring(i + 1)).getCanonical());
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses a material name with the pieces of a side in any order after the king.
+     */
+    private static Material parseUnordered(final String name) {
+        final int           separator = name.indexOf('v');
+        final StringBuilder builder   = new StringBuilder(name.length());
+
+        for (final String side : new String[]{name.substring(0, separator), name.substring(separator + 1)}) {
+            if (builder.length() > 0) {
+                builder.append('v');
+            }
+
+            builder.append('K');
+
+            for (final char character : "QRBNP".toCharArray()) {
+                for (final char piece : side.toCharArray()) {
+                    if (piece == character) {
+                        builder.append(piece);
+                    }
+                }
+            }
+        }
+
+        return Material.parse(builder.toString());
+    }
+
+    private byte[] solve(final Material material) throws IOException {
+        final FlyweightChessBoard board     = new FlyweightChessBoard();
+        final MoveGenerator       generator = new MoveGenerator();
+        final int[]               moves     = new int[MoveGenerator.MAX_MOVES];
+        final byte[]              table     = new byte[(int) material.getPositionCount()];
+        final long                backRanks = Bitboards.rankMask(ChessRank.fromIndex(ChessRank.MINIMUM_INDEX).orElseThrow())
+                                              | Bitboards.rankMask(ChessRank.fromIndex(ChessRank.MAXIMUM_INDEX).orElseThrow());
+
+        for (int index = 0; index < table.length; index++) {
+            if (!material.setup(index, board)
+                || ((board.getPieceMask(ChessPieceType.PAWN, ChessPieceColor.WHITE)
+                     | board.getPieceMask(ChessPieceType.PAWN, ChessPieceColor.BLACK)) & backRanks) != 0
+                || (AttackMap.computeAttackedSquares(board, board.getSideToMove())
+                    & board.getPieceMask(ChessPieceType.KING, board.getSideToMove().getOpposite())) != 0) {
+                table[index] = TablebaseFormat.INVALID;
+            } else if (generator.generateLegalMoves(board, moves) == 0) {
+                table[index] = (byte) (generator.getAttackMap().isInCheck() ? Wdl.LOSS.ordinal() : Wdl.DRAW.ordinal());
+            } else {
+                table[index] = UNRESOLVED;
+            }
+        }
+
+        boolean changed = true;
+
+        while (changed) {
+            changed = false;
+
+            for (int index = 0; index < table.length; index++) {
+                if (table[index] != UNRESOLVED) {
+                    continue;
+                }
+
+                material.setup(index, board);
+
+                final int count   = generator.generateLegalMoves(board, moves);
+                boolean   allWins = true;
+                byte      result  = UNRESOLVED;
+
+                for (int i = 0; i < count && result == UNRESOLVED; i++) {
+                    board.makeMove(moves[i]);
+
+                    final byte child = Moves.isCapture(moves[i]) || Moves.isPromotion(moves[i])
+                                       ? this.probeChild(board) : table[(int) material.getIndex(board)];
+
+                    board.unmakeMove();
+
+                    if (child == Wdl.LOSS.ordinal()) {
+                        result = (byte) Wdl.WIN.ordinal();
+                    } else if (child != Wdl.WIN.ordinal()) {
+                        allWins = false;
+                    }
+                }
+
+                if (result == UNRESOLVED && allWins) {
+                    result = (byte) Wdl.LOSS.ordinal();
+                }
+
+                if (result != UNRESOLVED) {
+                    table[index] = result;
+                    changed      = true;
+                }
+            }
+        }
+
+        for (int index = 0; index < table.length; index++) {
+            if (table[index] == UNRESOLVED) {
+                table[index] = (byte) Wdl.DRAW.ordinal();
+            }
+        }
+
+        return table;
+    }
+
+    private byte probeChild(final FlyweightChessBoard board) throws IOException {
+        final Material material = Material.of(board).getCanonical();
+
+        return this.getTable(material)[(int) material.getIndex(board)];
+    }
+}
@@ -0,0 +1,26 @@
+package net.thatapex.chesssite.chess.tablebase;
+
+/**
+ * The outcome of a position with perfect play: win, draw or loss for the side to move, ignoring the 50-move rule.
+ */
+public enum Wdl {
+    LOSS,
+    DRAW,
+    WIN;
+
+    /**
+     * Returns the outcome for the opponent of the side to move.
+     *
+     * @return the opposite outcome
+     */
+    public Wdl getOpposite() {
+        switch (this) {
+            case LOSS:
+                return WIN;
+            case WIN:
+                return LOSS;
+            default:
+                return DRAW;
+        }
+    }
+}
@@ -2,7 +2,8 @@ package net.thatapex.chesssite.chess.board;
 
 import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
 import net.thatapex.chesssite.chess.pieces.ChessPiece;
-import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -13,9 +14,10 @@ import static org.hamcrest.Matchers.sameInstance;
 
 public class TestImmutableChessBoard {
 
-    @Test
-    public void testImmutableBoardView() {
-        final MutableChessBoard mutableBoard = new MutableChessBoardImpl();
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testImmutableBoardView(final ChessBoardImplementation implementation) {
+        final MutableChessBoard mutableBoard = implementation.createBoard();
 
         // setup random board
         final Map<ChessSquare, ChessPiece<?>> randomPieces = new HashMap<>();
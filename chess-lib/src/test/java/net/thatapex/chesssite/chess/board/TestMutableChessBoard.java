@@ -1,15 +1,26 @@
 package net.thatapex.chesssite.chess.board;
 
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
 import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.board.setup.ClassicalChessGameBoardSetup;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import net.thatapex.chesssite.chess.move.MoveTestHelpers;
 import net.thatapex.chesssite.chess.pieces.ChessPiece;
 import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
 import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+import net.thatapex.chesssite.chess.pieces.ChessPieces;
 import net.thatapex.chesssite.chess.pieces.types.Knight;
-import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Random;
 
 import static com.spotify.hamcrest.optional.OptionalMatchers.emptyOptional;
 import static com.spotify.hamcrest.optional.OptionalMatchers.optionalWithValue;
@@ -18,13 +29,16 @@ import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class TestMutableChessBoard {
 
-    @Test
-    public void testDefaultState() {
-        final ChessBoard board = new MutableChessBoardImpl();
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testDefaultState(final ChessBoardImplementation implementation) {
+        final ChessBoard board = implementation.createBoard();
 
         final CastlingRights whiteCastlingRights = board.getCastlingRightsFor(ChessPieceColor.WHITE);
         final CastlingRights blackCastlingRights = board.getCastlingRightsFor(ChessPieceColor.BLACK);
@@ -37,14 +51,19 @@ public class TestMutableChessBoard {
         assertThat("invalid initial black's castling rights", blackCastlingRights.hasShortCastleRights(), is(true));
         assertThat("invalid initial black's castling rights", blackCastlingRights.hasLongCastleRights(), is(true));
 
+        assertThat("invalid initial side to move", board.getSideToMove(), is(equalTo(ChessPieceColor.WHITE)));
+        assertThat("invalid initial halfmove clock", board.getHalfmoveClock(), is(equalTo(0)));
+        assertThat("invalid initial fullmove number", board.getFullmoveNumber(), is(equalTo(1)));
+
         for (final ChessSquare square : BoardTestHelpers.getEveryPossibleSquare()) {
             assertThat("non-empty square on a new board", board.getPiece(square), is(emptyOptional()));
         }
     }
 
-    @Test
-    public void testCastlingRights() {
-        final MutableChessBoard board = new MutableChessBoardImpl();
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testCastlingRights(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
 
         final var whiteRightsBefore = board.getCastlingRightsFor(ChessPieceColor.WHITE);
         board.setCastlingRightsFor(ChessPieceColor.WHITE, whiteRightsBefore.withoutLongCastleRights());
@@ -73,9 +92,10 @@ public class TestMutableChessBoard {
         assertThat("invalid white's castling rights after black's change", whiteFinal.hasLongCastleRights(), is(false));
     }
 
-    @Test
-    public void testEnPassantSquare() {
-        final MutableChessBoard board = new MutableChessBoardImpl();
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testEnPassantSquare(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
         assertThat("en passant square on initial board", board.getEnPassantSquare(), is(emptyOptional()));
 
         final ChessSquare square1 = ChessSquare.fromChessNotation("c3").orElseThrow();
@@ -93,9 +113,10 @@ public class TestMutableChessBoard {
         assertThat("cannot reset en passant square", board.getEnPassantSquare(), is(emptyOptional()));
     }
 
-    @Test
-    public void testPieceSetting() {
-        final MutableChessBoard board = new MutableChessBoardImpl();
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testPieceSetting(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
 
         for (final ChessSquare square : BoardTestHelpers.getEveryPossibleSquare()) {
             assertThat("initial board is not empty", board.getPiece(square), is(emptyOptional()));
@@ -109,9 +130,10 @@ public class TestMutableChessBoard {
         BoardTestHelpers.testBoardStateMatch(board, null, randomPieces);
     }
 
-    @Test
-    public void testBoardGetFiltered() {
-        final MutableChessBoard board       = new MutableChessBoardImpl();
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testBoardGetFiltered(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board       = implementation.createBoard();
         final ChessSquare       square      = ChessSquare.fromChessNotation("e2").orElseThrow();
         final Knight            whiteKnight = ChessPieceType.KNIGHT.instantiatePiece(ChessPieceColor.WHITE);
 
@@ -128,9 +150,10 @@ public class TestMutableChessBoard {
         assertThat("piece color and type not filtered", board.getPiece(square, ChessPieceType.BISHOP, ChessPieceColor.BLACK), is(emptyOptional()));
     }
 
-    @Test
-    public void testBoardDuplicates() {
-        final MutableChessBoard board       = new MutableChessBoardImpl();
+    @ParameterizedTest
+    @EnumSource(value = ChessBoardImplementation.class, names = {"DEFAULT", "BITBOARD"})
+    public void testBoardDuplicates(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board       = implementation.createBoard();
         final ChessSquare       square1     = ChessSquare.fromChessNotation("e2").orElseThrow();
         final ChessSquare       square2     = ChessSquare.fromChessNotation("e7").orElseThrow();
         final Knight            whiteKnight = ChessPieceType.KNIGHT.instantiatePiece(ChessPieceColor.WHITE);
@@ -145,9 +168,47 @@ public class TestMutableChessBoard {
         assertThat("duplicate piece still present", board.getPiece(square1), is(emptyOptional()));
     }
 
-    @Test
-    public void testBoardClone() {
-        final MutableChessBoard board = new MutableChessBoardImpl();
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testCanonicalPiecesShared(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board       = implementation.createBoard();
+        final ChessSquare       square1     = ChessSquare.fromChessNotation("e2").orElseThrow();
+        final ChessSquare       square2     = ChessSquare.fromChessNotation("e7").orElseThrow();
+        final Knight            whiteKnight = ChessPieces.of(ChessPieceType.KNIGHT, ChessPieceColor.WHITE);
+
+        board.setPiece(square1, whiteKnight);
+        board.setPiece(square2, whiteKnight);
+
+        assertThat("shared piece removed", board.getPiece(square1), is(optionalWithValue(equalTo(whiteKnight))));
+        assertThat("no valid piece present", board.getPiece(square2), is(optionalWithValue(equalTo(whiteKnight))));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testCopyAndMovePiece(final ChessBoardImplementation implementation) {
+        final ChessSquare from = ChessSquare.fromChessNotation("e2").orElseThrow();
+        final ChessSquare to   = ChessSquare.fromChessNotation("e4").orElseThrow();
+
+        for (final ChessBoardImplementation sourceImplementation : ChessBoardImplementation.values()) {
+            final MutableChessBoard source = sourceImplementation.createBoard();
+
+            new ClassicalChessGameBoardSetup().setup(source);
+
+            final MutableChessBoard board = implementation.copyBoard(source);
+
+            board.setPiece(to, board.getPiece(from).orElseThrow());
+            board.setPiece(from, null);
+
+            assertThat("copied from " + sourceImplementation, FenCodec.encode(board),
+                       is(equalTo("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 1")));
+            assertThat("source modified", FenCodec.encode(source), is(equalTo(FenCodec.STARTING_POSITION)));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testBoardClone(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
 
         // setup random board
         final Map<ChessSquare, ChessPiece<?>> randomPieces = new HashMap<>();
@@ -160,6 +221,8 @@ public class TestMutableChessBoard {
         // check states
         assertThat("cloned mutable board is the same instance as the cloned board", board, is(not(sameInstance(clonedMutable))));
         assertThat("cloned immutable board is the same instance as the cloned board", board, is(not(sameInstance(clonedImmutable))));
+        assertThat("cloned immutable board does not equal the cloned board", clonedImmutable, is(equalTo(board)));
+        assertThat("cloned board does not equal the cloned immutable board", board, is(equalTo(clonedImmutable)));
 
         assertThat("en passant square do not match on mutable board", board.getEnPassantSquare(), is(equalTo(clonedMutable.getEnPassantSquare())));
         assertThat("white's castling rights do not match on mutable board", board.getCastlingRightsFor(ChessPieceColor.WHITE), is(equalTo(clonedMutable.getCastlingRightsFor(ChessPieceColor.WHITE))));
@@ -187,4 +250,216 @@ public class TestMutableChessBoard {
         }
     }
 
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testBoardCopyBetweenImplementations(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
+
+        // setup random board
+        final Map<ChessSquare, ChessPiece<?>> randomPieces = new HashMap<>();
+        BoardTestHelpers.setupRandomBoard(board, randomPieces);
+        board.setCastlingRightsFor(ChessPieceColor.BLACK, new CastlingRights(false, true));
+        board.setEnPassantSquare(ChessSquare.fromChessNotation("d6").orElseThrow());
+
+        for (final ChessBoardImplementation otherImplementation : ChessBoardImplementation.values()) {
+            final MutableChessBoard copy = otherImplementation.copyBoard(board);
+
+            BoardTestHelpers.testBoardStateMatch(copy, board, randomPieces);
+            assertThat("copy does not round trip to the original implementation", implementation.copyBoard(copy), is(equalTo(board)));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testMakeMove(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
+        new ClassicalChessGameBoardSetup().setup(board);
+
+        board.makeMove(MoveTestHelpers.findMove(board, "e2e4"));
+        assertThat("pawn not moved", board.getPiece(ChessSquare.fromChessNotation("e4").orElseThrow(), ChessPieceType.PAWN, ChessPieceColor.WHITE), is(not(emptyOptional())));
+        assertThat("pawn not moved", board.getPiece(ChessSquare.fromChessNotation("e2").orElseThrow()), is(emptyOptional()));
+        assertThat("invalid en passant square", board.getEnPassantSquare(), is(optionalWithValue(equalTo(ChessSquare.fromChessNotation("e3").orElseThrow()))));
+        assertThat("invalid side to move", board.getSideToMove(), is(equalTo(ChessPieceColor.BLACK)));
+        assertThat("invalid fullmove number", board.getFullmoveNumber(), is(equalTo(1)));
+
+        board.makeMove(MoveTestHelpers.findMove(board, "g8f6"));
+        assertThat("en passant square not reset", board.getEnPassantSquare(), is(emptyOptional()));
+        assertThat("invalid halfmove clock", board.getHalfmoveClock(), is(equalTo(1)));
+        assertThat("invalid fullmove number", board.getFullmoveNumber(), is(equalTo(2)));
+
+        board.makeMove(MoveTestHelpers.findMove(board, "g1f3"));
+        board.makeMove(MoveTestHelpers.findMove(board, "f6e4"));
+        assertThat("halfmove clock not reset by a capture", board.getHalfmoveClock(), is(equalTo(0)));
+
+        board.makeMove(MoveTestHelpers.findMove(board, "f1e2"));
+        board.makeMove(MoveTestHelpers.findMove(board, "h8g8"));
+        assertThat("castling rights not revoked by a rook move", board.getCastlingRightsFor(ChessPieceColor.BLACK), is(equalTo(CastlingRights.of(false, true))));
+
+        board.makeMove(MoveTestHelpers.findMove(board, "e1g1"));
+        assertThat("king not castled", board.getPiece(ChessSquare.fromChessNotation("g1").orElseThrow(), ChessPieceType.KING, ChessPieceColor.WHITE), is(not(emptyOptional())));
+        assertThat("rook not castled", board.getPiece(ChessSquare.fromChessNotation("f1").orElseThrow(), ChessPieceType.ROOK, ChessPieceColor.WHITE), is(not(emptyOptional())));
+        assertThat("castling rights not revoked by castling", board.getCastlingRightsFor(ChessPieceColor.WHITE), is(equalTo(CastlingRights.of(false, false))));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testUnmakeMove(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board  = implementation.createBoard();
+        final Random            random = new Random(0);
+
+        // "Kiwipete", a position with many castling, en passant and promotion possibilities
+        MoveTestHelpers.setupPlacement(board, "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R");
+
+        final List<MutableChessBoard>   copies    = new ArrayList<>();
+        final List<List<ChessPiece<?>>> instances = new ArrayList<>();
+        final int[]                     moves     = new int[MoveGenerator.MAX_MOVES];
+        final MoveGenerator             generator = new MoveGenerator();
+
+        for (int ply = 0; ply < 100; ply++) {
+            final int count = generator.generateLegalMoves(board, moves);
+
+            if (count == 0) {
+                break;
+            }
+
+            copies.add(board.cloneAsMutable());
+            instances.add(new ArrayList<>(board.asPieceList()));
+            board.makeMove(moves[random.nextInt(count)]);
+        }
+
+        for (int ply = copies.size() - 1; ply >= 0; ply--) {
+            board.unmakeMove();
+
+            assertThat("board state not restored", board, is(equalTo(copies.get(ply))));
+
+            for (int i = 0; i < board.getBoardSize(); i++) {
+                assertThat("piece instance not restored", board.asPieceList().get(i), is(sameInstance(instances.get(ply).get(i))));
+            }
+        }
+
+        assertThrows(IllegalStateException.class, board::unmakeMove);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testPositionKey(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
+        new ClassicalChessGameBoardSetup().setup(board);
+
+        final long startingKey = board.getPositionKey();
+        assertThat("invalid starting key", startingKey, is(equalTo(ZobristKeys.computeKey(board))));
+
+        // transpositions and the move counters
+        board.makeMove(MoveTestHelpers.findMove(board, "g1f3"));
+        board.makeMove(MoveTestHelpers.findMove(board, "g8f6"));
+        board.makeMove(MoveTestHelpers.findMove(board, "f3g1"));
+        assertThat("side to move not hashed", board.getPositionKey(), is(not(equalTo(startingKey))));
+
+        board.makeMove(MoveTestHelpers.findMove(board, "f6g8"));
+        assertThat("transposition has a different key", board.getPositionKey(), is(equalTo(startingKey)));
+
+        // setters
+        board.setEnPassantSquare(ChessSquare.fromChessNotation("e3").orElseThrow());
+        assertThat("invalid key after setting en passant square", board.getPositionKey(), is(equalTo(ZobristKeys.computeKey(board))));
+
+        board.setCastlingRightsFor(ChessPieceColor.BLACK, CastlingRights.of(true, false));
+        assertThat("invalid key after setting castling rights", board.getPositionKey(), is(equalTo(ZobristKeys.computeKey(board))));
+
+        board.setPiece(ChessSquare.fromChessNotation("e4").orElseThrow(), board.getPiece(ChessSquare.fromChessNotation("e2").orElseThrow()).orElseThrow());
+        assertThat("invalid key after moving a piece", board.getPositionKey(), is(equalTo(ZobristKeys.computeKey(board))));
+
+        // random moves
+        final Random        random    = new Random(0);
+        final int[]         moves     = new int[MoveGenerator.MAX_MOVES];
+        final MoveGenerator generator = new MoveGenerator();
+
+        int plies = 0;
+
+        for (; plies < 100; plies++) {
+            final int count = generator.generateLegalMoves(board, moves);
+
+            if (count == 0) {
+                break;
+            }
+
+            board.makeMove(moves[random.nextInt(count)]);
+            assertThat("invalid key after a move", board.getPositionKey(), is(equalTo(ZobristKeys.computeKey(board))));
+
+            for (final ChessBoardImplementation other : ChessBoardImplementation.values()) {
+                assertThat("key differs between implementations", other.copyBoard(board).getPositionKey(), is(equalTo(board.getPositionKey())));
+            }
+        }
+
+        for (; plies > 0; plies--) {
+            board.unmakeMove();
+            assertThat("invalid key after taking a move back", board.getPositionKey(), is(equalTo(ZobristKeys.computeKey(board))));
+        }
+
+        // the en passant square is only hashed if a pawn of the side to move can capture on it
+        FenCodec.decode("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", board);
+        final long doublePushKey = board.getPositionKey();
+        FenCodec.decode("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", board);
+        assertThat("uncapturable en passant square hashed", board.getPositionKey(), is(equalTo(doublePushKey)));
+
+        FenCodec.decode("rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", board);
+        final long capturableKey = board.getPositionKey();
+        assertThat("invalid key with en passant square", capturableKey, is(equalTo(ZobristKeys.computeKey(board))));
+        FenCodec.decode("rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", board);
+        assertThat("capturable en passant square not hashed", board.getPositionKey(), is(not(equalTo(capturableKey))));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testPieceListener(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board     = implementation.createBoard();
+        final ChessPiece<?>[]   mirrored  = new ChessPiece<?>[board.getBoardSize()];
+        final Random            random    = new Random(0);
+        final int[]             moves     = new int[MoveGenerator.MAX_MOVES];
+        final MoveGenerator     generator = new MoveGenerator();
+
+        // the listener rebuilds the board from the reported changes
+        board.setPieceListener(new PieceListener() {
+            @Override
+            public void pieceAdded(final ChessPiece<?> piece, final int index) {
+                assertThat("piece added to an occupied square", mirrored[index], is(nullValue()));
+                mirrored[index] = piece;
+            }
+
+            @Override
+            public void pieceRemoved(final ChessPiece<?> piece, final int index) {
+                assertThat("removed piece was not on the square", mirrored[index], is(equalTo(piece)));
+                mirrored[index] = null;
+            }
+        });
+
+        new ClassicalChessGameBoardSetup().setup(board);
+        MoveTestHelpers.setupPlacement(board, "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R");
+        assertThat("setting pieces not reported", Arrays.asList(mirrored), is(equalTo(board.asPieceList())));
+
+        int plies = 0;
+
+        for (; plies < 100; plies++) {
+            final int count = generator.generateLegalMoves(board, moves);
+
+            if (count == 0) {
+                break;
+            }
+
+            board.makeMove(moves[random.nextInt(count)]);
+            assertThat("move not reported", Arrays.asList(mirrored), is(equalTo(board.asPieceList())));
+        }
+
+        for (; plies > 0; plies--) {
+            board.unmakeMove();
+            assertThat("taking a move back not reported", Arrays.asList(mirrored), is(equalTo(board.asPieceList())));
+        }
+
+        board.clearPieces();
+        assertThat("clearing not reported", Arrays.stream(mirrored).allMatch(Objects::isNull), is(true));
+
+        // the listener is not copied
+        board.setPiece(ChessSquare.fromChessNotation("e4").orElseThrow(), new Knight(ChessPieceColor.WHITE));
+        board.cloneAsMutable().clearPieces();
+        assertThat(mirrored[ChessSquare.fromChessNotation("e4").orElseThrow().index()], is(not(nullValue())));
+    }
 }
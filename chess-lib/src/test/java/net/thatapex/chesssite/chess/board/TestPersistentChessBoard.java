@@ -0,0 +1,128 @@
+package net.thatapex.chesssite.chess.board;
+
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import net.thatapex.chesssite.chess.move.Moves;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestPersistentChessBoard {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            FenCodec.STARTING_POSITION,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1"
+    })
+    public void testMovesMatchMutableBoard(final String fen) {
+        final Random            random    = new Random(fen.hashCode());
+        final MoveGenerator     generator = new MoveGenerator();
+        final int[]             moves     = new int[MoveGenerator.MAX_MOVES];
+        final List<String>      fens      = new ArrayList<>();
+        final List<ChessBoard>  snapshots = new ArrayList<>();
+        final MutableChessBoard board     = new BitboardChessBoard();
+
+        FenCodec.decode(fen, board);
+
+        PersistentChessBoard persistent = PersistentChessBoard.of(board);
+
+        for (int ply = 0; ply < 200; ply++) {
+            assertThat("position does not match", FenCodec.encode(persistent), is(equalTo(FenCodec.encode(board))));
+            assertThat("position key does not match", persistent.getPositionKey(), is(equalTo(board.getPositionKey())));
+            assertThat("boards are not equal", persistent, is(equalTo(PersistentChessBoard.of(board))));
+
+            fens.add(FenCodec.encode(persistent));
+            snapshots.add(persistent);
+
+            final int count = generator.generateLegalMoves(board, moves);
+
+            if (count == 0) {
+                break;
+            }
+
+            final int move = moves[random.nextInt(count)];
+
+            board.makeMove(move);
+            persistent = persistent.withMove(move);
+        }
+
+        // earlier snapshots are never modified
+        for (int index = 0; index < snapshots.size(); index++) {
+            assertThat("snapshot was modified", FenCodec.encode(snapshots.get(index)), is(equalTo(fens.get(index))));
+        }
+    }
+
+    @Test
+    public void testStructuralSharing() {
+        final MutableChessBoard board = new BitboardChessBoard();
+        FenCodec.decode(FenCodec.STARTING_POSITION, board);
+
+        final PersistentChessBoard before = PersistentChessBoard.of(board);
+        final PersistentChessBoard after  = before.withMove(Moves.encode(12, 28, Moves.FLAG_DOUBLE_PUSH));
+
+        assertThat(before.asPieceList().get(12), is(sameInstance(after.asPieceList().get(28))));
+        assertThat(before.asPieceList().get(60), is(sameInstance(after.asPieceList().get(60))));
+        assertThat(after, is(not(equalTo(before))));
+        assertThat(FenCodec.encode(after), is(equalTo("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1")));
+    }
+
+    @Test
+    public void testCloning() {
+        final MutableChessBoard board = new BitboardChessBoard();
+        FenCodec.decode(FenCodec.STARTING_POSITION, board);
+
+        final PersistentChessBoard persistent = PersistentChessBoard.of(board);
+
+        assertThat(PersistentChessBoard.of(persistent), is(sameInstance(persistent)));
+        assertThat(persistent.cloneAsImmutable(), is(sameInstance(persistent)));
+        assertThat(persistent.cloneAsMutable(), is(equalTo(board)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testEqualsOtherBoards(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
+        FenCodec.decode("rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 3", board);
+
+        final ChessBoard snapshot = board.cloneAsImmutable();
+
+        assertThat(snapshot, is(instanceOf(PersistentChessBoard.class)));
+        assertThat(snapshot, is(equalTo(board)));
+        assertThat(board, is(equalTo(snapshot)));
+        assertThat(snapshot.hashCode(), is(equalTo(board.hashCode())));
+
+        // the snapshot keeps the position the board had
+        board.setEnPassantSquare(null);
+        assertThat(snapshot, is(not(equalTo(board))));
+        assertThat(board, is(not(equalTo(snapshot))));
+        assertThat(FenCodec.encode(snapshot), is(equalTo("rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 3")));
+    }
+
+    @Test
+    public void testInvalidMove() {
+        final MutableChessBoard board = new BitboardChessBoard();
+        FenCodec.decode(FenCodec.STARTING_POSITION, board);
+
+        final PersistentChessBoard persistent = PersistentChessBoard.of(board);
+
+        // empty square and a piece of the wrong color
+        assertThrows(IllegalArgumentException.class, () -> persistent.withMove(Moves.encode(28, 36, 0)));
+        assertThrows(IllegalArgumentException.class, () -> persistent.withMove(Moves.encode(52, 44, 0)));
+    }
+
+}
@@ -0,0 +1,123 @@
+package net.thatapex.chesssite.chess.board.bitboard;
+
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class TestAttackTables {
+
+    private Collection<ChessSquare> toSquares(final long bitboard) {
+        final Collection<ChessSquare> squares = new ArrayList<>();
+        Bitboards.addSquares(bitboard, squares);
+        return squares;
+    }
+
+    private Collection<ChessSquare> squares(final String... notations) {
+        final Collection<ChessSquare> squares = new ArrayList<>();
+
+        for (final String notation : notations) {
+            squares.add(ChessSquare.fromChessNotation(notation).orElseThrow());
+        }
+
+        return squares;
+    }
+
+    private int index(final String notation) {
+        return ChessSquare.fromChessNotation(notation).orElseThrow().index();
+    }
+
+    @Test
+    public void testKnightAttacks() {
+        assertThat(toSquares(AttackTables.getKnightAttacks(index("a1"))), containsInAnyOrder(squares("b3", "c2").toArray()));
+        assertThat(toSquares(AttackTables.getKnightAttacks(index("e4"))), containsInAnyOrder(squares("d6", "f6", "c5", "g5", "c3", "g3", "d2", "f2").toArray()));
+        assertThat(toSquares(AttackTables.getKnightAttacks(index("h8"))), containsInAnyOrder(squares("g6", "f7").toArray()));
+    }
+
+    @Test
+    public void testKingAttacks() {
+        assertThat(toSquares(AttackTables.getKingAttacks(index("a1"))), containsInAnyOrder(squares("a2", "b2", "b1").toArray()));
+        assertThat(toSquares(AttackTables.getKingAttacks(index("e4"))), containsInAnyOrder(squares("d5", "e5", "f5", "d4", "f4", "d3", "e3", "f3").toArray()));
+    }
+
+    @Test
+    public void testPawnTables() {
+        assertThat(toSquares(AttackTables.getPawnAttacks(ChessPieceColor.WHITE, index("a2"))), containsInAnyOrder(squares("b3").toArray()));
+        assertThat(toSquares(AttackTables.getPawnAttacks(ChessPieceColor.BLACK, index("e5"))), containsInAnyOrder(squares("d4", "f4").toArray()));
+
+        assertThat(toSquares(AttackTables.getPawnPushes(ChessPieceColor.WHITE, index("e2"))), containsInAnyOrder(squares("e3", "e4").toArray()));
+        assertThat(toSquares(AttackTables.getPawnPushes(ChessPieceColor.WHITE, index("e3"))), containsInAnyOrder(squares("e4").toArray()));
+        assertThat(toSquares(AttackTables.getPawnPushes(ChessPieceColor.BLACK, index("e7"))), containsInAnyOrder(squares("e6", "e5").toArray()));
+        assertThat(AttackTables.getPawnPushes(ChessPieceColor.WHITE, index("e8")), is(equalTo(Bitboards.EMPTY)));
+
+        assertThat(toSquares(AttackTables.getPawnFrontSpan(ChessPieceColor.WHITE, index("a6"))), containsInAnyOrder(squares("a7", "b7", "a8", "b8").toArray()));
+        assertThat(toSquares(AttackTables.getPawnFrontSpan(ChessPieceColor.BLACK, index("e3"))), containsInAnyOrder(squares("d2", "e2", "f2", "d1", "e1", "f1").toArray()));
+        assertThat(AttackTables.getPawnFrontSpan(ChessPieceColor.BLACK, index("e1")), is(equalTo(Bitboards.EMPTY)));
+    }
+
+    @Test
+    public void testRaysMatchLines() {
+        for (int index = 0; index < ChessSquare.SQUARE_COUNT; index++) {
+            final ChessSquare square = ChessSquare.ofIndex(index);
+
+            long rookRays   = Bitboards.EMPTY;
+            long bishopRays = Bitboards.EMPTY;
+
+            for (final Direction direction : Direction.values()) {
+                final long ray = AttackTables.getRay(direction, index);
+
+                assertThat("invalid " + direction + " ray from " + square.toChessNotation(),
+                        new HashSet<>(toSquares(ray)),
+                        is(equalTo(new HashSet<>(square.makeLine(direction.getFileDelta(), direction.getRankDelta())))));
+
+                if (direction.isDiagonal()) {
+                    bishopRays |= ray;
+                } else {
+                    rookRays |= ray;
+                }
+            }
+
+            assertThat(AttackTables.getRookRays(index), is(equalTo(rookRays)));
+            assertThat(AttackTables.getBishopRays(index), is(equalTo(bishopRays)));
+        }
+    }
+
+    @Test
+    public void testDirectionOpposite() {
+        for (final Direction direction : Direction.values()) {
+            assertThat(direction.getOpposite().getFileDelta(), is(equalTo(-direction.getFileDelta())));
+            assertThat(direction.getOpposite().getRankDelta(), is(equalTo(-direction.getRankDelta())));
+            assertThat(direction.getOpposite().isPositive(), is(equalTo(!direction.isPositive())));
+        }
+    }
+
+    @Test
+    public void testBetween() {
+        assertThat(toSquares(AttackTables.getBetween(index("a1"), index("h8"))), containsInAnyOrder(squares("b2", "c3", "d4", "e5", "f6", "g7").toArray()));
+        assertThat(toSquares(AttackTables.getBetween(index("e8"), index("e5"))), containsInAnyOrder(squares("e7", "e6").toArray()));
+        assertThat(AttackTables.getBetween(index("e4"), index("e5")), is(equalTo(Bitboards.EMPTY)));
+        assertThat(AttackTables.getBetween(index("e4"), index("f6")), is(equalTo(Bitboards.EMPTY)));
+
+        for (int from = 0; from < ChessSquare.SQUARE_COUNT; from++) {
+            for (int to = 0; to < ChessSquare.SQUARE_COUNT; to++) {
+                assertThat("between is not symmetric", AttackTables.getBetween(from, to), is(equalTo(AttackTables.getBetween(to, from))));
+            }
+        }
+    }
+
+    @Test
+    public void testLine() {
+        assertThat(toSquares(AttackTables.getLine(index("c3"), index("e5"))), containsInAnyOrder(squares("a1", "b2", "c3", "d4", "e5", "f6", "g7", "h8").toArray()));
+        assertThat(toSquares(AttackTables.getLine(index("b4"), index("g4"))), containsInAnyOrder(squares("a4", "b4", "c4", "d4", "e4", "f4", "g4", "h4").toArray()));
+        assertThat(AttackTables.getLine(index("e4"), index("f6")), is(equalTo(Bitboards.EMPTY)));
+        assertThat(AttackTables.getLine(index("e4"), index("e4")), is(equalTo(Bitboards.EMPTY)));
+    }
+}
@@ -0,0 +1,60 @@
+package net.thatapex.chesssite.chess.board.bitboard;
+
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class TestSlidingAttacks {
+    private static final Direction[] ROOK_DIRECTIONS   = {Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST};
+    private static final Direction[] BISHOP_DIRECTIONS = {Direction.NORTH_EAST, Direction.SOUTH_EAST, Direction.SOUTH_WEST, Direction.NORTH_WEST};
+
+    private long mask(final String... notations) {
+        long mask = Bitboards.EMPTY;
+
+        for (final String notation : notations) {
+            mask |= Bitboards.squareMask(ChessSquare.fromChessNotation(notation).orElseThrow());
+        }
+
+        return mask;
+    }
+
+    private int index(final String notation) {
+        return ChessSquare.fromChessNotation(notation).orElseThrow().index();
+    }
+
+    @Test
+    public void testEmptyBoard() {
+        for (int index = 0; index < ChessSquare.SQUARE_COUNT; index++) {
+            assertThat(SlidingAttacks.getRookAttacks(index, Bitboards.EMPTY), is(equalTo(AttackTables.getRookRays(index))));
+            assertThat(SlidingAttacks.getBishopAttacks(index, Bitboards.EMPTY), is(equalTo(AttackTables.getBishopRays(index))));
+        }
+    }
+
+    @Test
+    public void testBlockedAttacks() {
+        final long occupancy = mask("e4", "e6", "c4", "e2", "g6", "b1", "h4");
+
+        assertThat(SlidingAttacks.getRookAttacks(index("e4"), occupancy), is(equalTo(mask("e5", "e6", "e3", "e2", "d4", "c4", "f4", "g4", "h4"))));
+        assertThat(SlidingAttacks.getBishopAttacks(index("e4"), occupancy), is(equalTo(mask("f5", "g6", "d5", "c6", "b7", "a8", "f3", "g2", "h1", "d3", "c2", "b1"))));
+        assertThat(SlidingAttacks.getQueenAttacks(index("e4"), occupancy),
+                is(equalTo(SlidingAttacks.getRookAttacks(index("e4"), occupancy) | SlidingAttacks.getBishopAttacks(index("e4"), occupancy))));
+    }
+
+    @Test
+    public void testRandomOccupancies() {
+        final Random random = new Random(0);
+
+        for (int i = 0; i < 10000; i++) {
+            final long occupancy = random.nextLong() & random.nextLong();
+            final int  index     = random.nextInt(ChessSquare.SQUARE_COUNT);
+
+            assertThat(SlidingAttacks.getRookAttacks(index, occupancy), is(equalTo(SlidingAttacks.computeAttacksSlowly(index, ROOK_DIRECTIONS, occupancy))));
+            assertThat(SlidingAttacks.getBishopAttacks(index, occupancy), is(equalTo(SlidingAttacks.computeAttacksSlowly(index, BISHOP_DIRECTIONS, occupancy))));
+        }
+    }
+}
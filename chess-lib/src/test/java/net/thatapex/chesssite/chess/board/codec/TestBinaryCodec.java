@@ -0,0 +1,129 @@
+package net.thatapex.chesssite.chess.board.codec;
+
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestBinaryCodec {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            FenCodec.STARTING_POSITION,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "rnbqkbnr/pp1ppppp/8/2p5/4P3/8/PPPP1PPP/RNBQKBNR w KQkq c6 0 2",
+            "4k3/8/8/8/8/8/8/4K2R b K - 99 120",
+            "8/8/8/8/8/8/8/8 w - - 0 1"
+    })
+    public void testRoundTrip(final String fen) {
+        for (final ChessBoardImplementation implementation : ChessBoardImplementation.values()) {
+            final MutableChessBoard board   = implementation.createBoard();
+            final MutableChessBoard decoded = implementation.createBoard();
+
+            FenCodec.decode(fen, board);
+
+            final byte[] bytes = BinaryCodec.encode(board);
+            assertThat("invalid encoded size", bytes.length, is(equalTo(BinaryCodec.getEncodedSize(board))));
+
+            BinaryCodec.decode(bytes, decoded);
+            assertThat("position does not round trip", decoded, is(equalTo(board)));
+            assertThat("position does not round trip", FenCodec.encode(decoded), is(equalTo(fen)));
+            assertThat("position key does not round trip", decoded.getPositionKey(), is(equalTo(board.getPositionKey())));
+        }
+    }
+
+    @Test
+    public void testEncodedSize() {
+        final MutableChessBoard board = ChessBoardImplementation.DEFAULT.createBoard();
+        FenCodec.decode(FenCodec.STARTING_POSITION, board);
+
+        assertThat(BinaryCodec.getEncodedSize(board), is(equalTo(30)));
+
+        // an odd number of pieces is padded to a whole byte
+        FenCodec.decode("4k3/8/8/8/8/8/8/4K2R w K - 0 1", board);
+        assertThat(BinaryCodec.getEncodedSize(board), is(equalTo(16)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testBufferRoundTrip(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board     = implementation.createBoard();
+        final MutableChessBoard decoded   = implementation.createBoard();
+        final MoveGenerator     generator = new MoveGenerator();
+        final int[]             moves     = new int[MoveGenerator.MAX_MOVES];
+        final Random            random    = new Random(10);
+        final ByteBuffer        buffer    = ByteBuffer.allocate(BinaryCodec.MAX_ENCODED_SIZE * 200).order(ByteOrder.LITTLE_ENDIAN);
+
+        FenCodec.decode(FenCodec.STARTING_POSITION, board);
+
+        // encode a whole game into a single buffer and read it back, position by position
+        final String[] positions = new String[200];
+        int            count     = 0;
+
+        while (count < positions.length) {
+            positions[count++] = FenCodec.encode(board);
+            BinaryCodec.encode(board, buffer);
+
+            final int moveCount = generator.generateLegalMoves(board, moves);
+
+            if (moveCount == 0) {
+                break;
+            }
+
+            board.makeMove(moves[random.nextInt(moveCount)]);
+        }
+
+        buffer.flip();
+
+        for (int i = 0; i < count; i++) {
+            BinaryCodec.decode(buffer, decoded);
+            assertThat("position does not round trip", FenCodec.encode(decoded), is(equalTo(positions[i])));
+        }
+
+        assertThat("buffer was not fully read", buffer.hasRemaining(), is(false));
+    }
+
+    @Test
+    public void testInvalid() {
+        final MutableChessBoard board = ChessBoardImplementation.BITBOARD.createBoard();
+        FenCodec.decode(FenCodec.STARTING_POSITION, board);
+
+        final byte[] valid = BinaryCodec.encode(board);
+
+        final byte[] truncated = new byte[valid.length - 1];
+        System.arraycopy(valid, 0, truncated, 0, truncated.length);
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.decode(truncated, board));
+
+        final byte[] trailing = new byte[valid.length + 1];
+        System.arraycopy(valid, 0, trailing, 0, valid.length);
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.decode(trailing, board));
+
+        final byte[] invalidPiece = valid.clone();
+        invalidPiece[Long.BYTES] = (byte) 0xF1;
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.decode(invalidPiece, board));
+
+        final byte[] invalidState = valid.clone();
+        invalidState[valid.length - 6] = (byte) 0xF0;
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.decode(invalidState, board));
+
+        final byte[] invalidFullmoveNumber = valid.clone();
+        invalidFullmoveNumber[valid.length - 1] = 0;
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.decode(invalidFullmoveNumber, board));
+
+        board.setHalfmoveClock(0x10000);
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.encode(board));
+    }
+}
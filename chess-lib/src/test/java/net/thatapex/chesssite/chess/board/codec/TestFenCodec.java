@@ -0,0 +1,101 @@
+package net.thatapex.chesssite.chess.board.codec;
+
+import net.thatapex.chesssite.chess.board.CastlingRights;
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.board.setup.ClassicalChessGameBoardSetup;
+import net.thatapex.chesssite.chess.board.setup.FenBoardSetup;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.CharBuffer;
+
+import static com.spotify.hamcrest.optional.OptionalMatchers.optionalWithValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestFenCodec {
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testStartingPosition(final ChessBoardImplementation implementation) {
+        final MutableChessBoard expected = implementation.createBoard();
+        final MutableChessBoard board    = implementation.createBoard();
+
+        new ClassicalChessGameBoardSetup().setup(expected);
+        new FenBoardSetup(FenCodec.STARTING_POSITION).setup(board);
+
+        assertThat("invalid starting position", board, is(equalTo(expected)));
+        assertThat("invalid starting position FEN", FenCodec.encode(expected), is(equalTo(FenCodec.STARTING_POSITION)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testDecode(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
+
+        // the input does not have to be a String
+        FenCodec.decode(CharBuffer.wrap("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w Kq f6 0 3".toCharArray()), board);
+
+        assertThat(board.getPiece(ChessSquare.fromChessNotation("f5").orElseThrow(), ChessPieceType.PAWN, ChessPieceColor.BLACK), is(optionalWithValue()));
+        assertThat(board.getPiece(ChessSquare.fromChessNotation("e5").orElseThrow(), ChessPieceType.PAWN, ChessPieceColor.WHITE), is(optionalWithValue()));
+        assertThat(board.getPiece(ChessSquare.fromChessNotation("a8").orElseThrow(), ChessPieceType.ROOK, ChessPieceColor.BLACK), is(optionalWithValue()));
+        assertThat(board.getSideToMove(), is(equalTo(ChessPieceColor.WHITE)));
+        assertThat(board.getCastlingRightsFor(ChessPieceColor.WHITE), is(equalTo(CastlingRights.of(true, false))));
+        assertThat(board.getCastlingRightsFor(ChessPieceColor.BLACK), is(equalTo(CastlingRights.of(false, true))));
+        assertThat(board.getEnPassantSquare(), is(optionalWithValue(equalTo(ChessSquare.fromChessNotation("f6").orElseThrow()))));
+        assertThat(board.getHalfmoveClock(), is(equalTo(0)));
+        assertThat(board.getFullmoveNumber(), is(equalTo(3)));
+
+        // move counters are optional
+        FenCodec.decode("8/8/8/8/8/8/8/K6k b - -", board);
+        assertThat(board.getSideToMove(), is(equalTo(ChessPieceColor.BLACK)));
+        assertThat(board.getHalfmoveClock(), is(equalTo(0)));
+        assertThat(board.getFullmoveNumber(), is(equalTo(1)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            "rnbqkbnr/pp1ppppp/8/2p5/4P3/8/PPPP1PPP/RNBQKBNR w KQkq c6 0 2",
+            "4k3/8/8/8/8/8/8/4K2R b K - 99 120"
+    })
+    public void testRoundTrip(final String fen) {
+        for (final ChessBoardImplementation implementation : ChessBoardImplementation.values()) {
+            final MutableChessBoard board = implementation.createBoard();
+            FenCodec.decode(fen, board);
+
+            final StringBuilder builder = new StringBuilder("FEN: ");
+            FenCodec.encode(board, builder);
+
+            assertThat("FEN does not round trip", builder.toString(), is(equalTo("FEN: " + fen)));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+            "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkqK - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 x"
+    })
+    public void testInvalid(final String fen) {
+        assertThrows(IllegalArgumentException.class, () -> FenCodec.decode(fen, ChessBoardImplementation.BITBOARD.createBoard()));
+    }
+}
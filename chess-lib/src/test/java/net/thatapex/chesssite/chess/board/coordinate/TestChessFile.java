@@ -105,4 +105,15 @@ public class TestChessFile {
     public void testToString() {
         ToStringVerifier.forClass(ChessFile.class).withOnlyTheseFields("index").verify();
     }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2, 3, 4, 5, 6, 7})
+    public void testInterned(final int index) {
+        final ChessFile file = ChessFile.fromIndex(index).orElseThrow();
+
+        assertThat(ChessFile.fromIndex(index).orElseThrow(), is(sameInstance(file)));
+        assertThat(ChessFile.fromFileLetter(file.getFileLetter()).orElseThrow(), is(sameInstance(file)));
+        assertThat(ChessFile.fromIndex(0).orElseThrow().shift(index).orElseThrow(), is(sameInstance(file)));
+        assertThat(file.copy(), is(sameInstance(file)));
+    }
 }
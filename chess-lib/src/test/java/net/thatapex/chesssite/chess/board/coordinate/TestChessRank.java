@@ -106,4 +106,15 @@ public class TestChessRank {
     public void testToString() {
         ToStringVerifier.forClass(ChessRank.class).withOnlyTheseFields("index").verify();
     }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2, 3, 4, 5, 6, 7})
+    public void testInterned(final int index) {
+        final ChessRank rank = ChessRank.fromIndex(index).orElseThrow();
+
+        assertThat(ChessRank.fromIndex(index).orElseThrow(), is(sameInstance(rank)));
+        assertThat(ChessRank.fromRankNumber(rank.getRankNumber()).orElseThrow(), is(sameInstance(rank)));
+        assertThat(ChessRank.fromIndex(0).orElseThrow().shift(index).orElseThrow(), is(sameInstance(rank)));
+        assertThat(rank.copy(), is(sameInstance(rank)));
+    }
 }
@@ -10,6 +10,7 @@ import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class TestChessSquare {
 
@@ -214,4 +215,32 @@ public class TestChessSquare {
         testFromChessNotationSingle("a1", 0, 0);
         testFromChessNotationSingle("h8", 7, 7);
     }
+
+    @Test
+    public void testIndex() {
+        assertThat(ChessSquare.fromChessNotation("a1").orElseThrow().index(), is(equalTo(0)));
+        assertThat(ChessSquare.fromChessNotation("h1").orElseThrow().index(), is(equalTo(7)));
+        assertThat(ChessSquare.fromChessNotation("a2").orElseThrow().index(), is(equalTo(8)));
+        assertThat(ChessSquare.fromChessNotation("e4").orElseThrow().index(), is(equalTo(28)));
+        assertThat(ChessSquare.fromChessNotation("h8").orElseThrow().index(), is(equalTo(63)));
+
+        for (int index = 0; index < ChessSquare.SQUARE_COUNT; index++) {
+            final ChessSquare square = ChessSquare.ofIndex(index);
+
+            assertThat(square.index(), is(equalTo(index)));
+            assertThat(newSquareOrThrow(square.getFile().getIndex(), square.getRank().getIndex()).index(), is(equalTo(index)));
+        }
+    }
+
+    @Test
+    public void testInterned() {
+        for (int index = 0; index < ChessSquare.SQUARE_COUNT; index++) {
+            final ChessSquare square = ChessSquare.ofIndex(index);
+
+            assertThat(ChessSquare.of(square.getFile(), square.getRank()), is(sameInstance(square)));
+            assertThat(ChessSquare.fromChessNotation(square.toChessNotation()).orElseThrow(), is(sameInstance(square)));
+            assertThat(ChessSquare.ofIndex(0).getShifted(square.getFile().getIndex(), square.getRank().getIndex()).orElseThrow(), is(sameInstance(square)));
+            assertThat(newSquareOrThrow(square.getFile().getIndex(), square.getRank().getIndex()), is(equalTo(square)));
+        }
+    }
 }
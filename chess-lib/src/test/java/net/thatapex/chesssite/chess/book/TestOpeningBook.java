@@ -0,0 +1,187 @@
+package net.thatapex.chesssite.chess.book;
+
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.move.AlgebraicNotation;
+import net.thatapex.chesssite.chess.move.Moves;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestOpeningBook {
+    private static final String PGN = String.join("\n",
+            "[Event \"Test [1]\"]",
+            "[White \"A \\\"B\\\" C\"]",
+            "[Result \"1-0\"]",
+            "",
+            "1. e4 e5 2. Nf3 {a comment (with parentheses)} Nc6 (2... d6 3. d4 (3. Bc4)) 3. Bb5 $1 a6 1-0",
+            "",
+            "[Event \"Test 2\"]",
+            "",
+            "1. e4 c5 2. Nf3 ; a line comment 3. d4",
+            "d6 1/2-1/2",
+            "",
+            "1.d4 d5 2.c4",
+            "",
+            "[Event \"Test 4\"]",
+            "[SetUp \"1\"]",
+            "[FEN \"4k3/8/8/8/8/8/8/4K3 w - - 0 1\"]",
+            "",
+            "1. Kf2 *",
+            "",
+            "1. e4 e5 2. Ke3 Nc6 0-1",
+            "");
+
+    private Path directory;
+
+    @BeforeEach
+    public void createDirectory() throws IOException {
+        this.directory = Files.createTempDirectory("book");
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws IOException {
+        try (final Stream<Path> paths = Files.walk(this.directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testBuildAndLookup(final ChessBoardImplementation implementation) throws IOException {
+        final OpeningBookBuilder builder = new OpeningBookBuilder(3);
+
+        assertThat(builder.addPgn(new StringReader(PGN)), is(equalTo(5)));
+        assertThat(builder.getGameCount(), is(equalTo(5)));
+        assertThat(builder.getInvalidGameCount(), is(equalTo(1)));
+        assertThat(builder.getPositionCount(), is(equalTo(6)));
+        assertThat(builder.write(this.directory.resolve("book.csob"), 1), is(equalTo(8)));
+
+        final OpeningBook       book  = OpeningBook.open(this.directory.resolve("book.csob"));
+        final MutableChessBoard board = implementation.createBoard();
+
+        assertThat(book.size(), is(equalTo(8)));
+
+        // the moves before the illegal move are added
+        assertEntries(book, board, "", "e2e4 3", "d2d4 1");
+        assertEntries(book, board, "e4", "e7e5 2", "c7c5 1");
+        assertEntries(book, board, "e4 e5", "g1f3 1");
+        assertEntries(book, board, "d4 d5", "c2c4 1");
+
+        // beyond the added plies, and never played
+        assertEntries(book, board, "e4 e5 Nf3");
+        assertEntries(book, board, "a3");
+    }
+
+    @Test
+    public void testMinimumWeight() throws IOException {
+        final OpeningBookBuilder builder = new OpeningBookBuilder(OpeningBookBuilder.DEFAULT_MAX_PLIES);
+
+        builder.addPgn(new StringReader(PGN));
+
+        assertThat(builder.write(this.directory.resolve("book.csob"), 2), is(equalTo(2)));
+        assertThat(OpeningBook.open(this.directory.resolve("book.csob")).size(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testSelectMove() throws IOException {
+        final OpeningBookBuilder builder = new OpeningBookBuilder(OpeningBookBuilder.DEFAULT_MAX_PLIES);
+
+        builder.addPgn(new StringReader(PGN));
+        builder.write(this.directory.resolve("book.csob"), 1);
+
+        final OpeningBook       book   = OpeningBook.open(this.directory.resolve("book.csob"));
+        final MutableChessBoard board  = ChessBoardImplementation.values()[0].createBoard();
+        final Random            random = new Random(0);
+        int                     e4     = 0;
+
+        FenCodec.decode(FenCodec.STARTING_POSITION, board);
+
+        // e4 has three times the weight of d4
+        for (int i = 0; i < 1000; i++) {
+            final String move = Moves.toNotation(book.selectMove(board, random));
+
+            if (move.equals("e2e4")) {
+                e4++;
+            } else {
+                assertThat(move, is(equalTo("d2d4")));
+            }
+        }
+
+        assertThat(e4, is(greaterThan(650)));
+        assertThat(e4, is(lessThan(850)));
+
+        FenCodec.decode("4k3/8/8/8/8/8/8/4K3 w - - 0 1", board);
+        assertThat(book.selectMove(board, random), is(equalTo(Moves.NONE)));
+        assertThat(OpeningBook.empty().selectMove(board, random), is(equalTo(Moves.NONE)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testTransposition(final ChessBoardImplementation implementation) throws IOException {
+        final OpeningBookBuilder builder = new OpeningBookBuilder(OpeningBookBuilder.DEFAULT_MAX_PLIES);
+
+        // the double push of the second game allows no capture en passant, so both games reach the same position
+        builder.addPgn(new StringReader("1. e4 Nf6 2. Nc3 d5 *\n\n1. Nc3 Nf6 2. e4 d5 *\n"));
+        builder.write(this.directory.resolve("book.csob"), 1);
+
+        final OpeningBook       book  = OpeningBook.open(this.directory.resolve("book.csob"));
+        final MutableChessBoard board = implementation.createBoard();
+
+        assertEntries(book, board, "e4 Nf6 Nc3", "d7d5 2");
+        assertEntries(book, board, "Nc3 Nf6 e4", "d7d5 2");
+    }
+
+    @Test
+    public void testInvalidFile() throws IOException {
+        final Path path = this.directory.resolve("book.csob");
+
+        new OpeningBookBuilder(1).write(path, 1);
+        assertThat(OpeningBook.open(path).size(), is(equalTo(0)));
+
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        assertThrows(IOException.class, () -> OpeningBook.open(path));
+
+        Files.write(path, new byte[3]);
+        assertThrows(IOException.class, () -> OpeningBook.open(path));
+    }
+
+    private static void assertEntries(final OpeningBook book, final MutableChessBoard board, final String moves, final String... expected) {
+        final AlgebraicNotation notation = new AlgebraicNotation();
+
+        FenCodec.decode(FenCodec.STARTING_POSITION, board);
+
+        for (final String san : moves.split(" ")) {
+            if (!san.isEmpty()) {
+                board.makeMove(notation.parse(board, san));
+            }
+        }
+
+        final List<String> entries = book.getEntries(board).stream()
+                                         .map(entry -> Moves.toNotation(entry.getMove()) + " " + entry.getWeight())
+                                         .collect(Collectors.toList());
+
+        assertThat(moves, entries, contains((Object[]) expected));
+    }
+}
@@ -0,0 +1,168 @@
+package net.thatapex.chesssite.chess.game;
+
+import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import net.thatapex.chesssite.chess.move.PotentialMove;
+import net.thatapex.chesssite.chess.move.Promotion;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestGame {
+
+    private Game createGame(final ChessBoardImplementation implementation, final String fen) {
+        final MutableChessBoard board = implementation.createBoard();
+        FenCodec.decode(fen, board);
+        return new Game(board);
+    }
+
+    /**
+     * Plays moves given in the coordinate notation, for example 'e2e4' or 'e7e8q'.
+     */
+    private void play(final Game game, final String... moves) {
+        for (final String move : moves) {
+            final ChessSquare from      = ChessSquare.fromChessNotation(move.substring(0, 2)).orElseThrow();
+            final ChessSquare to        = ChessSquare.fromChessNotation(move.substring(2, 4)).orElseThrow();
+            final Promotion   promotion = move.length() > 4 ? new Promotion(ChessPieceType.getByNotationCharacter(Character.toUpperCase(move.charAt(4))).orElseThrow()) : null;
+
+            assertThat("move " + move + " is not legal", game.makeMove(from, new PotentialMove(to, promotion)), is(true));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testMoveHistory(final ChessBoardImplementation implementation) {
+        final Game game = this.createGame(implementation, FenCodec.STARTING_POSITION);
+
+        assertThat(game.getStatus(), is(equalTo(GameStatus.IN_PROGRESS)));
+        assertThat(game.getLegalMoves(new int[MoveGenerator.MAX_MOVES]), is(equalTo(20)));
+
+        this.play(game, "e2e4", "e7e5", "g1f3");
+
+        assertThat(game.getMoveCount(), is(equalTo(3)));
+        assertThat(game.getMoves().length, is(equalTo(3)));
+        assertThat(game.getMove(2), is(equalTo(game.getMoves()[2])));
+        assertThat(game.getPositionKeys().length, is(equalTo(4)));
+        assertThat(game.getPositionKeys()[3], is(equalTo(game.getBoard().getPositionKey())));
+        assertThat(game.getBoard().getFullmoveNumber(), is(equalTo(2)));
+        assertThat(FenCodec.encode(game.getBoard()), is(equalTo("rnbqkbnr/pppp1ppp/8/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 1 2")));
+
+        // the snapshots of the positions do not change as the game goes on
+        final ChessBoard position = game.getPosition(3);
+
+        assertThat(position, is(equalTo(game.getBoard())));
+        assertThat(FenCodec.encode(game.getPosition(0)), is(equalTo(FenCodec.STARTING_POSITION)));
+        assertThat(FenCodec.encode(game.getPosition(1)), is(equalTo("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1")));
+
+        // illegal moves are rejected without changing the game
+        assertThat(game.makeMove(ChessSquare.fromChessNotation("e5").orElseThrow(), new PotentialMove(ChessSquare.fromChessNotation("e4").orElseThrow(), null)), is(false));
+        assertThat(game.getMoveCount(), is(equalTo(3)));
+
+        game.undoMove();
+        game.undoMove();
+        game.undoMove();
+
+        assertThat(FenCodec.encode(game.getBoard()), is(equalTo(FenCodec.STARTING_POSITION)));
+        assertThat(FenCodec.encode(position), is(equalTo("rnbqkbnr/pppp1ppp/8/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 1 2")));
+        assertThrows(IllegalStateException.class, game::undoMove);
+        assertThrows(IndexOutOfBoundsException.class, () -> game.getMove(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> game.getPosition(1));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testCheckmateAndStalemate(final ChessBoardImplementation implementation) {
+        final Game game = this.createGame(implementation, FenCodec.STARTING_POSITION);
+
+        this.play(game, "f2f3", "e7e5", "g2g4", "d8h4");
+
+        assertThat(game.getStatus(), is(equalTo(GameStatus.CHECKMATE)));
+        assertThat(game.getStatus().isDraw(), is(false));
+        assertThat(game.isInCheck(), is(true));
+        assertThat(game.getLegalMoves(new int[MoveGenerator.MAX_MOVES]), is(equalTo(0)));
+        assertThrows(IllegalStateException.class, () -> this.play(game, "e1f2"));
+
+        // the game continues after the mating move is taken back
+        game.undoMove();
+        assertThat(game.getStatus(), is(equalTo(GameStatus.IN_PROGRESS)));
+
+        final Game stalemate = this.createGame(implementation, "7k/8/5Q2/6K1/8/8/8/8 w - - 0 1");
+        this.play(stalemate, "f6f7");
+
+        assertThat(stalemate.getStatus(), is(equalTo(GameStatus.STALEMATE)));
+        assertThat(stalemate.getStatus().isDraw(), is(true));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testRepetition(final ChessBoardImplementation implementation) {
+        final Game game = this.createGame(implementation, FenCodec.STARTING_POSITION);
+
+        this.play(game, "g1f3", "g8f6", "f3g1", "f6g8");
+        assertThat(game.getRepetitionCount(), is(equalTo(2)));
+        assertThat(game.canClaimDraw(), is(false));
+        assertThat(game.claimDraw(), is(false));
+
+        this.play(game, "g1f3", "g8f6", "f3g1", "f6g8");
+        assertThat(game.getRepetitionCount(), is(equalTo(3)));
+        assertThat(game.canClaimDraw(), is(true));
+
+        // the players may continue instead of claiming the draw
+        this.play(game, "b1c3", "b8c6", "c3b1", "c6b8", "g1f3", "g8f6", "f3g1");
+        assertThat(game.getStatus(), is(equalTo(GameStatus.IN_PROGRESS)));
+
+        this.play(game, "f6g8");
+        assertThat(game.getRepetitionCount(), is(equalTo(5)));
+        assertThat(game.getStatus(), is(equalTo(GameStatus.DRAW_BY_FIVEFOLD_REPETITION)));
+
+        game.undoMove();
+        assertThat(game.getRepetitionCount(), is(equalTo(3)));
+        assertThat(game.claimDraw(), is(true));
+        assertThat(game.getStatus(), is(equalTo(GameStatus.DRAW_BY_THREEFOLD_REPETITION)));
+
+        // a pawn move makes all previous positions unrepeatable
+        final Game pawnMove = this.createGame(implementation, FenCodec.STARTING_POSITION);
+        this.play(pawnMove, "g1f3", "g8f6", "f3g1", "f6g8", "e2e3", "e7e6", "g1f3", "g8f6", "f3g1", "f6g8");
+        assertThat(pawnMove.getRepetitionCount(), is(equalTo(2)));
+
+        // the position after a double push repeats if no pawn can capture en passant
+        final Game doublePush = this.createGame(implementation, FenCodec.STARTING_POSITION);
+        this.play(doublePush, "e2e4", "g8f6", "g1f3", "f6g8", "f3g1", "g8f6", "g1f3", "f6g8", "f3g1");
+        assertThat(doublePush.getRepetitionCount(), is(equalTo(3)));
+        assertThat(doublePush.canClaimDraw(), is(true));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testMoveRules(final ChessBoardImplementation implementation) {
+        final Game game = this.createGame(implementation, "4k3/8/8/8/8/8/4P3/R3K3 w Q - 98 80");
+
+        this.play(game, "a1a2");
+        assertThat(game.canClaimDraw(), is(false));
+
+        this.play(game, "e8d8");
+        assertThat(game.canClaimDraw(), is(true));
+
+        // a pawn move resets the clock
+        this.play(game, "e2e4");
+        assertThat(game.canClaimDraw(), is(false));
+
+        final Game seventyFive = this.createGame(implementation, "4k3/8/8/8/8/8/4P3/R3K3 w Q - 149 80");
+        this.play(seventyFive, "a1a2");
+        assertThat(seventyFive.getStatus(), is(equalTo(GameStatus.DRAW_BY_SEVENTY_FIVE_MOVE_RULE)));
+
+        // checkmate takes precedence
+        final Game checkmate = this.createGame(implementation, "4k3/R7/4K3/8/8/8/8/8 w - - 149 80");
+        this.play(checkmate, "a7a8");
+        assertThat(checkmate.getStatus(), is(equalTo(GameStatus.CHECKMATE)));
+    }
+}
@@ -0,0 +1,74 @@
+package net.thatapex.chesssite.chess.move;
+
+import net.thatapex.chesssite.chess.board.ChessBoard;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+
+public class MoveTestHelpers {
+
+    /**
+     * Sets up pieces from the piece placement field of a FEN string, for example 'rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR'.
+     */
+    public static void setupPlacement(final MutableChessBoard board, final String placement) {
+        board.clearPieces();
+
+        int rank = 7;
+        int file = 0;
+
+        for (final char character : placement.toCharArray()) {
+            if (character == '/') {
+                rank--;
+                file = 0;
+            } else if (Character.isDigit(character)) {
+                file += character - '0';
+            } else {
+                final ChessPieceColor   color = Character.isUpperCase(character) ? ChessPieceColor.WHITE : ChessPieceColor.BLACK;
+                final char              upper = Character.toUpperCase(character);
+                final ChessPieceType<?> type  = upper == 'P' ? ChessPieceType.PAWN : ChessPieceType.getByNotationCharacter(upper).orElseThrow();
+
+                board.setPiece(ChessSquare.ofIndex(rank * 8 + file), type.instantiatePiece(color));
+                file++;
+            }
+        }
+    }
+
+    /**
+     * Finds the legal move given in the coordinate notation, for example 'e2e4' or 'e7e8q'.
+     */
+    public static int findMove(final ChessBoard board, final String notation) {
+        final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        final int   count = new MoveGenerator().generateLegalMoves(board, moves);
+
+        for (int i = 0; i < count; i++) {
+            if (Moves.toNotation(moves[i]).equals(notation)) {
+                return moves[i];
+            }
+        }
+
+        throw new AssertionError("move " + notation + " is not legal");
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree of the given depth.
+     */
+    public static long perft(final MutableChessBoard board, final int depth) {
+        final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        final int   count = new MoveGenerator().generateLegalMoves(board, moves);
+
+        if (depth == 1) {
+            return count;
+        }
+
+        long nodes = 0;
+
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            nodes += perft(board, depth - 1);
+            board.unmakeMove();
+        }
+
+        return nodes;
+    }
+}
@@ -0,0 +1,135 @@
+package net.thatapex.chesssite.chess.move;
+
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestAlgebraicNotation {
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @ParameterizedTest
+    @CsvSource({
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1, e4, e2e4",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1, Nf3, g1f3",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1, O-O, e1g1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1, 0-0-0, e1c1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1, dxe6, d5e6",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1, Qxf6+!, f3f6",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1, Bxa6, e2a6",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1, gxh3, g2h3",
+            // disambiguation by the file, by the rank, and by both
+            "4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1, Nbd2, b1d2",
+            "4k3/8/8/R7/8/8/8/R3K3 w - - 0 1, R1a3, a1a3",
+            "4k3/8/8/8/8/Q1Q5/8/Q3K3 w - - 0 1, Qa3b2, a3b2",
+            // promotions, with or without the sign
+            "3r4/4P3/8/8/8/8/8/k3K3 w - - 0 1, e8=Q+, e7e8q",
+            "3r4/4P3/8/8/8/8/8/k3K3 w - - 0 1, exd8N, e7d8n",
+            // en passant
+            "4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1, exd6, e5d6"
+    })
+    public void testParse(final String fen, final String san, final String expected) {
+        for (final ChessBoardImplementation implementation : ChessBoardImplementation.values()) {
+            final MutableChessBoard board = implementation.createBoard();
+
+            FenCodec.decode(fen, board);
+
+            assertThat(san, Moves.toNotation(new AlgebraicNotation().parse(board, san)), is(equalTo(expected)));
+        }
+    }
+
+    @Test
+    public void testParseInvalid() {
+        final MutableChessBoard board    = ChessBoardImplementation.values()[0].createBoard();
+        final AlgebraicNotation notation = new AlgebraicNotation();
+
+        FenCodec.decode(KIWIPETE, board);
+
+        // illegal, ambiguous and malformed moves
+        for (final String san : new String[]{"", "e5", "Ng3", "Rh3", "Qxh8", "Zf3", "Pa3", "f3g4", "e9", "O-O-O-O"}) {
+            assertThrows(IllegalArgumentException.class, () -> notation.parse(board, san), san);
+        }
+
+        FenCodec.decode("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1", board);
+        assertThrows(IllegalArgumentException.class, () -> notation.parse(board, "Nd2"));
+
+        FenCodec.decode("3r4/4P3/8/8/8/8/8/k3K3 w - - 0 1", board);
+
+        for (final String san : new String[]{"e8", "e8=K", "e8=P", "exd8"}) {
+            assertThrows(IllegalArgumentException.class, () -> notation.parse(board, san), san);
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1, e2e4, e4",
+            "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1, g8f6, Nf6",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1, e1g1, O-O",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1, e1c1, O-O-O",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1, d5e6, dxe6",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1, f3f6, Qxf6",
+            // disambiguation by the file, by the rank, and by both
+            "4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1, b1d2, Nbd2",
+            "4k3/8/8/R7/8/8/8/R3K3 w - - 0 1, a1a3, R1a3",
+            "4k3/8/8/8/8/Q1Q5/8/Q3K3 w - - 0 1, a3b2, Qa3b2",
+            // promotions, en passant, check and mate
+            "3r4/4P3/8/8/8/8/8/k3K3 w - - 0 1, e7e8q, e8=Q",
+            "3r4/4P3/8/8/8/8/8/k3K3 w - - 0 1, e7d8n, exd8=N",
+            "4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1, e5d6, exd6",
+            "4k3/8/8/8/8/8/8/R3K3 w - - 0 1, a1a8, Ra8+",
+            "r1bqkbnr/pppp1ppp/2n5/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4, h5f7, Qxf7#"
+    })
+    public void testFormat(final String fen, final String move, final String expected) {
+        for (final ChessBoardImplementation implementation : ChessBoardImplementation.values()) {
+            final MutableChessBoard board    = implementation.createBoard();
+            final AlgebraicNotation notation = new AlgebraicNotation();
+
+            FenCodec.decode(fen, board);
+
+            final int encoded = MoveTestHelpers.findMove(board, move);
+
+            assertThat(move, notation.format(board, encoded), is(equalTo(expected)));
+            assertThat(move, notation.parse(board, expected), is(equalTo(encoded)));
+            assertThat(FenCodec.encode(board), is(equalTo(fen)));
+        }
+    }
+
+    @Test
+    public void testFormatIllegal() {
+        final MutableChessBoard board    = ChessBoardImplementation.values()[0].createBoard();
+        final AlgebraicNotation notation = new AlgebraicNotation();
+
+        FenCodec.decode(KIWIPETE, board);
+
+        final int move = MoveTestHelpers.findMove(board, "e1g1");
+
+        FenCodec.decode("4k3/8/8/8/8/8/8/4K3 w - - 0 1", board);
+        assertThrows(IllegalArgumentException.class, () -> notation.format(board, move));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testParseGame(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board    = implementation.createBoard();
+        final AlgebraicNotation notation = new AlgebraicNotation();
+
+        FenCodec.decode(FenCodec.STARTING_POSITION, board);
+
+        for (final String san : "e4 e5 Nf3 Nc6 Bb5 a6 Ba4 Nf6 O-O Be7 Re1 b5 Bb3 d6 c3 O-O h3 Nb8 d4 Nbd7".split(" ")) {
+            final int move = notation.parse(board, san);
+
+            assertThat(notation.format(board, move), is(equalTo(san)));
+            board.makeMove(move);
+        }
+
+        assertThat(FenCodec.encode(board), is(equalTo("r1bq1rk1/2pnbppp/p2p1n2/1p2p3/3PP3/1BP2N1P/PP3PP1/RNBQR1K1 w - - 1 11")));
+    }
+}
@@ -0,0 +1,140 @@
+package net.thatapex.chesssite.chess.move;
+
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.bitboard.Bitboards;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class TestAttackMap {
+
+    private Collection<ChessSquare> toSquares(final long bitboard) {
+        final Collection<ChessSquare> squares = new ArrayList<>();
+        Bitboards.addSquares(bitboard, squares);
+        return squares;
+    }
+
+    private Object[] squares(final String... notations) {
+        final Collection<ChessSquare> squares = new ArrayList<>();
+
+        for (final String notation : notations) {
+            squares.add(ChessSquare.fromChessNotation(notation).orElseThrow());
+        }
+
+        return squares.toArray();
+    }
+
+    private AttackMap compute(final MutableChessBoard board, final String fen) {
+        FenCodec.decode(fen, board);
+        return new AttackMap().compute(board, board.getSideToMove());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testAttackedSquares(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
+        FenCodec.decode(FenCodec.STARTING_POSITION, board);
+
+        final long attacked = AttackMap.computeAttackedSquares(board, ChessPieceColor.WHITE);
+
+        assertThat(Bitboards.count(attacked & Bitboards.rankMask(ChessSquare.fromChessNotation("a3").orElseThrow().getRank())), is(equalTo(8)));
+        assertThat(Bitboards.contains(attacked, ChessSquare.fromChessNotation("e4").orElseThrow().index()), is(false));
+        assertThat(Bitboards.contains(attacked, ChessSquare.fromChessNotation("a1").orElseThrow().index()), is(false));
+        assertThat(Bitboards.contains(attacked, ChessSquare.fromChessNotation("d1").orElseThrow().index()), is(true));
+
+        // the rook on e8 sees through the king, so it cannot step back to e1
+        final AttackMap map = this.compute(board, "4r2k/8/8/8/8/8/8/4K3 w - - 0 1");
+        assertThat(map.isInCheck(), is(true));
+        assertThat(map.isAttacked(ChessSquare.fromChessNotation("e1").orElseThrow().index()), is(true));
+        assertThat(toSquares(map.getCheckers()), containsInAnyOrder(squares("e8")));
+        assertThat(toSquares(map.getCheckMask()), containsInAnyOrder(squares("e8", "e7", "e6", "e5", "e4", "e3", "e2")));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testPins(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
+
+        // the e4 queen pins the e2 rook and the b4 bishop pins the d2 knight, the e8 rook is blocked by the queen
+        final AttackMap map = this.compute(board, "4r2k/8/8/8/1b2q3/6P1/3NRP2/4K2b w - - 0 1");
+
+        assertThat(toSquares(map.getPinnedPieces()), containsInAnyOrder(squares("d2", "e2")));
+        assertThat(map.isInCheck(), is(false));
+        assertThat(map.getCheckMask(), is(equalTo(Bitboards.ALL)));
+        assertThat(map.getPinRay(ChessSquare.fromChessNotation("e2").orElseThrow().index()), is(equalTo(Bitboards.fileMask(ChessSquare.fromChessNotation("e2").orElseThrow().getFile()))));
+        assertThat(map.getPinRay(ChessSquare.fromChessNotation("f2").orElseThrow().index()), is(equalTo(Bitboards.ALL)));
+
+        // double check leaves only king moves
+        final AttackMap doubleCheck = this.compute(board, "4r2k/8/8/8/1b6/8/8/4K3 w - - 0 1");
+        assertThat(Bitboards.count(doubleCheck.getCheckers()), is(equalTo(2)));
+        assertThat(doubleCheck.getCheckMask(), is(equalTo(Bitboards.EMPTY)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testGameEnd(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
+
+        // fool's mate
+        AttackMap map = this.compute(board, "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        assertThat(map.isCheckmate(), is(true));
+        assertThat(map.isStalemate(), is(false));
+
+        map = this.compute(board, "7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        assertThat(map.isCheckmate(), is(false));
+        assertThat(map.isStalemate(), is(true));
+
+        // the check can only be resolved by an en passant capture
+        map = this.compute(board, "8/8/8/2k5/3Pp3/8/8/7K b - d3 0 1");
+        assertThat(map.isInCheck(), is(true));
+        assertThat(map.isCheckmate(), is(false));
+
+        // the en passant capture would expose the king along the rank
+        map = this.compute(board, "8/8/8/8/k2Pp2Q/8/8/3K4 b - d3 0 1");
+        assertThat(map.hasLegalMoves(), is(true));
+        assertThat(map.isEnPassantLegal(ChessSquare.fromChessNotation("e4").orElseThrow().index(), -8), is(false));
+
+        map = this.compute(board, FenCodec.STARTING_POSITION);
+        assertThat(map.isCheckmate(), is(false));
+        assertThat(map.isStalemate(), is(false));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testAgainstMoveGenerator(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board     = implementation.createBoard();
+        final MoveGenerator     generator = new MoveGenerator();
+        final AttackMap         map       = new AttackMap();
+        final int[]             moves     = new int[MoveGenerator.MAX_MOVES];
+        final Random            random    = new Random(7);
+
+        for (int game = 0; game < 50; game++) {
+            FenCodec.decode(FenCodec.STARTING_POSITION, board);
+
+            for (int ply = 0; ply < 300; ply++) {
+                final int count = generator.generateLegalMoves(board, moves);
+
+                map.compute(board, board.getSideToMove());
+                assertThat("legal move existence differs", map.hasLegalMoves(), is(equalTo(count > 0)));
+
+                if (count == 0) {
+                    break;
+                }
+
+                board.makeMove(moves[random.nextInt(count)]);
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package net.thatapex.chesssite.chess.move;
+
+import net.thatapex.chesssite.chess.board.CastlingRights;
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.board.setup.ClassicalChessGameBoardSetup;
+import net.thatapex.chesssite.chess.pieces.ChessPieceColor;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+public class TestMoveGenerator {
+
+    private Set<String> generateMoves(final MutableChessBoard board, final ChessPieceColor color) {
+        final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        final int   count = new MoveGenerator().generateLegalMoves(board, color, moves);
+
+        return Arrays.stream(moves, 0, count).mapToObj(Moves::toNotation).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testStartingPosition(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
+        new ClassicalChessGameBoardSetup().setup(board);
+
+        assertThat(this.generateMoves(board, ChessPieceColor.WHITE).size(), is(equalTo(20)));
+        assertThat(this.generateMoves(board, ChessPieceColor.BLACK).size(), is(equalTo(20)));
+
+        assertThat(MoveTestHelpers.perft(board, 2), is(equalTo(400L)));
+        assertThat(MoveTestHelpers.perft(board, 3), is(equalTo(8902L)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testBufferOffset(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
+        new ClassicalChessGameBoardSetup().setup(board);
+
+        final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        final int   count = new MoveGenerator().generateLegalMoves(board, ChessPieceColor.WHITE, moves, 100);
+
+        assertThat(count, is(equalTo(20)));
+        assertThat(moves[99], is(equalTo(Moves.NONE)));
+        assertThat(moves[100], is(not(equalTo(Moves.NONE))));
+        assertThat(moves[120], is(equalTo(Moves.NONE)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testCastling(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
+        MoveTestHelpers.setupPlacement(board, "r3k2r/8/8/8/8/8/8/R3K2R");
+
+        assertThat(this.generateMoves(board, ChessPieceColor.WHITE), hasItem("e1g1"));
+        assertThat(this.generateMoves(board, ChessPieceColor.WHITE), hasItem("e1c1"));
+
+        board.setCastlingRightsFor(ChessPieceColor.WHITE, CastlingRights.of(false, true));
+        assertThat(this.generateMoves(board, ChessPieceColor.WHITE), not(hasItem("e1g1")));
+
+        // f8 rook attacks f1, which the king would have to pass
+        MoveTestHelpers.setupPlacement(board, "r3kr2/8/8/8/8/8/8/R3K2R");
+        board.setCastlingRightsFor(ChessPieceColor.WHITE, CastlingRights.of(true, true));
+        assertThat(this.generateMoves(board, ChessPieceColor.WHITE), not(hasItem("e1g1")));
+        assertThat(this.generateMoves(board, ChessPieceColor.WHITE), hasItem("e1c1"));
+
+        // b1 may be attacked, only the squares the king passes matter
+        MoveTestHelpers.setupPlacement(board, "1r2k3/8/8/8/8/8/8/R3K2R");
+        assertThat(this.generateMoves(board, ChessPieceColor.WHITE), hasItem("e1c1"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testEnPassant(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
+        MoveTestHelpers.setupPlacement(board, "4k3/8/8/3pP3/8/8/8/4K3");
+        board.setEnPassantSquare(ChessSquare.fromChessNotation("d6").orElseThrow());
+
+        assertThat(this.generateMoves(board, ChessPieceColor.WHITE), hasItem("e5d6"));
+
+        // capturing en passant would expose the king to the rook on the fifth rank
+        MoveTestHelpers.setupPlacement(board, "4k3/8/8/r2pP2K/8/8/8/8");
+        assertThat(this.generateMoves(board, ChessPieceColor.WHITE), not(hasItem("e5d6")));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testPromotions(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
+        MoveTestHelpers.setupPlacement(board, "3r3k/4P3/8/8/8/8/8/K7");
+
+        final Set<String> moves = this.generateMoves(board, ChessPieceColor.WHITE);
+
+        for (final String promotion : new String[]{"q", "r", "b", "n"}) {
+            assertThat(moves, hasItem("e7e8" + promotion));
+            assertThat(moves, hasItem("e7d8" + promotion));
+        }
+
+        final int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        final int   count  = new MoveGenerator().generateLegalMoves(board, ChessPieceColor.WHITE, buffer);
+        final int   move   = Moves.find(buffer, count, ChessSquare.fromChessNotation("e7").orElseThrow(), new PotentialMove(ChessSquare.fromChessNotation("d8").orElseThrow(), new Promotion(ChessPieceType.KNIGHT)));
+
+        assertThat(Moves.isCapture(move), is(true));
+        assertThat(Moves.getPromotionType(move), is(equalTo(ChessPieceType.KNIGHT)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testPerft(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
+
+        // "Kiwipete"
+        MoveTestHelpers.setupPlacement(board, "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R");
+        assertThat(MoveTestHelpers.perft(board, 1), is(equalTo(48L)));
+        assertThat(MoveTestHelpers.perft(board, 2), is(equalTo(2039L)));
+
+        MoveTestHelpers.setupPlacement(board, "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8");
+        board.setCastlingRightsFor(ChessPieceColor.WHITE, CastlingRights.of(false, false));
+        board.setCastlingRightsFor(ChessPieceColor.BLACK, CastlingRights.of(false, false));
+        assertThat(MoveTestHelpers.perft(board, 3), is(equalTo(2812L)));
+
+        MoveTestHelpers.setupPlacement(board, "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R");
+        board.setCastlingRightsFor(ChessPieceColor.WHITE, CastlingRights.of(true, true));
+        assertThat(MoveTestHelpers.perft(board, 2), is(equalTo(1486L)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testStagedGeneration(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board     = implementation.createBoard();
+        final MoveGenerator     generator = new MoveGenerator();
+        final int[]             moves     = new int[MoveGenerator.MAX_MOVES];
+        final int[]             staged    = new int[MoveGenerator.MAX_MOVES];
+        final Random            random    = new Random(0);
+
+        // promotions with and without captures, en passant and castling
+        FenCodec.decode("r3k2r/1P1pqpb1/bn2pnp1/2pPN3/1p2P3/2N2Q1p/PpPBBPPP/R3K2R w KQkq c6 0 1", board);
+
+        for (int ply = 0; ply < 100; ply++) {
+            final int count    = generator.generateLegalMoves(board, moves);
+            final int captures = generator.generateLegalCaptures(board, staged, 0);
+            final int quiets   = generator.generateLegalQuietMoves(board, staged, captures);
+
+            assertThat(captures + quiets, is(equalTo(count)));
+            assertThat(Arrays.stream(staged, 0, count).boxed().collect(Collectors.toSet()),
+                       is(equalTo(Arrays.stream(moves, 0, count).boxed().collect(Collectors.toSet()))));
+
+            for (int i = 0; i < count; i++) {
+                final boolean tactical = Moves.isCapture(staged[i]) || Moves.isPromotion(staged[i]);
+
+                assertThat(Moves.toNotation(staged[i]), tactical, is(equalTo(i < captures)));
+            }
+
+            if (count == 0) {
+                break;
+            }
+
+            board.makeMove(moves[random.nextInt(count)]);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package net.thatapex.chesssite.chess.move;
+
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.bitboard.Bitboards;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestStaticExchange {
+
+    /**
+     * Positions, moves and the expected exchange results.
+     */
+    private static final String[][] EXCHANGES = {
+            // an undefended pawn
+            {"4k3/8/8/3p4/4P3/8/8/4K3 w - - 0 1", "e4d5", "1"},
+            // a pawn for a pawn
+            {"4k3/8/2p5/3p4/4P3/8/8/4K3 w - - 0 1", "e4d5", "0"},
+            // the queen for a pawn
+            {"4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1", "d1d5", "-8"},
+            // a rook for a pawn, unless the second rook backs the first one up
+            {"3rk3/8/8/3p4/8/8/8/3RK3 w - - 0 1", "d1d5", "-4"},
+            {"3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1", "d2d5", "1"},
+            // the king cannot take back a defended queen
+            {"8/8/4k3/3p4/8/8/8/3QK3 w - - 0 1", "d1d5", "-8"},
+            {"8/8/4k3/3p4/8/8/3Q4/3RK3 w - - 0 1", "d2d5", "1"},
+            // en passant
+            {"4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5d6", "1"},
+            // promotions, winning the rook and the new queen for the pawn, or just the rook
+            {"2r1k3/1P6/8/8/8/8/8/4K3 w - - 0 1", "b7c8q", "13"},
+            {"2rk4/1P6/8/8/8/8/8/4K3 w - - 0 1", "b7c8q", "4"},
+            // a quiet move to an attacked square
+            {"4k3/8/2p5/8/8/8/8/3QK3 w - - 0 1", "d1d5", "-9"},
+            {"4k3/8/2p5/8/8/8/8/3QK3 w - - 0 1", "d1d4", "0"}
+    };
+
+    private Collection<ChessSquare> toSquares(final long bitboard) {
+        final Collection<ChessSquare> squares = new ArrayList<>();
+        Bitboards.addSquares(bitboard, squares);
+        return squares;
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testExchanges(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board     = implementation.createBoard();
+        final StaticExchange    exchanges = new StaticExchange();
+
+        for (final String[] exchange : EXCHANGES) {
+            FenCodec.decode(exchange[0], board);
+
+            final int move     = MoveTestHelpers.findMove(board, exchange[1]);
+            final int expected = Integer.parseInt(exchange[2]);
+
+            assertThat(exchange[0], exchanges.evaluate(board, move), is(equalTo(expected)));
+            assertThat(exchange[0], exchanges.isAtLeast(board, move, 0), is(expected >= 0));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testAttackers(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board  = implementation.createBoard();
+        final int               square = ChessSquare.fromChessNotation("d5").orElseThrow().index();
+
+        FenCodec.decode("3rk3/8/4pn2/3p4/2P5/8/3R4/3RK3 w - - 0 1", board);
+
+        // the rook behind the other one only attacks once the first one is gone
+        assertThat(this.toSquares(StaticExchange.getAttackers(board, square, board.getOccupiedMask())),
+                   containsInAnyOrder(this.squares("c4", "e6", "f6", "d2", "d8")));
+        assertThat(this.toSquares(StaticExchange.getAttackers(board, square, board.getOccupiedMask() ^ Bitboards.squareMask(11))),
+                   containsInAnyOrder(this.squares("c4", "e6", "f6", "d2", "d1", "d8")));
+
+        // the board is not changed
+        assertThat(FenCodec.encode(board), is(equalTo("3rk3/8/4pn2/3p4/2P5/8/3R4/3RK3 w - - 0 1")));
+        assertThrows(IllegalArgumentException.class, () -> new StaticExchange().evaluate(board, Moves.encode(square + 1, square, 0)));
+    }
+
+    private Object[] squares(final String... notations) {
+        final Collection<ChessSquare> squares = new ArrayList<>();
+
+        for (final String notation : notations) {
+            squares.add(ChessSquare.fromChessNotation(notation).orElseThrow());
+        }
+
+        return squares.toArray();
+    }
+}
@@ -0,0 +1,270 @@
+package net.thatapex.chesssite.chess.pgn;
+
+import net.thatapex.chesssite.chess.move.Moves;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestPgnReader {
+    private static final String PGN = String.join("\n",
+            "% an escaped line",
+            "[Event \"Game \\\"1\\\"\"]",
+            "[White \"A\"]",
+            "[Black \"B\"]",
+            "[Result \"1-0\"]",
+            "",
+            "1. e4 {a comment [with] brackets} e5 2. Nf3 (2. f4 exf4 (2... d5) 3. Nf3) Nc6 $1 3.Bb5 a6 ; the rest 4. Bc4",
+            "4. Ba4 1-0",
+            "",
+            "[Event \"No result\"]",
+            "",
+            "1. d4 d5",
+            "",
+            "[Event \"Setup\"]",
+            "[SetUp \"1\"]",
+            "[FEN \"4k3/8/8/8/8/8/8/R3K3 b - - 0 30\"]",
+            "",
+            "30... Kd7 31. Ra7+ Kc6 0-1",
+            "",
+            "1.c4 e5 2.Nc3 *",
+            "");
+
+    private static final String INVALID_PGN = String.join("\n",
+            "[Event \"1\"]",
+            "",
+            "1. e4 e5 2. Ke3 Nc6 3. Nf3 0-1",
+            "",
+            "[Event \"2\"]",
+            "[White \"unterminated]",
+            "",
+            "1. e4 1-0",
+            "",
+            "[Event \"3\"]",
+            "[FEN \"invalid\"]",
+            "",
+            "1. e4 *",
+            "",
+            "[Event \"4\"]",
+            "",
+            "1. d4 1/2-1/2",
+            "");
+
+    @Test
+    public void testReadGames() throws IOException {
+        try (final PgnReader reader = new PgnReader(new StringReader(PGN))) {
+            final PgnGame first = reader.readGame().orElseThrow();
+
+            assertThat(first.getTags(), is(equalTo(Map.of("Event", "Game \"1\"", "White", "A", "Black", "B", "Result", "1-0"))));
+            assertThat(first.getTags().keySet(), contains("Event", "White", "Black", "Result"));
+            assertThat(getMoves(first), contains("e2e4", "e7e5", "g1f3", "b8c6", "f1b5", "a7a6", "b5a4"));
+            assertThat(first.getResult(), is(equalTo(PgnResult.WHITE_WINS)));
+
+            // ended by the tags of the next game
+            final PgnGame second = reader.readGame().orElseThrow();
+
+            assertThat(second.getTag("Event"), is(equalTo(Optional.of("No result"))));
+            assertThat(getMoves(second), contains("d2d4", "d7d5"));
+            assertThat(second.getResult(), is(equalTo(PgnResult.UNKNOWN)));
+
+            final PgnGame third = reader.readGame().orElseThrow();
+
+            assertThat(third.getTag(PgnGame.FEN_TAG), is(equalTo(Optional.of("4k3/8/8/8/8/8/8/R3K3 b - - 0 30"))));
+            assertThat(getMoves(third), contains("e8d7", "a1a7", "d7c6"));
+            assertThat(third.getResult(), is(equalTo(PgnResult.BLACK_WINS)));
+
+            // without any tags
+            final PgnGame fourth = reader.readGame().orElseThrow();
+
+            assertThat(fourth.getTags().isEmpty(), is(true));
+            assertThat(getMoves(fourth), contains("c2c4", "e7e5", "b1c3"));
+            assertThat(fourth.getResult(), is(equalTo(PgnResult.UNKNOWN)));
+
+            assertThat(reader.readGame(), is(equalTo(Optional.empty())));
+            assertThat(reader.readGame(), is(equalTo(Optional.empty())));
+            assertThat(reader.getGameCount(), is(equalTo(4)));
+            assertThat(reader.getInvalidGameCount(), is(equalTo(0)));
+        }
+    }
+
+    @Test
+    public void testInvalidGames() throws IOException {
+        try (final PgnReader reader = new PgnReader(new StringReader(INVALID_PGN))) {
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, reader::readGame);
+
+            assertThat(exception.getMessage(), containsString("line 1"));
+            assertThat(exception.getMessage(), containsString("Ke3"));
+
+            // a malformed tag, and an invalid FEN tag
+            assertThrows(IllegalArgumentException.class, reader::readGame);
+            assertThrows(IllegalArgumentException.class, reader::readGame);
+
+            final PgnGame game = reader.readGame().orElseThrow();
+
+            assertThat(game.getTag("Event"), is(equalTo(Optional.of("4"))));
+            assertThat(getMoves(game), contains("d2d4"));
+            assertThat(game.getResult(), is(equalTo(PgnResult.DRAW)));
+
+            assertThat(reader.readGame(), is(equalTo(Optional.empty())));
+            assertThat(reader.getGameCount(), is(equalTo(4)));
+            assertThat(reader.getInvalidGameCount(), is(equalTo(3)));
+        }
+    }
+
+    @Test
+    public void testLimits() throws IOException {
+        final char[] longValue = new char[PgnReader.MAX_TAG_LENGTH + 1];
+        final char[] longToken = new char[PgnReader.MAX_TOKEN_LENGTH + 1];
+
+        Arrays.fill(longValue, 'a');
+        Arrays.fill(longToken, 'e');
+
+        final String pgn = "[Event \"" + new String(longValue) + "\"]\n\n1. e4 *\n\n"
+                           + "1. e4 " + new String(longToken) + " e5 *\n\n"
+                           + "[Event \"Valid\"]\n\n1. e4 *\n";
+
+        try (final PgnReader reader = new PgnReader(new StringReader(pgn))) {
+            assertThrows(IllegalArgumentException.class, reader::readGame);
+            assertThrows(IllegalArgumentException.class, reader::readGame);
+            assertThat(reader.readGame().orElseThrow().getTag("Event"), is(equalTo(Optional.of("Valid"))));
+            assertThat(reader.readGame(), is(equalTo(Optional.empty())));
+        }
+    }
+
+    @Test
+    public void testUnterminated() throws IOException {
+        final String pgn = "1. e4 ( e5\n\n[Event \"1\"]\n\n1. d4 *\n\n"
+                           + "1. e4 { a comment\nwith [brackets]\n\n[Event \"2\"]\n\n1. c4 *\n\n"
+                           + "[Event \"3\"]\n\n1. Nf3 (1. e4";
+
+        try (final PgnReader reader = new PgnReader(new StringReader(pgn))) {
+            assertThat(assertThrows(IllegalArgumentException.class, reader::readGame).getMessage(), containsString("variation"));
+            assertThat(getMoves(reader.readGame().orElseThrow()), contains("d2d4"));
+
+            assertThat(assertThrows(IllegalArgumentException.class, reader::readGame).getMessage(), containsString("comment"));
+            assertThat(getMoves(reader.readGame().orElseThrow()), contains("c2c4"));
+
+            // up to the end of the text
+            assertThrows(IllegalArgumentException.class, reader::readGame);
+            assertThat(reader.readGame(), is(equalTo(Optional.empty())));
+            assertThat(reader.getGameCount(), is(equalTo(5)));
+            assertThat(reader.getInvalidGameCount(), is(equalTo(3)));
+        }
+    }
+
+    @Test
+    public void testMaxPliesAndLenient() throws IOException {
+        try (final PgnReader reader = new PgnReader(new StringReader(INVALID_PGN))) {
+            reader.setMaxPlies(3);
+            reader.setLenient(true);
+
+            // the moves before the illegal move, with the result of the game
+            final PgnGame first = reader.readGame().orElseThrow();
+
+            assertThat(getMoves(first), contains("e2e4", "e7e5"));
+            assertThat(first.getResult(), is(equalTo(PgnResult.BLACK_WINS)));
+            assertThat(reader.getInvalidGameCount(), is(equalTo(1)));
+
+            // the other errors still fail the game
+            assertThrows(IllegalArgumentException.class, reader::readGame);
+            assertThrows(IllegalArgumentException.class, reader::readGame);
+            assertThat(getMoves(reader.readGame().orElseThrow()), contains("d2d4"));
+            assertThat(reader.getInvalidGameCount(), is(equalTo(3)));
+        }
+
+        // the moves after the limit are neither resolved nor kept
+        try (final PgnReader reader = new PgnReader(new StringReader("1. e4 e5 2. Ke3 Nc6 0-1\n\n1. d4 *\n"))) {
+            reader.setMaxPlies(2);
+
+            final PgnGame game = reader.readGame().orElseThrow();
+
+            assertThat(getMoves(game), contains("e2e4", "e7e5"));
+            assertThat(game.getResult(), is(equalTo(PgnResult.BLACK_WINS)));
+            assertThat(getMoves(reader.readGame().orElseThrow()), contains("d2d4"));
+            assertThat(reader.getInvalidGameCount(), is(equalTo(0)));
+            assertThrows(IllegalArgumentException.class, () -> reader.setMaxPlies(0));
+        }
+    }
+
+    @Test
+    public void testStreamAndChannel() throws IOException {
+        final byte[] pgn = "[White \"R\u00e9ti\"]\n\n1. Nf3 *\n".getBytes(StandardCharsets.UTF_8);
+
+        try (final PgnReader reader = new PgnReader(new ByteArrayInputStream(pgn), StandardCharsets.UTF_8)) {
+            assertThat(reader.readGame().orElseThrow().getTag("White"), is(equalTo(Optional.of("R\u00e9ti"))));
+        }
+
+        try (final PgnReader reader = new PgnReader(Channels.newChannel(new ByteArrayInputStream(pgn)), StandardCharsets.UTF_8)) {
+            final PgnGame game = reader.readGame().orElseThrow();
+
+            assertThat(game.getTag("White"), is(equalTo(Optional.of("R\u00e9ti"))));
+            assertThat(getMoves(game), contains("g1f3"));
+        }
+
+        // malformed input is replaced
+        try (final PgnReader reader = new PgnReader(new ByteArrayInputStream(new byte[]{'[', 'A', ' ', '"', (byte) 0xFF, '"', ']', ' ', '*'}),
+                                                    StandardCharsets.UTF_8)) {
+            assertThat(reader.readGame().orElseThrow().getTag("A"), is(equalTo(Optional.of("\uFFFD"))));
+        }
+    }
+
+    @Test
+    public void testManyGames() throws IOException {
+        final String game  = "[Event \"Game\"]\n\n1. e4 e5 2. Nf3 Nc6 3. Bb5 {the Ruy Lopez} a6 1/2-1/2\n\n";
+        final int    count = 20_000;
+
+        // the games are generated as they are read, never held in memory as a whole
+        final Reader text = new Reader() {
+            private int position;
+
+            @Override
+            public int read(final char[] buffer, final int offset, final int length) {
+                if (this.position == game.length() * count) {
+                    return -1;
+                }
+
+                final int start = this.position % game.length();
+                final int read  = Math.min(length, game.length() - start);
+
+                game.getChars(start, start + read, buffer, offset);
+                this.position += read;
+                return read;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        try (final PgnReader reader = new PgnReader(text)) {
+            int games = 0;
+
+            for (Optional<PgnGame> next = reader.readGame(); next.isPresent(); next = reader.readGame()) {
+                assertThat(next.get().getMoveCount(), is(equalTo(6)));
+                games++;
+            }
+
+            assertThat(games, is(equalTo(count)));
+        }
+    }
+
+    private static List<String> getMoves(final PgnGame game) {
+        return Arrays.stream(game.getMoves()).mapToObj(Moves::toNotation).collect(Collectors.toList());
+    }
+}
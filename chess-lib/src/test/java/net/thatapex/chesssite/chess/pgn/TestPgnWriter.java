@@ -0,0 +1,159 @@
+package net.thatapex.chesssite.chess.pgn;
+
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.move.AlgebraicNotation;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestPgnWriter {
+
+    @Test
+    public void testWriteGame() throws IOException {
+        final Map<String, String> tags = new LinkedHashMap<>();
+
+        tags.put("Opening", "Italian Game");
+        tags.put("White", "A \"B\" C");
+        tags.put("Black", "D");
+        tags.put("Result", "1-0");
+
+        final PgnGame game = new PgnGame(tags, getMoves(null, "e4 e5 Nf3 Nc6 Bc4 Bc5"), PgnResult.DRAW);
+
+        assertThat(write(game), is(equalTo(String.join("\n",
+                "[Event \"?\"]",
+                "[Site \"?\"]",
+                "[Date \"????.??.??\"]",
+                "[Round \"?\"]",
+                "[White \"A \\\"B\\\" C\"]",
+                "[Black \"D\"]",
+                "[Result \"1/2-1/2\"]",
+                "[Opening \"Italian Game\"]",
+                "",
+                "1. e4 e5 2. Nf3 Nc6 3. Bc4 Bc5 1/2-1/2",
+                "",
+                ""))));
+    }
+
+    @Test
+    public void testWriteSetup() throws IOException {
+        final String  fen  = "4k3/8/8/8/8/8/8/R3K3 b - - 0 30";
+        final PgnGame game = new PgnGame(Map.of(PgnGame.FEN_TAG, fen), getMoves(fen, "Kd7 Ra7+ Kc6 Kd2"), PgnResult.UNKNOWN);
+
+        assertThat(write(game), is(equalTo(String.join("\n",
+                "[Event \"?\"]",
+                "[Site \"?\"]",
+                "[Date \"????.??.??\"]",
+                "[Round \"?\"]",
+                "[White \"?\"]",
+                "[Black \"?\"]",
+                "[Result \"*\"]",
+                "[SetUp \"1\"]",
+                "[FEN \"" + fen + "\"]",
+                "",
+                "30... Kd7 31. Ra7+ Kc6 32. Kd2 *",
+                "",
+                ""))));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final String moves = "e4 e5 Nf3 Nc6 Bb5 a6 Ba4 Nf6 O-O Be7 Re1 b5 Bb3 d6 c3 O-O h3 Nb8 d4 Nbd7 c4 c6 cxb5 axb5 Nc3 Bb7 Bg5 b4 Nb1 h6 "
+                             + "Bh4 c5 dxe5 Nxe4 Bxe7 Qxe7 exd6 Qf6 Nbd2 Nxd6 Nc4 Nxc4 Bxc4 Nb6 Ne5 Rae8 Bxf7+ Rxf7 Nxf7 Rxe1+ Qxe1 Kxf7";
+        final PgnGame game  = new PgnGame(Map.of("Event", "Long"), getMoves(null, moves), PgnResult.BLACK_WINS);
+        final String  text  = write(game);
+
+        for (final String line : text.split("\n")) {
+            assertThat(line, line.length(), is(lessThanOrEqualTo(PgnWriter.MAX_LINE_LENGTH)));
+        }
+
+        try (final PgnReader reader = new PgnReader(new StringReader(text + text))) {
+            for (int i = 0; i < 2; i++) {
+                final PgnGame read = reader.readGame().orElseThrow();
+
+                assertThat(read.getMoves(), is(equalTo(game.getMoves())));
+                assertThat(read.getResult(), is(equalTo(PgnResult.BLACK_WINS)));
+                assertThat(read.getTag("Event"), is(equalTo(Optional.of("Long"))));
+                assertThat(write(read), is(equalTo(text)));
+            }
+
+            assertThat(reader.readGame(), is(equalTo(Optional.empty())));
+        }
+    }
+
+    @Test
+    public void testStreamAndChannel() throws IOException {
+        final PgnGame               game   = new PgnGame(Map.of("White", "R\u00e9ti"), getMoves(null, "Nf3"), PgnResult.UNKNOWN);
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        final ByteArrayOutputStream bytes  = new ByteArrayOutputStream();
+
+        try (final PgnWriter writer = new PgnWriter(stream, StandardCharsets.UTF_8)) {
+            writer.writeGame(game);
+        }
+
+        try (final PgnWriter writer = new PgnWriter(Channels.newChannel(bytes), StandardCharsets.UTF_8)) {
+            writer.writeGame(game);
+        }
+
+        assertThat(new String(stream.toByteArray(), StandardCharsets.UTF_8), is(equalTo(write(game))));
+        assertThat(new String(bytes.toByteArray(), StandardCharsets.UTF_8), is(equalTo(write(game))));
+    }
+
+    @Test
+    public void testIllegalMove() throws IOException {
+        final int[]        moves = getMoves(null, "e4 e5");
+        final PgnGame      game  = new PgnGame(Map.of("Event", "Illegal"), new int[]{moves[0], moves[0]}, PgnResult.UNKNOWN);
+        final StringWriter text  = new StringWriter();
+
+        try (final PgnWriter writer = new PgnWriter(text)) {
+            assertThrows(IllegalArgumentException.class, () -> writer.writeGame(game));
+
+            // nothing of the game is written, and the writer can go on
+            assertThat(text.toString(), is(equalTo("")));
+
+            writer.writeGame(new PgnGame(Map.of(), moves, PgnResult.UNKNOWN));
+        }
+
+        assertThat(text.toString(), is(equalTo(write(new PgnGame(Map.of(), moves, PgnResult.UNKNOWN)))));
+    }
+
+    private static String write(final PgnGame game) throws IOException {
+        final StringWriter text = new StringWriter();
+
+        try (final PgnWriter writer = new PgnWriter(text)) {
+            writer.writeGame(game);
+        }
+
+        return text.toString();
+    }
+
+    private static int[] getMoves(final String fen, final String moves) {
+        final MutableChessBoard board    = ChessBoardImplementation.values()[0].createBoard();
+        final AlgebraicNotation notation = new AlgebraicNotation();
+        final String[]          sans     = moves.split(" ");
+        final int[]             encoded  = new int[sans.length];
+
+        new PgnGame(fen == null ? Map.of() : Map.of(PgnGame.FEN_TAG, fen), new int[0], PgnResult.UNKNOWN).getSetup().setup(board);
+
+        for (int i = 0; i < sans.length; i++) {
+            encoded[i] = notation.parse(board, sans[i]);
+            board.makeMove(encoded[i]);
+        }
+
+        return encoded;
+    }
+}
@@ -1,6 +1,8 @@
 package net.thatapex.chesssite.chess.pieces;
 
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
 import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.move.PotentialMove;
 
 import java.util.Collection;
 import java.util.HashSet;
@@ -29,4 +31,25 @@ public class PieceTestHelper {
 
         assertThat("Too many potential legal moves", moves, is(empty()));
     }
+
+    public static void testLegalMoves(final MutableChessBoard board, final ChessPiece<?> piece, final String initialSquare, final String... expectedMovesNotations) {
+        final var square = ChessSquare.fromChessNotation(initialSquare).orElseThrow();
+        board.setPiece(square, piece);
+
+        final Collection<ChessSquare> expectedMoves = new HashSet<>(expectedMovesNotations.length);
+
+        for (final String expectedMoveNotation : expectedMovesNotations) {
+            expectedMoves.add(ChessSquare.fromChessNotation(expectedMoveNotation).orElseThrow());
+        }
+
+        for (int i = 0; i < ChessSquare.SQUARE_COUNT; i++) {
+            final var target = ChessSquare.ofIndex(i);
+
+            assertThat(
+                    piece.getType() + " move from " + initialSquare + " to " + target + " legality",
+                    piece.isMoveLegal(board, square, new PotentialMove(target, null)),
+                    is(expectedMoves.contains(target))
+            );
+        }
+    }
 }
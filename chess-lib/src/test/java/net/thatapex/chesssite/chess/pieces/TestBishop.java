@@ -1,7 +1,19 @@
 package net.thatapex.chesssite.chess.pieces;
 
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.move.PotentialMove;
+import net.thatapex.chesssite.chess.move.Promotion;
 import net.thatapex.chesssite.chess.pieces.types.Bishop;
+import net.thatapex.chesssite.chess.pieces.types.Knight;
+import net.thatapex.chesssite.chess.pieces.types.Pawn;
+import net.thatapex.chesssite.chess.pieces.types.Rook;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 
 public class TestBishop {
 
@@ -23,4 +35,26 @@ public class TestBishop {
         );
     }
 
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testMoveLegality(final ChessBoardImplementation implementation) {
+        final var board = implementation.createBoard();
+        final var bishop = new Bishop(ChessPieceColor.WHITE);
+
+        // Blocked by own pieces on g6 and c2, can capture on b7 and f3
+        board.setPiece(ChessSquare.fromChessNotation("g6").orElseThrow(), new Pawn(ChessPieceColor.WHITE));
+        board.setPiece(ChessSquare.fromChessNotation("c2").orElseThrow(), new Knight(ChessPieceColor.WHITE));
+        board.setPiece(ChessSquare.fromChessNotation("b7").orElseThrow(), new Pawn(ChessPieceColor.BLACK));
+        board.setPiece(ChessSquare.fromChessNotation("f3").orElseThrow(), new Rook(ChessPieceColor.BLACK));
+
+        PieceTestHelper.testLegalMoves(
+                board, bishop, "e4",
+                "f5", "d5", "c6", "b7", "f3", "d3"
+        );
+
+        // Sliding pieces never promote
+        assertThat(bishop.isMoveLegal(board, ChessSquare.fromChessNotation("e4").orElseThrow(),
+                new PotentialMove(ChessSquare.fromChessNotation("e5").orElseThrow(), new Promotion(ChessPieceType.QUEEN))), is(false));
+    }
 }
@@ -1,9 +1,24 @@
 package net.thatapex.chesssite.chess.pieces;
 
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.move.AttackMap;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import net.thatapex.chesssite.chess.move.Moves;
+import net.thatapex.chesssite.chess.move.PotentialMove;
+import net.thatapex.chesssite.chess.move.Promotion;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+import java.util.Random;
 
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 
 public class TestChessPiece {
@@ -41,4 +56,58 @@ public class TestChessPiece {
             }
         }
     }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testCheckAwareMoveLegality(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board      = implementation.createBoard();
+        final MoveGenerator     generator  = new MoveGenerator();
+        final AttackMap         attackMap  = new AttackMap();
+        final int[]             moves      = new int[MoveGenerator.MAX_MOVES];
+        final Random            random     = new Random(3);
+        final Promotion[]       promotions = {null, new Promotion(ChessPieceType.QUEEN), new Promotion(ChessPieceType.KNIGHT)};
+
+        // every move accepted by the pieces must be one of the generated moves and vice versa
+        for (final String fen : List.of(FenCodec.STARTING_POSITION, "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1")) {
+            FenCodec.decode(fen, board);
+
+            for (int ply = 0; ply < 40; ply++) {
+                final int count = generator.generateLegalMoves(board, moves);
+                attackMap.compute(board, board.getSideToMove());
+
+                for (int from = 0; from < ChessSquare.SQUARE_COUNT; from++) {
+                    final ChessSquare   square = ChessSquare.ofIndex(from);
+                    final ChessPiece<?> piece  = board.asPieceList().get(from);
+
+                    if (piece == null || piece.getColor() != board.getSideToMove()) {
+                        continue;
+                    }
+
+                    for (int to = 0; to < ChessSquare.SQUARE_COUNT; to++) {
+                        for (final Promotion promotion : promotions) {
+                            final PotentialMove move = new PotentialMove(ChessSquare.ofIndex(to), promotion);
+
+                            assertThat("move " + square + " " + move + " legality in " + FenCodec.encode(board),
+                                       piece.isMoveLegal(board, square, move, attackMap), is(Moves.find(moves, count, square, move) != Moves.NONE));
+                        }
+                    }
+                }
+
+                if (count == 0) {
+                    break;
+                }
+
+                board.makeMove(moves[random.nextInt(count)]);
+            }
+        }
+
+        // the attack map must be computed for the color of the moving piece
+        final ChessSquare e2 = ChessSquare.fromChessNotation("e2").orElseThrow();
+        final ChessSquare e4 = ChessSquare.fromChessNotation("e4").orElseThrow();
+
+        FenCodec.decode(FenCodec.STARTING_POSITION, board);
+        attackMap.compute(board, ChessPieceColor.BLACK);
+
+        assertThrows(IllegalArgumentException.class, () -> board.asPieceList().get(e2.index()).isMoveLegal(board, e2, new PotentialMove(e4, null), attackMap));
+    }
 }
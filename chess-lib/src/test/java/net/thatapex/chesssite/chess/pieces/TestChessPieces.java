@@ -0,0 +1,75 @@
+package net.thatapex.chesssite.chess.pieces;
+
+import net.thatapex.chesssite.chess.board.FlyweightChessBoard;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class TestChessPieces {
+
+    @Test
+    public void testCanonicalInstances() {
+        final Set<Integer> codes = new HashSet<>();
+
+        for (final ChessPieceType<?> type : ChessPieceType.values()) {
+            for (final ChessPieceColor color : ChessPieceColor.values()) {
+                final ChessPiece<?> piece = ChessPieces.of(type, color);
+                final int           code  = ChessPieces.getCode(type, color);
+
+                assertThat("piece type does not match", piece.getType(), is(equalTo(type)));
+                assertThat("piece color does not match", piece.getColor(), is(equalTo(color)));
+                assertThat("canonical piece is not shared", ChessPieces.of(type, color), is(sameInstance(piece)));
+                assertThat("code does not round trip", ChessPieces.fromCode(code), is(sameInstance(piece)));
+                assertThat("code is not cached", piece.getCode(), is(equalTo(code)));
+                assertThat("type ordinal is not cached", piece.getTypeOrdinal(), is(equalTo(type.getOrdinal())));
+                assertThat("invalid type ordinal", ChessPieces.getTypeOrdinal(code), is(equalTo(type.getOrdinal())));
+                assertThat("invalid color", ChessPieces.getColor(code), is(equalTo(color)));
+
+                final ChessPiece<?> copy = type.instantiatePiece(color);
+
+                assertThat("copy has a different code", copy.getCode(), is(equalTo(code)));
+                assertThat("copy is not equal", copy, is(equalTo(piece)));
+                assertThat("copy is not canonicalized", ChessPieces.canonicalize(copy), is(sameInstance(piece)));
+
+                codes.add(code);
+            }
+        }
+
+        assertThat("codes are not unique", codes.size(), is(equalTo(ChessPieces.CODE_COUNT - 1)));
+        assertThat("codes are not unique", codes.contains(ChessPieces.NO_PIECE), is(false));
+        assertThat(ChessPieces.fromCode(ChessPieces.NO_PIECE), is(nullValue()));
+        assertThat(ChessPieces.canonicalize(null), is(nullValue()));
+    }
+
+    @Test
+    public void testFlyweightBoard() {
+        final MutableChessBoard board = new FlyweightChessBoard();
+        FenCodec.decode(FenCodec.STARTING_POSITION, board);
+
+        final ChessSquare   square = ChessSquare.fromChessNotation("e1").orElseThrow();
+        final ChessPiece<?> king   = ChessPieces.of(ChessPieceType.KING, ChessPieceColor.WHITE);
+
+        assertThat(board.getPiece(square).orElseThrow(), is(sameInstance(king)));
+        assertThat(board.asPieceList().get(square.index()), is(sameInstance(king)));
+        assertThat(board.getPiece(square, ChessPieceType.KING, ChessPieceColor.WHITE).orElseThrow(), is(sameInstance(king)));
+
+        final MutableChessBoard copy = board.cloneAsMutable();
+
+        assertThat(copy, is(not(sameInstance(board))));
+        assertThat(copy, is(equalTo(board)));
+        assertThat(copy.getPositionKey(), is(equalTo(board.getPositionKey())));
+        assertThat(copy.asPieceList(), is(equalTo(board.asPieceList())));
+    }
+
+}
@@ -1,7 +1,15 @@
 package net.thatapex.chesssite.chess.pieces;
 
+import net.thatapex.chesssite.chess.board.CastlingRights;
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.pieces.types.Bishop;
 import net.thatapex.chesssite.chess.pieces.types.King;
+import net.thatapex.chesssite.chess.pieces.types.Pawn;
+import net.thatapex.chesssite.chess.pieces.types.Rook;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 public class TestKing {
 
@@ -48,4 +56,31 @@ public class TestKing {
                 "d7", "e7", "f7", "d8", "f8"
         );
     }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testMoveLegality(final ChessBoardImplementation implementation) {
+        final var board     = implementation.createBoard();
+        final var whiteKing = new King(ChessPieceColor.WHITE);
+
+        board.setPiece(ChessSquare.fromChessNotation("a1").orElseThrow(), new Rook(ChessPieceColor.WHITE));
+        board.setPiece(ChessSquare.fromChessNotation("h1").orElseThrow(), new Rook(ChessPieceColor.WHITE));
+        board.setPiece(ChessSquare.fromChessNotation("d2").orElseThrow(), new Pawn(ChessPieceColor.WHITE));
+        board.setPiece(ChessSquare.fromChessNotation("f2").orElseThrow(), new Pawn(ChessPieceColor.BLACK));
+
+        // Both castling moves, attacks on the king are not considered
+        PieceTestHelper.testLegalMoves(
+                board, whiteKing, "e1",
+                "d1", "f1", "e2", "f2", "c1", "g1"
+        );
+
+        // Castling requires the rights and all squares between the king and the rook to be empty
+        board.setCastlingRightsFor(ChessPieceColor.WHITE, CastlingRights.of(true, false));
+        board.setPiece(ChessSquare.fromChessNotation("g1").orElseThrow(), new Bishop(ChessPieceColor.WHITE));
+
+        PieceTestHelper.testLegalMoves(
+                board, whiteKing, "e1",
+                "d1", "f1", "e2", "f2"
+        );
+    }
 }
@@ -1,7 +1,12 @@
 package net.thatapex.chesssite.chess.pieces;
 
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
 import net.thatapex.chesssite.chess.pieces.types.Knight;
+import net.thatapex.chesssite.chess.pieces.types.Pawn;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 public class TestKnight {
 
@@ -28,4 +33,20 @@ public class TestKnight {
         );
     }
 
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testMoveLegality(final ChessBoardImplementation implementation) {
+        final var board  = implementation.createBoard();
+        final var knight = new Knight(ChessPieceColor.WHITE);
+
+        // Jumps over the pieces around it, blocked by the own pawn on d6, can capture on f6
+        board.setPiece(ChessSquare.fromChessNotation("e5").orElseThrow(), new Pawn(ChessPieceColor.WHITE));
+        board.setPiece(ChessSquare.fromChessNotation("d6").orElseThrow(), new Pawn(ChessPieceColor.WHITE));
+        board.setPiece(ChessSquare.fromChessNotation("f6").orElseThrow(), new Pawn(ChessPieceColor.BLACK));
+
+        PieceTestHelper.testLegalMoves(
+                board, knight, "e4",
+                "f6", "c5", "g5", "c3", "g3", "d2", "f2"
+        );
+    }
 }
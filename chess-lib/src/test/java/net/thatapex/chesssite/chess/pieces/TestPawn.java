@@ -1,8 +1,18 @@
 package net.thatapex.chesssite.chess.pieces;
 
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.move.PotentialMove;
+import net.thatapex.chesssite.chess.move.Promotion;
 import net.thatapex.chesssite.chess.pieces.types.King;
+import net.thatapex.chesssite.chess.pieces.types.Knight;
 import net.thatapex.chesssite.chess.pieces.types.Pawn;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 
 public class TestPawn {
 
@@ -33,4 +43,52 @@ public class TestPawn {
                 "e6", "d6", "f6", "e5"
         );
     }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testMoveLegality(final ChessBoardImplementation implementation) {
+        final var board     = implementation.createBoard();
+        final var whitePawn = new Pawn(ChessPieceColor.WHITE);
+        final var blackPawn = new Pawn(ChessPieceColor.BLACK);
+
+        // Captures only enemy pieces
+        board.setPiece(ChessSquare.fromChessNotation("d3").orElseThrow(), new Knight(ChessPieceColor.BLACK));
+        board.setPiece(ChessSquare.fromChessNotation("f3").orElseThrow(), new Knight(ChessPieceColor.WHITE));
+
+        PieceTestHelper.testLegalMoves(
+                board, whitePawn, "e2",
+                "e3", "e4", "d3"
+        );
+
+        // A pawn cannot jump over a piece, or capture straight ahead
+        board.setPiece(ChessSquare.fromChessNotation("e3").orElseThrow(), new Knight(ChessPieceColor.BLACK));
+
+        PieceTestHelper.testLegalMoves(
+                board, whitePawn, "e2",
+                "d3"
+        );
+
+        // En passant capture of the pawn that has just moved by two squares
+        board.clearPieces();
+        board.setPiece(ChessSquare.fromChessNotation("d4").orElseThrow(), new Pawn(ChessPieceColor.WHITE));
+        board.setEnPassantSquare(ChessSquare.fromChessNotation("d3").orElseThrow());
+
+        PieceTestHelper.testLegalMoves(
+                board, blackPawn, "e4",
+                "e3", "d3"
+        );
+
+        // A pawn must promote on the last rank, and only there
+        board.clearPieces();
+        board.setPiece(ChessSquare.fromChessNotation("e7").orElseThrow(), whitePawn);
+
+        final var e7 = ChessSquare.fromChessNotation("e7").orElseThrow();
+        final var e8 = ChessSquare.fromChessNotation("e8").orElseThrow();
+        final var e6 = ChessSquare.fromChessNotation("e6").orElseThrow();
+
+        assertThat(whitePawn.isMoveLegal(board, e7, new PotentialMove(e8, null)), is(false));
+        assertThat(whitePawn.isMoveLegal(board, e7, new PotentialMove(e8, new Promotion(ChessPieceType.KNIGHT))), is(true));
+        assertThat(blackPawn.isMoveLegal(board, e7, new PotentialMove(e6, new Promotion(ChessPieceType.QUEEN))), is(false));
+        assertThat(blackPawn.isMoveLegal(board, e7, new PotentialMove(e6, null)), is(true));
+    }
 }
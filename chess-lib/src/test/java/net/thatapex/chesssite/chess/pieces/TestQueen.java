@@ -1,7 +1,19 @@
 package net.thatapex.chesssite.chess.pieces;
 
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.move.PotentialMove;
+import net.thatapex.chesssite.chess.move.Promotion;
+import net.thatapex.chesssite.chess.pieces.types.Knight;
+import net.thatapex.chesssite.chess.pieces.types.Pawn;
 import net.thatapex.chesssite.chess.pieces.types.Queen;
+import net.thatapex.chesssite.chess.pieces.types.Rook;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 
 public class TestQueen {
 
@@ -26,4 +38,27 @@ public class TestQueen {
                 "a1", "b2", "c3", "d4", "e5", "f6", "g7"
         );
     }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testMoveLegality(final ChessBoardImplementation implementation) {
+        final var board = implementation.createBoard();
+        final var queen = new Queen(ChessPieceColor.WHITE);
+
+        // Blocked by own pieces on e6 and g6, can capture on c4 and d3
+        board.setPiece(ChessSquare.fromChessNotation("e6").orElseThrow(), new Pawn(ChessPieceColor.WHITE));
+        board.setPiece(ChessSquare.fromChessNotation("g6").orElseThrow(), new Knight(ChessPieceColor.WHITE));
+        board.setPiece(ChessSquare.fromChessNotation("c4").orElseThrow(), new Pawn(ChessPieceColor.BLACK));
+        board.setPiece(ChessSquare.fromChessNotation("d3").orElseThrow(), new Rook(ChessPieceColor.BLACK));
+
+        PieceTestHelper.testLegalMoves(
+                board, queen, "e4",
+                "e5", "e3", "e2", "e1", "d4", "c4", "f4", "g4", "h4",
+                "f5", "d5", "c6", "b7", "a8", "f3", "g2", "h1", "d3"
+        );
+
+        // Sliding pieces never promote
+        assertThat(queen.isMoveLegal(board, ChessSquare.fromChessNotation("e4").orElseThrow(),
+                new PotentialMove(ChessSquare.fromChessNotation("e5").orElseThrow(), new Promotion(ChessPieceType.QUEEN))), is(false));
+    }
 }
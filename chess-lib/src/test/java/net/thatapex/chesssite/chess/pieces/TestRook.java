@@ -1,8 +1,19 @@
 package net.thatapex.chesssite.chess.pieces;
 
-
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.move.PotentialMove;
+import net.thatapex.chesssite.chess.move.Promotion;
+import net.thatapex.chesssite.chess.pieces.types.Bishop;
+import net.thatapex.chesssite.chess.pieces.types.Knight;
+import net.thatapex.chesssite.chess.pieces.types.Pawn;
 import net.thatapex.chesssite.chess.pieces.types.Rook;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 
 public class TestRook {
 
@@ -31,4 +42,26 @@ public class TestRook {
                 "a8", "b8", "c8", "d8", "e8", "f8", "g8"
         );
     }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testMoveLegality(final ChessBoardImplementation implementation) {
+        final var board = implementation.createBoard();
+        final var rook = new Rook(ChessPieceColor.WHITE);
+
+        // Blocked by own pieces on e6 and c4, can capture on e2 and g4
+        board.setPiece(ChessSquare.fromChessNotation("e6").orElseThrow(), new Pawn(ChessPieceColor.WHITE));
+        board.setPiece(ChessSquare.fromChessNotation("c4").orElseThrow(), new Knight(ChessPieceColor.WHITE));
+        board.setPiece(ChessSquare.fromChessNotation("e2").orElseThrow(), new Pawn(ChessPieceColor.BLACK));
+        board.setPiece(ChessSquare.fromChessNotation("g4").orElseThrow(), new Bishop(ChessPieceColor.BLACK));
+
+        PieceTestHelper.testLegalMoves(
+                board, rook, "e4",
+                "e5", "e3", "e2", "d4", "f4", "g4"
+        );
+
+        // Sliding pieces never promote
+        assertThat(rook.isMoveLegal(board, ChessSquare.fromChessNotation("e4").orElseThrow(),
+                new PotentialMove(ChessSquare.fromChessNotation("e5").orElseThrow(), new Promotion(ChessPieceType.QUEEN))), is(false));
+    }
 }
@@ -0,0 +1,107 @@
+package net.thatapex.chesssite.chess.tablebase;
+
+import net.thatapex.chesssite.chess.board.ChessBoardImplementation;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestMaterial {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"KvK", "KQvK", "KRvKB", "KQPvKR", "KPPvKP", "KNNvK"})
+    public void testParse(final String name) {
+        final Material material = Material.parse(name);
+
+        assertThat(material.toString(), is(equalTo(name)));
+        assertThat(material.getPieceCount(), is(equalTo(name.length() - 1)));
+        assertThat(material.getPositionCount(), is(equalTo(2L << 6 * material.getPieceCount())));
+        assertThat(material.mirror().mirror(), is(equalTo(material)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "KQK", "QKvK", "KvQ", "KQvKvK", "KPQvK", "KKvK", "KXvK", "KQQQvKQ"})
+    public void testParseInvalid(final String name) {
+        assertThrows(IllegalArgumentException.class, () -> Material.parse(name));
+    }
+
+    @Test
+    public void testCanonical() {
+        assertThat(Material.parse("KQvK").isCanonical(), is(true));
+        assertThat(Material.parse("KvKQ").isCanonical(), is(false));
+        assertThat(Material.parse("KvKQ").getCanonical(), is(equalTo(Material.parse("KQvK"))));
+        assertThat(Material.parse("KRvKQ").getCanonical(), is(equalTo(Material.parse("KQvKR"))));
+        assertThat(Material.parse("KNvKB").isCanonical(), is(true));
+        assertThat(Material.parse("KBvKN").isCanonical(), is(false));
+        assertThat(Material.parse("KRvKR").isCanonical(), is(true));
+        assertThat(Material.parse("KRvKR").mirror(), is(equalTo(Material.parse("KRvKR"))));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testOf(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
+
+        FenCodec.decode("8/8/3k4/8/2q5/8/1P6/4K3 w - - 0 1", board);
+        assertThat(Material.of(board).toString(), is(equalTo("KPvKQ")));
+
+        FenCodec.decode("8/8/3k4/8/8/8/8/4K2K w - - 0 1", board);
+        assertThrows(IllegalArgumentException.class, () -> Material.of(board));
+
+        FenCodec.decode(FenCodec.STARTING_POSITION, board);
+        assertThrows(IllegalArgumentException.class, () -> Material.of(board));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testIndex(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board    = implementation.createBoard();
+        final Material          material = Material.parse("KRPvKP");
+
+        FenCodec.decode("8/8/3k4/3p4/8/1P6/8/4K2R b - - 0 1", board);
+
+        final long index = material.getIndex(board);
+
+        // identical pieces are in the order of their squares, so a swap of the squares has the same index
+        FenCodec.decode("8/8/3k4/3p4/8/1P6/8/4K2R w - - 0 1", board);
+        assertThat(material.getIndex(board), is(equalTo(index - material.getPositionCount() / 2)));
+
+        assertThat(material.setup(index, board), is(true));
+        assertThat(FenCodec.encode(board), is(equalTo("8/8/3k4/3p4/8/1P6/8/4K2R b - - 0 1")));
+
+        // the mirrored position, black having the pieces of white, has the same index
+        FenCodec.decode("4k2r/8/1p6/8/3P4/3K4/8/8 w - - 0 1", board);
+        assertThat(material.getIndex(board), is(equalTo(index)));
+
+        FenCodec.decode("8/8/3k4/8/8/8/8/4K2R b - - 0 1", board);
+        assertThrows(IllegalArgumentException.class, () -> material.getIndex(board));
+
+        // both kings on the same square
+        assertThat(Material.parse("KvK").setup(0, board), is(false));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardImplementation.class)
+    public void testSetupRepeatedPieces(final ChessBoardImplementation implementation) {
+        final MutableChessBoard board = implementation.createBoard();
+
+        for (final String fen : new String[]{"8/8/3k4/8/8/1P6/1P6/4K3 w - - 0 1", "8/8/3k4/8/8/8/8/R3K2R b - - 0 1"}) {
+            FenCodec.decode(fen, board);
+
+            final Material material = Material.of(board);
+            final long     index    = material.getIndex(board);
+
+            board.resetState();
+
+            assertThat(material.setup(index, board), is(true));
+            assertThat(material.toString(), FenCodec.encode(board), is(equalTo(fen)));
+        }
+    }
+}
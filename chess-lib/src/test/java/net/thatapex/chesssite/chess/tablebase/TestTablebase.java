@@ -0,0 +1,135 @@
+package net.thatapex.chesssite.chess.tablebase;
+
+import net.thatapex.chesssite.chess.board.FlyweightChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestTablebase {
+    private Path directory;
+
+    @BeforeEach
+    public void createDirectory() throws IOException {
+        this.directory = Files.createTempDirectory("tablebase");
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws IOException {
+        try (final Stream<Path> paths = Files.walk(this.directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testProbe() throws IOException {
+        final TablebaseGenerator generator = new TablebaseGenerator(this.directory);
+
+        // the black queen is mirrored to the white one
+        generator.generate(Material.parse("KvKQ"));
+
+        assertThat(generator.getGeneratedMaterials(), containsInAnyOrder(Material.parse("KvK"), Material.parse("KQvK")));
+
+        try (final Tablebase tablebase = new Tablebase(this.directory, 4)) {
+            assertThat(tablebase.getMaxPieces(), is(equalTo(3)));
+            assertThat(tablebase.getMaterials(), containsInAnyOrder(Material.parse("KvK"), Material.parse("KQvK")));
+
+            assertProbe(tablebase, "8/8/8/4k3/8/8/8/4K2Q w - - 0 1", Optional.of(Wdl.WIN));
+            assertProbe(tablebase, "8/8/8/4k3/8/8/8/4K2Q b - - 0 1", Optional.of(Wdl.LOSS));
+            // checkmate
+            assertProbe(tablebase, "k7/1Q6/1K6/8/8/8/8/8 b - - 0 1", Optional.of(Wdl.LOSS));
+            // stalemate, and the queen lost
+            assertProbe(tablebase, "k7/2Q5/1K6/8/8/8/8/8 b - - 0 1", Optional.of(Wdl.DRAW));
+            assertProbe(tablebase, "k7/1Q6/8/8/8/8/8/7K b - - 0 1", Optional.of(Wdl.DRAW));
+            // the mirrored material
+            assertProbe(tablebase, "4k2q/8/8/8/4K3/8/8/8 b - - 0 1", Optional.of(Wdl.WIN));
+            assertProbe(tablebase, "4k2q/8/8/8/4K3/8/8/8 w - - 0 1", Optional.of(Wdl.LOSS));
+            assertProbe(tablebase, "8/8/8/4k3/8/8/8/4K3 w - - 0 1", Optional.of(Wdl.DRAW));
+
+            // the side not to move in check, castling rights, a missing material and too many pieces
+            assertProbe(tablebase, "4k3/8/8/8/8/8/8/4Q1K1 b - - 0 1", Optional.of(Wdl.LOSS));
+            assertProbe(tablebase, "4k3/8/8/8/8/8/8/4Q1K1 w - - 0 1", Optional.empty());
+            assertProbe(tablebase, "4k3/8/8/8/8/8/8/4K2R w K - 0 1", Optional.empty());
+            assertProbe(tablebase, "4k3/8/8/8/8/8/8/4K1R1 w - - 0 1", Optional.empty());
+            assertProbe(tablebase, "4k3/8/8/8/8/8/8/4KQQ1 w - - 0 1", Optional.empty());
+
+            assertThat(tablebase.getPageProbes(), is(equalTo(10L)));
+            assertThat(tablebase.getPageHits(), is(greaterThan(0L)));
+        }
+    }
+
+    @Test
+    public void testMissingDirectory() throws IOException {
+        try (final Tablebase tablebase = new Tablebase(this.directory.resolve("missing"), 1)) {
+            assertThat(tablebase.getMaxPieces(), is(equalTo(0)));
+            assertThat(tablebase.getMaterials().isEmpty(), is(true));
+            assertProbe(tablebase, "8/8/8/4k3/8/8/8/4K3 w - - 0 1", Optional.empty());
+        }
+    }
+
+    @Test
+    public void testInvalidFile() throws IOException {
+        new TablebaseGenerator(this.directory).generate(Material.parse("KvK"));
+
+        try (final FileChannel channel = FileChannel.open(this.directory.resolve("KvK.cstb"), StandardOpenOption.WRITE)) {
+            channel.truncate(TablebaseFormat.HEADER_SIZE);
+        }
+
+        assertThrows(IOException.class, () -> new Tablebase(this.directory, 1));
+    }
+
+    @Test
+    public void testPageCache() throws IOException {
+        final Path   path  = this.directory.resolve("pages");
+        final int[]  reads = {0, 1, PageCache.PAGE_SIZE, 2, 2 * PageCache.PAGE_SIZE + 5, 3, PageCache.PAGE_SIZE + 7};
+        final byte[] data  = new byte[2 * PageCache.PAGE_SIZE + 10];
+
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+
+        Files.write(path, data);
+
+        final PageCache cache = new PageCache(2);
+
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (final int position : reads) {
+                assertThat(cache.read(0, channel, position), is(equalTo(data[position])));
+            }
+        }
+
+        // the third page evicts the second one, which is mapped again, while the first one stays mapped as it was read recently
+        assertThat(cache.getProbes(), is(equalTo((long) reads.length)));
+        assertThat(cache.getHits(), is(equalTo(3L)));
+        assertThat(cache.getSize(), is(equalTo(2)));
+
+        cache.clear();
+
+        assertThat(cache.getProbes(), is(equalTo(0L)));
+        assertThat(cache.getSize(), is(equalTo(0)));
+        assertThrows(IllegalArgumentException.class, () -> new PageCache(0));
+    }
+
+    private static void assertProbe(final Tablebase tablebase, final String fen, final Optional<Wdl> expected) {
+        final FlyweightChessBoard board = new FlyweightChessBoard();
+
+        FenCodec.decode(fen, board);
+        assertThat(fen, tablebase.probeWdl(board), is(equalTo(expected)));
+    }
+}
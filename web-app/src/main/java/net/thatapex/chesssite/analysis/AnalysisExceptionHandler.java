@@ -0,0 +1,21 @@
+package net.thatapex.chesssite.analysis;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Answers the invalid requests of the analysis endpoints, like a malformed FEN or an illegal move, with the message of the error.
+ */
+@ControllerAdvice(basePackageClasses = AnalysisExceptionHandler.class)
+public class AnalysisExceptionHandler {
+
+    @ResponseBody
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(IllegalArgumentException.class)
+    public String handleInvalidRequest(final IllegalArgumentException exception) {
+        return exception.getMessage();
+    }
+}
@@ -0,0 +1,24 @@
+package net.thatapex.chesssite.analysis;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Endpoint of the {@link BlunderChecker}, warning players about moves that lose material.
+ */
+@Controller
+public class BlunderCheckController {
+    private final BlunderChecker checker;
+
+    public BlunderCheckController(final BlunderChecker checker) {
+        this.checker = checker;
+    }
+
+    @ResponseBody
+    @RequestMapping("/analysis/blunder-check")
+    public BlunderCheckResult check(@RequestParam("fen") final String fen, @RequestParam("move") final String move) {
+        return this.checker.check(fen, move);
+    }
+}
@@ -0,0 +1,66 @@
+package net.thatapex.chesssite.analysis;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Result of a {@link BlunderChecker} check of a single move.
+ */
+public final class BlunderCheckResult {
+    private final String  move;
+    private final boolean blunder;
+    private final int     materialBalance;
+    private final String  refutation;
+
+    public BlunderCheckResult(final String move, final boolean blunder, final int materialBalance, final String refutation) {
+        this.move            = move;
+        this.blunder         = blunder;
+        this.materialBalance = materialBalance;
+        this.refutation      = refutation;
+    }
+
+    /**
+     * Returns the checked move.
+     *
+     * @return the move in long algebraic notation
+     */
+    public String getMove() {
+        return this.move;
+    }
+
+    /**
+     * Returns whether the move loses material.
+     *
+     * @return {@code true} if the move is a blunder, {@code false} if otherwise
+     */
+    public boolean isBlunder() {
+        return this.blunder;
+    }
+
+    /**
+     * Returns the material won by the move minus the material the opponent wins with the best capture in reply.
+     *
+     * @return the balance in symbolical material values, negative if the move loses material
+     */
+    public int getMaterialBalance() {
+        return this.materialBalance;
+    }
+
+    /**
+     * Returns the best capture of the opponent in reply to the move.
+     *
+     * @return the capture in long algebraic notation, or {@code null} if the opponent wins no material
+     */
+    public String getRefutation() {
+        return this.refutation;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("move", this.move)
+                .append("blunder", this.blunder)
+                .append("materialBalance", this.materialBalance)
+                .append("refutation", this.refutation)
+                .toString();
+    }
+}
@@ -0,0 +1,92 @@
+package net.thatapex.chesssite.analysis;
+
+import net.thatapex.chesssite.chess.board.BitboardChessBoard;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.board.coordinate.ChessSquare;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import net.thatapex.chesssite.chess.move.Moves;
+import net.thatapex.chesssite.chess.move.StaticExchange;
+import net.thatapex.chesssite.chess.pieces.ChessPieceType;
+import org.springframework.stereotype.Service;
+
+/**
+ * Warns about moves that lose material: a move is a blunder if the opponent can then win more material by a capture,
+ * judged by its static exchange evaluation, than the move itself captured.
+ * <p>
+ * Only material on the board is considered, threats of mate or of two pieces at once are not, so the checker can answer every move instantly
+ * without running the engine.
+ */
+@Service
+public class BlunderChecker {
+
+    /**
+     * The least material a move must lose to be a blunder, in symbolical material values.
+     */
+    public static final int BLUNDER_THRESHOLD = 2;
+
+    /**
+     * Checks a move.
+     *
+     * @param fen  the position before the move, in the Forsyth-Edwards notation
+     * @param move the move in long algebraic notation, for example 'e2e4' or 'e7e8q'
+     * @return the result of the check
+     * @throws IllegalArgumentException if the position is invalid or the move is not legal in it
+     */
+    public BlunderCheckResult check(final String fen, final String move) {
+        final MutableChessBoard board     = new BitboardChessBoard();
+        final MoveGenerator     generator = new MoveGenerator();
+        final StaticExchange    exchanges = new StaticExchange();
+        final int[]             moves     = new int[MoveGenerator.MAX_MOVES];
+
+        FenCodec.decode(fen, board);
+
+        final int checked = findMove(moves, generator.generateLegalMoves(board, moves), move);
+        final int gained  = getCapturedValue(board, checked);
+
+        board.makeMove(checked);
+
+        final int count      = generator.generateLegalCaptures(board, moves, 0);
+        int       threat     = 0;
+        int       refutation = Moves.NONE;
+
+        for (int i = 0; i < count; i++) {
+            final int exchange = exchanges.evaluate(board, moves[i]);
+
+            if (exchange > threat) {
+                threat     = exchange;
+                refutation = moves[i];
+            }
+        }
+
+        final int balance = gained - threat;
+
+        return new BlunderCheckResult(move, balance <= -BLUNDER_THRESHOLD, balance, refutation == Moves.NONE ? null : Moves.toNotation(refutation));
+    }
+
+    private static int findMove(final int[] moves, final int count, final String notation) {
+        for (int i = 0; i < count; i++) {
+            if (Moves.toNotation(moves[i]).equals(notation)) {
+                return moves[i];
+            }
+        }
+
+        throw new IllegalArgumentException("Illegal move: " + notation);
+    }
+
+    private static int getCapturedValue(final MutableChessBoard board, final int move) {
+        int value = 0;
+
+        if (Moves.hasFlag(move, Moves.FLAG_EN_PASSANT)) {
+            value = ChessPieceType.PAWN.getSymbolicalMaterialValue();
+        } else if (Moves.isCapture(move)) {
+            value = board.getPiece(ChessSquare.ofIndex(Moves.getToIndex(move))).map(piece -> piece.getType().getSymbolicalMaterialValue()).orElse(0);
+        }
+
+        if (Moves.isPromotion(move)) {
+            value += Moves.getPromotionType(move).getSymbolicalMaterialValue() - ChessPieceType.PAWN.getSymbolicalMaterialValue();
+        }
+
+        return value;
+    }
+}
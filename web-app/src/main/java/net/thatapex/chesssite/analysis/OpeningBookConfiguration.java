@@ -0,0 +1,26 @@
+package net.thatapex.chesssite.analysis;
+
+import net.thatapex.chesssite.chess.book.OpeningBook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Opens the opening book file set by the {@code chesssite.book.path} property at startup, see {@link OpeningBookController}.
+ * Without the file the book is empty.
+ */
+@Configuration
+public class OpeningBookConfiguration {
+
+    @Bean
+    public OpeningBook openingBook(@Value("${chesssite.book.path:book.csob}") final String path) throws IOException {
+        final Path file = Paths.get(path);
+
+        return Files.exists(file) ? OpeningBook.open(file) : OpeningBook.empty();
+    }
+}
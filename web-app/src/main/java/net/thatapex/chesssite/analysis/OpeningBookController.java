@@ -0,0 +1,42 @@
+package net.thatapex.chesssite.analysis;
+
+import net.thatapex.chesssite.chess.board.BitboardChessBoard;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.book.BookEntry;
+import net.thatapex.chesssite.chess.book.OpeningBook;
+import net.thatapex.chesssite.chess.move.Moves;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Endpoint of the {@link OpeningBook}, telling the moves played in a position of the opening without running the engine.
+ */
+@Controller
+public class OpeningBookController {
+    private final OpeningBook book;
+
+    public OpeningBookController(final OpeningBook book) {
+        this.book = book;
+    }
+
+    @ResponseBody
+    @RequestMapping("/analysis/book")
+    public OpeningBookResult lookup(@RequestParam("fen") final String fen) {
+        final MutableChessBoard    board = new BitboardChessBoard();
+        final Map<String, Integer> moves = new LinkedHashMap<>();
+
+        FenCodec.decode(fen, board);
+
+        for (final BookEntry entry : this.book.getEntries(board)) {
+            moves.put(Moves.toNotation(entry.getMove()), entry.getWeight());
+        }
+
+        return new OpeningBookResult(moves);
+    }
+}
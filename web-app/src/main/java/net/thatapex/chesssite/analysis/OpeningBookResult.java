@@ -0,0 +1,41 @@
+package net.thatapex.chesssite.analysis;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Map;
+
+/**
+ * Result of an {@link OpeningBookController} lookup of a position.
+ */
+public final class OpeningBookResult {
+    private final Map<String, Integer> moves;
+
+    public OpeningBookResult(final Map<String, Integer> moves) {
+        this.moves = moves;
+    }
+
+    /**
+     * Returns whether the position was found in the book.
+     *
+     * @return {@code true} if the book has moves for the position, {@code false} if otherwise
+     */
+    public boolean isFound() {
+        return !this.moves.isEmpty();
+    }
+
+    /**
+     * Returns the book moves of the position, the highest weight first.
+     *
+     * @return the weights by the moves in long algebraic notation
+     */
+    public Map<String, Integer> getMoves() {
+        return this.moves;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("moves", this.moves)
+                .toString();
+    }
+}
@@ -0,0 +1,23 @@
+package net.thatapex.chesssite.analysis;
+
+import net.thatapex.chesssite.chess.tablebase.Tablebase;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Opens the endgame tablebases of the directory set by the {@code chesssite.tablebase.directory} property, see {@link TablebaseProber}.
+ * The number of memory-mapped pages of 64 kilobytes is bounded by the {@code chesssite.tablebase.cache-pages} property.
+ */
+@Configuration
+public class TablebaseConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public Tablebase tablebase(@Value("${chesssite.tablebase.directory:tablebases}") final String directory,
+                               @Value("${chesssite.tablebase.cache-pages:256}") final int cachePages) throws IOException {
+        return new Tablebase(Paths.get(directory), cachePages);
+    }
+}
@@ -0,0 +1,24 @@
+package net.thatapex.chesssite.analysis;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Endpoint of the {@link TablebaseProber}, telling the outcome of endgames with few pieces.
+ */
+@Controller
+public class TablebaseController {
+    private final TablebaseProber prober;
+
+    public TablebaseController(final TablebaseProber prober) {
+        this.prober = prober;
+    }
+
+    @ResponseBody
+    @RequestMapping("/analysis/tablebase")
+    public TablebaseResult probe(@RequestParam("fen") final String fen) {
+        return this.prober.probe(fen);
+    }
+}
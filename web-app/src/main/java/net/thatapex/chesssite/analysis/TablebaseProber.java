@@ -0,0 +1,68 @@
+package net.thatapex.chesssite.analysis;
+
+import net.thatapex.chesssite.chess.board.BitboardChessBoard;
+import net.thatapex.chesssite.chess.board.MutableChessBoard;
+import net.thatapex.chesssite.chess.board.codec.FenCodec;
+import net.thatapex.chesssite.chess.move.MoveGenerator;
+import net.thatapex.chesssite.chess.move.Moves;
+import net.thatapex.chesssite.chess.tablebase.Tablebase;
+import net.thatapex.chesssite.chess.tablebase.Wdl;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Looks positions with few pieces up in the endgame tablebases, telling the outcome of the position and of every legal move with perfect play.
+ * <p>
+ * Positions with more pieces than the largest available tablebase are not looked up at all.
+ */
+@Service
+public class TablebaseProber {
+    private final Tablebase tablebase;
+
+    public TablebaseProber(final Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Looks a position up.
+     *
+     * @param fen the position, in the Forsyth-Edwards notation
+     * @return the result, not found if the position has too many pieces or is not in the tablebases
+     * @throws IllegalArgumentException if the position is invalid
+     */
+    public TablebaseResult probe(final String fen) {
+        final MutableChessBoard board = new BitboardChessBoard();
+
+        FenCodec.decode(fen, board);
+
+        if (Long.bitCount(board.getOccupiedMask()) > this.tablebase.getMaxPieces()) {
+            return new TablebaseResult(null, Map.of());
+        }
+
+        final Optional<Wdl> wdl = this.tablebase.probeWdl(board);
+
+        if (wdl.isEmpty()) {
+            return new TablebaseResult(null, Map.of());
+        }
+
+        final int[]            moves    = new int[MoveGenerator.MAX_MOVES];
+        final int              count    = new MoveGenerator().generateLegalMoves(board, moves);
+        final Map<String, Wdl> moveWdls = new LinkedHashMap<>();
+
+        for (int i = 0; i < count; i++) {
+            final String move = Moves.toNotation(moves[i]);
+
+            board.makeMove(moves[i]);
+
+            // the outcome after the move is the one of the opponent, a pawn push may leave an en passant square the tablebases do not know
+            this.tablebase.probeWdl(board).ifPresent(child -> moveWdls.put(move, child.getOpposite()));
+
+            board.unmakeMove();
+        }
+
+        return new TablebaseResult(wdl.get(), moveWdls);
+    }
+}
@@ -0,0 +1,54 @@
+package net.thatapex.chesssite.analysis;
+
+import net.thatapex.chesssite.chess.tablebase.Wdl;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Map;
+
+/**
+ * Result of a {@link TablebaseProber} lookup of a position.
+ */
+public final class TablebaseResult {
+    private final Wdl              wdl;
+    private final Map<String, Wdl> moves;
+
+    public TablebaseResult(final Wdl wdl, final Map<String, Wdl> moves) {
+        this.wdl   = wdl;
+        this.moves = moves;
+    }
+
+    /**
+     * Returns whether the position was found in the tablebases.
+     *
+     * @return {@code true} if the position was found, {@code false} if otherwise
+     */
+    public boolean isFound() {
+        return this.wdl != null;
+    }
+
+    /**
+     * Returns the outcome of the position for the side to move.
+     *
+     * @return the outcome, or {@code null} if the position was not found
+     */
+    public Wdl getWdl() {
+        return this.wdl;
+    }
+
+    /**
+     * Returns the outcome of every legal move found in the tablebases, for the side making the move.
+     *
+     * @return the outcomes by the moves in long algebraic notation
+     */
+    public Map<String, Wdl> getMoves() {
+        return this.moves;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("wdl", this.wdl)
+                .append("moves", this.moves)
+                .toString();
+    }
+}